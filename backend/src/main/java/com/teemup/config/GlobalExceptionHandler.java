@@ -113,7 +113,8 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(ConversationException.class)
     public ResponseEntity<Map<String, Object>> handleConversation(ConversationException ex) {
-        return buildErrorResponse(ex.getMessage(), ex.getCode(), HttpStatus.BAD_REQUEST);
+        HttpStatus status = "SEND_TIMEOUT".equals(ex.getCode()) ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.BAD_REQUEST;
+        return buildErrorResponse(ex.getMessage(), ex.getCode(), status);
     }
 
     @ExceptionHandler(NotificationException.class)
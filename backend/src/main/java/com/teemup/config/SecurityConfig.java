@@ -47,6 +47,8 @@ public class SecurityConfig {
                                 "/api/verification/**",
                                 "/api/events/public/**",
                                 "/api/events/nearby",
+                                "/api/events/nearby/**",
+                                "/api/events/search",
                                 "/ws/**",
                                 "/socket.io/**",
                                 "/api-docs/**",
@@ -1,18 +1,23 @@
 package com.teemup.controller;
 
+import com.teemup.dto.common.CursorPageResponse;
 import com.teemup.dto.messaging.ConversationRequest;
 import com.teemup.dto.messaging.ConversationResponse;
 import com.teemup.dto.messaging.EditMessageRequest;
 import com.teemup.dto.messaging.MessageRequest;
 import com.teemup.dto.messaging.MessageResponse;
+import com.teemup.dto.messaging.SyncResponse;
 import com.teemup.security.UserDetailsImpl;
 import com.teemup.service.MessagingService;
 import com.teemup.websocket.SocketIOService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -30,6 +35,7 @@ import java.util.UUID;
 @RestController
 @RequestMapping("/api/messaging")
 @RequiredArgsConstructor
+@Validated
 public class MessagingController {
 
     private final MessagingService messagingService;
@@ -85,6 +91,36 @@ public class MessagingController {
         return ResponseEntity.ok(messagingService.getMessages(conversationId, userDetails.getId(), page, size));
     }
 
+    /**
+     * Message history by sequence number, newest first (selected when {@code limit} is given).
+     *
+     * @param before Only messages with a lower sequence number (omit for the latest messages);
+     *               pass the previous page's {@code nextCursor} to go further back
+     * @param limit  Page size (max 100)
+     */
+    @GetMapping(value = "/conversations/{conversationId}/messages", params = "limit")
+    public ResponseEntity<CursorPageResponse<MessageResponse>> getMessageHistory(
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @PathVariable UUID conversationId,
+            @RequestParam(required = false) Long before,
+            @RequestParam @Min(value = 1, message = "Limite minimum: 1") @Max(value = 100, message = "Limite maximum: 100") int limit
+    ) {
+        return ResponseEntity.ok(messagingService.getMessageHistory(conversationId, userDetails.getId(), before, limit));
+    }
+
+    /**
+     * Changes since the previous sync, for clients coming back online.
+     *
+     * @param since Token of the previous sync; omit to get a starting token
+     */
+    @GetMapping("/sync")
+    public ResponseEntity<SyncResponse> sync(
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @RequestParam(required = false) String since
+    ) {
+        return ResponseEntity.ok(messagingService.sync(userDetails.getId(), since));
+    }
+
     @PutMapping("/messages/{messageId}")
     public ResponseEntity<MessageResponse> editMessage(
             @AuthenticationPrincipal UserDetailsImpl userDetails,
@@ -1,5 +1,6 @@
 package com.teemup.controller;
 
+import com.teemup.dto.common.CursorPageResponse;
 import com.teemup.dto.event.CreateSportEventRequest;
 import com.teemup.dto.event.UpdateSportEventRequest;
 import com.teemup.dto.event.SportEventResponse;
@@ -10,8 +11,11 @@ import com.teemup.service.SportEventService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -28,6 +32,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import org.springframework.data.domain.Page;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -62,6 +67,22 @@ public class SportEventController {
         return ResponseEntity.ok(sportEventService.getUserUpcomingEvents(userDetails.getId(), userDetails.getId()));
     }
 
+    /**
+     * Agenda of the current user: one entry per occurrence (recurring series expanded)
+     * of the events they organize or participate in, between {@code from} and {@code to}.
+     * Defaults to the next 30 days; the window may not exceed 92 days.
+     */
+    @GetMapping("/me/agenda")
+    public ResponseEntity<List<SportEventResponse>> getMyAgenda(
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        LocalDate start = from != null ? from : LocalDate.now();
+        LocalDate end = to != null ? to : start.plusDays(30);
+        return ResponseEntity.ok(sportEventService.getUserAgenda(userDetails.getId(), start, end));
+    }
+
     @GetMapping("/me/participating")
     public ResponseEntity<List<SportEventResponse>> getParticipatingEvents(
             @AuthenticationPrincipal UserDetailsImpl userDetails
@@ -181,6 +202,27 @@ public class SportEventController {
         return ResponseEntity.ok(sportEventService.getPublicEventsBySport(sport, page, size));
     }
 
+    /**
+     * Cursor-paginated public feed for infinite scroll (no total count).
+     *
+     * @param cursor Opaque cursor returned by the previous page (omit for the first page)
+     * @param limit  Page size (default 20, max 50)
+     */
+    @GetMapping("/public/feed")
+    public ResponseEntity<CursorPageResponse<SportEventResponse>> getPublicEventsFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(value = 1, message = "Limite minimum: 1") @Max(value = 50, message = "Limite maximum: 50") int limit) {
+        return ResponseEntity.ok(sportEventService.getPublicEventsFeed(cursor, limit));
+    }
+
+    @GetMapping("/public/sport/{sport}/feed")
+    public ResponseEntity<CursorPageResponse<SportEventResponse>> getPublicEventsBySportFeed(
+            @PathVariable String sport,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(value = 1, message = "Limite minimum: 1") @Max(value = 50, message = "Limite maximum: 50") int limit) {
+        return ResponseEntity.ok(sportEventService.getPublicEventsBySportFeed(sport, cursor, limit));
+    }
+
     /**
      * Get a public event by ID (no authentication required)
      */
@@ -196,6 +238,7 @@ public class SportEventController {
      * @param longitude     User's longitude (required)
      * @param maxDistance   Maximum distance in kilometers (default 50km, min 1km, max 500km)
      * @param sport         Optional sport filter
+     * @param limit         Optional maximum number of results (closest first)
      * @return List of events within the specified distance, sorted by proximity
      */
     @GetMapping("/nearby")
@@ -203,8 +246,55 @@ public class SportEventController {
             @RequestParam @NotNull(message = "La latitude est requise") Double latitude,
             @RequestParam @NotNull(message = "La longitude est requise") Double longitude,
             @RequestParam(defaultValue = "50") @Min(value = 1, message = "Distance minimum: 1km") @Max(value = 500, message = "Distance maximum: 500km") Double maxDistance,
-            @RequestParam(required = false) String sport
+            @RequestParam(required = false) String sport,
+            @RequestParam(required = false) @Min(value = 1, message = "Limite minimum: 1") @Max(value = 100, message = "Limite maximum: 100") Integer limit
+    ) {
+        return ResponseEntity.ok(sportEventService.searchEventsNearby(latitude, longitude, maxDistance, sport, limit));
+    }
+
+    /**
+     * Cursor-paginated variant of {@code /nearby}, ordered by distance.
+     *
+     * @param cursor Opaque cursor returned by the previous page (omit for the first page)
+     * @param limit  Page size (default 20, max 50)
+     */
+    @GetMapping("/nearby/feed")
+    public ResponseEntity<CursorPageResponse<SportEventResponse>> searchNearbyEventsFeed(
+            @RequestParam @NotNull(message = "La latitude est requise") Double latitude,
+            @RequestParam @NotNull(message = "La longitude est requise") Double longitude,
+            @RequestParam(defaultValue = "50") @Min(value = 1, message = "Distance minimum: 1km") @Max(value = 500, message = "Distance maximum: 500km") Double maxDistance,
+            @RequestParam(required = false) String sport,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(value = 1, message = "Limite minimum: 1") @Max(value = 50, message = "Limite maximum: 50") int limit
+    ) {
+        return ResponseEntity.ok(sportEventService.searchEventsNearbyPage(latitude, longitude, maxDistance, sport, cursor, limit));
+    }
+
+    /**
+     * Keyword search over public events, best match first.
+     *
+     * @param q            Search text (title, sport, location, description)
+     * @param sport        Optional sport filter
+     * @param from         Optional first date (default today)
+     * @param to           Optional last date
+     * @param minLatitude  Optional bounding box (the four bounds go together)
+     * @param cursor       Opaque cursor returned by the previous page (omit for the first page)
+     * @param limit        Page size (default 20, max 50)
+     */
+    @GetMapping("/search")
+    public ResponseEntity<CursorPageResponse<SportEventResponse>> searchEvents(
+            @RequestParam @NotBlank(message = "Le texte de recherche est requis") @Size(max = 100, message = "Recherche trop longue (100 caractères maximum)") String q,
+            @RequestParam(required = false) String sport,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Double minLatitude,
+            @RequestParam(required = false) Double maxLatitude,
+            @RequestParam(required = false) Double minLongitude,
+            @RequestParam(required = false) Double maxLongitude,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(value = 1, message = "Limite minimum: 1") @Max(value = 50, message = "Limite maximum: 50") int limit
     ) {
-        return ResponseEntity.ok(sportEventService.searchEventsNearby(latitude, longitude, maxDistance, sport));
+        return ResponseEntity.ok(sportEventService.searchEvents(
+                q, sport, from, to, minLatitude, maxLatitude, minLongitude, maxLongitude, cursor, limit));
     }
 }
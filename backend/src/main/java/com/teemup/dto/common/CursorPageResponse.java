@@ -0,0 +1,21 @@
+package com.teemup.dto.common;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated list. {@code nextCursor} is opaque to clients
+ * and is null when there is nothing left to fetch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
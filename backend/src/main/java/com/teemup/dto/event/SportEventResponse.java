@@ -1,6 +1,7 @@
 package com.teemup.dto.event;
 
 import com.teemup.dto.user.PublicUserResponse;
+import com.teemup.dto.user.UserSummaryResponse;
 import com.teemup.entity.EventParticipant;
 import com.teemup.entity.SportEvent;
 import lombok.AllArgsConstructor;
@@ -15,7 +16,7 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class SportEventResponse {
@@ -29,6 +30,8 @@ public class SportEventResponse {
     private Double latitude;
     private Double longitude;
     private LocalDate date;
+    // Date of the occurrence this response describes (next upcoming one for recurring series)
+    private LocalDate occurrenceDate;
     private LocalTime startTime;
     private LocalTime endTime;
     private String recurrence;
@@ -47,6 +50,7 @@ public class SportEventResponse {
     private List<ParticipantInfo> participants;
     private Integer participantCount;
     private Boolean isParticipating; // Is the requesting user participating?
+    private String participationStatus; // Requester's status (PENDING, CONFIRMED, WAITLISTED...), null if none
 
     @Data
     @Builder
@@ -70,6 +74,7 @@ public class SportEventResponse {
                 .latitude(event.getLatitude())
                 .longitude(event.getLongitude())
                 .date(event.getDate())
+                .occurrenceDate(event.getNextOccurrenceDate() != null ? event.getNextOccurrenceDate() : event.getDate())
                 .startTime(event.getStartTime())
                 .endTime(event.getEndTime())
                 .recurrence(event.getRecurrence().name())
@@ -81,6 +86,47 @@ public class SportEventResponse {
                 .build();
     }
 
+    /**
+     * List view built from a projected row: organizer summary without sports,
+     * participant count taken from the event's seat counter.
+     */
+    public static SportEventResponse fromSummary(SportEventSummary summary) {
+        PublicUserResponse organizer = PublicUserResponse.builder()
+                .id(summary.organizerId())
+                .firstName(summary.organizerFirstName())
+                .lastName(summary.organizerLastName())
+                .fullName(summary.organizerFirstName() + " " + summary.organizerLastName())
+                .profilePicture(summary.organizerProfilePicture())
+                .coverImage(summary.organizerCoverImage())
+                .bio(summary.organizerBio())
+                .isOnline(summary.organizerIsOnline())
+                .isVerified(summary.organizerIsVerified())
+                .ageRange(UserSummaryResponse.toAgeRange(summary.organizerVerifiedAge()))
+                .build();
+
+        return SportEventResponse.builder()
+                .id(summary.id())
+                .userId(summary.organizerId())
+                .sport(summary.sport())
+                .title(summary.title())
+                .description(summary.description())
+                .location(summary.location())
+                .latitude(summary.latitude())
+                .longitude(summary.longitude())
+                .date(summary.date())
+                .occurrenceDate(summary.nextOccurrenceDate() != null ? summary.nextOccurrenceDate() : summary.date())
+                .startTime(summary.startTime())
+                .endTime(summary.endTime())
+                .recurrence(summary.recurrence().name())
+                .isPublic(summary.isPublic())
+                .maxParticipants(summary.maxParticipants())
+                .isPaid(summary.isPaid())
+                .price(summary.price())
+                .organizer(organizer)
+                .participantCount(summary.confirmedCount())
+                .build();
+    }
+
     public static SportEventResponse fromEntityWithDetails(SportEvent event, UUID requesterId) {
         List<EventParticipant> confirmedParticipants = event.getParticipants().stream()
                 .filter(p -> p.getStatus() == EventParticipant.ParticipantStatus.CONFIRMED)
@@ -90,6 +136,12 @@ public class SportEventResponse {
                 .anyMatch(p -> p.getUser().getId().equals(requesterId)
                         && p.getStatus() == EventParticipant.ParticipantStatus.CONFIRMED);
 
+        String participationStatus = event.getParticipants().stream()
+                .filter(p -> p.getUser().getId().equals(requesterId))
+                .map(p -> p.getStatus().name())
+                .findFirst()
+                .orElse(null);
+
         List<ParticipantInfo> participantInfos = confirmedParticipants.stream()
                 .map(p -> ParticipantInfo.builder()
                         .userId(p.getUser().getId())
@@ -109,6 +161,7 @@ public class SportEventResponse {
                 .latitude(event.getLatitude())
                 .longitude(event.getLongitude())
                 .date(event.getDate())
+                .occurrenceDate(event.getNextOccurrenceDate() != null ? event.getNextOccurrenceDate() : event.getDate())
                 .startTime(event.getStartTime())
                 .endTime(event.getEndTime())
                 .recurrence(event.getRecurrence().name())
@@ -120,11 +173,12 @@ public class SportEventResponse {
                 .participants(participantInfos)
                 .participantCount(confirmedParticipants.size())
                 .isParticipating(isParticipating)
+                .participationStatus(participationStatus)
                 .build();
     }
 
-    public static SportEventResponse fromEntityWithDistance(SportEvent event, Double distanceKm) {
-        SportEventResponse response = fromEntity(event);
+    public static SportEventResponse fromSummaryWithDistance(SportEventSummary summary, Double distanceKm) {
+        SportEventResponse response = fromSummary(summary);
         response.setDistanceKm(distanceKm);
         return response;
     }
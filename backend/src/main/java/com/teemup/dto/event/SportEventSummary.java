@@ -0,0 +1,43 @@
+package com.teemup.dto.event;
+
+import com.teemup.entity.SportEvent;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * Flat, read-only row behind event list views.
+ *
+ * Filled by JPQL constructor expressions joining the organizer, so a list is read in a single
+ * query without managed entities or lazy loading. The organizer's sports are not part of the row.
+ */
+public record SportEventSummary(
+        UUID id,
+        String sport,
+        String title,
+        String description,
+        String location,
+        Double latitude,
+        Double longitude,
+        LocalDate date,
+        LocalDate nextOccurrenceDate,
+        LocalTime startTime,
+        LocalTime endTime,
+        SportEvent.RecurrenceType recurrence,
+        Boolean isPublic,
+        Integer maxParticipants,
+        Boolean isPaid,
+        Double price,
+        Integer confirmedCount,
+        UUID organizerId,
+        String organizerFirstName,
+        String organizerLastName,
+        String organizerProfilePicture,
+        String organizerCoverImage,
+        String organizerBio,
+        Boolean organizerIsOnline,
+        Boolean organizerIsVerified,
+        Integer organizerVerifiedAge
+) {
+}
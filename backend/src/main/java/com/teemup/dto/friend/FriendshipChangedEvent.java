@@ -0,0 +1,10 @@
+package com.teemup.dto.friend;
+
+import java.util.UUID;
+
+/**
+ * Published when two users become friends or stop being friends, so that the presence
+ * fan-out follows once the surrounding transaction has committed.
+ */
+public record FriendshipChangedEvent(UUID userId, UUID friendId, boolean friends) {
+}
@@ -1,6 +1,7 @@
 package com.teemup.dto.messaging;
 
 import com.teemup.dto.user.UserSummaryResponse;
+import com.teemup.entity.Conversation;
 import com.teemup.entity.Message;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -21,6 +22,7 @@ public class MessageResponse {
     private String content;
     private UserSummaryResponse sender;
     private UUID conversationId;
+    private Long seq;
     private String type;
     private Set<UUID> readBy;
     private Boolean isEdited;
@@ -28,14 +30,43 @@ public class MessageResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    /**
+     * Response for a message only its sender has read (e.g. just sent).
+     */
     public static MessageResponse fromEntity(Message message) {
+        return fromEntity(message, Set.of(message.getSender().getId()));
+    }
+
+    /**
+     * Last message of a conversation from the preview cached on the conversation (content may be truncated).
+     */
+    public static MessageResponse fromConversationPreview(Conversation conversation, Set<UUID> readBy) {
+        return MessageResponse.builder()
+                .id(conversation.getLastMessageId())
+                .content(conversation.getLastMessagePreview())
+                .sender(conversation.getLastMessageSender() != null
+                        ? UserSummaryResponse.fromEntity(conversation.getLastMessageSender())
+                        : null)
+                .conversationId(conversation.getId())
+                .seq(conversation.getLastMessageSeq())
+                .readBy(readBy)
+                .isDeleted(false)
+                .createdAt(conversation.getLastMessageAt())
+                .build();
+    }
+
+    /**
+     * @param readBy Participants whose read watermark covers the message
+     */
+    public static MessageResponse fromEntity(Message message, Set<UUID> readBy) {
         return MessageResponse.builder()
                 .id(message.getId())
                 .content(message.getContent())
                 .sender(UserSummaryResponse.fromEntity(message.getSender()))
                 .conversationId(message.getConversation().getId())
+                .seq(message.getSeq())
                 .type(message.getType().name())
-                .readBy(message.getReadBy())
+                .readBy(readBy)
                 .isEdited(message.getIsEdited())
                 .isDeleted(message.getIsDeleted())
                 .createdAt(message.getCreatedAt())
@@ -0,0 +1,22 @@
+package com.teemup.dto.messaging;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Read watermark of a participant: every message up to {@code lastReadSeq} is read.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReadStateResponse {
+
+    private UUID conversationId;
+    private UUID userId;
+    private Long lastReadSeq;
+}
@@ -0,0 +1,34 @@
+package com.teemup.dto.messaging;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Messaging changes since a sync token. Applying them is idempotent: a change may be returned
+ * by two consecutive syncs, never by none.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncResponse {
+
+    /**
+     * Opaque token to pass as {@code since} on the next sync.
+     */
+    private String token;
+
+    /**
+     * No usable delta (first sync or too many changes): reload the conversations and open message
+     * lists, then sync from {@code token}.
+     */
+    private boolean fullResync;
+
+    private List<ConversationResponse> conversations;
+    private List<MessageResponse> messages;
+    private List<ReadStateResponse> readStates;
+}
@@ -0,0 +1,10 @@
+package com.teemup.dto.notification;
+
+import java.util.UUID;
+
+/**
+ * Published when a notification is stored, so it can be pushed to the recipient
+ * once the surrounding transaction has committed.
+ */
+public record NotificationCreatedEvent(UUID recipientId, NotificationResponse notification) {
+}
@@ -14,7 +14,7 @@ import java.util.UUID;
  * Used when viewing other users' profiles.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class PublicUserResponse {
@@ -33,18 +33,6 @@ public class PublicUserResponse {
     private String ageRange;
 
     public static PublicUserResponse fromEntity(User user) {
-        String ageRange = null;
-        if (user.getVerifiedAge() != null) {
-            int age = user.getVerifiedAge();
-            if (age < 20) ageRange = "18-19";
-            else if (age < 25) ageRange = "20-24";
-            else if (age < 30) ageRange = "25-29";
-            else if (age < 35) ageRange = "30-34";
-            else if (age < 40) ageRange = "35-39";
-            else if (age < 50) ageRange = "40-49";
-            else ageRange = "50+";
-        }
-
         return PublicUserResponse.builder()
                 .id(user.getId())
                 .firstName(user.getFirstName())
@@ -56,7 +44,7 @@ public class PublicUserResponse {
                 .sports(user.getSports())
                 .isOnline(user.getIsOnline())
                 .isVerified(user.getIsVerified())
-                .ageRange(ageRange)
+                .ageRange(UserSummaryResponse.toAgeRange(user.getVerifiedAge()))
                 .build();
     }
 }
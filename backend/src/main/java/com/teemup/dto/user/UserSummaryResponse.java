@@ -42,7 +42,10 @@ public class UserSummaryResponse {
                 .build();
     }
 
-    private static String toAgeRange(Integer age) {
+    /**
+     * Age range shown in place of the exact verified age, or null if the age is not verified.
+     */
+    public static String toAgeRange(Integer age) {
         if (age == null) {
             return null;
         }
@@ -73,6 +73,30 @@ public class Conversation {
     @Column
     private LocalDateTime lastMessageAt;
 
+    /**
+     * Sequence number of the latest message sent. Only ever incremented in the database
+     * (see MessageBatchWriter), never written from the entity.
+     */
+    @Column(name = "message_seq", nullable = false, updatable = false)
+    @Builder.Default
+    private Long messageSeq = 0L;
+
+    /**
+     * Latest non-deleted message, with a cached preview and sender so the inbox does not read messages.
+     */
+    @Column(name = "last_message_id")
+    private UUID lastMessageId;
+
+    @Column(name = "last_message_seq")
+    private Long lastMessageSeq;
+
+    @Column(name = "last_message_preview")
+    private String lastMessagePreview;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "last_message_sender_id")
+    private User lastMessageSender;
+
     @Column(name = "private_participant_key")
     private String privateParticipantKey;
 
@@ -83,6 +107,12 @@ public class Conversation {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
+    /**
+     * Transaction that last wrote the conversation, stamped by a database trigger for delta sync.
+     */
+    @Column(name = "change_txid", insertable = false, updatable = false)
+    private Long changeTxid;
+
     public enum ConversationType {
         PRIVATE, GROUP
     }
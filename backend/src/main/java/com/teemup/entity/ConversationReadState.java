@@ -0,0 +1,81 @@
+package com.teemup.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read watermark of one participant in one conversation: every message up to sequence number
+ * {@code lastReadSeq} (sent at {@code lastReadAt}) is read by that participant, everything after it is unread.
+ * {@code unreadCount} is the number of those unread messages, maintained on send, delete and read.
+ */
+@Entity
+@Table(name = "conversation_read_states", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"conversation_id", "user_id"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConversationReadState {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "conversation_id", nullable = false)
+    private Conversation conversation;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "last_read_message_id")
+    private UUID lastReadMessageId;
+
+    @Column(name = "last_read_seq", nullable = false)
+    @Builder.Default
+    private Long lastReadSeq = 0L;
+
+    @Column(name = "last_read_at", nullable = false)
+    private LocalDateTime lastReadAt;
+
+    @Column(name = "unread_count", nullable = false)
+    @Builder.Default
+    private Integer unreadCount = 0;
+
+    /**
+     * Transaction that last wrote the read state, stamped by a database trigger for delta sync.
+     */
+    @Column(name = "change_txid", insertable = false, updatable = false)
+    private Long changeTxid;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ConversationReadState other)) return false;
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
@@ -58,6 +58,7 @@ public class EventParticipant {
         PENDING,    // Waiting for approval (for private events)
         CONFIRMED,  // Confirmed participant
         DECLINED,   // Declined by organizer
-        CANCELLED   // User cancelled participation
+        CANCELLED,  // User cancelled participation
+        WAITLISTED  // Event was full: queued, promoted in joinedAt order when a seat frees up
     }
 }
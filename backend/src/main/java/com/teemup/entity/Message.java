@@ -1,8 +1,6 @@
 package com.teemup.entity;
 
-import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
-import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -22,8 +20,6 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
-import java.util.HashSet;
-import java.util.Set;
 import java.util.UUID;
 
 @Entity
@@ -50,17 +46,17 @@ public class Message {
     @JoinColumn(name = "conversation_id", nullable = false)
     private Conversation conversation;
 
+    /**
+     * Position in the conversation (1, 2, 3...), allocated from {@link Conversation#getMessageSeq()} at insert.
+     */
+    @Column(nullable = false, updatable = false)
+    private Long seq;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     @Builder.Default
     private MessageType type = MessageType.TEXT;
 
-    @ElementCollection
-    @CollectionTable(name = "message_read_by", joinColumns = @JoinColumn(name = "message_id"))
-    @Column(name = "user_id")
-    @Builder.Default
-    private Set<UUID> readBy = new HashSet<>();
-
     @Column(nullable = false)
     @Builder.Default
     private Boolean isEdited = false;
@@ -76,18 +72,16 @@ public class Message {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
+    /**
+     * Transaction that last wrote the message, stamped by a database trigger for delta sync.
+     */
+    @Column(name = "change_txid", insertable = false, updatable = false)
+    private Long changeTxid;
+
     public enum MessageType {
         TEXT, IMAGE, FILE, SYSTEM
     }
 
-    public void markAsRead(UUID userId) {
-        readBy.add(userId);
-    }
-
-    public boolean isReadBy(UUID userId) {
-        return readBy.contains(userId);
-    }
-
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
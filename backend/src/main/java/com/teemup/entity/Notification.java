@@ -70,7 +70,8 @@ public class Notification {
         GROUP_INVITATION,
         FOLLOW,
         SYSTEM,
-        EVENT_PARTICIPANT_JOINED
+        EVENT_PARTICIPANT_JOINED,
+        EVENT_WAITLIST_PROMOTED
     }
 
     @Override
@@ -12,12 +12,14 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -67,6 +69,10 @@ public class SportEvent {
     @Column(nullable = false)
     private LocalDate date;
 
+    // First occurrence on or after today (equals date for one-time events), rolled forward daily
+    @Column(name = "next_occurrence_date", nullable = false)
+    private LocalDate nextOccurrenceDate;
+
     @Column(nullable = false)
     private LocalTime startTime;
 
@@ -105,6 +111,12 @@ public class SportEvent {
     @Column
     private Integer maxParticipants;
 
+    // Number of CONFIRMED participants, only ever changed by SportEventRepository.claimSeat/releaseSeat
+    @Column(name = "confirmed_count", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer confirmedCount = 0;
+
     public enum RecurrenceType {
         NONE,           // One-time event
         DAILY,          // Every day
@@ -113,6 +125,13 @@ public class SportEvent {
         MONTHLY         // Every month on same date
     }
 
+    @PrePersist
+    void initNextOccurrenceDate() {
+        if (nextOccurrenceDate == null) {
+            nextOccurrenceDate = date;
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
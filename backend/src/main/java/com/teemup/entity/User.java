@@ -22,6 +22,7 @@ import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -77,6 +78,10 @@ public class User {
     @Column
     private String refreshToken;
 
+    // Access tokens issued before this instant are revoked (logout); stored as TIMESTAMPTZ
+    @Column
+    private Instant tokensValidAfter;
+
     @Column(nullable = false)
     @Builder.Default
     private Boolean isActive = true;
@@ -46,6 +46,10 @@ public class ConversationException extends RuntimeException {
         );
     }
 
+    public static ConversationException sendTimedOut() {
+        return new ConversationException("L'envoi du message a pris trop de temps, réessayez", "SEND_TIMEOUT");
+    }
+
     public static ConversationException creationFailed() {
         return new ConversationException("Impossible de créer la conversation", "CREATION_FAILED");
     }
@@ -0,0 +1,151 @@
+package com.teemup.repository;
+
+import com.teemup.entity.ConversationReadState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ConversationReadStateRepository extends JpaRepository<ConversationReadState, UUID> {
+
+    /**
+     * Moves the participant's watermark to the latest message of the conversation, in a single
+     * upsert. The watermark never moves backwards; nothing happens in an empty conversation.
+     *
+     * The unread counter loses only the messages the watermark passed over: a message sent
+     * concurrently, past the watermark this statement saw, stays counted.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO conversation_read_states
+                (conversation_id, user_id, last_read_message_id, last_read_seq, last_read_at)
+            SELECT m.conversation_id, :userId, m.id, m.seq, m.created_at
+            FROM messages m
+            WHERE m.conversation_id = :conversationId
+            ORDER BY m.seq DESC
+            LIMIT 1
+            ON CONFLICT (conversation_id, user_id) DO UPDATE
+            SET last_read_message_id = CASE
+                    WHEN conversation_read_states.last_read_seq < EXCLUDED.last_read_seq
+                    THEN EXCLUDED.last_read_message_id
+                    ELSE conversation_read_states.last_read_message_id
+                END,
+                last_read_at = CASE
+                    WHEN conversation_read_states.last_read_seq < EXCLUDED.last_read_seq
+                    THEN EXCLUDED.last_read_at
+                    ELSE conversation_read_states.last_read_at
+                END,
+                last_read_seq = GREATEST(conversation_read_states.last_read_seq, EXCLUDED.last_read_seq),
+                unread_count = GREATEST(0, conversation_read_states.unread_count - (
+                    SELECT count(*)
+                    FROM messages passed
+                    WHERE passed.conversation_id = EXCLUDED.conversation_id
+                      AND passed.seq > conversation_read_states.last_read_seq
+                      AND passed.seq <= EXCLUDED.last_read_seq
+                      AND passed.sender_id <> EXCLUDED.user_id
+                      AND passed.is_deleted = false))
+            """, nativeQuery = true)
+    int markConversationAsRead(@Param("conversationId") UUID conversationId, @Param("userId") UUID userId);
+
+    /**
+     * New messages are unread for every participant but their sender.
+     */
+    @Modifying
+    @Query("""
+            UPDATE ConversationReadState r
+            SET r.unreadCount = r.unreadCount + :count
+            WHERE r.conversation.id = :conversationId
+              AND r.user.id <> :senderId
+            """)
+    int incrementUnreadCounts(
+            @Param("conversationId") UUID conversationId,
+            @Param("senderId") UUID senderId,
+            @Param("count") int count
+    );
+
+    /**
+     * A deleted message no longer counts for the participants who had not read it yet.
+     */
+    @Modifying
+    @Query("""
+            UPDATE ConversationReadState r
+            SET r.unreadCount = r.unreadCount - 1
+            WHERE r.conversation.id = :conversationId
+              AND r.user.id <> :senderId
+              AND r.lastReadSeq < :seq
+              AND r.unreadCount > 0
+            """)
+    int decrementUnreadCounts(
+            @Param("conversationId") UUID conversationId,
+            @Param("senderId") UUID senderId,
+            @Param("seq") long seq
+    );
+
+    /**
+     * Inbox of a user: their read state in each conversation, with the conversation, its
+     * participants and the sender of its last message, most recent activity first.
+     */
+    @Query("""
+            SELECT r FROM ConversationReadState r
+            JOIN FETCH r.conversation c
+            JOIN FETCH c.participants
+            LEFT JOIN FETCH c.lastMessageSender
+            WHERE r.user.id = :userId
+            ORDER BY c.lastMessageAt DESC NULLS LAST
+            """)
+    List<ConversationReadState> findInboxByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Inbox entries of a user that changed since {@code since}: new activity in the conversation
+     * or a change of their own read state (counter, watermark).
+     */
+    @Query("""
+            SELECT r FROM ConversationReadState r
+            JOIN FETCH r.conversation c
+            JOIN FETCH c.participants
+            LEFT JOIN FETCH c.lastMessageSender
+            WHERE r.user.id = :userId
+              AND (r.changeTxid >= :since OR c.changeTxid >= :since)
+            ORDER BY c.lastMessageAt DESC NULLS LAST
+            """)
+    List<ConversationReadState> findChangedInboxByUserId(@Param("userId") UUID userId, @Param("since") long since);
+
+    Optional<ConversationReadState> findByConversationIdAndUserId(UUID conversationId, UUID userId);
+
+    @Query("""
+            SELECT r.conversation.id AS conversationId, r.user.id AS userId, r.lastReadSeq AS lastReadSeq
+            FROM ConversationReadState r
+            WHERE r.conversation.id IN :conversationIds
+            """)
+    List<ReadWatermark> findWatermarks(@Param("conversationIds") Collection<UUID> conversationIds);
+
+    /**
+     * Watermarks that moved since {@code since} in the conversations of a user, theirs included.
+     */
+    @Query("""
+            SELECT r.conversation.id AS conversationId, r.user.id AS userId, r.lastReadSeq AS lastReadSeq
+            FROM ConversationReadState r
+            WHERE r.changeTxid >= :since
+              AND r.conversation.id IN (
+                  SELECT mine.conversation.id FROM ConversationReadState mine WHERE mine.user.id = :userId)
+            """)
+    List<ReadWatermark> findChangedWatermarks(@Param("userId") UUID userId, @Param("since") long since);
+
+    /**
+     * Where a participant stopped reading a conversation.
+     */
+    interface ReadWatermark {
+        UUID getConversationId();
+
+        UUID getUserId();
+
+        Long getLastReadSeq();
+    }
+}
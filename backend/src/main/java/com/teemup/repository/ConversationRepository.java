@@ -1,11 +1,14 @@
 package com.teemup.repository;
 
 import com.teemup.entity.Conversation;
+import com.teemup.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,16 +16,70 @@ import java.util.UUID;
 @Repository
 public interface ConversationRepository extends JpaRepository<Conversation, UUID> {
 
-    @Query("SELECT DISTINCT c FROM Conversation c JOIN FETCH c.participants WHERE c.id IN " +
-           "(SELECT c2.id FROM Conversation c2 JOIN c2.participants p WHERE p.id = :userId) " +
-           "ORDER BY c.lastMessageAt DESC NULLS LAST")
-    List<Conversation> findByParticipantId(@Param("userId") UUID userId);
-
     @Query("SELECT c FROM Conversation c WHERE c.type = 'PRIVATE' AND " +
            "EXISTS (SELECT 1 FROM c.participants p1 WHERE p1.id = :user1Id) AND " +
            "EXISTS (SELECT 1 FROM c.participants p2 WHERE p2.id = :user2Id)")
     Optional<Conversation> findPrivateConversation(@Param("user1Id") UUID user1Id, @Param("user2Id") UUID user2Id);
 
-    @Query("SELECT c FROM Conversation c JOIN FETCH c.participants WHERE c.id = :conversationId")
+    @Query("SELECT c FROM Conversation c JOIN FETCH c.participants LEFT JOIN FETCH c.lastMessageSender " +
+           "WHERE c.id = :conversationId")
     Optional<Conversation> findByIdWithParticipants(@Param("conversationId") UUID conversationId);
+
+    @Query("SELECT p.id FROM Conversation c JOIN c.participants p WHERE c.id = :conversationId")
+    List<UUID> findParticipantIds(@Param("conversationId") UUID conversationId);
+
+    /**
+     * Refreshes the cached preview if {@code messageId} is still the last message.
+     */
+    @Modifying
+    @Query("""
+            UPDATE Conversation c
+            SET c.lastMessagePreview = :preview
+            WHERE c.id = :conversationId
+              AND c.lastMessageId = :messageId
+            """)
+    int updateLastMessagePreview(
+            @Param("conversationId") UUID conversationId,
+            @Param("messageId") UUID messageId,
+            @Param("preview") String preview
+    );
+
+    /**
+     * Moves the pointer from a deleted last message back to {@code previousMessageId}.
+     */
+    @Modifying
+    @Query("""
+            UPDATE Conversation c
+            SET c.lastMessageId = :previousMessageId,
+                c.lastMessageSeq = :seq,
+                c.lastMessagePreview = :preview,
+                c.lastMessageSender = :sender,
+                c.lastMessageAt = :sentAt
+            WHERE c.id = :conversationId
+              AND c.lastMessageId = :deletedMessageId
+            """)
+    int replaceLastMessage(
+            @Param("conversationId") UUID conversationId,
+            @Param("deletedMessageId") UUID deletedMessageId,
+            @Param("previousMessageId") UUID previousMessageId,
+            @Param("seq") long seq,
+            @Param("preview") String preview,
+            @Param("sender") User sender,
+            @Param("sentAt") LocalDateTime sentAt
+    );
+
+    /**
+     * Clears the pointer when the deleted last message was the only one left.
+     */
+    @Modifying
+    @Query("""
+            UPDATE Conversation c
+            SET c.lastMessageId = null,
+                c.lastMessageSeq = null,
+                c.lastMessagePreview = null,
+                c.lastMessageSender = null
+            WHERE c.id = :conversationId
+              AND c.lastMessageId = :deletedMessageId
+            """)
+    int clearLastMessage(@Param("conversationId") UUID conversationId, @Param("deletedMessageId") UUID deletedMessageId);
 }
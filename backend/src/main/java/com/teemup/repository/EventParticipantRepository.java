@@ -1,8 +1,13 @@
 package com.teemup.repository;
 
 import com.teemup.entity.EventParticipant;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -32,5 +37,19 @@ public interface EventParticipantRepository extends JpaRepository<EventParticipa
     @Query("SELECT ep FROM EventParticipant ep WHERE ep.event.id = :eventId AND ep.status = 'PENDING'")
     List<EventParticipant> findPendingByEventId(@Param("eventId") UUID eventId);
 
+    /**
+     * Head of an event's waitlist, locked. Rows already locked by a concurrent promotion
+     * are skipped (SKIP LOCKED) so two freed seats promote two different participants.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            SELECT ep FROM EventParticipant ep
+            WHERE ep.event.id = :eventId
+              AND ep.status = 'WAITLISTED'
+            ORDER BY ep.joinedAt ASC, ep.id ASC
+            """)
+    List<EventParticipant> findWaitlistHead(@Param("eventId") UUID eventId, Pageable pageable);
+
     void deleteByEventIdAndUserId(UUID eventId, UUID userId);
 }
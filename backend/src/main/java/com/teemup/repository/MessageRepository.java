@@ -4,43 +4,65 @@ import com.teemup.entity.Message;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, UUID> {
 
     /**
-     * Fetch last message for multiple conversations in a single query.
-     * Returns the most recent non-deleted message per conversation.
+     * Latest non-deleted message of a conversation, used to move the last-message pointer back on delete.
      */
-    @Query("SELECT m FROM Message m WHERE m.isDeleted = false AND m.createdAt = " +
-           "(SELECT MAX(m2.createdAt) FROM Message m2 WHERE m2.conversation.id = m.conversation.id AND m2.isDeleted = false) " +
-           "AND m.conversation.id IN :conversationIds")
-    List<Message> findLastMessagesByConversationIds(@Param("conversationIds") List<UUID> conversationIds);
+    Optional<Message> findFirstByConversationIdAndIsDeletedFalseOrderBySeqDesc(UUID conversationId);
 
     @Query("SELECT m FROM Message m WHERE m.conversation.id = :conversationId AND m.isDeleted = false ORDER BY m.createdAt DESC")
     Page<Message> findByConversationId(@Param("conversationId") UUID conversationId, Pageable pageable);
 
-    @Query("SELECT COUNT(m) FROM Message m WHERE m.conversation.id = :conversationId AND :userId NOT MEMBER OF m.readBy AND m.sender.id != :userId AND m.isDeleted = false")
-    Long countUnreadMessages(@Param("conversationId") UUID conversationId, @Param("userId") UUID userId);
+    /**
+     * Messages strictly before {@code beforeSeq}, newest first, on the (conversation_id, seq) index.
+     * Deleted messages are kept as tombstones so that sequence numbers stay contiguous for clients.
+     */
+    @Query("""
+            SELECT m FROM Message m
+            JOIN FETCH m.sender
+            WHERE m.conversation.id = :conversationId
+              AND m.seq < :beforeSeq
+            ORDER BY m.seq DESC
+            """)
+    List<Message> findHistoryBefore(
+            @Param("conversationId") UUID conversationId,
+            @Param("beforeSeq") long beforeSeq,
+            Pageable pageable
+    );
+
+    /**
+     * Messages sent, edited or deleted since {@code since} in the conversations of a participant,
+     * by conversation then sequence number. Deleted messages come back as tombstones.
+     */
+    @Query("""
+            SELECT m FROM Message m
+            JOIN FETCH m.sender
+            WHERE m.changeTxid >= :since
+              AND m.conversation.id IN (
+                  SELECT r.conversation.id FROM ConversationReadState r WHERE r.user.id = :userId)
+            ORDER BY m.conversation.id, m.seq
+            """)
+    List<Message> findChangedForParticipant(
+            @Param("userId") UUID userId,
+            @Param("since") long since,
+            Pageable pageable
+    );
 
     /**
-     * Batch insert read receipts for all unread messages in a conversation.
-     * Uses native SQL to perform a single INSERT...SELECT instead of loading entities.
+     * Sync position: the oldest transaction still running. Whatever is not visible yet was written
+     * by a transaction at or after it, and is returned again by a sync from this position.
      */
-    @Modifying
-    @Query(value = "INSERT INTO message_read_by (message_id, user_id) " +
-           "SELECT m.id, :userId FROM messages m " +
-           "WHERE m.conversation_id = :conversationId " +
-           "AND m.sender_id != :userId " +
-           "AND m.is_deleted = false " +
-           "AND NOT EXISTS (SELECT 1 FROM message_read_by mrb WHERE mrb.message_id = m.id AND mrb.user_id = :userId)",
+    @Query(value = "SELECT CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) AS bigint)",
            nativeQuery = true)
-    void markAllAsReadBatch(@Param("conversationId") UUID conversationId, @Param("userId") UUID userId);
+    long currentChangeVersion();
 }
@@ -1,16 +1,20 @@
 package com.teemup.repository;
 
+import com.teemup.dto.event.SportEventSummary;
 import com.teemup.entity.SportEvent;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,13 +22,87 @@ import java.util.UUID;
 @Repository
 public interface SportEventRepository extends JpaRepository<SportEvent, UUID> {
 
+    /**
+     * Select clause of the list-view queries: one flat {@link SportEventSummary} per event.
+     * Expects the event aliased {@code e} and its organizer joined as {@code u}.
+     */
+    String EVENT_SUMMARY_SELECT = """
+            SELECT new com.teemup.dto.event.SportEventSummary(
+                e.id, e.sport, e.title, e.description, e.location, e.latitude, e.longitude,
+                e.date, e.nextOccurrenceDate, e.startTime, e.endTime, e.recurrence,
+                e.isPublic, e.maxParticipants, e.isPaid, e.price, e.confirmedCount,
+                u.id, u.firstName, u.lastName, u.profilePicture, u.coverImage, u.bio,
+                u.isOnline, u.isVerified, u.verifiedAge)
+            """;
+
+    /**
+     * Atomically takes one confirmed seat if the event is not full.
+     *
+     * @return 1 if a seat was claimed, 0 if the event is full (or does not exist)
+     */
+    @Modifying
+    @Query("""
+            UPDATE SportEvent e
+            SET e.confirmedCount = e.confirmedCount + 1
+            WHERE e.id = :eventId
+              AND (e.maxParticipants IS NULL OR e.confirmedCount < e.maxParticipants)
+            """)
+    int claimSeat(@Param("eventId") UUID eventId);
+
+    @Modifying
+    @Query("""
+            UPDATE SportEvent e
+            SET e.confirmedCount = e.confirmedCount - 1
+            WHERE e.id = :eventId
+              AND e.confirmedCount > 0
+            """)
+    int releaseSeat(@Param("eventId") UUID eventId);
+
+    /**
+     * Locks the event row until commit, as a seat claim or release does.
+     */
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT e FROM SportEvent e WHERE e.id = :eventId")
-    Optional<SportEvent> findByIdForUpdate(@Param("eventId") UUID eventId);
+    Optional<SportEvent> lockById(@Param("eventId") UUID eventId);
+
+    /**
+     * Event with its organizer and the organizer's sports: everything {@code SportEventResponse.fromEntity} reads.
+     */
+    @Query("""
+            SELECT e FROM SportEvent e
+            JOIN FETCH e.user u
+            LEFT JOIN FETCH u.sports
+            WHERE e.id = :eventId
+            """)
+    Optional<SportEvent> findWithOrganizerById(@Param("eventId") UUID eventId);
 
-    List<SportEvent> findByUserIdOrderByDateAscStartTimeAsc(UUID userId);
+    /**
+     * Event detail in a single statement: organizer, every participant and their users.
+     * Participants of all statuses are loaded, the requester's own status is part of the detail view.
+     */
+    @Query("""
+            SELECT e FROM SportEvent e
+            JOIN FETCH e.user
+            LEFT JOIN FETCH e.participants p
+            LEFT JOIN FETCH p.user
+            WHERE e.id = :eventId
+            """)
+    Optional<SportEvent> findByIdWithParticipants(@Param("eventId") UUID eventId);
 
-    List<SportEvent> findByUserIdAndDateGreaterThanEqualOrderByDateAscStartTimeAsc(UUID userId, LocalDate date);
+    @Query(EVENT_SUMMARY_SELECT + """
+            FROM SportEvent e JOIN e.user u
+            WHERE u.id = :userId
+            ORDER BY e.date ASC, e.startTime ASC
+            """)
+    List<SportEventSummary> findSummariesByUserId(@Param("userId") UUID userId);
+
+    @Query(EVENT_SUMMARY_SELECT + """
+            FROM SportEvent e JOIN e.user u
+            WHERE u.id = :userId
+              AND e.nextOccurrenceDate >= :date
+            ORDER BY e.nextOccurrenceDate ASC, e.startTime ASC
+            """)
+    List<SportEventSummary> findUpcomingSummariesByUserId(@Param("userId") UUID userId, @Param("date") LocalDate date);
 
     @Query("SELECT e FROM SportEvent e WHERE e.user.id = :userId AND e.date BETWEEN :startDate AND :endDate ORDER BY e.date, e.startTime")
     List<SportEvent> findByUserIdAndDateBetween(
@@ -33,49 +111,348 @@ public interface SportEventRepository extends JpaRepository<SportEvent, UUID> {
             @Param("endDate") LocalDate endDate
     );
 
-    @Query("SELECT e FROM SportEvent e WHERE e.isPublic = true AND e.date >= :date ORDER BY e.date, e.startTime")
-    List<SportEvent> findPublicEventsFromDate(@Param("date") LocalDate date);
+    /**
+     * Events a user confirmed participation in.
+     */
+    @Query(EVENT_SUMMARY_SELECT + """
+            FROM EventParticipant ep JOIN ep.event e JOIN e.user u
+            WHERE ep.user.id = :userId
+              AND ep.status = 'CONFIRMED'
+            """)
+    List<SportEventSummary> findParticipatingSummaries(@Param("userId") UUID userId);
 
-    @Query("SELECT e FROM SportEvent e WHERE e.sport = :sport AND e.isPublic = true AND e.date >= :date ORDER BY e.date, e.startTime")
-    List<SportEvent> findPublicEventsBySportFromDate(@Param("sport") String sport, @Param("date") LocalDate date);
+    @Query(EVENT_SUMMARY_SELECT + """
+            FROM SportEvent e JOIN e.user u
+            WHERE e.id IN :ids
+            """)
+    List<SportEventSummary> findSummariesByIds(@Param("ids") Collection<UUID> ids);
 
-    @Query("SELECT e FROM SportEvent e WHERE e.isPublic = true AND e.date >= :date ORDER BY e.date ASC, e.startTime ASC")
-    Page<SportEvent> findPublicEventsFromDate(@Param("date") LocalDate date, Pageable pageable);
+    @Query(EVENT_SUMMARY_SELECT + """
+            FROM SportEvent e JOIN e.user u
+            WHERE e.isPublic = true
+              AND e.nextOccurrenceDate >= :date
+            ORDER BY e.nextOccurrenceDate ASC, e.startTime ASC
+            """)
+    List<SportEventSummary> findPublicSummariesFromDate(@Param("date") LocalDate date);
 
-    @Query("SELECT e FROM SportEvent e WHERE e.isPublic = true AND e.sport = :sport AND e.date >= :date ORDER BY e.date ASC, e.startTime ASC")
-    Page<SportEvent> findPublicEventsBySportFromDate(@Param("sport") String sport, @Param("date") LocalDate date, Pageable pageable);
+    @Query(EVENT_SUMMARY_SELECT + """
+            FROM SportEvent e JOIN e.user u
+            WHERE e.isPublic = true
+              AND e.sport = :sport
+              AND e.nextOccurrenceDate >= :date
+            ORDER BY e.nextOccurrenceDate ASC, e.startTime ASC
+            """)
+    List<SportEventSummary> findPublicSummariesBySportFromDate(@Param("sport") String sport, @Param("date") LocalDate date);
 
-    @Query("""
-            SELECT e FROM SportEvent e
+    @Query(value = EVENT_SUMMARY_SELECT + """
+            FROM SportEvent e JOIN e.user u
             WHERE e.isPublic = true
-              AND e.date >= :date
-              AND e.latitude BETWEEN :minLatitude AND :maxLatitude
-              AND e.longitude BETWEEN :minLongitude AND :maxLongitude
-            ORDER BY e.date ASC, e.startTime ASC
+              AND e.nextOccurrenceDate >= :date
+            ORDER BY e.nextOccurrenceDate ASC, e.startTime ASC
+            """,
+            countQuery = "SELECT COUNT(e) FROM SportEvent e WHERE e.isPublic = true AND e.nextOccurrenceDate >= :date")
+    Page<SportEventSummary> findPublicSummariesFromDate(@Param("date") LocalDate date, Pageable pageable);
+
+    @Query(value = EVENT_SUMMARY_SELECT + """
+            FROM SportEvent e JOIN e.user u
+            WHERE e.isPublic = true
+              AND e.sport = :sport
+              AND e.nextOccurrenceDate >= :date
+            ORDER BY e.nextOccurrenceDate ASC, e.startTime ASC
+            """,
+            countQuery = "SELECT COUNT(e) FROM SportEvent e WHERE e.isPublic = true AND e.sport = :sport AND e.nextOccurrenceDate >= :date")
+    Page<SportEventSummary> findPublicSummariesBySportFromDate(@Param("sport") String sport, @Param("date") LocalDate date, Pageable pageable);
+
+    @Query(EVENT_SUMMARY_SELECT + """
+            FROM SportEvent e JOIN e.user u
+            WHERE e.isPublic = true
+              AND e.nextOccurrenceDate >= :date
+            ORDER BY e.nextOccurrenceDate ASC, e.startTime ASC, e.id ASC
             """)
-    List<SportEvent> findPublicEventsInBoundingBoxFromDate(
+    List<SportEventSummary> findPublicEventsFeed(@Param("date") LocalDate date, Pageable pageable);
+
+    /**
+     * Feed page after a cursor. The redundant {@code nextOccurrenceDate >= :afterDate} bound starts
+     * the index scan at the cursor, which the OR of keyset branches alone cannot do: a deep page
+     * costs no more than the first.
+     */
+    @Query(EVENT_SUMMARY_SELECT + """
+            FROM SportEvent e JOIN e.user u
+            WHERE e.isPublic = true
+              AND e.nextOccurrenceDate >= :date
+              AND e.nextOccurrenceDate >= :afterDate
+              AND (e.nextOccurrenceDate > :afterDate
+                   OR (e.nextOccurrenceDate = :afterDate AND e.startTime > :afterStartTime)
+                   OR (e.nextOccurrenceDate = :afterDate AND e.startTime = :afterStartTime AND e.id > :afterId))
+            ORDER BY e.nextOccurrenceDate ASC, e.startTime ASC, e.id ASC
+            """)
+    List<SportEventSummary> findPublicEventsFeedAfter(
             @Param("date") LocalDate date,
-            @Param("minLatitude") double minLatitude,
-            @Param("maxLatitude") double maxLatitude,
-            @Param("minLongitude") double minLongitude,
-            @Param("maxLongitude") double maxLongitude
+            @Param("afterDate") LocalDate afterDate,
+            @Param("afterStartTime") LocalTime afterStartTime,
+            @Param("afterId") UUID afterId,
+            Pageable pageable
     );
 
-    @Query("""
-            SELECT e FROM SportEvent e
+    @Query(EVENT_SUMMARY_SELECT + """
+            FROM SportEvent e JOIN e.user u
             WHERE e.isPublic = true
               AND e.sport = :sport
-              AND e.date >= :date
-              AND e.latitude BETWEEN :minLatitude AND :maxLatitude
-              AND e.longitude BETWEEN :minLongitude AND :maxLongitude
-            ORDER BY e.date ASC, e.startTime ASC
+              AND e.nextOccurrenceDate >= :date
+            ORDER BY e.nextOccurrenceDate ASC, e.startTime ASC, e.id ASC
+            """)
+    List<SportEventSummary> findPublicEventsBySportFeed(@Param("sport") String sport, @Param("date") LocalDate date, Pageable pageable);
+
+    /**
+     * As {@link #findPublicEventsFeedAfter}, for one sport.
+     */
+    @Query(EVENT_SUMMARY_SELECT + """
+            FROM SportEvent e JOIN e.user u
+            WHERE e.isPublic = true
+              AND e.sport = :sport
+              AND e.nextOccurrenceDate >= :date
+              AND e.nextOccurrenceDate >= :afterDate
+              AND (e.nextOccurrenceDate > :afterDate
+                   OR (e.nextOccurrenceDate = :afterDate AND e.startTime > :afterStartTime)
+                   OR (e.nextOccurrenceDate = :afterDate AND e.startTime = :afterStartTime AND e.id > :afterId))
+            ORDER BY e.nextOccurrenceDate ASC, e.startTime ASC, e.id ASC
             """)
-    List<SportEvent> findPublicEventsBySportInBoundingBoxFromDate(
+    List<SportEventSummary> findPublicEventsBySportFeedAfter(
             @Param("sport") String sport,
             @Param("date") LocalDate date,
-            @Param("minLatitude") double minLatitude,
-            @Param("maxLatitude") double maxLatitude,
-            @Param("minLongitude") double minLongitude,
-            @Param("maxLongitude") double maxLongitude
+            @Param("afterDate") LocalDate afterDate,
+            @Param("afterStartTime") LocalTime afterStartTime,
+            @Param("afterId") UUID afterId,
+            Pageable pageable
     );
+
+    /**
+     * Series whose next occurrence has passed, in id order: the order {@link #rollNextOccurrence} locks them in.
+     */
+    @Query("""
+            SELECT e FROM SportEvent e
+            WHERE e.recurrence <> :none
+              AND e.nextOccurrenceDate < :today
+            ORDER BY e.id
+            """)
+    List<SportEvent> findRecurringEventsToRoll(
+            @Param("none") SportEvent.RecurrenceType none,
+            @Param("today") LocalDate today
+    );
+
+    /**
+     * Moves a series to its next occurrence unless it was already rolled past {@code today}, by
+     * another node rolling at the same time: that one holds the row until it commits, then the
+     * condition no longer matches.
+     *
+     * @return 1 if the series was rolled, 0 if it already was
+     */
+    @Modifying
+    @Query("""
+            UPDATE SportEvent e
+            SET e.nextOccurrenceDate = :next
+            WHERE e.id = :eventId
+              AND e.nextOccurrenceDate < :today
+            """)
+    int rollNextOccurrence(@Param("eventId") UUID eventId, @Param("next") LocalDate next, @Param("today") LocalDate today);
+
+    /**
+     * Series owned by a user that may have occurrences in {@code [from, to]}.
+     */
+    @Query(EVENT_SUMMARY_SELECT + """
+            FROM SportEvent e JOIN e.user u
+            WHERE u.id = :userId
+              AND e.date <= :to
+              AND (e.recurrence <> :none OR e.date >= :from)
+            """)
+    List<SportEventSummary> findUserSeriesInWindow(
+            @Param("userId") UUID userId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("none") SportEvent.RecurrenceType none
+    );
+
+    /**
+     * Series a user confirmed participation in that may have occurrences in {@code [from, to]}.
+     */
+    @Query(EVENT_SUMMARY_SELECT + """
+            FROM EventParticipant ep JOIN ep.event e JOIN e.user u
+            WHERE ep.user.id = :userId
+              AND ep.status = 'CONFIRMED'
+              AND e.date <= :to
+              AND (e.recurrence <> :none OR e.date >= :from)
+            """)
+    List<SportEventSummary> findParticipatingSeriesInWindow(
+            @Param("userId") UUID userId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("none") SportEvent.RecurrenceType none
+    );
+
+    @Query(value = """
+            SELECT e.id AS "id",
+                   earth_distance(ll_to_earth(:latitude, :longitude), ll_to_earth(e.latitude, e.longitude)) AS "distanceMeters"
+            FROM sport_events e
+            WHERE e.is_public = true
+              AND e.latitude IS NOT NULL
+              AND e.longitude IS NOT NULL
+              AND e.next_occurrence_date >= :date
+              AND (CAST(:sport AS varchar) IS NULL OR e.sport = CAST(:sport AS varchar))
+              AND earth_box(ll_to_earth(:latitude, :longitude), :radiusMeters) @> ll_to_earth(e.latitude, e.longitude)
+              AND earth_distance(ll_to_earth(:latitude, :longitude), ll_to_earth(e.latitude, e.longitude)) <= :radiusMeters
+            ORDER BY "distanceMeters" ASC, e.id ASC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<NearbyEventRow> findNearbyPublicEvents(
+            @Param("latitude") double latitude,
+            @Param("longitude") double longitude,
+            @Param("radiusMeters") double radiusMeters,
+            @Param("sport") String sport,
+            @Param("date") LocalDate date,
+            @Param("limit") int limit
+    );
+
+    @Query(value = """
+            SELECT e.id AS "id",
+                   earth_distance(ll_to_earth(:latitude, :longitude), ll_to_earth(e.latitude, e.longitude)) AS "distanceMeters"
+            FROM sport_events e
+            WHERE e.is_public = true
+              AND e.latitude IS NOT NULL
+              AND e.longitude IS NOT NULL
+              AND e.next_occurrence_date >= :date
+              AND (CAST(:sport AS varchar) IS NULL OR e.sport = CAST(:sport AS varchar))
+              AND earth_box(ll_to_earth(:latitude, :longitude), :radiusMeters) @> ll_to_earth(e.latitude, e.longitude)
+              AND earth_distance(ll_to_earth(:latitude, :longitude), ll_to_earth(e.latitude, e.longitude)) <= :radiusMeters
+              AND (earth_distance(ll_to_earth(:latitude, :longitude), ll_to_earth(e.latitude, e.longitude)), e.id)
+                  > (:afterDistanceMeters, :afterId)
+            ORDER BY "distanceMeters" ASC, e.id ASC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<NearbyEventRow> findNearbyPublicEventsAfter(
+            @Param("latitude") double latitude,
+            @Param("longitude") double longitude,
+            @Param("radiusMeters") double radiusMeters,
+            @Param("sport") String sport,
+            @Param("date") LocalDate date,
+            @Param("afterDistanceMeters") double afterDistanceMeters,
+            @Param("afterId") UUID afterId,
+            @Param("limit") int limit
+    );
+
+    /**
+     * Full-text search over public events (see V13 for the weighted {@code search_vector}),
+     * ranked best match first. Every filter but the query and {@code fromDate} is optional (null);
+     * the bounding box applies only when all four bounds are set.
+     *
+     * A series never ends, so a recurring event matches when its first occurrence on or after
+     * {@code fromDate} (see V13 for {@code sport_event_first_occurrence}) is not after {@code toDate}.
+     */
+    @Query(value = """
+            SELECT e.id AS "id",
+                   CAST(ts_rank(e.search_vector, q.query) AS double precision) AS "rank"
+            FROM sport_events e
+            CROSS JOIN websearch_to_tsquery('french', :query) AS q(query)
+            WHERE e.is_public = true
+              AND e.search_vector @@ q.query
+              AND (e.recurrence <> 'NONE' OR e.next_occurrence_date >= :fromDate)
+              AND (CAST(:toDate AS date) IS NULL
+                   OR sport_event_first_occurrence(e.date, e.recurrence, CAST(:fromDate AS date)) <= CAST(:toDate AS date))
+              AND (CAST(:sport AS varchar) IS NULL OR e.sport = CAST(:sport AS varchar))
+              AND (CAST(:minLat AS double precision) IS NULL
+                   OR (e.latitude BETWEEN CAST(:minLat AS double precision) AND CAST(:maxLat AS double precision)
+                       AND e.longitude BETWEEN CAST(:minLon AS double precision) AND CAST(:maxLon AS double precision)))
+            ORDER BY "rank" DESC, e.id ASC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<SearchEventRow> searchPublicEvents(
+            @Param("query") String query,
+            @Param("sport") String sport,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate,
+            @Param("minLat") Double minLat,
+            @Param("maxLat") Double maxLat,
+            @Param("minLon") Double minLon,
+            @Param("maxLon") Double maxLon,
+            @Param("limit") int limit
+    );
+
+    @Query(value = """
+            SELECT ranked.id AS "id", ranked.rank AS "rank"
+            FROM (
+                SELECT e.id AS id,
+                       CAST(ts_rank(e.search_vector, q.query) AS double precision) AS rank
+                FROM sport_events e
+                CROSS JOIN websearch_to_tsquery('french', :query) AS q(query)
+                WHERE e.is_public = true
+                  AND e.search_vector @@ q.query
+                  AND (e.recurrence <> 'NONE' OR e.next_occurrence_date >= :fromDate)
+                  AND (CAST(:toDate AS date) IS NULL
+                       OR sport_event_first_occurrence(e.date, e.recurrence, CAST(:fromDate AS date)) <= CAST(:toDate AS date))
+                  AND (CAST(:sport AS varchar) IS NULL OR e.sport = CAST(:sport AS varchar))
+                  AND (CAST(:minLat AS double precision) IS NULL
+                       OR (e.latitude BETWEEN CAST(:minLat AS double precision) AND CAST(:maxLat AS double precision)
+                           AND e.longitude BETWEEN CAST(:minLon AS double precision) AND CAST(:maxLon AS double precision)))
+            ) ranked
+            WHERE ranked.rank < :afterRank
+               OR (ranked.rank = :afterRank AND ranked.id > :afterId)
+            ORDER BY ranked.rank DESC, ranked.id ASC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<SearchEventRow> searchPublicEventsAfter(
+            @Param("query") String query,
+            @Param("sport") String sport,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate,
+            @Param("minLat") Double minLat,
+            @Param("maxLat") Double maxLat,
+            @Param("minLon") Double minLon,
+            @Param("maxLon") Double maxLon,
+            @Param("afterRank") double afterRank,
+            @Param("afterId") UUID afterId,
+            @Param("limit") int limit
+    );
+
+    @Query("""
+            SELECT e.id AS id, e.sport AS sport, e.latitude AS latitude, e.longitude AS longitude,
+                   e.nextOccurrenceDate AS nextOccurrenceDate
+            FROM SportEvent e
+            WHERE e.isPublic = true
+              AND e.nextOccurrenceDate >= :date
+              AND e.latitude IS NOT NULL
+              AND e.longitude IS NOT NULL
+            """)
+    List<EventLocation> findPublicEventLocationsFromDate(@Param("date") LocalDate date);
+
+    /**
+     * Event id and great-circle distance (in meters) returned by the nearby queries.
+     */
+    interface NearbyEventRow {
+        UUID getId();
+
+        Double getDistanceMeters();
+    }
+
+    /**
+     * Event id and full-text relevance returned by the search queries.
+     */
+    interface SearchEventRow {
+        UUID getId();
+
+        Double getRank();
+    }
+
+    /**
+     * Lightweight projection used to warm up the in-memory spatial index.
+     */
+    interface EventLocation {
+        UUID getId();
+
+        String getSport();
+
+        Double getLatitude();
+
+        Double getLongitude();
+
+        LocalDate getNextOccurrenceDate();
+    }
 }
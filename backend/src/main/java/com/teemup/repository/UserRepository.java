@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -30,4 +31,19 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     @Query("SELECT f FROM User u JOIN u.friends f WHERE u.id = :userId")
     List<User> findFriendsByUserId(@Param("userId") UUID userId);
+
+    @Query("SELECT f.id FROM User u JOIN u.friends f WHERE u.id = :userId")
+    List<UUID> findFriendIdsByUserId(@Param("userId") UUID userId);
+
+    @Query("SELECT u.isActive AS active, u.tokensValidAfter AS validAfter FROM User u WHERE u.id = :userId")
+    Optional<TokenStatus> findTokenStatusById(@Param("userId") UUID userId);
+
+    /**
+     * What decides whether a user's access tokens still hold.
+     */
+    interface TokenStatus {
+        Boolean getActive();
+
+        Instant getValidAfter();
+    }
 }
@@ -1,5 +1,6 @@
 package com.teemup.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -9,20 +10,25 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.UUID;
 
+/**
+ * Authenticates requests from their access token alone: one signature check with the prebuilt
+ * parser, the principal built from the claims, and revocation checked against
+ * {@link TokenRevocationCache} rather than by loading the user.
+ */
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final TokenRevocationCache tokenRevocationCache;
 
     @Override
     protected void doFilterInternal(
@@ -38,12 +44,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         try {
-            String userEmail = jwtService.extractUsername(jwt);
+            Claims claims = jwtService.parseAccessToken(jwt);
+            String userEmail = claims.getSubject();
 
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                UUID userId = UUID.fromString(claims.get(JwtService.USER_ID_CLAIM, String.class));
+                Instant issuedAt = JwtService.issuedAt(claims);
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (!tokenRevocationCache.isRevoked(userId, issuedAt)) {
+                    UserDetailsImpl userDetails = UserDetailsImpl.fromToken(
+                            userId, userEmail, jwtService.extractRoles(claims));
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
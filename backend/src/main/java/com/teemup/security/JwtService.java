@@ -2,16 +2,21 @@ package com.teemup.security;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.function.Function;
@@ -19,6 +24,14 @@ import java.util.function.Function;
 @Service
 public class JwtService {
 
+    public static final String USER_ID_CLAIM = "userId";
+    static final String ROLES_CLAIM = "roles";
+    /**
+     * Issue time in milliseconds: {@code iat} is in seconds, too coarse to tell a token issued
+     * just before a logout from one issued just after.
+     */
+    static final String ISSUED_AT_MILLIS_CLAIM = "iatMs";
+
     @Value("${jwt.secret}")
     private String secretKey;
 
@@ -31,12 +44,28 @@ public class JwtService {
     @Value("${jwt.refresh-expiration}")
     private Long refreshExpiration;
 
+    private SecretKey signingKey;
+    private SecretKey refreshSigningKey;
+    private JwtParser parser;
+    private JwtParser refreshParser;
+
+    /**
+     * Decodes the keys and builds the parsers once: both are immutable and thread-safe.
+     */
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        refreshSigningKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(refreshSecretKey));
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        refreshParser = Jwts.parser().verifyWith(refreshSigningKey).build();
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
     public UUID extractUserId(String token) {
-        return UUID.fromString(extractClaim(token, claims -> claims.get("userId", String.class)));
+        return UUID.fromString(extractClaim(token, claims -> claims.get(USER_ID_CLAIM, String.class)));
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -44,40 +73,79 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Access token carrying what the principal is built from: user id, email (subject) and roles.
+     */
     public String generateToken(UserDetails userDetails, UUID userId) {
         Map<String, Object> extraClaims = new HashMap<>();
-        extraClaims.put("userId", userId.toString());
+        extraClaims.put(USER_ID_CLAIM, userId.toString());
+        extraClaims.put(ROLES_CLAIM, userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
         return generateToken(extraClaims, userDetails);
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return buildToken(extraClaims, userDetails, jwtExpiration, getSigningKey());
+        return buildToken(extraClaims, userDetails, jwtExpiration, signingKey);
     }
 
     public String generateRefreshToken(UserDetails userDetails, UUID userId) {
         Map<String, Object> extraClaims = new HashMap<>();
-        extraClaims.put("userId", userId.toString());
-        return buildToken(extraClaims, userDetails, refreshExpiration, getRefreshSigningKey());
+        extraClaims.put(USER_ID_CLAIM, userId.toString());
+        return buildToken(extraClaims, userDetails, refreshExpiration, refreshSigningKey);
     }
 
     private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, Long expiration, SecretKey key) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .claims(extraClaims)
+                .claim(ISSUED_AT_MILLIS_CLAIM, now)
                 .subject(userDetails.getUsername())
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expiration))
                 .signWith(key)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        final Claims claims = extractAllClaims(token);
+        return (claims.getSubject().equals(userDetails.getUsername())) && !claims.getExpiration().before(new Date());
+    }
+
+    /**
+     * Verifies the signature and expiry of an access token, in a single parse.
+     *
+     * @throws JwtException if the token is invalid or expired
+     */
+    public Claims parseAccessToken(String token) {
+        return extractAllClaims(token);
+    }
+
+    /**
+     * When a token was issued, to the millisecond; tokens issued before the millisecond claim was
+     * carried count from the start of their {@code iat} second, so a logout in that second revokes them.
+     */
+    public static Instant issuedAt(Claims claims) {
+        if (claims.get(ISSUED_AT_MILLIS_CLAIM) instanceof Number millis) {
+            return Instant.ofEpochMilli(millis.longValue());
+        }
+        return claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : Instant.EPOCH;
+    }
+
+    /**
+     * Roles of an access token; tokens issued before roles were carried get the default one.
+     */
+    public List<String> extractRoles(Claims claims) {
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        if (roles == null) {
+            return List.of(UserDetailsImpl.DEFAULT_ROLE);
+        }
+        return roles.stream().map(String::valueOf).toList();
     }
 
     public boolean isRefreshTokenValid(String token, UserDetails userDetails) {
         try {
-            final Claims claims = extractAllClaims(token, getRefreshSigningKey());
+            final Claims claims = refreshParser.parseSignedClaims(token).getPayload();
             final String username = claims.getSubject();
             final Date expiration = claims.getExpiration();
             return (username.equals(userDetails.getUsername())) && !expiration.before(new Date());
@@ -87,37 +155,11 @@ public class JwtService {
     }
 
     public String extractUsernameFromRefreshToken(String token) {
-        return extractAllClaims(token, getRefreshSigningKey()).getSubject();
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return refreshParser.parseSignedClaims(token).getPayload().getSubject();
     }
 
     private Claims extractAllClaims(String token) {
-        return extractAllClaims(token, getSigningKey());
-    }
-
-    private Claims extractAllClaims(String token, SecretKey key) {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
-    private SecretKey getRefreshSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(refreshSecretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     public Long getJwtExpiration() {
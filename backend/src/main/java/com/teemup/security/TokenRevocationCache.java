@@ -0,0 +1,76 @@
+package com.teemup.security;
+
+import com.teemup.repository.UserRepository;
+import com.teemup.service.BoundedCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Whether the access tokens of a user still hold, so that authenticating a request needs no
+ * user load: a token is revoked if the user is gone or inactive, or if it was issued before the
+ * user's {@code tokens_valid_after} (set on logout).
+ *
+ * The state of each user is kept for {@code ttlMillis}, which bounds how long a revocation
+ * takes to reach the other nodes; the node that revokes evicts at once. States live in a
+ * {@link BoundedCache} of {@code maxEntries}. A user that cannot be found is not cached: it may be
+ * one registered in the current, not yet committed, transaction.
+ */
+@Component
+public class TokenRevocationCache {
+
+    private final UserRepository userRepository;
+    private final Clock clock;
+    private final long ttlMillis;
+    private final BoundedCache<UUID, Status> statuses;
+
+    @Autowired
+    public TokenRevocationCache(UserRepository userRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${jwt.revocation.ttl-ms:30000}") long ttlMillis,
+                                @Value("${jwt.revocation.max-entries:100000}") int maxEntries) {
+        this(userRepository, meterRegistry, ttlMillis, maxEntries, Clock.systemUTC());
+    }
+
+    TokenRevocationCache(UserRepository userRepository, MeterRegistry meterRegistry, long ttlMillis, int maxEntries,
+                         Clock clock) {
+        this.userRepository = userRepository;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.statuses = new BoundedCache<>("tokenRevocations", maxEntries, meterRegistry);
+    }
+
+    public boolean isRevoked(UUID userId, Instant issuedAt) {
+        Status status = statuses.get(userId,
+                cached -> clock.millis() - cached.loadedAt() < ttlMillis,
+                () -> load(userId, clock.millis()));
+        return status == null || !status.active()
+                || (status.validAfter() != null && issuedAt.isBefore(status.validAfter()));
+    }
+
+    /**
+     * The user's tokens were revoked here: reloaded on next use.
+     */
+    public void evict(UUID userId) {
+        statuses.invalidate(userId);
+    }
+
+    public int size() {
+        return statuses.size();
+    }
+
+    private Status load(UUID userId, long now) {
+        // JPQL, so that changes to the user pending in the current transaction are flushed first
+        return userRepository.findTokenStatusById(userId)
+                .map(row -> new Status(Boolean.TRUE.equals(row.getActive()), row.getValidAfter(), now))
+                .orElse(null);
+    }
+
+    private record Status(boolean active, Instant validAfter, long loadedAt) {
+    }
+}
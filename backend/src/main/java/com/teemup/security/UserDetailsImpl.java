@@ -15,6 +15,8 @@ import java.util.UUID;
 @Getter
 public class UserDetailsImpl implements UserDetails {
 
+    static final String DEFAULT_ROLE = "ROLE_USER";
+
     private UUID id;
     private String email;
     private String password;
@@ -22,7 +24,7 @@ public class UserDetailsImpl implements UserDetails {
     private Collection<? extends GrantedAuthority> authorities;
 
     public static UserDetailsImpl build(User user) {
-        List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+        List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(DEFAULT_ROLE));
 
         return new UserDetailsImpl(
                 user.getId(),
@@ -33,6 +35,18 @@ public class UserDetailsImpl implements UserDetails {
         );
     }
 
+    /**
+     * Principal of a verified access token, built from its claims alone: no password, and active
+     * since revoked tokens are turned away before.
+     */
+    public static UserDetailsImpl fromToken(UUID id, String email, List<String> roles) {
+        List<GrantedAuthority> authorities = roles.stream()
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+
+        return new UserDetailsImpl(id, email, null, true, authorities);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
@@ -13,6 +13,7 @@ import com.teemup.exception.InvalidTokenException;
 import com.teemup.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import com.teemup.security.JwtService;
+import com.teemup.security.TokenRevocationCache;
 import com.teemup.security.UserDetailsImpl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,6 +27,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.HexFormat;
 
 @Service
@@ -38,6 +41,8 @@ public class AuthService {
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
     private final FaceVerificationService faceVerificationService;
+    private final TokenRevocationCache tokenRevocationCache;
+    private final PresenceService presenceService;
 
     /**
      * Hash a refresh token with SHA-256 before storing in DB.
@@ -103,7 +108,7 @@ public class AuthService {
                 accessToken,
                 refreshToken,
                 jwtService.getJwtExpiration(),
-                UserResponse.fromEntity(user)
+                toResponse(user)
         );
     }
 
@@ -124,14 +129,13 @@ public class AuthService {
         String refreshToken = jwtService.generateRefreshToken(userDetails, user.getId());
 
         user.setRefreshToken(hashToken(refreshToken));
-        user.setIsOnline(true);
         userRepository.save(user);
 
         return AuthResponse.of(
                 accessToken,
                 refreshToken,
                 jwtService.getJwtExpiration(),
-                UserResponse.fromEntity(user)
+                toResponse(user)
         );
     }
 
@@ -165,7 +169,7 @@ public class AuthService {
                 newAccessToken,
                 newRefreshToken,
                 jwtService.getJwtExpiration(),
-                UserResponse.fromEntity(user)
+                toResponse(user)
         );
     }
 
@@ -175,14 +179,26 @@ public class AuthService {
                 .orElseThrow(() -> new EntityNotFoundException("Utilisateur non trouvé"));
 
         user.setRefreshToken(null);
-        user.setIsOnline(false);
+        // Tokens carry their issue time in milliseconds: rounding up revokes every token issued up to now
+        user.setTokensValidAfter(Instant.now().truncatedTo(ChronoUnit.MILLIS).plusMillis(1));
         userRepository.save(user);
+        AfterCommit.run(() -> tokenRevocationCache.evict(user.getId()));
     }
 
     public UserResponse getCurrentUser(String userEmail) {
         User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new EntityNotFoundException("Utilisateur non trouvé"));
 
-        return UserResponse.fromEntity(user);
+        return toResponse(user);
+    }
+
+    /**
+     * The user's own profile. They are signing in or using the app: online, unless the presence
+     * knows their sockets have just gone away.
+     */
+    private UserResponse toResponse(User user) {
+        UserResponse response = UserResponse.fromEntity(user);
+        response.setIsOnline(presenceService.isOnline(user.getId(), true));
+        return response;
     }
 }
@@ -0,0 +1,152 @@
+package com.teemup.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process map behind the application caches, dropping its least recently used entry
+ * beyond {@code maxEntries}, with the {@code cache.gets}, {@code cache.evictions} and
+ * {@code cache.size} meters tagged with the cache name.
+ *
+ * A loaded value is not stored if an invalidation covering it (same key, matching value, or all)
+ * happened while it was being loaded, so a reader racing with a write never caches what it read
+ * before the write committed; unrelated invalidations do not cost the load. Null values are
+ * returned but not stored. A capacity of 0 or less disables the cache: every get loads.
+ */
+public class BoundedCache<K, V> {
+
+    // Invalidations remembered for in-flight loads; a load older than the oldest one is not stored.
+    private static final int MAX_INVALIDATIONS = 256;
+
+    private final int maxEntries;
+    private final Map<K, V> entries;
+    private final Deque<Invalidation<K, V>> invalidations = new ArrayDeque<>();
+    private long version;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public BoundedCache(String name, int maxEntries, MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > BoundedCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        this.hits = Counter.builder("cache.gets").tag("cache", name).tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("cache.gets").tag("cache", name).tag("result", "miss")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("cache.evictions").tag("cache", name)
+                .register(meterRegistry);
+        Gauge.builder("cache.size", this, BoundedCache::size).tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        return get(key, value -> true, loader);
+    }
+
+    /**
+     * As {@link #get(Object, Supplier)}, a cached value that is no longer {@code fresh} being loaded again.
+     */
+    public V get(K key, Predicate<V> fresh, Supplier<V> loader) {
+        if (maxEntries <= 0) {
+            return loader.get();
+        }
+
+        long loadVersion;
+        V cached;
+        synchronized (this) {
+            loadVersion = version;
+            cached = entries.get(key);
+        }
+        if (cached != null && fresh.test(cached)) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        V loaded = loader.get();
+        synchronized (this) {
+            if (loaded != null && !invalidatedSince(loadVersion, key, loaded)) {
+                entries.put(key, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    public void put(K key, V value) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        synchronized (this) {
+            entries.put(key, value);
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        record((invalidatedKey, value) -> key.equals(invalidatedKey));
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateIf(Predicate<V> stale) {
+        record((key, value) -> stale.test(value));
+        entries.values().removeIf(stale);
+    }
+
+    public synchronized void invalidateAll() {
+        record((key, value) -> true);
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void record(BiPredicate<K, V> covers) {
+        invalidations.addLast(new Invalidation<>(++version, covers));
+        if (invalidations.size() > MAX_INVALIDATIONS) {
+            invalidations.removeFirst();
+        }
+    }
+
+    private boolean invalidatedSince(long loadVersion, K key, V loaded) {
+        if (version == loadVersion) {
+            return false;
+        }
+        if (invalidations.isEmpty() || invalidations.getFirst().version() > loadVersion + 1) {
+            return true;
+        }
+        Iterator<Invalidation<K, V>> newestFirst = invalidations.descendingIterator();
+        while (newestFirst.hasNext()) {
+            Invalidation<K, V> invalidation = newestFirst.next();
+            if (invalidation.version() <= loadVersion) {
+                return false;
+            }
+            if (invalidation.covers().test(key, loaded)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Invalidation<K, V>(long version, BiPredicate<K, V> covers) {}
+}
@@ -0,0 +1,75 @@
+package com.teemup.service;
+
+import com.teemup.repository.ConversationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Bounded in-process index of conversation members, answering the participant checks of the
+ * socket events and of the messaging endpoints without a query.
+ *
+ * Each conversation maps to the sorted array of its participant ids (binary search), loaded on
+ * first use and dropped least recently used first ({@link BoundedCache}). New conversations are
+ * put with their members.
+ *
+ * Membership is immutable: a conversation keeps the participants it was created with and is never
+ * deleted, so no node ever holds a stale entry and there is nothing to invalidate. Changing
+ * participants would need the eviction relayed to every node, as {@code EventCacheRelay} does for
+ * the event caches.
+ */
+@Component
+public class ConversationMembershipCache {
+
+    private static final UUID[] NO_MEMBERS = new UUID[0];
+
+    private final ConversationRepository conversationRepository;
+    private final BoundedCache<UUID, UUID[]> members;
+
+    public ConversationMembershipCache(ConversationRepository conversationRepository,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${cache.conversation-members.max-entries:10000}") int maxEntries) {
+        this.conversationRepository = conversationRepository;
+        this.members = new BoundedCache<>("conversationMembers", maxEntries, meterRegistry);
+    }
+
+    /**
+     * Whether the user takes part in the conversation; false for an unknown conversation.
+     */
+    public boolean isMember(UUID conversationId, UUID userId) {
+        return Arrays.binarySearch(members(conversationId), userId) >= 0;
+    }
+
+    /**
+     * A conversation was created with these members.
+     */
+    public void put(UUID conversationId, Collection<UUID> memberIds) {
+        members.put(conversationId, sorted(memberIds));
+    }
+
+    public int size() {
+        return members.size();
+    }
+
+    private UUID[] members(UUID conversationId) {
+        UUID[] loaded = members.get(conversationId, () -> {
+            UUID[] found = sorted(conversationRepository.findParticipantIds(conversationId));
+            // A conversation always has participants: none means it does not exist (yet), not stored
+            return found.length > 0 ? found : null;
+        });
+        return loaded != null ? loaded : NO_MEMBERS;
+    }
+
+    private static UUID[] sorted(Collection<UUID> memberIds) {
+        if (memberIds.isEmpty()) {
+            return NO_MEMBERS;
+        }
+        UUID[] sorted = memberIds.toArray(new UUID[0]);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+}
@@ -0,0 +1,45 @@
+package com.teemup.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.StringJoiner;
+import java.util.function.Function;
+
+/**
+ * Encodes keyset pagination positions as opaque, URL-safe cursors.
+ */
+final class CursorCodec {
+
+    private static final String SEPARATOR = "|";
+    private static final String INVALID_CURSOR = "Curseur de pagination invalide";
+
+    private CursorCodec() {
+    }
+
+    static String encode(Object... parts) {
+        StringJoiner joiner = new StringJoiner(SEPARATOR);
+        for (Object part : parts) {
+            joiner.add(String.valueOf(part));
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(joiner.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode(Object...)}.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed or was not produced for this parser
+     */
+    static <T> T decode(String cursor, int expectedParts, Function<String[], T> parser) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != expectedParts) {
+                throw new IllegalArgumentException(INVALID_CURSOR);
+            }
+            return parser.apply(parts);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(INVALID_CURSOR, e);
+        }
+    }
+}
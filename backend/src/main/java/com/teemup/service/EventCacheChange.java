@@ -0,0 +1,48 @@
+package com.teemup.service;
+
+import java.util.UUID;
+
+/**
+ * A change to the node-local event caches ({@link PublicEventCache}, {@link EventSpatialIndex}).
+ * Published by the services, applied by every node once the surrounding transaction has committed.
+ *
+ * @param eventId     event whose cached copies are dropped, null for an organizer change; with neither
+ *                    {@code indexed} nor {@code unindexed} only its participants changed
+ * @param organizerId organizer whose profile changed, null for an event change
+ * @param indexed     the event's new spatial index entry, null when its location did not change
+ * @param unindexed   whether the event leaves the spatial index (deleted or made private)
+ */
+public record EventCacheChange(UUID eventId, UUID organizerId, EventSpatialIndex.Entry indexed, boolean unindexed) {
+
+    static EventCacheChange event(UUID eventId) {
+        return new EventCacheChange(eventId, null, null, false);
+    }
+
+    static EventCacheChange indexed(EventSpatialIndex.Entry entry) {
+        return new EventCacheChange(entry.eventId(), null, entry, false);
+    }
+
+    static EventCacheChange unindexed(UUID eventId) {
+        return new EventCacheChange(eventId, null, null, true);
+    }
+
+    static EventCacheChange organizer(UUID organizerId) {
+        return new EventCacheChange(null, organizerId, null, false);
+    }
+
+    public void applyTo(PublicEventCache publicEventCache, EventSpatialIndex eventSpatialIndex) {
+        if (organizerId != null) {
+            publicEventCache.invalidateOrganizer(organizerId);
+        }
+        if (eventId != null && (indexed != null || unindexed)) {
+            publicEventCache.invalidateListings(eventId);
+        } else if (eventId != null) {
+            publicEventCache.invalidate(eventId);
+        }
+        if (indexed != null) {
+            eventSpatialIndex.upsert(indexed);
+        } else if (unindexed) {
+            eventSpatialIndex.remove(eventId);
+        }
+    }
+}
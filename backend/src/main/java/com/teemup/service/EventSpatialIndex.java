@@ -0,0 +1,282 @@
+package com.teemup.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory spatial index of upcoming public events.
+ *
+ * Events are bucketed into a fixed grid of 0.1° cells (~11 km at the equator).
+ * Each cell stores its entries in parallel primitive arrays so a radius scan
+ * only touches the cells overlapping the search box, without loading entities.
+ *
+ * The index is empty until {@link #load(Collection)} has been called; callers
+ * should check {@link #isReady()} and fall back to the database otherwise.
+ * Every node holds its own copy, kept up to date through {@link EventCacheChange}.
+ */
+@Component
+public class EventSpatialIndex {
+
+    private static final double CELL_DEGREES = 0.1;
+    private static final double KM_PER_LATITUDE_DEGREE = 111.0;
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double INITIAL_KNN_RADIUS_KM = 5.0;
+
+    private static final Comparator<Hit> BY_DISTANCE = Comparator
+            .comparingDouble(Hit::distanceKm)
+            .thenComparing(hit -> hit.eventId().toString());
+
+    private final Map<Long, Cell> cells = new HashMap<>();
+    private final Map<UUID, Long> cellByEvent = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready = false;
+
+    /**
+     * Replaces the whole content of the index and marks it as ready.
+     */
+    public void load(Collection<Entry> entries) {
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            cellByEvent.clear();
+            for (Entry entry : entries) {
+                insert(entry);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return cellByEvent.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Inserts or moves an event. Events without coordinates are removed instead.
+     */
+    public void upsert(Entry entry) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(entry.eventId());
+            if (entry.latitude() != null && entry.longitude() != null) {
+                insert(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID eventId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(eventId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * All events within {@code maxDistanceKm}, sorted by distance (then id).
+     */
+    public List<Hit> withinRadius(double latitude, double longitude, double maxDistanceKm,
+                                  String sport, LocalDate fromDate) {
+        List<Hit> hits = scan(latitude, longitude, maxDistanceKm, sport, fromDate.toEpochDay());
+        hits.sort(BY_DISTANCE);
+        return hits;
+    }
+
+    /**
+     * The {@code limit} closest events within {@code maxDistanceKm}.
+     *
+     * The search radius starts small and doubles until enough candidates are
+     * found: everything outside the current radius is farther than everything
+     * inside it, so the first {@code limit} sorted hits are exact.
+     */
+    public List<Hit> nearest(double latitude, double longitude, double maxDistanceKm,
+                             String sport, LocalDate fromDate, int limit) {
+        long minEpochDay = fromDate.toEpochDay();
+        double radius = Math.min(INITIAL_KNN_RADIUS_KM, maxDistanceKm);
+        List<Hit> hits;
+        while (true) {
+            hits = scan(latitude, longitude, radius, sport, minEpochDay);
+            if (hits.size() >= limit || radius >= maxDistanceKm) {
+                break;
+            }
+            radius = Math.min(radius * 2, maxDistanceKm);
+        }
+        hits.sort(BY_DISTANCE);
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    private List<Hit> scan(double latitude, double longitude, double maxDistanceKm,
+                           String sport, long minEpochDay) {
+        double clampedLatitude = Math.max(-90.0, Math.min(90.0, latitude));
+        double latitudeDelta = maxDistanceKm / KM_PER_LATITUDE_DEGREE;
+        double cosLatitude = Math.abs(Math.cos(Math.toRadians(clampedLatitude)));
+        double longitudeDelta = cosLatitude < 1e-6
+                ? 180.0
+                : maxDistanceKm / (KM_PER_LATITUDE_DEGREE * cosLatitude);
+
+        int minRow = row(Math.max(-90.0, clampedLatitude - latitudeDelta));
+        int maxRow = row(Math.min(90.0, clampedLatitude + latitudeDelta));
+        int minColumn = column(Math.max(-180.0, longitude - longitudeDelta));
+        int maxColumn = column(Math.min(180.0, longitude + longitudeDelta));
+
+        double latitudeRadians = Math.toRadians(latitude);
+        double cosOrigin = Math.cos(latitudeRadians);
+        List<Hit> hits = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            for (int r = minRow; r <= maxRow; r++) {
+                for (int c = minColumn; c <= maxColumn; c++) {
+                    Cell cell = cells.get(key(r, c));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < cell.size; i++) {
+                        if (cell.epochDays[i] < minEpochDay) {
+                            continue;
+                        }
+                        if (sport != null && !sport.equals(cell.sports[i])) {
+                            continue;
+                        }
+                        double distance = haversine(latitudeRadians, cosOrigin, longitude,
+                                cell.latitudes[i], cell.longitudes[i]);
+                        if (distance <= maxDistanceKm) {
+                            hits.add(new Hit(cell.ids[i], distance));
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return hits;
+    }
+
+    private void insert(Entry entry) {
+        if (entry.latitude() == null || entry.longitude() == null || entry.date() == null) {
+            return;
+        }
+        long key = key(row(entry.latitude()), column(entry.longitude()));
+        cells.computeIfAbsent(key, k -> new Cell()).add(entry);
+        cellByEvent.put(entry.eventId(), key);
+    }
+
+    private void removeInternal(UUID eventId) {
+        Long key = cellByEvent.remove(eventId);
+        if (key == null) {
+            return;
+        }
+        Cell cell = cells.get(key);
+        if (cell == null) {
+            return;
+        }
+        int index = cell.indexOf(eventId);
+        if (index >= 0) {
+            cell.removeAt(index);
+        }
+        if (cell.size == 0) {
+            cells.remove(key);
+        }
+    }
+
+    private static int row(double latitude) {
+        return (int) Math.floor((latitude + 90.0) / CELL_DEGREES);
+    }
+
+    private static int column(double longitude) {
+        return (int) Math.floor((longitude + 180.0) / CELL_DEGREES);
+    }
+
+    private static long key(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+
+    private static double haversine(double lat1Radians, double cosLat1, double lon1,
+                                    double lat2, double lon2) {
+        double lat2Radians = Math.toRadians(lat2);
+        double sinLat = Math.sin((lat2Radians - lat1Radians) / 2);
+        double sinLon = Math.sin(Math.toRadians(lon2 - lon1) / 2);
+        double a = sinLat * sinLat + cosLat1 * Math.cos(lat2Radians) * sinLon * sinLon;
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    /**
+     * Indexed view of an event: only what the nearby search needs.
+     */
+    public record Entry(UUID eventId, String sport, Double latitude, Double longitude, LocalDate date) {}
+
+    public record Hit(UUID eventId, double distanceKm) {}
+
+    private static final class Cell {
+        private UUID[] ids = new UUID[4];
+        private String[] sports = new String[4];
+        private double[] latitudes = new double[4];
+        private double[] longitudes = new double[4];
+        private long[] epochDays = new long[4];
+        private int size;
+
+        void add(Entry entry) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                sports = Arrays.copyOf(sports, capacity);
+                latitudes = Arrays.copyOf(latitudes, capacity);
+                longitudes = Arrays.copyOf(longitudes, capacity);
+                epochDays = Arrays.copyOf(epochDays, capacity);
+            }
+            ids[size] = entry.eventId();
+            sports[size] = entry.sport();
+            latitudes[size] = entry.latitude();
+            longitudes[size] = entry.longitude();
+            epochDays[size] = entry.date().toEpochDay();
+            size++;
+        }
+
+        int indexOf(UUID eventId) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i].equals(eventId)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Swap-with-last removal: order inside a cell is irrelevant.
+         */
+        void removeAt(int index) {
+            int last = size - 1;
+            ids[index] = ids[last];
+            sports[index] = sports[last];
+            latitudes[index] = latitudes[last];
+            longitudes[index] = longitudes[last];
+            epochDays[index] = epochDays[last];
+            ids[last] = null;
+            sports[last] = null;
+            size = last;
+        }
+    }
+}
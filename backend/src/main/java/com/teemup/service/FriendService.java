@@ -1,6 +1,8 @@
 package com.teemup.service;
 
 import com.teemup.dto.friend.FriendRequestResponse;
+import com.teemup.dto.friend.FriendshipChangedEvent;
+import com.teemup.dto.user.UserSummaryResponse;
 import com.teemup.entity.FriendRequest;
 import com.teemup.entity.Notification;
 import com.teemup.entity.User;
@@ -9,6 +11,7 @@ import com.teemup.exception.UserNotFoundException;
 import com.teemup.repository.FriendRequestRepository;
 import com.teemup.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,6 +26,8 @@ public class FriendService {
     private final FriendRequestRepository friendRequestRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PresenceService presenceService;
 
     @Transactional
     public FriendRequestResponse sendFriendRequest(UUID senderId, UUID receiverId) {
@@ -71,7 +76,7 @@ public class FriendService {
                 friendRequest.getId().toString()
         );
 
-        return FriendRequestResponse.fromEntity(friendRequest);
+        return toResponse(friendRequest);
     }
 
     @Transactional
@@ -96,6 +101,7 @@ public class FriendService {
 
         userRepository.save(sender);
         userRepository.save(receiver);
+        eventPublisher.publishEvent(new FriendshipChangedEvent(sender.getId(), receiver.getId(), true));
 
         friendRequest.setStatus(FriendRequest.FriendRequestStatus.ACCEPTED);
         friendRequest = friendRequestRepository.save(friendRequest);
@@ -110,7 +116,7 @@ public class FriendService {
                 friendRequest.getId().toString()
         );
 
-        return FriendRequestResponse.fromEntity(friendRequest);
+        return toResponse(friendRequest);
     }
 
     @Transactional
@@ -129,7 +135,7 @@ public class FriendService {
         friendRequest.setStatus(FriendRequest.FriendRequestStatus.REJECTED);
         friendRequest = friendRequestRepository.save(friendRequest);
 
-        return FriendRequestResponse.fromEntity(friendRequest);
+        return toResponse(friendRequest);
     }
 
     @Transactional
@@ -151,13 +157,13 @@ public class FriendService {
 
     public List<FriendRequestResponse> getPendingReceivedRequests(UUID userId) {
         return friendRequestRepository.findPendingRequestsByReceiverId(userId).stream()
-                .map(FriendRequestResponse::fromEntity)
+                .map(this::toResponse)
                 .collect(Collectors.toList());
     }
 
     public List<FriendRequestResponse> getPendingSentRequests(UUID userId) {
         return friendRequestRepository.findPendingRequestsBySenderId(userId).stream()
-                .map(FriendRequestResponse::fromEntity)
+                .map(this::toResponse)
                 .collect(Collectors.toList());
     }
 
@@ -174,5 +180,17 @@ public class FriendService {
 
         userRepository.save(user);
         userRepository.save(friend);
+        eventPublisher.publishEvent(new FriendshipChangedEvent(userId, friendId, false));
+    }
+
+    private FriendRequestResponse toResponse(FriendRequest friendRequest) {
+        FriendRequestResponse response = FriendRequestResponse.fromEntity(friendRequest);
+        showPresence(response.getSender());
+        showPresence(response.getReceiver());
+        return response;
+    }
+
+    private void showPresence(UserSummaryResponse user) {
+        user.setIsOnline(presenceService.isOnline(user.getId(), user.getIsOnline()));
     }
 }
@@ -0,0 +1,184 @@
+package com.teemup.service;
+
+import com.teemup.dto.messaging.MessageResponse;
+import com.teemup.entity.Conversation;
+import com.teemup.entity.Message;
+import com.teemup.entity.User;
+import com.teemup.exception.ConversationException;
+import com.teemup.exception.UserNotFoundException;
+import com.teemup.repository.ConversationReadStateRepository;
+import com.teemup.repository.ConversationRepository;
+import com.teemup.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Writes a batch of messages sent to one conversation in a single transaction: one participant
+ * lookup, one conversation update (sequence allocation and last-message pointer), one JDBC batch
+ * insert and one unread counter update per distinct sender.
+ *
+ * Messages are accepted or rejected one by one (sender not a participant...), the outcome of each
+ * is returned at the same index as the message.
+ */
+@Component
+@RequiredArgsConstructor
+public class MessageBatchWriter {
+
+    private static final String INSERT_MESSAGE = """
+            INSERT INTO messages
+                (id, content, sender_id, conversation_id, type, seq, is_edited, is_deleted, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, false, false, ?, ?)
+            """;
+
+    /**
+     * Reserves the sequence numbers of the batch and points the conversation at its last message.
+     * The row stays locked until commit, so messages of one conversation get gapless numbers in
+     * insert order and the last message always has the highest one. The messages are inserted
+     * afterwards, the foreign key on {@code last_message_id} is checked at commit.
+     */
+    private static final String RESERVE_SEQS = """
+            UPDATE conversations
+            SET message_seq = message_seq + ?,
+                last_message_id = ?,
+                last_message_seq = message_seq + ?,
+                last_message_preview = ?,
+                last_message_sender_id = ?,
+                last_message_at = ?
+            WHERE id = ?
+            RETURNING message_seq
+            """;
+
+    private final ConversationRepository conversationRepository;
+    private final UserRepository userRepository;
+    private final ConversationReadStateRepository conversationReadStateRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public List<Outcome> write(UUID conversationId, List<NewMessage> messages) {
+        Optional<Conversation> found = conversationRepository.findByIdWithParticipants(conversationId);
+        if (found.isEmpty()) {
+            return messages.stream()
+                    .map(message -> Outcome.rejected(ConversationException.notFound()))
+                    .collect(Collectors.toList());
+        }
+
+        Conversation conversation = found.get();
+        Map<UUID, User> participants = conversation.getParticipants().stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        int accepted = 0;
+        int lastIndex = -1;
+        for (int i = 0; i < messages.size(); i++) {
+            if (participants.containsKey(messages.get(i).senderId())) {
+                accepted++;
+                lastIndex = i;
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        UUID lastId = UUID.randomUUID();
+        long seq = accepted > 0
+                ? reserveSeqs(conversationId, accepted, lastId, messages.get(lastIndex), now)
+                : 0L;
+
+        List<Outcome> outcomes = new ArrayList<>(messages.size());
+        List<Message> inserted = new ArrayList<>(accepted);
+        for (int i = 0; i < messages.size(); i++) {
+            NewMessage newMessage = messages.get(i);
+            User sender = participants.get(newMessage.senderId());
+            if (sender == null) {
+                outcomes.add(Outcome.rejected(rejection(newMessage.senderId())));
+                continue;
+            }
+
+            Message message = Message.builder()
+                    .id(i == lastIndex ? lastId : UUID.randomUUID())
+                    .content(newMessage.content())
+                    .sender(sender)
+                    .conversation(conversation)
+                    .type(newMessage.type())
+                    .seq(seq++)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build();
+            inserted.add(message);
+            outcomes.add(Outcome.sent(MessageResponse.fromEntity(message)));
+        }
+
+        if (!inserted.isEmpty()) {
+            insert(inserted);
+            incrementUnreadCounts(conversationId, inserted);
+        }
+
+        return outcomes;
+    }
+
+    /**
+     * Reserves {@code count} sequence numbers, the last one for {@code last}, and returns the first one.
+     */
+    private long reserveSeqs(UUID conversationId, int count, UUID lastId, NewMessage last, LocalDateTime sentAt) {
+        Long seq = jdbcTemplate.queryForObject(RESERVE_SEQS, Long.class,
+                count, lastId, count, MessagingService.preview(last.content()), last.senderId(),
+                Timestamp.valueOf(sentAt), conversationId);
+        return seq - count + 1;
+    }
+
+    private void insert(List<Message> messages) {
+        jdbcTemplate.batchUpdate(INSERT_MESSAGE, messages.stream()
+                .map(message -> new Object[]{
+                        message.getId(),
+                        message.getContent(),
+                        message.getSender().getId(),
+                        message.getConversation().getId(),
+                        message.getType().name(),
+                        message.getSeq(),
+                        Timestamp.valueOf(message.getCreatedAt()),
+                        Timestamp.valueOf(message.getUpdatedAt())
+                })
+                .collect(Collectors.toList()));
+    }
+
+    private void incrementUnreadCounts(UUID conversationId, List<Message> messages) {
+        Map<UUID, Integer> countsBySender = new LinkedHashMap<>();
+        for (Message message : messages) {
+            countsBySender.merge(message.getSender().getId(), 1, Integer::sum);
+        }
+        countsBySender.forEach((senderId, count) ->
+                conversationReadStateRepository.incrementUnreadCounts(conversationId, senderId, count));
+    }
+
+    private RuntimeException rejection(UUID senderId) {
+        return userRepository.existsById(senderId)
+                ? ConversationException.notParticipant()
+                : new UserNotFoundException(senderId);
+    }
+
+    public record NewMessage(UUID senderId, String content, Message.MessageType type) {
+    }
+
+    /**
+     * Either the sent message or the reason it was rejected.
+     */
+    public record Outcome(MessageResponse message, RuntimeException error) {
+
+        static Outcome sent(MessageResponse message) {
+            return new Outcome(message, null);
+        }
+
+        static Outcome rejected(RuntimeException error) {
+            return new Outcome(null, error);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.teemup.service;
+
+import com.teemup.dto.messaging.MessageResponse;
+import com.teemup.exception.ConversationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Group commit of sent messages.
+ *
+ * Each conversation has a lane of pending messages and at most one batch in flight: messages sent
+ * while a batch is being written queue up and go together in the next one, written by
+ * {@link MessageBatchWriter} in a single transaction. Busy conversations therefore take the
+ * conversation row lock once per batch instead of once per message. Each caller blocks until its
+ * own message is committed (or rejected) and gets its own response.
+ *
+ * A lane writes one batch per executor task and reschedules itself if more messages are pending,
+ * so a busy conversation does not hold a worker while others wait.
+ *
+ * A caller waits at most {@code timeoutMillis}; if its message was not picked up by then, it is
+ * withdrawn and never written. If the executor refuses a lane, its pending messages fail at once.
+ */
+@Component
+public class MessageIngestPipeline {
+
+    private final MessageBatchWriter writer;
+    private final Executor executor;
+    private final int maxBatchSize;
+    private final long timeoutMillis;
+    private final ConcurrentMap<UUID, Lane> lanes = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final Timer latency;
+    private final DistributionSummary batchSize;
+    private final Counter sent;
+    private final Counter rejected;
+
+    @Autowired
+    public MessageIngestPipeline(MessageBatchWriter writer,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${messaging.ingest.max-batch-size:100}") int maxBatchSize,
+                                 @Value("${messaging.ingest.threads:8}") int threads,
+                                 @Value("${messaging.ingest.timeout-ms:10000}") long timeoutMillis) {
+        this(writer, meterRegistry, maxBatchSize, timeoutMillis, Executors.newFixedThreadPool(threads, workerThreads()));
+    }
+
+    MessageIngestPipeline(MessageBatchWriter writer, MeterRegistry meterRegistry, int maxBatchSize, long timeoutMillis,
+                          Executor executor) {
+        this.writer = writer;
+        this.executor = executor;
+        this.maxBatchSize = maxBatchSize;
+        this.timeoutMillis = timeoutMillis;
+
+        this.latency = Timer.builder("messaging.ingest.latency")
+                .description("Time from send to commit of a message")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("messaging.ingest.batch.size")
+                .description("Messages written per transaction")
+                .register(meterRegistry);
+        this.sent = Counter.builder("messaging.ingest.messages").tag("result", "sent")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("messaging.ingest.messages").tag("result", "rejected")
+                .register(meterRegistry);
+        Gauge.builder("messaging.ingest.pending", pending, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sends a message and waits for it to be committed. Rejections (not a participant...) and write
+     * failures are rethrown to the caller as they were raised; a message still waiting for its batch
+     * after {@code timeoutMillis} is withdrawn and fails with {@link ConversationException#sendTimedOut()}.
+     */
+    public MessageResponse send(UUID conversationId, MessageBatchWriter.NewMessage message) {
+        Submission submission = new Submission(message, new CompletableFuture<>(), System.nanoTime());
+
+        Lane lane = lanes.computeIfAbsent(conversationId, id -> new Lane());
+        boolean schedule;
+        synchronized (lane) {
+            lane.pending.add(submission);
+            schedule = !lane.scheduled;
+            lane.scheduled = true;
+        }
+        pending.incrementAndGet();
+        if (schedule) {
+            schedule(conversationId, lane);
+        }
+
+        try {
+            return submission.result().get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            withdraw(lane, submission);
+            throw ConversationException.sendTimedOut();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            withdraw(lane, submission);
+            throw ConversationException.sendTimedOut();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+            try {
+                executorService.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Writes the next batch of the lane, then reschedules it or, if nothing is left, retires it.
+     * A retired lane that was still handed out keeps working on its own, at worst two batches
+     * of the same conversation are then written concurrently, which the row lock serializes.
+     */
+    private void drain(UUID conversationId, Lane lane) {
+        List<Submission> batch = new ArrayList<>();
+        synchronized (lane) {
+            while (!lane.pending.isEmpty() && batch.size() < maxBatchSize) {
+                batch.add(lane.pending.poll());
+            }
+        }
+        pending.addAndGet(-batch.size());
+
+        if (!batch.isEmpty()) {
+            write(conversationId, batch);
+        }
+
+        boolean more;
+        synchronized (lane) {
+            more = !lane.pending.isEmpty();
+            if (!more) {
+                lane.scheduled = false;
+                lanes.remove(conversationId, lane);
+            }
+        }
+        if (more) {
+            schedule(conversationId, lane);
+        }
+    }
+
+    /**
+     * Hands the lane to the executor. If it is refused (shut down...), the lane is retired and every
+     * message pending in it fails, rather than waiting for a batch that never comes.
+     */
+    private void schedule(UUID conversationId, Lane lane) {
+        try {
+            executor.execute(() -> drain(conversationId, lane));
+        } catch (RuntimeException e) {
+            List<Submission> failed;
+            synchronized (lane) {
+                failed = new ArrayList<>(lane.pending);
+                lane.pending.clear();
+                lane.scheduled = false;
+                lanes.remove(conversationId, lane);
+            }
+            pending.addAndGet(-failed.size());
+            failed.forEach(submission -> complete(submission, MessageBatchWriter.Outcome.rejected(e)));
+        }
+    }
+
+    /**
+     * Removes a message its caller stopped waiting for, unless its batch already took it: then it
+     * may still be committed.
+     */
+    private void withdraw(Lane lane, Submission submission) {
+        boolean removed;
+        synchronized (lane) {
+            removed = lane.pending.remove(submission);
+        }
+        if (removed) {
+            pending.decrementAndGet();
+            rejected.increment();
+        }
+    }
+
+    private void write(UUID conversationId, List<Submission> batch) {
+        batchSize.record(batch.size());
+
+        List<MessageBatchWriter.Outcome> outcomes;
+        try {
+            outcomes = writer.write(conversationId, batch.stream().map(Submission::message).toList());
+        } catch (RuntimeException e) {
+            // The whole transaction rolled back: every message of the batch failed
+            batch.forEach(submission -> complete(submission, MessageBatchWriter.Outcome.rejected(e)));
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            complete(batch.get(i), outcomes.get(i));
+        }
+    }
+
+    private void complete(Submission submission, MessageBatchWriter.Outcome outcome) {
+        latency.record(System.nanoTime() - submission.submittedAt(), TimeUnit.NANOSECONDS);
+        if (outcome.error() != null) {
+            rejected.increment();
+            submission.result().completeExceptionally(outcome.error());
+        } else {
+            sent.increment();
+            submission.result().complete(outcome.message());
+        }
+    }
+
+    private static ThreadFactory workerThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "message-ingest-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Lane {
+        private final ArrayDeque<Submission> pending = new ArrayDeque<>();
+        private boolean scheduled;
+    }
+
+    private record Submission(
+            MessageBatchWriter.NewMessage message,
+            CompletableFuture<MessageResponse> result,
+            long submittedAt
+    ) {
+    }
+}
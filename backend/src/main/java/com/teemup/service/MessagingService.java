@@ -1,14 +1,20 @@
 package com.teemup.service;
 
+import com.teemup.dto.common.CursorPageResponse;
 import com.teemup.dto.messaging.ConversationRequest;
 import com.teemup.dto.messaging.ConversationResponse;
 import com.teemup.dto.messaging.MessageRequest;
 import com.teemup.dto.messaging.MessageResponse;
+import com.teemup.dto.messaging.ReadStateResponse;
+import com.teemup.dto.messaging.SyncResponse;
+import com.teemup.dto.user.UserSummaryResponse;
 import com.teemup.entity.Conversation;
+import com.teemup.entity.ConversationReadState;
 import com.teemup.entity.Message;
 import com.teemup.entity.User;
 import com.teemup.exception.ConversationException;
 import com.teemup.exception.UserNotFoundException;
+import com.teemup.repository.ConversationReadStateRepository;
 import com.teemup.repository.ConversationRepository;
 import com.teemup.repository.MessageRepository;
 import com.teemup.repository.UserRepository;
@@ -20,6 +26,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -32,9 +39,16 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class MessagingService {
 
+    private static final int LAST_MESSAGE_PREVIEW_LENGTH = 255;
+    private static final int MAX_SYNC_MESSAGES = 500;
+
     private final ConversationRepository conversationRepository;
     private final MessageRepository messageRepository;
     private final UserRepository userRepository;
+    private final ConversationReadStateRepository conversationReadStateRepository;
+    private final MessageIngestPipeline messageIngestPipeline;
+    private final ConversationMembershipCache conversationMembershipCache;
+    private final PresenceService presenceService;
 
     @Transactional
     public ConversationResponse createConversation(UUID creatorId, ConversationRequest request) {
@@ -61,7 +75,7 @@ public class MessagingService {
             UUID otherUserId = request.getParticipantIds().iterator().next();
             Optional<Conversation> existingConversation = conversationRepository.findPrivateConversation(creatorId, otherUserId);
             if (existingConversation.isPresent()) {
-                return ConversationResponse.fromEntity(existingConversation.get());
+                return withPresence(ConversationResponse.fromEntity(existingConversation.get()));
             }
         }
 
@@ -95,47 +109,44 @@ public class MessagingService {
 
         try {
             conversation = conversationRepository.save(conversation);
-            return ConversationResponse.fromEntity(conversation);
+            createReadStates(conversation, participants);
+
+            UUID conversationId = conversation.getId();
+            Set<UUID> memberIds = participants.stream().map(User::getId).collect(Collectors.toSet());
+            AfterCommit.run(() -> conversationMembershipCache.put(conversationId, memberIds));
+            return withPresence(ConversationResponse.fromEntity(conversation));
         } catch (org.springframework.dao.DataIntegrityViolationException e) {
             // Race condition: another thread created the conversation, fetch and return it
             if (participants.size() == 2 && type == Conversation.ConversationType.PRIVATE) {
                 UUID otherUserId = request.getParticipantIds().iterator().next();
                 return conversationRepository.findPrivateConversation(creatorId, otherUserId)
                         .map(ConversationResponse::fromEntity)
+                        .map(this::withPresence)
                         .orElseThrow(ConversationException::creationFailed);
             }
             throw e;
         }
     }
 
+    /**
+     * Inbox of a user in two queries: conversations with their unread counter and cached
+     * last message, then the read watermarks behind {@code lastMessage.readBy}.
+     */
     public List<ConversationResponse> getUserConversations(UUID userId) {
-        List<Conversation> conversations = conversationRepository.findByParticipantId(userId);
+        List<ConversationReadState> inbox = conversationReadStateRepository.findInboxByUserId(userId);
 
-        if (conversations.isEmpty()) {
+        if (inbox.isEmpty()) {
             return List.of();
         }
 
-        // Batch fetch last messages for all conversations (1 query instead of N)
-        List<UUID> conversationIds = conversations.stream()
-                .map(Conversation::getId)
+        List<UUID> conversationIds = inbox.stream()
+                .map(state -> state.getConversation().getId())
                 .collect(Collectors.toList());
+        Map<UUID, List<ConversationReadStateRepository.ReadWatermark>> watermarks =
+                watermarksByConversation(conversationIds);
 
-        Map<UUID, MessageResponse> lastMessageMap = messageRepository
-                .findLastMessagesByConversationIds(conversationIds).stream()
-                .collect(Collectors.toMap(
-                        m -> m.getConversation().getId(),
-                        MessageResponse::fromEntity,
-                        (a, b) -> a // in case of duplicates, keep first
-                ));
-
-        // Unread counts still require per-conversation queries due to user-specific read tracking
-        // but we avoid the N+1 for last messages
-        return conversations.stream()
-                .map(conv -> {
-                    MessageResponse lastMessage = lastMessageMap.get(conv.getId());
-                    Long unreadCount = messageRepository.countUnreadMessages(conv.getId(), userId);
-                    return ConversationResponse.fromEntityWithDetails(conv, lastMessage, unreadCount);
-                })
+        return inbox.stream()
+                .map(state -> inboxEntry(state, watermarks))
                 .collect(Collectors.toList());
     }
 
@@ -150,69 +161,65 @@ public class MessagingService {
             throw ConversationException.notParticipant();
         }
 
-        Page<Message> lastMessages = messageRepository.findByConversationId(
-                conversationId,
-                PageRequest.of(0, 1)
-        );
-        MessageResponse lastMessage = lastMessages.hasContent()
-                ? MessageResponse.fromEntity(lastMessages.getContent().get(0))
+        MessageResponse lastMessage = conversation.getLastMessageId() != null
+                ? lastMessageResponse(conversation, watermarks(conversationId))
                 : null;
 
-        Long unreadCount = messageRepository.countUnreadMessages(conversationId, userId);
+        Long unreadCount = conversationReadStateRepository.findByConversationIdAndUserId(conversationId, userId)
+                .map(state -> state.getUnreadCount().longValue())
+                .orElse(0L);
 
-        return ConversationResponse.fromEntityWithDetails(conversation, lastMessage, unreadCount);
+        return withPresence(ConversationResponse.fromEntityWithDetails(conversation, lastMessage, unreadCount));
     }
 
-    @Transactional
+    /**
+     * Sends a message through the ingest pipeline, which writes concurrent sends to the same
+     * conversation together. Returns once the message is committed.
+     */
     public MessageResponse sendMessage(UUID senderId, MessageRequest request) {
-        User sender = userRepository.findById(senderId)
-                .orElseThrow(() -> new UserNotFoundException(senderId));
-
-        Conversation conversation = conversationRepository.findByIdWithParticipants(request.getConversationId())
-                .orElseThrow(ConversationException::notFound);
-
-        // Verify user is a participant of the conversation
-        boolean isParticipant = conversation.getParticipants().stream()
-                .anyMatch(p -> p.getId().equals(senderId));
-        if (!isParticipant) {
-            throw ConversationException.notParticipant();
-        }
-
         Message.MessageType type = Message.MessageType.TEXT;
         if (request.getType() != null) {
             type = Message.MessageType.valueOf(request.getType());
         }
 
-        Message message = Message.builder()
-                .content(request.getContent())
-                .sender(sender)
-                .conversation(conversation)
-                .type(type)
-                .readBy(new HashSet<>(Set.of(senderId)))
-                .build();
-
-        message = messageRepository.save(message);
-
-        conversation.setLastMessageAt(LocalDateTime.now());
-        conversationRepository.save(conversation);
-
-        return MessageResponse.fromEntity(message);
+        return withPresence(messageIngestPipeline.send(request.getConversationId(),
+                new MessageBatchWriter.NewMessage(senderId, request.getContent(), type)));
     }
 
     public Page<MessageResponse> getMessages(UUID conversationId, UUID userId, int page, int size) {
-        Conversation conversation = conversationRepository.findById(conversationId)
-                .orElseThrow(ConversationException::notFound);
-
-        boolean isParticipant = conversation.getParticipants().stream()
-                .anyMatch(p -> p.getId().equals(userId));
-
-        if (!isParticipant) {
-            throw ConversationException.notParticipant();
-        }
+        requireParticipant(conversationId, userId);
 
         Pageable pageable = PageRequest.of(page, size);
+        List<ConversationReadStateRepository.ReadWatermark> watermarks = watermarks(conversationId);
         return messageRepository.findByConversationId(conversationId, pageable)
-                .map(MessageResponse::fromEntity);
+                .map(message -> toResponse(message, watermarks));
+    }
+
+    /**
+     * Message history paged by sequence number, newest first: the {@code limit} messages before
+     * {@code beforeSeq} (or the latest ones when null). {@code nextCursor} is the {@code beforeSeq}
+     * of the next (older) page. Deleted messages are returned as tombstones, so a client that sees
+     * a hole between two sequence numbers knows it missed messages.
+     */
+    public CursorPageResponse<MessageResponse> getMessageHistory(
+            UUID conversationId,
+            UUID userId,
+            Long beforeSeq,
+            int limit
+    ) {
+        requireParticipant(conversationId, userId);
+
+        List<Message> rows = messageRepository.findHistoryBefore(
+                conversationId, beforeSeq != null ? beforeSeq : Long.MAX_VALUE, PageRequest.of(0, limit + 1));
+        boolean hasNext = rows.size() > limit;
+        List<Message> page = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? String.valueOf(page.get(page.size() - 1).getSeq()) : null;
+
+        List<ConversationReadStateRepository.ReadWatermark> watermarks = watermarks(conversationId);
+        List<MessageResponse> content = page.stream()
+                .map(message -> toResponse(message, watermarks))
+                .collect(Collectors.toList());
+        return new CursorPageResponse<>(content, nextCursor, hasNext);
     }
 
     @Transactional
@@ -227,8 +234,10 @@ public class MessagingService {
         message.setContent(newContent);
         message.setIsEdited(true);
         message = messageRepository.save(message);
+        conversationRepository.updateLastMessagePreview(
+                message.getConversation().getId(), messageId, preview(newContent));
 
-        return MessageResponse.fromEntity(message);
+        return toResponse(message, watermarks(message.getConversation().getId()));
     }
 
     @Transactional
@@ -240,25 +249,88 @@ public class MessagingService {
             throw ConversationException.notMessageSender();
         }
 
+        boolean wasDeleted = message.getIsDeleted();
         message.setIsDeleted(true);
         message.setContent("[Message deleted]");
         messageRepository.save(message);
+
+        // The conversation falls back to its previous message. Its row is locked before the read
+        // states, in the order a send takes them: a delete and a send may wait on each other, but
+        // never deadlock
+        Conversation conversation = message.getConversation();
+        if (messageId.equals(conversation.getLastMessageId())) {
+            Optional<Message> previous = messageRepository
+                    .findFirstByConversationIdAndIsDeletedFalseOrderBySeqDesc(conversation.getId());
+            if (previous.isPresent()) {
+                Message last = previous.get();
+                conversationRepository.replaceLastMessage(conversation.getId(), messageId, last.getId(),
+                        last.getSeq(), preview(last.getContent()), last.getSender(), last.getCreatedAt());
+            } else {
+                conversationRepository.clearLastMessage(conversation.getId(), messageId);
+            }
+        }
+
+        if (!wasDeleted) {
+            conversationReadStateRepository.decrementUnreadCounts(conversation.getId(), userId, message.getSeq());
+        }
     }
 
     @Transactional
     public void markMessagesAsRead(UUID conversationId, UUID userId) {
-        Conversation conversation = conversationRepository.findByIdWithParticipants(conversationId)
-                .orElseThrow(ConversationException::notFound);
+        requireParticipant(conversationId, userId);
 
-        // Verify user is a participant of the conversation
-        boolean isParticipant = conversation.getParticipants().stream()
-                .anyMatch(p -> p.getId().equals(userId));
-        if (!isParticipant) {
-            throw ConversationException.notParticipant();
+        // Move the user's read watermark to the latest message and clear their counter (single-row upsert)
+        conversationReadStateRepository.markConversationAsRead(conversationId, userId);
+    }
+
+    /**
+     * Delta sync for a reconnecting client: the inbox entries, messages (new, edited or deleted)
+     * and read watermarks of the user's conversations that changed since {@code since}. Without
+     * a token, or when more than {@value #MAX_SYNC_MESSAGES} messages changed, only a fresh
+     * token is returned with {@code fullResync} set.
+     */
+    public SyncResponse sync(UUID userId, String since) {
+        // Taken before reading: what commits meanwhile is returned again next time rather than missed
+        String token = CursorCodec.encode(messageRepository.currentChangeVersion());
+        if (since == null) {
+            return fullResync(token);
         }
+        long sinceVersion = decodeSyncToken(since);
 
-        // Use batch update to mark all unread messages as read in a single query
-        messageRepository.markAllAsReadBatch(conversationId, userId);
+        List<Message> messages = messageRepository.findChangedForParticipant(
+                userId, sinceVersion, PageRequest.of(0, MAX_SYNC_MESSAGES + 1));
+        if (messages.size() > MAX_SYNC_MESSAGES) {
+            return fullResync(token);
+        }
+        List<ConversationReadState> inbox = conversationReadStateRepository.findChangedInboxByUserId(userId, sinceVersion);
+        List<ConversationReadStateRepository.ReadWatermark> readStates =
+                conversationReadStateRepository.findChangedWatermarks(userId, sinceVersion);
+
+        Set<UUID> conversationIds = new HashSet<>();
+        inbox.forEach(state -> conversationIds.add(state.getConversation().getId()));
+        messages.forEach(message -> conversationIds.add(message.getConversation().getId()));
+        Map<UUID, List<ConversationReadStateRepository.ReadWatermark>> watermarks = conversationIds.isEmpty()
+                ? Map.of()
+                : watermarksByConversation(conversationIds);
+
+        return SyncResponse.builder()
+                .token(token)
+                .fullResync(false)
+                .conversations(inbox.stream()
+                        .map(state -> inboxEntry(state, watermarks))
+                        .collect(Collectors.toList()))
+                .messages(messages.stream()
+                        .map(message -> toResponse(message,
+                                watermarks.getOrDefault(message.getConversation().getId(), List.of())))
+                        .collect(Collectors.toList()))
+                .readStates(readStates.stream()
+                        .map(watermark -> ReadStateResponse.builder()
+                                .conversationId(watermark.getConversationId())
+                                .userId(watermark.getUserId())
+                                .lastReadSeq(watermark.getLastReadSeq())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
     }
 
     public Optional<Conversation> findPrivateConversation(UUID user1Id, UUID user2Id) {
@@ -266,9 +338,150 @@ public class MessagingService {
     }
 
     public boolean isParticipant(UUID conversationId, UUID userId) {
-        return conversationRepository.findById(conversationId)
-                .map(conv -> conv.getParticipants().stream()
-                        .anyMatch(p -> p.getId().equals(userId)))
-                .orElse(false);
+        return conversationMembershipCache.isMember(conversationId, userId);
+    }
+
+    /**
+     * Participant check from the membership cache; the conversation is only looked up to tell
+     * an unknown conversation from a foreign one.
+     */
+    private void requireParticipant(UUID conversationId, UUID userId) {
+        if (conversationMembershipCache.isMember(conversationId, userId)) {
+            return;
+        }
+        if (!conversationRepository.existsById(conversationId)) {
+            throw ConversationException.notFound();
+        }
+        throw ConversationException.notParticipant();
+    }
+
+    /**
+     * Starts every participant's read watermark at the creation of the conversation.
+     */
+    private void createReadStates(Conversation conversation, Collection<User> participants) {
+        LocalDateTime now = LocalDateTime.now();
+        conversationReadStateRepository.saveAll(participants.stream()
+                .map(participant -> ConversationReadState.builder()
+                        .conversation(conversation)
+                        .user(participant)
+                        .lastReadAt(now)
+                        .build())
+                .collect(Collectors.toList()));
+    }
+
+    private static SyncResponse fullResync(String token) {
+        return SyncResponse.builder()
+                .token(token)
+                .fullResync(true)
+                .conversations(List.of())
+                .messages(List.of())
+                .readStates(List.of())
+                .build();
+    }
+
+    private static long decodeSyncToken(String token) {
+        try {
+            return CursorCodec.decode(token, 1, parts -> Long.parseLong(parts[0]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Jeton de synchronisation invalide", e);
+        }
+    }
+
+    private List<ConversationReadStateRepository.ReadWatermark> watermarks(UUID conversationId) {
+        return conversationReadStateRepository.findWatermarks(List.of(conversationId));
+    }
+
+    private Map<UUID, List<ConversationReadStateRepository.ReadWatermark>> watermarksByConversation(
+            Collection<UUID> conversationIds
+    ) {
+        return conversationReadStateRepository.findWatermarks(conversationIds).stream()
+                .collect(Collectors.groupingBy(ConversationReadStateRepository.ReadWatermark::getConversationId));
+    }
+
+    private MessageResponse toResponse(
+            Message message,
+            List<ConversationReadStateRepository.ReadWatermark> watermarks
+    ) {
+        return withPresence(MessageResponse.fromEntity(
+                message, readersOf(message.getSender().getId(), message.getSeq(), watermarks)));
+    }
+
+    /**
+     * Conversation of a user's inbox, with its cached last message and the user's unread counter.
+     */
+    private ConversationResponse inboxEntry(
+            ConversationReadState state,
+            Map<UUID, List<ConversationReadStateRepository.ReadWatermark>> watermarks
+    ) {
+        Conversation conv = state.getConversation();
+        MessageResponse lastMessage = lastMessageResponse(conv, watermarks.getOrDefault(conv.getId(), List.of()));
+        return withPresence(ConversationResponse.fromEntityWithDetails(
+                conv, lastMessage, state.getUnreadCount().longValue()));
+    }
+
+    /**
+     * Participants and last message sender as online or offline right now, rather than as persisted.
+     */
+    private ConversationResponse withPresence(ConversationResponse conversation) {
+        conversation.getParticipants().forEach(this::showPresence);
+        if (conversation.getLastMessage() != null) {
+            withPresence(conversation.getLastMessage());
+        }
+        return conversation;
+    }
+
+    private MessageResponse withPresence(MessageResponse message) {
+        if (message.getSender() != null) {
+            showPresence(message.getSender());
+        }
+        return message;
+    }
+
+    private void showPresence(UserSummaryResponse user) {
+        user.setIsOnline(presenceService.isOnline(user.getId(), user.getIsOnline()));
+    }
+
+    /**
+     * Last message of a conversation as cached on the conversation itself, or null if it has none.
+     */
+    private static MessageResponse lastMessageResponse(
+            Conversation conversation,
+            List<ConversationReadStateRepository.ReadWatermark> watermarks
+    ) {
+        if (conversation.getLastMessageId() == null) {
+            return null;
+        }
+        User sender = conversation.getLastMessageSender();
+        return MessageResponse.fromConversationPreview(conversation, readersOf(
+                sender != null ? sender.getId() : null, conversation.getLastMessageSeq(), watermarks));
+    }
+
+    /**
+     * A message is read by its sender and by every participant whose watermark reaches it.
+     */
+    private static Set<UUID> readersOf(
+            UUID senderId,
+            Long seq,
+            List<ConversationReadStateRepository.ReadWatermark> watermarks
+    ) {
+        Set<UUID> readBy = new HashSet<>();
+        if (senderId != null) {
+            readBy.add(senderId);
+        }
+        if (seq != null) {
+            for (ConversationReadStateRepository.ReadWatermark watermark : watermarks) {
+                if (watermark.getLastReadSeq() >= seq) {
+                    readBy.add(watermark.getUserId());
+                }
+            }
+        }
+        return readBy;
+    }
+
+    static String preview(String content) {
+        if (content == null || content.length() <= LAST_MESSAGE_PREVIEW_LENGTH) {
+            return content;
+        }
+        return content.substring(0, LAST_MESSAGE_PREVIEW_LENGTH);
     }
 }
@@ -26,6 +26,7 @@ public class ModerationService {
     private final UserReportRepository reportRepository;
     private final UserBlockRepository blockRepository;
     private final UserRepository userRepository;
+    private final PresenceService presenceService;
 
     @Transactional
     public void reportUser(UUID reporterId, UUID reportedUserId, ReportUserRequest request) {
@@ -89,7 +90,7 @@ public class ModerationService {
     @Transactional(readOnly = true)
     public List<UserSummaryResponse> getBlockedUsers(UUID userId) {
         return blockRepository.findByBlockerId(userId).stream()
-                .map(block -> UserSummaryResponse.fromEntity(block.getBlockedUser()))
+                .map(block -> toSummary(block.getBlockedUser()))
                 .collect(Collectors.toList());
     }
 
@@ -103,4 +104,10 @@ public class ModerationService {
     public List<UUID> getBlockedUserIds(UUID userId) {
         return blockRepository.findAllBlockRelatedUserIds(userId);
     }
+
+    private UserSummaryResponse toSummary(User user) {
+        UserSummaryResponse response = UserSummaryResponse.fromEntity(user);
+        response.setIsOnline(presenceService.isOnline(user.getId(), user.getIsOnline()));
+        return response;
+    }
 }
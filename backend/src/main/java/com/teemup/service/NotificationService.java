@@ -1,12 +1,15 @@
 package com.teemup.service;
 
+import com.teemup.dto.notification.NotificationCreatedEvent;
 import com.teemup.dto.notification.NotificationResponse;
+import com.teemup.dto.user.UserSummaryResponse;
 import com.teemup.entity.Notification;
 import com.teemup.entity.User;
 import com.teemup.exception.NotificationException;
 import com.teemup.repository.NotificationRepository;
 import com.teemup.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
@@ -22,6 +25,8 @@ public class NotificationService {
 
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PresenceService presenceService;
 
     @Transactional
     public NotificationResponse createNotification(
@@ -31,6 +36,22 @@ public class NotificationService {
             String title,
             String content,
             String referenceId
+    ) {
+        return announce(prepareNotification(recipient, fromUser, type, title, content, referenceId));
+    }
+
+    /**
+     * Saves a notification without pushing it yet, for a caller that only knows later in its
+     * transaction whether it stands: {@link #announce} pushes it, {@link #discard} drops it.
+     */
+    @Transactional
+    public Notification prepareNotification(
+            User recipient,
+            User fromUser,
+            Notification.NotificationType type,
+            String title,
+            String content,
+            String referenceId
     ) {
         Notification notification = Notification.builder()
                 .user(recipient)
@@ -42,20 +63,30 @@ public class NotificationService {
                 .isRead(false)
                 .build();
 
-        notification = notificationRepository.save(notification);
-        return NotificationResponse.fromEntity(notification);
+        return notificationRepository.save(notification);
+    }
+
+    public NotificationResponse announce(Notification notification) {
+        NotificationResponse response = toResponse(notification);
+        eventPublisher.publishEvent(new NotificationCreatedEvent(notification.getUser().getId(), response));
+        return response;
+    }
+
+    @Transactional
+    public void discard(Notification notification) {
+        notificationRepository.delete(notification);
     }
 
     public Page<NotificationResponse> getUserNotifications(UUID userId, int page, int size) {
         return notificationRepository.findByUserIdOrderByCreatedAtDesc(
                 userId,
                 PageRequest.of(page, size)
-        ).map(NotificationResponse::fromEntity);
+        ).map(this::toResponse);
     }
 
     public List<NotificationResponse> getUnreadNotifications(UUID userId) {
         return notificationRepository.findByUserIdAndIsReadFalseOrderByCreatedAtDesc(userId).stream()
-                .map(NotificationResponse::fromEntity)
+                .map(this::toResponse)
                 .collect(Collectors.toList());
     }
 
@@ -75,7 +106,7 @@ public class NotificationService {
         notification.setIsRead(true);
         notification = notificationRepository.save(notification);
 
-        return NotificationResponse.fromEntity(notification);
+        return toResponse(notification);
     }
 
     @Transactional
@@ -94,4 +125,13 @@ public class NotificationService {
 
         notificationRepository.delete(notification);
     }
+
+    private NotificationResponse toResponse(Notification notification) {
+        NotificationResponse response = NotificationResponse.fromEntity(notification);
+        UserSummaryResponse fromUser = response.getFromUser();
+        if (fromUser != null) {
+            fromUser.setIsOnline(presenceService.isOnline(fromUser.getId(), fromUser.getIsOnline()));
+        }
+        return response;
+    }
 }
@@ -0,0 +1,380 @@
+package com.teemup.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Presence of the users across the nodes, held in memory.
+ *
+ * Each node knows the users connected to it and, from the presence events and periodic snapshots
+ * of the other nodes, the users connected to them. A user is online while any node holds one of
+ * their sessions: a user with devices on two nodes stays online when one of them goes. A node not
+ * heard from for {@code nodeTimeoutMillis} is dropped along with its users.
+ *
+ * Connections and disconnections only touch memory; the {@code is_online} / {@code last_seen}
+ * columns are written by {@link #flush()} in one batch, by the node that saw the user come online
+ * or go offline cluster-wide. A change is written once it has been stable for
+ * {@code debounceMillis}: a user who drops and comes back within that window (a reconnecting
+ * client, a flaky network) causes no write at all.
+ *
+ * The persisted flag is only relied on while this node has not yet heard from every live node,
+ * for {@code nodeTimeoutMillis} after it started: a live node sends its users more often than
+ * that. Past it, a flag still true for a user no node holds was left by a node that died with
+ * its sessions (a single node, or every node at once, with no survivor to write them offline).
+ */
+@Service
+@Slf4j
+public class PresenceService {
+
+    private static final String UPDATE_PRESENCE =
+            "UPDATE users SET is_online = ?, last_seen = COALESCE(?, last_seen) WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long debounceMillis;
+    private final long nodeTimeoutMillis;
+    private final Clock clock;
+    private final long startedAt;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Set<UUID> online = ConcurrentHashMap.newKeySet();
+    private final Map<String, RemoteNode> remoteNodes = new ConcurrentHashMap<>();
+    private long localSeq;
+    private final Map<UUID, Change> pending = new ConcurrentHashMap<>();
+
+    private final Counter writes;
+
+    @Autowired
+    public PresenceService(JdbcTemplate jdbcTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${presence.debounce-ms:10000}") long debounceMillis,
+                           @Value("${presence.node-timeout-ms:30000}") long nodeTimeoutMillis) {
+        this(jdbcTemplate, meterRegistry, debounceMillis, nodeTimeoutMillis, Clock.systemDefaultZone());
+    }
+
+    PresenceService(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry, long debounceMillis,
+                    long nodeTimeoutMillis, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.debounceMillis = debounceMillis;
+        this.nodeTimeoutMillis = nodeTimeoutMillis;
+        this.clock = clock;
+        this.startedAt = clock.millis();
+
+        this.writes = Counter.builder("presence.writes").register(meterRegistry);
+        Gauge.builder("presence.online", online, Set::size).register(meterRegistry);
+        Gauge.builder("presence.pending", pending, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Identifies this node in the presence events it publishes.
+     */
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * The user's first session on this node opened.
+     *
+     * @return the change to tell the other nodes, null if the user was already connected here
+     */
+    public synchronized LocalChange connected(UUID userId) {
+        if (!online.add(userId)) {
+            return null;
+        }
+        boolean global = !heldRemotely(userId);
+        if (global) {
+            record(userId, true);
+        }
+        return new LocalChange(global, ++localSeq);
+    }
+
+    /**
+     * The user's last session on this node closed.
+     *
+     * @return the change to tell the other nodes, null if the user was not connected here
+     */
+    public synchronized LocalChange disconnected(UUID userId) {
+        if (!online.remove(userId)) {
+            return null;
+        }
+        boolean global = !heldRemotely(userId);
+        if (global) {
+            record(userId, false);
+        }
+        return new LocalChange(global, ++localSeq);
+    }
+
+    /**
+     * The users connected to this node, as of the last change it numbered.
+     */
+    public synchronized Snapshot localSnapshot() {
+        return new Snapshot(localSeq, List.copyOf(online));
+    }
+
+    /**
+     * Another node gained its first or lost its last session of the user. The change is persisted
+     * here only if the other node did not ({@code recordedByOrigin}) while this node sees the user
+     * come online or go offline: both nodes lost the user at once, each still counting the other.
+     * A change older than what this node already applied from that node is ignored.
+     *
+     * @return whether this node sees the user come online or go offline
+     */
+    public synchronized boolean remoteChanged(String node, long seq, UUID userId, boolean isOnline,
+                                              boolean recordedByOrigin) {
+        RemoteNode remote = heard(node);
+        if (seq <= remote.appliedSeq(userId)) {
+            return false;
+        }
+        remote.seqs.put(userId, seq);
+
+        boolean before = isOnline(userId);
+        if (isOnline) {
+            remote.users.add(userId);
+        } else {
+            remote.users.remove(userId);
+        }
+        if (isOnline(userId) == before) {
+            return false;
+        }
+        if (recordedByOrigin) {
+            // The other node writes the latest state: an older change of this node must not overwrite it
+            pending.remove(userId);
+        } else {
+            record(userId, isOnline);
+        }
+        return true;
+    }
+
+    /**
+     * Every user another node holds, sent periodically: resyncs with what its events said (events
+     * it missed) and keeps the node alive. Users changed by a later event of that node keep the
+     * state of the event. A node shutting down says goodbye with an empty snapshot numbered
+     * {@link Long#MAX_VALUE}.
+     *
+     * @return the users this node now sees online (true) or offline (false), whose change is persisted here
+     */
+    public synchronized Map<UUID, Boolean> remoteSnapshot(String node, long seq, Collection<UUID> userIds) {
+        RemoteNode remote = heard(node);
+        if (seq <= remote.snapshotSeq) {
+            return Map.of();
+        }
+
+        Set<UUID> snapshot = new HashSet<>(userIds);
+        Set<UUID> changed = new HashSet<>(snapshot);
+        changed.addAll(remote.users);
+        changed.removeIf(userId -> remote.appliedSeq(userId) > seq);
+        Map<UUID, Boolean> before = onlineStates(changed);
+
+        for (UUID userId : changed) {
+            if (snapshot.contains(userId)) {
+                remote.users.add(userId);
+            } else {
+                remote.users.remove(userId);
+            }
+        }
+        remote.snapshotSeq = seq;
+        remote.seqs.values().removeIf(eventSeq -> eventSeq <= seq);
+        return transitions(before);
+    }
+
+    /**
+     * Drops the nodes not heard from for {@code nodeTimeoutMillis}, gone without a goodbye.
+     *
+     * @return the users this node now sees offline, whose change is persisted here
+     */
+    public synchronized Map<UUID, Boolean> expireNodes() {
+        long expiredBefore = clock.millis() - nodeTimeoutMillis;
+        Set<UUID> dropped = new HashSet<>();
+        remoteNodes.values().removeIf(node -> {
+            if (node.heardAt >= expiredBefore) {
+                return false;
+            }
+            dropped.addAll(node.users);
+            return true;
+        });
+        Map<UUID, Boolean> before = new LinkedHashMap<>();
+        dropped.forEach(userId -> before.put(userId, true));
+        return transitions(before);
+    }
+
+    /**
+     * Whether the user has a session on this node, as last told by {@link #connected} and {@link #disconnected}.
+     */
+    public boolean isConnectedHere(UUID userId) {
+        return online.contains(userId);
+    }
+
+    /**
+     * Whether the user is connected to this node or to another node this node knows of.
+     */
+    public boolean isOnline(UUID userId) {
+        return online.contains(userId) || heldRemotely(userId);
+    }
+
+    /**
+     * Online flag to show for a user: live for users connected to a known node or just gone from
+     * this one. The persisted flag only counts until every live node has been heard from.
+     */
+    public boolean isOnline(UUID userId, Boolean persisted) {
+        if (isOnline(userId)) {
+            return true;
+        }
+        Change change = pending.get(userId);
+        if (change != null) {
+            return change.online();
+        }
+        return Boolean.TRUE.equals(persisted) && clock.millis() - startedAt < nodeTimeoutMillis;
+    }
+
+    /**
+     * Writes the changes that have been stable for the debounce window.
+     */
+    @Scheduled(fixedDelayString = "${presence.flush-ms:5000}")
+    public void flush() {
+        write(clock.millis() - debounceMillis);
+    }
+
+    /**
+     * The sockets of this node go away with it: its users are offline.
+     */
+    @PreDestroy
+    public void shutdown() {
+        for (UUID userId : online) {
+            disconnected(userId);
+        }
+        write(Long.MAX_VALUE);
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    private boolean heldRemotely(UUID userId) {
+        for (RemoteNode node : remoteNodes.values()) {
+            if (node.users.contains(userId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private RemoteNode heard(String node) {
+        RemoteNode remote = remoteNodes.computeIfAbsent(node, id -> new RemoteNode());
+        remote.heardAt = clock.millis();
+        return remote;
+    }
+
+    private Map<UUID, Boolean> onlineStates(Collection<UUID> userIds) {
+        Map<UUID, Boolean> states = new LinkedHashMap<>();
+        userIds.forEach(userId -> states.put(userId, isOnline(userId)));
+        return states;
+    }
+
+    /**
+     * Records and returns the users whose state differs from {@code before}.
+     */
+    private Map<UUID, Boolean> transitions(Map<UUID, Boolean> before) {
+        Map<UUID, Boolean> transitions = new LinkedHashMap<>();
+        before.forEach((userId, wasOnline) -> {
+            boolean isOnline = isOnline(userId);
+            if (isOnline != wasOnline) {
+                record(userId, isOnline);
+                transitions.put(userId, isOnline);
+            }
+        });
+        return transitions;
+    }
+
+    private void record(UUID userId, boolean isOnline) {
+        long now = clock.millis();
+        LocalDateTime lastSeen = isOnline ? null : LocalDateTime.now(clock);
+        pending.compute(userId, (id, previous) -> {
+            boolean persisted = previous == null ? !isOnline : previous.persisted();
+            // Back to the state last written: nothing to write
+            return persisted == isOnline ? null : new Change(isOnline, persisted, lastSeen, now);
+        });
+    }
+
+    private void write(long changedBefore) {
+        Map<UUID, Change> batch = new LinkedHashMap<>();
+        for (Map.Entry<UUID, Change> entry : pending.entrySet()) {
+            Change change = entry.getValue();
+            // A newer change replaces the entry and waits for its own window
+            if (change.changedAt() <= changedBefore && pending.remove(entry.getKey(), change)) {
+                batch.put(entry.getKey(), change);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        batch.forEach((userId, change) -> rows.add(new Object[]{
+                change.online(),
+                change.lastSeen() != null ? Timestamp.valueOf(change.lastSeen()) : null,
+                userId
+        }));
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_PRESENCE, rows);
+            writes.increment(rows.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not persist the presence of {} users, retrying: {}", rows.size(), e.getMessage());
+            batch.forEach(pending::putIfAbsent);
+        }
+    }
+
+    /**
+     * A change of this node's own users, numbered so that the other nodes apply changes and
+     * snapshots of this node in order.
+     *
+     * @param global whether the user came online or went offline cluster-wide, persisted by this node
+     */
+    public record LocalChange(boolean global, long seq) {
+    }
+
+    public record Snapshot(long seq, List<UUID> userIds) {
+    }
+
+    /**
+     * Users held by another node, as of its snapshot {@code snapshotSeq} and its later changes
+     * {@code seqs}, and when it was last heard from. Written under the service lock; {@code users}
+     * is also read without it.
+     */
+    private static final class RemoteNode {
+        private final Set<UUID> users = ConcurrentHashMap.newKeySet();
+        private final Map<UUID, Long> seqs = new HashMap<>();
+        private long snapshotSeq = -1;
+        private long heardAt;
+
+        long appliedSeq(UUID userId) {
+            return seqs.getOrDefault(userId, snapshotSeq);
+        }
+    }
+
+    /**
+     * Unwritten state of a user; {@code persisted} is the state before the first unwritten change.
+     */
+    private record Change(boolean online, boolean persisted, LocalDateTime lastSeen, long changedAt) {
+    }
+}
@@ -0,0 +1,110 @@
+package com.teemup.service;
+
+import com.teemup.dto.event.SportEventResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded in-process cache of the anonymous public event endpoints.
+ *
+ * Two LRU regions ({@link BoundedCache}): list results (public lists, pages and feeds), keyed by
+ * query, arguments and the current day so that they roll over at midnight, and single public
+ * events keyed by id. Each list remembers the events and organizers it contains: joining or leaving
+ * an event evicts that event and the lists showing it, a change to an organizer's profile evicts
+ * their events and the lists showing one of them. Creating, updating or deleting an event may move
+ * it into any list, so it clears the list region. Every node holds its own copy, invalidated
+ * through {@link EventCacheChange}.
+ */
+@Component
+public class PublicEventCache {
+
+    private final Clock clock;
+    private final BoundedCache<ListKey, CachedList> lists;
+    private final BoundedCache<UUID, SportEventResponse> events;
+
+    @Autowired
+    public PublicEventCache(MeterRegistry meterRegistry,
+                            @Value("${cache.public-events.max-entries:512}") int maxEntries) {
+        this(meterRegistry, maxEntries, Clock.systemDefaultZone());
+    }
+
+    PublicEventCache(MeterRegistry meterRegistry, int maxEntries, Clock clock) {
+        this.clock = clock;
+        this.lists = new BoundedCache<>("publicEventLists", maxEntries, meterRegistry);
+        this.events = new BoundedCache<>("publicEvents", maxEntries, meterRegistry);
+    }
+
+    /**
+     * Cached list result of {@code query} for {@code arguments} (which may contain nulls) and today's date.
+     * {@code events} extracts the events the result shows, to know which changes evict it.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T list(String query, List<?> arguments, Function<T, List<SportEventResponse>> events,
+                      Supplier<T> loader) {
+        ListKey key = new ListKey(query, arguments, LocalDate.now(clock));
+        return (T) lists.get(key, () -> CachedList.of(loader.get(), events)).value();
+    }
+
+    /**
+     * Cached public event. Loader exceptions (not found, private) are propagated and not cached.
+     */
+    public SportEventResponse event(UUID eventId, Supplier<SportEventResponse> loader) {
+        return events.get(eventId, loader);
+    }
+
+    /**
+     * A public event's participants changed (joined, left, approved...): the event and the lists showing it are evicted.
+     */
+    public void invalidate(UUID eventId) {
+        lists.invalidateIf(list -> list.eventIds().contains(eventId));
+        events.invalidate(eventId);
+    }
+
+    /**
+     * A public event was created, updated or deleted: lists are dropped, the event is evicted.
+     */
+    public void invalidateListings(UUID eventId) {
+        lists.invalidateAll();
+        events.invalidate(eventId);
+    }
+
+    /**
+     * The organizer's profile (name, pictures, bio...) changed: their events and the lists showing one are evicted.
+     */
+    public void invalidateOrganizer(UUID organizerId) {
+        lists.invalidateIf(list -> list.organizerIds().contains(organizerId));
+        events.invalidateIf(event -> organizerId.equals(event.getUserId()));
+    }
+
+    public void invalidateAll() {
+        lists.invalidateAll();
+        events.invalidateAll();
+    }
+
+    public int size() {
+        return lists.size() + events.size();
+    }
+
+    private record ListKey(String query, List<?> arguments, LocalDate day) {}
+
+    private record CachedList(Object value, Set<UUID> eventIds, Set<UUID> organizerIds) {
+
+        static <T> CachedList of(T value, Function<T, List<SportEventResponse>> events) {
+            List<SportEventResponse> shown = events.apply(value);
+            return new CachedList(value,
+                    shown.stream().map(SportEventResponse::getId).collect(Collectors.toSet()),
+                    shown.stream().map(SportEventResponse::getUserId).collect(Collectors.toSet()));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.teemup.service;
+
+import com.teemup.entity.SportEvent.RecurrenceType;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computes occurrences of a recurring event series on demand.
+ *
+ * Occurrence {@code n} is always derived from the series start date, never from the previous
+ * occurrence, so monthly series keep their day of month (Jan 31, Feb 28, Mar 31, ...).
+ * Nothing is materialised: the first occurrence of a window is found arithmetically.
+ */
+final class RecurrenceEngine {
+
+    private RecurrenceEngine() {
+    }
+
+    /**
+     * First occurrence on or after {@code from}. A non-recurring event always returns its start date.
+     */
+    static LocalDate nextOccurrence(LocalDate start, RecurrenceType recurrence, LocalDate from) {
+        return occurrenceAt(start, recurrence, firstIndexOnOrAfter(start, recurrence, from));
+    }
+
+    /**
+     * Occurrences within {@code [from, to]}, at most {@code maxCount} of them.
+     */
+    static List<LocalDate> occurrencesBetween(LocalDate start, RecurrenceType recurrence,
+                                              LocalDate from, LocalDate to, int maxCount) {
+        List<LocalDate> occurrences = new ArrayList<>();
+        if (recurrence == RecurrenceType.NONE) {
+            if (!start.isBefore(from) && !start.isAfter(to)) {
+                occurrences.add(start);
+            }
+            return occurrences;
+        }
+        long index = firstIndexOnOrAfter(start, recurrence, from);
+        LocalDate occurrence = occurrenceAt(start, recurrence, index);
+        while (!occurrence.isAfter(to) && occurrences.size() < maxCount) {
+            occurrences.add(occurrence);
+            index++;
+            occurrence = occurrenceAt(start, recurrence, index);
+        }
+        return occurrences;
+    }
+
+    private static long firstIndexOnOrAfter(LocalDate start, RecurrenceType recurrence, LocalDate from) {
+        if (recurrence == RecurrenceType.NONE || !from.isAfter(start)) {
+            return 0;
+        }
+        long days = ChronoUnit.DAYS.between(start, from);
+        return switch (recurrence) {
+            case DAILY -> days;
+            case WEEKLY -> ceilDiv(days, 7);
+            case BIWEEKLY -> ceilDiv(days, 14);
+            case MONTHLY -> {
+                long months = ChronoUnit.MONTHS.between(start, from);
+                yield start.plusMonths(months).isBefore(from) ? months + 1 : months;
+            }
+            case NONE -> 0;
+        };
+    }
+
+    private static LocalDate occurrenceAt(LocalDate start, RecurrenceType recurrence, long index) {
+        return switch (recurrence) {
+            case NONE -> start;
+            case DAILY -> start.plusDays(index);
+            case WEEKLY -> start.plusWeeks(index);
+            case BIWEEKLY -> start.plusWeeks(index * 2);
+            case MONTHLY -> start.plusMonths(index);
+        };
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+}
@@ -1,8 +1,11 @@
 package com.teemup.service;
 
+import com.teemup.dto.common.CursorPageResponse;
 import com.teemup.dto.event.CreateSportEventRequest;
 import com.teemup.dto.event.SportEventResponse;
+import com.teemup.dto.event.SportEventSummary;
 import com.teemup.dto.event.UpdateSportEventRequest;
+import com.teemup.dto.user.PublicUserResponse;
 import com.teemup.entity.EventParticipant;
 import com.teemup.entity.Notification;
 import com.teemup.entity.SportEvent;
@@ -22,28 +25,94 @@ import com.teemup.repository.EventParticipantRepository;
 import com.teemup.repository.SportEventRepository;
 import com.teemup.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class SportEventService {
 
-    private static final double KM_PER_LATITUDE_DEGREE = 111.0;
+    private static final int MAX_NEARBY_RESULTS = 500;
+    private static final int MAX_AGENDA_DAYS = 92;
 
     private final SportEventRepository sportEventRepository;
     private final EventParticipantRepository eventParticipantRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final EventSpatialIndex eventSpatialIndex;
+    private final PublicEventCache publicEventCache;
+    private final PresenceService presenceService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionOperations transactionOperations;
+
+    /**
+     * Rolls recurring series forward to their next occurrence, then reloads the spatial index.
+     * Runs once the application is up and every night just after midnight, on every node: the
+     * index and the public cache are each node's own, while a series is only written by the
+     * first node to roll it.
+     * Until the first run has completed, nearby searches are answered by the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 1 0 * * *")
+    public void refreshOccurrencesAndSpatialIndex() {
+        LocalDate today = LocalDate.now();
+        Integer rolled = transactionOperations.execute(status -> rollOccurrencesForward(today));
+
+        List<EventSpatialIndex.Entry> entries = sportEventRepository.findPublicEventLocationsFromDate(today).stream()
+                .map(location -> new EventSpatialIndex.Entry(
+                        location.getId(),
+                        location.getSport(),
+                        location.getLatitude(),
+                        location.getLongitude(),
+                        location.getNextOccurrenceDate()))
+                .collect(Collectors.toList());
+        eventSpatialIndex.load(entries);
+        publicEventCache.invalidateAll();
+        log.info("Rolled {} recurring events forward, spatial index loaded with {} upcoming public events",
+                rolled, entries.size());
+    }
+
+    /**
+     * Moves each series whose next occurrence has passed with a conditional update: a node
+     * rolling at the same time waits for the first one's row locks, then leaves those series as
+     * they are. Both lock them in id order, so they cannot deadlock.
+     *
+     * @return the number of series this node rolled
+     */
+    private int rollOccurrencesForward(LocalDate today) {
+        int rolled = 0;
+        for (SportEvent event : sportEventRepository.findRecurringEventsToRoll(SportEvent.RecurrenceType.NONE, today)) {
+            LocalDate next = RecurrenceEngine.nextOccurrence(event.getDate(), event.getRecurrence(), today);
+            rolled += sportEventRepository.rollNextOccurrence(event.getId(), next, today);
+        }
+        return rolled;
+    }
 
     @Transactional
     public SportEventResponse createEvent(UUID userId, CreateSportEventRequest request) {
@@ -56,6 +125,8 @@ public class SportEventService {
             throw new ProUserRequiredException();
         }
 
+        SportEvent.RecurrenceType recurrence = SportEvent.RecurrenceType.valueOf(request.getRecurrence());
+
         SportEvent event = SportEvent.builder()
                 .user(user)
                 .sport(request.getSport())
@@ -65,9 +136,10 @@ public class SportEventService {
                 .latitude(request.getLatitude())
                 .longitude(request.getLongitude())
                 .date(request.getDate())
+                .nextOccurrenceDate(RecurrenceEngine.nextOccurrence(request.getDate(), recurrence, LocalDate.now()))
                 .startTime(request.getStartTime())
                 .endTime(request.getEndTime())
-                .recurrence(SportEvent.RecurrenceType.valueOf(request.getRecurrence()))
+                .recurrence(recurrence)
                 .isPublic(request.getIsPublic())
                 .maxParticipants(request.getMaxParticipants())
                 .isPaid(isPaid)
@@ -75,13 +147,15 @@ public class SportEventService {
                 .build();
 
         event = sportEventRepository.save(event);
-        return SportEventResponse.fromEntity(event);
+        refreshCaches(event);
+        return withPresence(SportEventResponse.fromEntity(event));
     }
 
     @Transactional(readOnly = true)
     public List<SportEventResponse> getUserEvents(UUID userId) {
-        return sportEventRepository.findByUserIdOrderByDateAscStartTimeAsc(userId).stream()
-                .map(SportEventResponse::fromEntity)
+        return sportEventRepository.findSummariesByUserId(userId).stream()
+                .map(SportEventResponse::fromSummary)
+                .map(this::withPresence)
                 .collect(Collectors.toList());
     }
 
@@ -91,18 +165,53 @@ public class SportEventService {
      */
     @Transactional(readOnly = true)
     public List<SportEventResponse> getUserUpcomingEvents(UUID userId, UUID requesterId) {
-        return sportEventRepository.findByUserIdAndDateGreaterThanEqualOrderByDateAscStartTimeAsc(userId, LocalDate.now()).stream()
-                .filter(event -> event.getIsPublic() || event.getUser().getId().equals(requesterId))
-                .map(SportEventResponse::fromEntity)
+        return sportEventRepository.findUpcomingSummariesByUserId(userId, LocalDate.now()).stream()
+                .filter(event -> event.isPublic() || event.organizerId().equals(requesterId))
+                .map(SportEventResponse::fromSummary)
+                .map(this::withPresence)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * User agenda: every occurrence within {@code [from, to]} of the events the user organizes
+     * or confirmed participation in. Recurring series are expanded on the fly, never stored.
+     */
+    @Transactional(readOnly = true)
+    public List<SportEventResponse> getUserAgenda(UUID userId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("La date de fin doit être postérieure à la date de début");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_AGENDA_DAYS) {
+            throw new IllegalArgumentException("La période demandée ne peut pas dépasser " + MAX_AGENDA_DAYS + " jours");
+        }
+
+        Map<UUID, SportEventSummary> series = new LinkedHashMap<>();
+        sportEventRepository.findUserSeriesInWindow(userId, from, to, SportEvent.RecurrenceType.NONE)
+                .forEach(event -> series.putIfAbsent(event.id(), event));
+        sportEventRepository.findParticipatingSeriesInWindow(userId, from, to, SportEvent.RecurrenceType.NONE)
+                .forEach(event -> series.putIfAbsent(event.id(), event));
+
+        List<SportEventResponse> agenda = new ArrayList<>();
+        for (SportEventSummary event : series.values()) {
+            for (LocalDate occurrence : RecurrenceEngine.occurrencesBetween(
+                    event.date(), event.recurrence(), from, to, MAX_AGENDA_DAYS + 1)) {
+                SportEventResponse response = withPresence(SportEventResponse.fromSummary(event));
+                response.setOccurrenceDate(occurrence);
+                agenda.add(response);
+            }
+        }
+        agenda.sort(Comparator.comparing(SportEventResponse::getOccurrenceDate)
+                .thenComparing(SportEventResponse::getStartTime));
+        return agenda;
+    }
+
     /**
      * Get event by ID with full details including participants.
+     * Event, organizer and participants with their users are read in a single statement.
      */
     @Transactional(readOnly = true)
     public SportEventResponse getEventById(UUID eventId, UUID requesterId) {
-        SportEvent event = sportEventRepository.findById(eventId)
+        SportEvent event = sportEventRepository.findByIdWithParticipants(eventId)
                 .orElseThrow(() -> new EventNotFoundException(eventId));
 
         // Only allow access if event is public or requester is the owner
@@ -110,22 +219,24 @@ public class SportEventService {
             throw new PrivateEventException();
         }
 
-        return SportEventResponse.fromEntityWithDetails(event, requesterId);
+        return withPresence(SportEventResponse.fromEntityWithDetails(event, requesterId));
     }
 
     /**
      * Get public event by ID (no authentication required).
+     * Served from {@link PublicEventCache}; a miss loads the event and its organizer in one query.
      */
-    @Transactional(readOnly = true)
     public SportEventResponse getPublicEventById(UUID eventId) {
-        SportEvent event = sportEventRepository.findById(eventId)
-                .orElseThrow(() -> new EventNotFoundException(eventId));
+        return withPresence(publicEventCache.event(eventId, () -> {
+            SportEvent event = sportEventRepository.findWithOrganizerById(eventId)
+                    .orElseThrow(() -> new EventNotFoundException(eventId));
 
-        if (!event.getIsPublic()) {
-            throw new PrivateEventException();
-        }
+            if (!event.getIsPublic()) {
+                throw new PrivateEventException();
+            }
 
-        return SportEventResponse.fromEntity(event);
+            return SportEventResponse.fromEntity(event);
+        }));
     }
 
     @Transactional
@@ -213,13 +324,18 @@ public class SportEventService {
         event.setStartTime(startTime);
         event.setEndTime(endTime);
         event.setRecurrence(SportEvent.RecurrenceType.valueOf(recurrence));
+        event.setNextOccurrenceDate(RecurrenceEngine.nextOccurrence(date, event.getRecurrence(), LocalDate.now()));
         event.setIsPublic(isPublic);
         event.setMaxParticipants(maxParticipants);
         event.setIsPaid(isPaid);
         event.setPrice(isPaid ? price : null);
 
         event = sportEventRepository.save(event);
-        return SportEventResponse.fromEntity(event);
+        // Invalidated even if now private: the event may have been public before this update
+        refreshCaches(event);
+        // A raised (or removed) participant limit frees seats for the waitlist
+        promoteFromWaitlist(event);
+        return withPresence(SportEventResponse.fromEntity(event));
     }
 
     @Transactional
@@ -232,34 +348,79 @@ public class SportEventService {
         }
 
         sportEventRepository.delete(event);
+        eventPublisher.publishEvent(EventCacheChange.unindexed(eventId));
     }
 
-    @Transactional(readOnly = true)
+    // ===================== PUBLIC (CACHED) METHODS =====================
+    // Served from PublicEventCache. Not transactional, so a cache hit does not borrow a connection;
+    // a miss runs a single repository query on projected rows.
+
     public List<SportEventResponse> getPublicEvents() {
-        return sportEventRepository.findPublicEventsFromDate(LocalDate.now()).stream()
-                .map(SportEventResponse::fromEntity)
-                .collect(Collectors.toList());
+        return allWithPresence(publicEventCache.list("public", List.of(), Function.identity(), () ->
+                sportEventRepository.findPublicSummariesFromDate(LocalDate.now()).stream()
+                        .map(SportEventResponse::fromSummary)
+                        .collect(Collectors.toList())));
     }
 
-    @Transactional(readOnly = true)
     public Page<SportEventResponse> getPublicEvents(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        return sportEventRepository.findPublicEventsFromDate(LocalDate.now(), pageable)
-                .map(SportEventResponse::fromEntity);
+        return publicEventCache.list("public-page", List.of(page, size), Page::getContent, () ->
+                sportEventRepository.findPublicSummariesFromDate(LocalDate.now(), PageRequest.of(page, size))
+                        .map(SportEventResponse::fromSummary))
+                .map(this::withPresence);
     }
 
-    @Transactional(readOnly = true)
     public List<SportEventResponse> getPublicEventsBySport(String sport) {
-        return sportEventRepository.findPublicEventsBySportFromDate(sport, LocalDate.now()).stream()
-                .map(SportEventResponse::fromEntity)
-                .collect(Collectors.toList());
+        return allWithPresence(publicEventCache.list("public-sport", Arrays.asList(sport), Function.identity(), () ->
+                sportEventRepository.findPublicSummariesBySportFromDate(sport, LocalDate.now()).stream()
+                        .map(SportEventResponse::fromSummary)
+                        .collect(Collectors.toList())));
     }
 
-    @Transactional(readOnly = true)
     public Page<SportEventResponse> getPublicEventsBySport(String sport, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        return sportEventRepository.findPublicEventsBySportFromDate(sport, LocalDate.now(), pageable)
-                .map(SportEventResponse::fromEntity);
+        return publicEventCache.list("public-sport-page", Arrays.asList(sport, page, size), Page::getContent, () ->
+                sportEventRepository.findPublicSummariesBySportFromDate(sport, LocalDate.now(), PageRequest.of(page, size))
+                        .map(SportEventResponse::fromSummary))
+                .map(this::withPresence);
+    }
+
+    /**
+     * Keyset-paginated public feed ordered by (nextOccurrenceDate, startTime, id).
+     * No count query is issued: the cost of a page does not depend on its depth.
+     */
+    public CursorPageResponse<SportEventResponse> getPublicEventsFeed(String cursor, int limit) {
+        return pageWithPresence(publicEventCache.list("public-feed", Arrays.asList(cursor, limit),
+                CursorPageResponse::getContent, () -> loadPublicEventsFeed(cursor, limit)));
+    }
+
+    public CursorPageResponse<SportEventResponse> getPublicEventsBySportFeed(String sport, String cursor, int limit) {
+        return pageWithPresence(publicEventCache.list("public-sport-feed", Arrays.asList(sport, cursor, limit),
+                CursorPageResponse::getContent, () -> loadPublicEventsBySportFeed(sport, cursor, limit)));
+    }
+
+    private CursorPageResponse<SportEventResponse> loadPublicEventsFeed(String cursor, int limit) {
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        List<SportEventSummary> events;
+        if (cursor == null || cursor.isBlank()) {
+            events = sportEventRepository.findPublicEventsFeed(LocalDate.now(), pageable);
+        } else {
+            FeedCursor after = decodeFeedCursor(cursor);
+            events = sportEventRepository.findPublicEventsFeedAfter(
+                    LocalDate.now(), after.date(), after.startTime(), after.eventId(), pageable);
+        }
+        return toFeedPage(events, limit);
+    }
+
+    private CursorPageResponse<SportEventResponse> loadPublicEventsBySportFeed(String sport, String cursor, int limit) {
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        List<SportEventSummary> events;
+        if (cursor == null || cursor.isBlank()) {
+            events = sportEventRepository.findPublicEventsBySportFeed(sport, LocalDate.now(), pageable);
+        } else {
+            FeedCursor after = decodeFeedCursor(cursor);
+            events = sportEventRepository.findPublicEventsBySportFeedAfter(
+                    sport, LocalDate.now(), after.date(), after.startTime(), after.eventId(), pageable);
+        }
+        return toFeedPage(events, limit);
     }
 
     /**
@@ -271,67 +432,183 @@ public class SportEventService {
             Double userLongitude,
             Double maxDistanceKm,
             String sport
+    ) {
+        return searchEventsNearby(userLatitude, userLongitude, maxDistanceKm, sport, null);
+    }
+
+    /**
+     * Search public events within a certain distance from user's location.
+     * When {@code limit} is set, only the {@code limit} closest events are returned
+     * (at most {@value #MAX_NEARBY_RESULTS} otherwise).
+     *
+     * Served from the in-memory spatial index; the database is only queried
+     * while the index is still warming up.
+     */
+    @Transactional(readOnly = true)
+    public List<SportEventResponse> searchEventsNearby(
+            Double userLatitude,
+            Double userLongitude,
+            Double maxDistanceKm,
+            String sport,
+            Integer limit
     ) {
         if (userLatitude == null || userLongitude == null) {
             throw new InvalidLocationException();
         }
 
-        double clampedLatitude = Math.max(-90.0, Math.min(90.0, userLatitude));
-        double latitudeDelta = maxDistanceKm / KM_PER_LATITUDE_DEGREE;
-        double latitudeRadians = Math.toRadians(clampedLatitude);
-        double cosLatitude = Math.cos(latitudeRadians);
-        double longitudeDelta = Math.abs(cosLatitude) < 1e-6
-                ? 180.0
-                : maxDistanceKm / (KM_PER_LATITUDE_DEGREE * Math.abs(cosLatitude));
-
-        double minLatitude = Math.max(-90.0, clampedLatitude - latitudeDelta);
-        double maxLatitude = Math.min(90.0, clampedLatitude + latitudeDelta);
-        double minLongitude = Math.max(-180.0, userLongitude - longitudeDelta);
-        double maxLongitude = Math.min(180.0, userLongitude + longitudeDelta);
-
-        List<SportEvent> events;
-        if (sport != null && !sport.isBlank()) {
-            events = sportEventRepository.findPublicEventsBySportInBoundingBoxFromDate(
-                    sport,
-                    LocalDate.now(),
-                    minLatitude,
-                    maxLatitude,
-                    minLongitude,
-                    maxLongitude
-            );
+        String sportFilter = sport != null && !sport.isBlank() ? sport : null;
+        int maxResults = limit != null ? limit : MAX_NEARBY_RESULTS;
+
+        if (eventSpatialIndex.isReady()) {
+            return hydrateNearbyHits(eventSpatialIndex.nearest(
+                    userLatitude, userLongitude, maxDistanceKm, sportFilter, LocalDate.now(), maxResults));
+        }
+
+        List<SportEventRepository.NearbyEventRow> rows = sportEventRepository.findNearbyPublicEvents(
+                userLatitude, userLongitude, maxDistanceKm * 1000.0, sportFilter, LocalDate.now(), maxResults);
+        return hydrateNearbyHits(toHits(rows));
+    }
+
+    /**
+     * Cursor-paginated nearby search, ordered by (distance, id).
+     *
+     * Always answered by the database so that cursors stay consistent from one page to the next.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<SportEventResponse> searchEventsNearbyPage(
+            Double userLatitude,
+            Double userLongitude,
+            Double maxDistanceKm,
+            String sport,
+            String cursor,
+            int limit
+    ) {
+        if (userLatitude == null || userLongitude == null) {
+            throw new InvalidLocationException();
+        }
+
+        String sportFilter = sport != null && !sport.isBlank() ? sport : null;
+        double radiusMeters = maxDistanceKm * 1000.0;
+
+        List<SportEventRepository.NearbyEventRow> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = sportEventRepository.findNearbyPublicEvents(
+                    userLatitude, userLongitude, radiusMeters, sportFilter, LocalDate.now(), limit + 1);
         } else {
-            events = sportEventRepository.findPublicEventsInBoundingBoxFromDate(
-                    LocalDate.now(),
-                    minLatitude,
-                    maxLatitude,
-                    minLongitude,
-                    maxLongitude
-            );
+            NearbyCursor after = CursorCodec.decode(cursor, 2,
+                    parts -> new NearbyCursor(Double.parseDouble(parts[0]), UUID.fromString(parts[1])));
+            rows = sportEventRepository.findNearbyPublicEventsAfter(
+                    userLatitude, userLongitude, radiusMeters, sportFilter, LocalDate.now(),
+                    after.distanceMeters(), after.eventId(), limit + 1);
         }
 
-        return events.stream()
-                .filter(event -> event.getLatitude() != null && event.getLongitude() != null)
-                .map(event -> {
-                    double distance = calculateHaversineDistance(
-                            userLatitude, userLongitude,
-                            event.getLatitude(), event.getLongitude()
-                    );
-                    return new EventWithDistance(event, distance);
-                })
-                .filter(ewd -> ewd.distance <= maxDistanceKm)
-                .sorted((a, b) -> Double.compare(a.distance, b.distance))
-                .map(ewd -> SportEventResponse.fromEntityWithDistance(ewd.event, Math.round(ewd.distance * 10.0) / 10.0))
+        boolean hasNext = rows.size() > limit;
+        List<SportEventRepository.NearbyEventRow> page = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            SportEventRepository.NearbyEventRow last = page.get(page.size() - 1);
+            nextCursor = CursorCodec.encode(last.getDistanceMeters(), last.getId());
+        }
+
+        return new CursorPageResponse<>(hydrateNearbyHits(toHits(page)), nextCursor, hasNext);
+    }
+
+    /**
+     * Keyword search over public events, best match first, paginated by (rank, id) cursor.
+     *
+     * @param query  Free text, web-search syntax ("quoted phrase", -excluded, or)
+     * @param from   First occurrence date to include (defaults to today)
+     * @param to     Last occurrence date to include (optional)
+     * The bounding box ({@code minLatitude} .. {@code maxLongitude}) is optional but all-or-nothing.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<SportEventResponse> searchEvents(
+            String query,
+            String sport,
+            LocalDate from,
+            LocalDate to,
+            Double minLatitude,
+            Double maxLatitude,
+            Double minLongitude,
+            Double maxLongitude,
+            String cursor,
+            int limit
+    ) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Le texte de recherche est requis");
+        }
+        LocalDate fromDate = from != null && from.isAfter(LocalDate.now()) ? from : LocalDate.now();
+        if (to != null && to.isBefore(fromDate)) {
+            throw new IllegalArgumentException("La date de fin doit être postérieure à la date de début");
+        }
+        long boundsSet = Stream.of(minLatitude, maxLatitude, minLongitude, maxLongitude)
+                .filter(Objects::nonNull)
+                .count();
+        if (boundsSet != 0 && boundsSet != 4) {
+            throw new IllegalArgumentException("La zone de recherche requiert les quatre bornes");
+        }
+
+        String sportFilter = sport != null && !sport.isBlank() ? sport : null;
+        String text = query.trim();
+
+        List<SportEventRepository.SearchEventRow> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = sportEventRepository.searchPublicEvents(
+                    text, sportFilter, fromDate, to, minLatitude, maxLatitude, minLongitude, maxLongitude, limit + 1);
+        } else {
+            SearchCursor after = CursorCodec.decode(cursor, 2,
+                    parts -> new SearchCursor(Double.parseDouble(parts[0]), UUID.fromString(parts[1])));
+            rows = sportEventRepository.searchPublicEventsAfter(
+                    text, sportFilter, fromDate, to, minLatitude, maxLatitude, minLongitude, maxLongitude,
+                    after.rank(), after.eventId(), limit + 1);
+        }
+
+        boolean hasNext = rows.size() > limit;
+        List<SportEventRepository.SearchEventRow> page = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            SportEventRepository.SearchEventRow last = page.get(page.size() - 1);
+            nextCursor = CursorCodec.encode(last.getRank(), last.getId());
+        }
+
+        if (page.isEmpty()) {
+            return new CursorPageResponse<>(List.of(), nextCursor, hasNext);
+        }
+        Map<UUID, SportEventSummary> eventsById = summariesById(
+                page.stream().map(SportEventRepository.SearchEventRow::getId).collect(Collectors.toList()));
+        List<SportEventResponse> content = page.stream()
+                .map(row -> eventsById.get(row.getId()))
+                .filter(event -> event != null && Boolean.TRUE.equals(event.isPublic()))
+                .map(SportEventResponse::fromSummary)
+                .map(this::withPresence)
                 .collect(Collectors.toList());
+        return new CursorPageResponse<>(content, nextCursor, hasNext);
     }
 
     // ===================== PARTICIPATION METHODS =====================
 
     /**
-     * Join an event
+     * Join an event.
+     *
+     * A confirmed seat is claimed with a single conditional UPDATE on the event's seat counter,
+     * which holds the event row until commit. It is the last statement of the transaction: the
+     * participant and the organizer's notification are written before it, so concurrent joiners
+     * of a hot event only wait for one another's commit. When a public event is full the user is
+     * put on its waitlist instead of being rejected, the event staying locked until commit.
+     *
+     * Only the event and its organizer are loaded to join; the detail returned, with every
+     * participant, is read once the join has committed.
      */
-    @Transactional
     public SportEventResponse joinEvent(UUID eventId, UUID userId) {
-        SportEvent event = sportEventRepository.findByIdForUpdate(eventId)
+        transactionOperations.execute(status -> {
+            join(eventId, userId);
+            return null;
+        });
+        return eventDetail(eventId, userId);
+    }
+
+    private void join(UUID eventId, UUID userId) {
+        SportEvent event = sportEventRepository.findWithOrganizerById(eventId)
                 .orElseThrow(() -> new EventNotFoundException(eventId));
 
         User user = userRepository.findById(userId)
@@ -347,20 +624,16 @@ public class SportEventService {
             throw new CannotJoinOwnEventException();
         }
 
-        // Check max participants (null-safe)
-        if (event.getMaxParticipants() != null) {
-            Long countObj = eventParticipantRepository.countConfirmedByEventId(eventId);
-            long currentCount = countObj != null ? countObj : 0L;
-            if (currentCount >= event.getMaxParticipants()) {
-                throw new EventFullException();
-            }
-        }
-
         // For public events, auto-confirm. For private, set to pending.
         EventParticipant.ParticipantStatus status = event.getIsPublic()
                 ? EventParticipant.ParticipantStatus.CONFIRMED
                 : EventParticipant.ParticipantStatus.PENDING;
 
+        // Pending requests do not take a seat yet; the claim happens on approval
+        if (status == EventParticipant.ParticipantStatus.PENDING && isFull(event)) {
+            throw new EventFullException();
+        }
+
         EventParticipant participant = EventParticipant.builder()
                 .event(event)
                 .user(user)
@@ -368,10 +641,14 @@ public class SportEventService {
                 .build();
 
         eventParticipantRepository.save(participant);
-        event.getParticipants().add(participant);
+        // Kept in step only if already loaded (as when the caller's transaction created the event)
+        if (Hibernate.isInitialized(event.getParticipants())) {
+            event.getParticipants().add(participant);
+        }
 
-        // Notify the organizer about the new participant
-        notificationService.createNotification(
+        // Notify the organizer about the new participant, pushed once the seat is known
+        // (waitlisted users are announced on promotion)
+        Notification joined = notificationService.prepareNotification(
                 event.getUser(),
                 user,
                 Notification.NotificationType.EVENT_PARTICIPANT_JOINED,
@@ -379,26 +656,60 @@ public class SportEventService {
                 user.getFirstName() + " " + user.getLastName() + " a rejoint votre événement \"" + event.getTitle() + "\"",
                 eventId.toString()
         );
+        eventParticipantRepository.flush();
+
+        if (status == EventParticipant.ParticipantStatus.CONFIRMED && !claimSeatOrLock(eventId)) {
+            participant.setStatus(EventParticipant.ParticipantStatus.WAITLISTED);
+            notificationService.discard(joined);
+        } else {
+            notificationService.announce(joined);
+        }
 
-        return SportEventResponse.fromEntityWithDetails(event, userId);
+        if (event.getIsPublic()) {
+            invalidatePublicCache(eventId);
+        }
     }
 
     /**
-     * Leave an event
+     * Leave an event. As for a join, the detail returned is read once the leave has committed.
      */
-    @Transactional
     public SportEventResponse leaveEvent(UUID eventId, UUID userId) {
-        SportEvent event = sportEventRepository.findById(eventId)
+        transactionOperations.execute(status -> {
+            leave(eventId, userId);
+            return null;
+        });
+        return eventDetail(eventId, userId);
+    }
+
+    private void leave(UUID eventId, UUID userId) {
+        SportEvent event = sportEventRepository.findWithOrganizerById(eventId)
                 .orElseThrow(() -> new EventNotFoundException(eventId));
 
         EventParticipant participant = eventParticipantRepository.findByEventIdAndUserId(eventId, userId)
                 .orElseThrow(NotParticipatingException::new);
 
         eventParticipantRepository.delete(participant);
+        if (Hibernate.isInitialized(event.getParticipants())) {
+            event.getParticipants().remove(participant);
+        }
+        if (participant.getStatus() == EventParticipant.ParticipantStatus.CONFIRMED) {
+            sportEventRepository.releaseSeat(eventId);
+            promoteFromWaitlist(event);
+        }
+        if (event.getIsPublic()) {
+            invalidatePublicCache(eventId);
+        }
+    }
 
-        // Refresh event to get updated participants
-        event = sportEventRepository.findById(eventId).orElseThrow(() -> new EventNotFoundException(eventId));
-        return SportEventResponse.fromEntityWithDetails(event, userId);
+    /**
+     * Event, organizer and participants with their users, read in a single statement.
+     */
+    private SportEventResponse eventDetail(UUID eventId, UUID requesterId) {
+        SportEventResponse detail = transactionOperations.execute(status -> SportEventResponse.fromEntityWithDetails(
+                sportEventRepository.findByIdWithParticipants(eventId)
+                        .orElseThrow(() -> new EventNotFoundException(eventId)),
+                requesterId));
+        return withPresence(detail);
     }
 
     /**
@@ -406,8 +717,9 @@ public class SportEventService {
      */
     @Transactional(readOnly = true)
     public List<SportEventResponse> getParticipatingEvents(UUID userId) {
-        return eventParticipantRepository.findByUserId(userId).stream()
-                .map(p -> SportEventResponse.fromEntity(p.getEvent()))
+        return sportEventRepository.findParticipatingSummaries(userId).stream()
+                .map(SportEventResponse::fromSummary)
+                .map(this::withPresence)
                 .collect(Collectors.toList());
     }
 
@@ -418,7 +730,7 @@ public class SportEventService {
      */
     @Transactional
     public SportEventResponse approveParticipant(UUID eventId, UUID participantId, UUID organizerId) {
-        SportEvent event = sportEventRepository.findById(eventId)
+        SportEvent event = sportEventRepository.findByIdWithParticipants(eventId)
                 .orElseThrow(() -> new EventNotFoundException(eventId));
 
         // Only the organizer can approve participants
@@ -434,21 +746,20 @@ public class SportEventService {
             throw new ParticipantNotFoundException(participantId);
         }
 
-        // Check if event is full before approving
-        if (event.getMaxParticipants() != null) {
-            Long countObj = eventParticipantRepository.countConfirmedByEventId(eventId);
-            long currentCount = countObj != null ? countObj : 0L;
-            if (currentCount >= event.getMaxParticipants()) {
-                throw new EventFullException();
-            }
+        // Claim a seat, unless the participant already holds one
+        if (participant.getStatus() != EventParticipant.ParticipantStatus.CONFIRMED
+                && sportEventRepository.claimSeat(eventId) == 0) {
+            throw new EventFullException();
         }
 
         participant.setStatus(EventParticipant.ParticipantStatus.CONFIRMED);
         eventParticipantRepository.save(participant);
+        if (event.getIsPublic()) {
+            invalidatePublicCache(eventId);
+        }
 
-        // Refresh event
-        event = sportEventRepository.findById(eventId).orElseThrow(() -> new EventNotFoundException(eventId));
-        return SportEventResponse.fromEntityWithDetails(event, organizerId);
+        // The participant is the managed instance held by the fetched event, no refresh needed
+        return withPresence(SportEventResponse.fromEntityWithDetails(event, organizerId));
     }
 
     /**
@@ -456,7 +767,7 @@ public class SportEventService {
      */
     @Transactional
     public SportEventResponse rejectParticipant(UUID eventId, UUID participantId, UUID organizerId) {
-        SportEvent event = sportEventRepository.findById(eventId)
+        SportEvent event = sportEventRepository.findByIdWithParticipants(eventId)
                 .orElseThrow(() -> new EventNotFoundException(eventId));
 
         // Only the organizer can reject participants
@@ -472,12 +783,19 @@ public class SportEventService {
             throw new ParticipantNotFoundException(participantId);
         }
 
+        boolean releasesSeat = participant.getStatus() == EventParticipant.ParticipantStatus.CONFIRMED;
         participant.setStatus(EventParticipant.ParticipantStatus.DECLINED);
         eventParticipantRepository.save(participant);
+        if (releasesSeat) {
+            sportEventRepository.releaseSeat(eventId);
+            promoteFromWaitlist(event);
+            if (event.getIsPublic()) {
+                invalidatePublicCache(eventId);
+            }
+        }
 
-        // Refresh event
-        event = sportEventRepository.findById(eventId).orElseThrow(() -> new EventNotFoundException(eventId));
-        return SportEventResponse.fromEntityWithDetails(event, organizerId);
+        // The participant is the managed instance held by the fetched event, no refresh needed
+        return withPresence(SportEventResponse.fromEntityWithDetails(event, organizerId));
     }
 
     /**
@@ -498,23 +816,160 @@ public class SportEventService {
 
     // ===================== HELPER METHODS =====================
 
-    private double calculateHaversineDistance(
-            double lat1, double lon1,
-            double lat2, double lon2
-    ) {
-        final double R = 6371; // Earth's radius in kilometers
+    /**
+     * Loads the events behind nearby hits in one query, keeping the index order.
+     * Events deleted or made private since the hit was computed are skipped.
+     */
+    private List<SportEventResponse> hydrateNearbyHits(List<EventSpatialIndex.Hit> hits) {
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, SportEventSummary> eventsById = summariesById(
+                hits.stream().map(EventSpatialIndex.Hit::eventId).collect(Collectors.toList()));
+
+        return hits.stream()
+                .map(hit -> {
+                    SportEventSummary event = eventsById.get(hit.eventId());
+                    if (event == null || !Boolean.TRUE.equals(event.isPublic())) {
+                        return null;
+                    }
+                    return withPresence(SportEventResponse.fromSummaryWithDistance(
+                            event, Math.round(hit.distanceKm() * 10.0) / 10.0));
+                })
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
 
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
+    private Map<UUID, SportEventSummary> summariesById(List<UUID> eventIds) {
+        return sportEventRepository.findSummariesByIds(eventIds).stream()
+                .collect(Collectors.toMap(SportEventSummary::id, Function.identity()));
+    }
 
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+    /**
+     * Drops the cached public results for an event and mirrors its searchable state into the
+     * spatial index, on every node once the transaction commits.
+     */
+    private void refreshCaches(SportEvent event) {
+        UUID eventId = event.getId();
+        if (eventId == null) {
+            return;
+        }
+        if (!Boolean.TRUE.equals(event.getIsPublic())) {
+            eventPublisher.publishEvent(EventCacheChange.unindexed(eventId));
+            return;
+        }
+        eventPublisher.publishEvent(EventCacheChange.indexed(new EventSpatialIndex.Entry(
+                eventId, event.getSport(), event.getLatitude(), event.getLongitude(), event.getNextOccurrenceDate())));
+    }
 
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    /**
+     * Drops the cached public results for an event, on every node once the transaction commits.
+     */
+    private void invalidatePublicCache(UUID eventId) {
+        eventPublisher.publishEvent(EventCacheChange.event(eventId));
+    }
 
-        return R * c;
+    /**
+     * The event with its organizer online or offline right now, rather than as read with it. Built
+     * on a copy: responses served from {@link PublicEventCache} are shared between requests.
+     */
+    private SportEventResponse withPresence(SportEventResponse event) {
+        PublicUserResponse organizer = event.getOrganizer();
+        boolean online = presenceService.isOnline(organizer.getId(), organizer.getIsOnline());
+        return event.toBuilder()
+                .organizer(organizer.toBuilder().isOnline(online).build())
+                .build();
+    }
+
+    private List<SportEventResponse> allWithPresence(List<SportEventResponse> events) {
+        return events.stream().map(this::withPresence).collect(Collectors.toList());
+    }
+
+    private CursorPageResponse<SportEventResponse> pageWithPresence(CursorPageResponse<SportEventResponse> page) {
+        return new CursorPageResponse<>(allWithPresence(page.getContent()), page.getNextCursor(), page.isHasNext());
+    }
+
+    /**
+     * Builds a feed page from {@code limit + 1} rows: the extra row only tells whether a next page exists.
+     */
+    private CursorPageResponse<SportEventResponse> toFeedPage(List<SportEventSummary> events, int limit) {
+        boolean hasNext = events.size() > limit;
+        List<SportEventSummary> page = hasNext ? events.subList(0, limit) : events;
+        String nextCursor = null;
+        if (hasNext) {
+            SportEventSummary last = page.get(page.size() - 1);
+            nextCursor = CursorCodec.encode(last.nextOccurrenceDate(), last.startTime(), last.id());
+        }
+        List<SportEventResponse> content = page.stream()
+                .map(SportEventResponse::fromSummary)
+                .collect(Collectors.toList());
+        return new CursorPageResponse<>(content, nextCursor, hasNext);
     }
 
-    private record EventWithDistance(SportEvent event, double distance) {}
+    private FeedCursor decodeFeedCursor(String cursor) {
+        return CursorCodec.decode(cursor, 3, parts -> new FeedCursor(
+                LocalDate.parse(parts[0]), LocalTime.parse(parts[1]), UUID.fromString(parts[2])));
+    }
+
+    /**
+     * Hands free seats to the head of the waitlist, in FIFO order, within the caller's transaction.
+     * A seat released by a leave is claimed again before commit, so a new joiner never sees it free
+     * while people are waiting.
+     */
+    private void promoteFromWaitlist(SportEvent event) {
+        UUID eventId = event.getId();
+        while (true) {
+            List<EventParticipant> head = eventParticipantRepository.findWaitlistHead(eventId, PageRequest.of(0, 1));
+            if (head.isEmpty() || sportEventRepository.claimSeat(eventId) == 0) {
+                return;
+            }
+
+            EventParticipant promoted = head.get(0);
+            promoted.setStatus(EventParticipant.ParticipantStatus.CONFIRMED);
+            eventParticipantRepository.save(promoted);
+
+            notificationService.createNotification(
+                    promoted.getUser(),
+                    event.getUser(),
+                    Notification.NotificationType.EVENT_WAITLIST_PROMOTED,
+                    "Place confirmée",
+                    "Une place s'est libérée : vous participez maintenant à l'événement \"" + event.getTitle() + "\"",
+                    eventId.toString()
+            );
+        }
+    }
+
+    /**
+     * Claims a seat. A claim that updates nothing locks nothing, so a leave could commit in
+     * between, promote no one and leave its seat to nobody. When the event is full it is locked
+     * and the claim tried again: a leave after that waits for this join's waitlist row to commit,
+     * then promotes it.
+     *
+     * @return true if a seat was claimed, false if the event is full and now locked
+     */
+    private boolean claimSeatOrLock(UUID eventId) {
+        if (sportEventRepository.claimSeat(eventId) == 1) {
+            return true;
+        }
+        sportEventRepository.lockById(eventId);
+        return sportEventRepository.claimSeat(eventId) == 1;
+    }
+
+    private boolean isFull(SportEvent event) {
+        return event.getMaxParticipants() != null
+                && event.getConfirmedCount() != null
+                && event.getConfirmedCount() >= event.getMaxParticipants();
+    }
+
+    private List<EventSpatialIndex.Hit> toHits(List<SportEventRepository.NearbyEventRow> rows) {
+        return rows.stream()
+                .map(row -> new EventSpatialIndex.Hit(row.getId(), row.getDistanceMeters() / 1000.0))
+                .collect(Collectors.toList());
+    }
+
+    private record NearbyCursor(double distanceMeters, UUID eventId) {}
+
+    private record SearchCursor(double rank, UUID eventId) {}
+
+    private record FeedCursor(LocalDate date, LocalTime startTime, UUID eventId) {}
 }
@@ -7,10 +7,10 @@ import com.teemup.entity.User;
 import com.teemup.exception.UserNotFoundException;
 import com.teemup.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -20,11 +20,13 @@ import java.util.stream.Collectors;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final PresenceService presenceService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public UserResponse getUserById(UUID userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("Utilisateur non trouvé"));
-        return UserResponse.fromEntity(user);
+        return toResponse(user);
     }
 
     /**
@@ -34,13 +36,13 @@ public class UserService {
     public PublicUserResponse getPublicUserById(UUID userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("Utilisateur non trouvé"));
-        return PublicUserResponse.fromEntity(user);
+        return toPublicResponse(user);
     }
 
     public UserResponse getUserByEmail(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UserNotFoundException("Utilisateur non trouvé"));
-        return UserResponse.fromEntity(user);
+        return toResponse(user);
     }
 
     @Transactional
@@ -48,6 +50,11 @@ public class UserService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("Utilisateur non trouvé"));
 
+        // Fields shown as organizer in the cached public events
+        boolean organizerChanged = request.getFirstName() != null || request.getLastName() != null
+                || request.getProfilePicture() != null || request.getCoverImage() != null
+                || request.getBio() != null || request.getSports() != null;
+
         if (request.getFirstName() != null) {
             user.setFirstName(request.getFirstName());
         }
@@ -79,37 +86,32 @@ public class UserService {
         // Removing ability for users to self-elevate to Pro status
 
         user = userRepository.save(user);
-        return UserResponse.fromEntity(user);
+        if (organizerChanged) {
+            eventPublisher.publishEvent(EventCacheChange.organizer(userId));
+        }
+        return toResponse(user);
     }
 
     public List<PublicUserResponse> searchUsers(String query) {
         return userRepository.searchUsers(query).stream()
-                .map(PublicUserResponse::fromEntity)
+                .map(this::toPublicResponse)
                 .collect(Collectors.toList());
     }
 
     public List<PublicUserResponse> getDiscoverUsers(UUID currentUserId) {
         return userRepository.findNonFriendUsers(currentUserId).stream()
-                .map(PublicUserResponse::fromEntity)
+                .map(this::toPublicResponse)
                 .collect(Collectors.toList());
     }
 
     public List<PublicUserResponse> getUserFriends(UUID userId) {
         return userRepository.findFriendsByUserId(userId).stream()
-                .map(PublicUserResponse::fromEntity)
+                .map(this::toPublicResponse)
                 .collect(Collectors.toList());
     }
 
-    @Transactional
-    public void setUserOnlineStatus(UUID userId, boolean isOnline) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("Utilisateur non trouvé"));
-
-        user.setIsOnline(isOnline);
-        if (!isOnline) {
-            user.setLastSeen(LocalDateTime.now());
-        }
-        userRepository.save(user);
+    public List<UUID> getFriendIds(UUID userId) {
+        return userRepository.findFriendIdsByUserId(userId);
     }
 
     public User findById(UUID userId) {
@@ -121,4 +123,16 @@ public class UserService {
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new UserNotFoundException("Utilisateur non trouvé"));
     }
+
+    private UserResponse toResponse(User user) {
+        UserResponse response = UserResponse.fromEntity(user);
+        response.setIsOnline(presenceService.isOnline(user.getId(), user.getIsOnline()));
+        return response;
+    }
+
+    private PublicUserResponse toPublicResponse(User user) {
+        PublicUserResponse response = PublicUserResponse.fromEntity(user);
+        response.setIsOnline(presenceService.isOnline(user.getId(), user.getIsOnline()));
+        return response;
+    }
 }
@@ -0,0 +1,54 @@
+package com.teemup.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teemup.service.EventCacheChange;
+import com.teemup.service.EventSpatialIndex;
+import com.teemup.service.PublicEventCache;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Applies the changes to the event caches on every node: each node holds its own public event
+ * cache and spatial index, which would otherwise serve what another node changed until the
+ * nightly reload.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EventCacheRelay {
+
+    static final String EVENT_CACHE_CHANGED = "eventCacheChanged";
+
+    private final SocketEventBus socketEventBus;
+    private final ObjectMapper objectMapper;
+    private final PublicEventCache publicEventCache;
+    private final EventSpatialIndex eventSpatialIndex;
+
+    @PostConstruct
+    public void init() {
+        socketEventBus.subscribe(this::apply);
+    }
+
+    /**
+     * Sent once the change has committed, so that no node caches again what it read before the write.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventCacheChange(EventCacheChange change) {
+        socketEventBus.publish(SocketEvent.toNodes(EVENT_CACHE_CHANGED, objectMapper.valueToTree(change)));
+    }
+
+    private void apply(SocketEvent event) {
+        if (event.scope() != SocketEvent.Scope.NODE || !EVENT_CACHE_CHANGED.equals(event.name())) {
+            return;
+        }
+        try {
+            objectMapper.treeToValue(event.data(), EventCacheChange.class).applyTo(publicEventCache, eventSpatialIndex);
+        } catch (JsonProcessingException e) {
+            log.warn("Invalid event cache change: {}", e.getMessage());
+        }
+    }
+}
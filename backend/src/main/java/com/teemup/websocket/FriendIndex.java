@@ -0,0 +1,96 @@
+package com.teemup.websocket;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Friends of the users connected to this node, and the reverse view: for any user, which of
+ * their friends are connected here. The latter is all a presence change needs, with no query.
+ *
+ * A user's friends are loaded when they connect and dropped when they leave; friendships made
+ * or broken meanwhile are applied with {@link #link} and {@link #unlink}.
+ */
+@Component
+public class FriendIndex {
+
+    private final Map<UUID, Set<UUID>> friendsByUser = new HashMap<>();
+    private final Map<UUID, Set<UUID>> connectedFriends = new HashMap<>();
+
+    public FriendIndex(MeterRegistry meterRegistry) {
+        Gauge.builder("presence.friend-index.users", this, FriendIndex::size).register(meterRegistry);
+    }
+
+    public synchronized void track(UUID userId, Collection<UUID> friendIds) {
+        untrack(userId);
+        Set<UUID> friends = new HashSet<>(friendIds);
+        friendsByUser.put(userId, friends);
+        for (UUID friendId : friends) {
+            connectedFriends.computeIfAbsent(friendId, id -> new HashSet<>()).add(userId);
+        }
+    }
+
+    public synchronized void untrack(UUID userId) {
+        Set<UUID> friends = friendsByUser.remove(userId);
+        if (friends == null) {
+            return;
+        }
+        for (UUID friendId : friends) {
+            removeConnectedFriend(friendId, userId);
+        }
+    }
+
+    public synchronized void link(UUID userId, UUID friendId) {
+        addFriend(userId, friendId);
+        addFriend(friendId, userId);
+    }
+
+    public synchronized void unlink(UUID userId, UUID friendId) {
+        removeFriend(userId, friendId);
+        removeFriend(friendId, userId);
+    }
+
+    /**
+     * Friends of the user who are connected to this node.
+     */
+    public synchronized List<UUID> connectedFriendsOf(UUID userId) {
+        Set<UUID> friends = connectedFriends.get(userId);
+        return friends == null ? List.of() : List.copyOf(friends);
+    }
+
+    public synchronized int size() {
+        return friendsByUser.size();
+    }
+
+    private void addFriend(UUID userId, UUID friendId) {
+        Set<UUID> friends = friendsByUser.get(userId);
+        if (friends != null && friends.add(friendId)) {
+            connectedFriends.computeIfAbsent(friendId, id -> new HashSet<>()).add(userId);
+        }
+    }
+
+    private void removeFriend(UUID userId, UUID friendId) {
+        Set<UUID> friends = friendsByUser.get(userId);
+        if (friends != null && friends.remove(friendId)) {
+            removeConnectedFriend(friendId, userId);
+        }
+    }
+
+    private void removeConnectedFriend(UUID userId, UUID friendId) {
+        Set<UUID> connected = connectedFriends.get(userId);
+        if (connected != null) {
+            connected.remove(friendId);
+            if (connected.isEmpty()) {
+                connectedFriends.remove(userId);
+            }
+        }
+    }
+}
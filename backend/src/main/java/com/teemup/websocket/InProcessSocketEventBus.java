@@ -0,0 +1,69 @@
+package com.teemup.websocket;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
+
+/**
+ * Socket event bus of a single node: events reach the nodes of its hub, which in an application
+ * context is the bus alone. Tests running several nodes side by side put them on one hub with
+ * {@link #join()}; separate application contexts never see each other's events.
+ */
+@Component
+@ConditionalOnProperty(name = "socketio.bus", havingValue = "in-process", matchIfMissing = true)
+@Slf4j
+public class InProcessSocketEventBus implements SocketEventBus {
+
+    private final Set<InProcessSocketEventBus> hub;
+    private final List<Consumer<SocketEvent>> subscribers = new CopyOnWriteArrayList<>();
+
+    public InProcessSocketEventBus() {
+        this(new CopyOnWriteArraySet<>());
+    }
+
+    private InProcessSocketEventBus(Set<InProcessSocketEventBus> hub) {
+        this.hub = hub;
+        hub.add(this);
+    }
+
+    /**
+     * Another node on the hub of this one.
+     */
+    InProcessSocketEventBus join() {
+        return new InProcessSocketEventBus(hub);
+    }
+
+    @Override
+    public void publish(SocketEvent event) {
+        for (InProcessSocketEventBus node : hub) {
+            node.deliver(event);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<SocketEvent> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    @PreDestroy
+    public void close() {
+        hub.remove(this);
+    }
+
+    private void deliver(SocketEvent event) {
+        for (Consumer<SocketEvent> subscriber : subscribers) {
+            try {
+                subscriber.accept(event);
+            } catch (RuntimeException e) {
+                log.warn("Socket event {} could not be delivered: {}", event.name(), e.getMessage());
+            }
+        }
+    }
+}
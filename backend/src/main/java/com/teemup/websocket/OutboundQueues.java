@@ -0,0 +1,305 @@
+package com.teemup.websocket;
+
+import com.corundumstudio.socketio.AckCallback;
+import com.corundumstudio.socketio.SocketIOClient;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded outbound queue of each socket client, so that a client on a bad network cannot make
+ * the server buffer without limit.
+ *
+ * Every event is sent with an acknowledgement request; at most {@code windowBytes} may be sent
+ * and not yet acknowledged. Beyond that, events wait in the client's queue. Once the queue
+ * holds more than {@code highWaterBytes}, droppable events (typing, presence: the next one
+ * supersedes them) are discarded, queued ones first; a client that stays above the mark for
+ * {@code maxLagMillis} is disconnected and will resync on reconnect.
+ *
+ * An acknowledgement that does not come within {@code ackTimeoutSeconds} releases its bytes
+ * anyway, so a lost ack slows a client down without wedging it.
+ *
+ * Only clients that announce in their handshake that they ack every event ({@value #ACKS_PARAM}=1)
+ * get a queue. Older builds never ack: paced by acks, each of their events would hold its window
+ * bytes until the timeout and they would soon be disconnected as laggards. They are sent to
+ * directly, as before the queues.
+ */
+@Component
+@Slf4j
+public class OutboundQueues {
+
+    static final String ACKS_PARAM = "acks";
+    private static final int UNKNOWN_VALUE_BYTES = 12;
+
+    static final Set<String> DROPPABLE_EVENTS = Set.of(
+            "userTyping", "userStoppedTyping", "userOnline", "userOffline", "presenceChanged");
+
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final long windowBytes;
+    private final long highWaterBytes;
+    private final long maxLagMillis;
+    private final int ackTimeoutSeconds;
+
+    private final Map<UUID, ClientQueue> queues = new ConcurrentHashMap<>();
+    private final AtomicLong queuedBytes = new AtomicLong();
+
+    private final Counter dropped;
+    private final Counter disconnected;
+
+    @Autowired
+    public OutboundQueues(MeterRegistry meterRegistry,
+                          @Value("${socketio.outbound.window-bytes:65536}") long windowBytes,
+                          @Value("${socketio.outbound.high-water-bytes:262144}") long highWaterBytes,
+                          @Value("${socketio.outbound.max-lag-ms:30000}") long maxLagMillis,
+                          @Value("${socketio.outbound.ack-timeout-seconds:15}") int ackTimeoutSeconds) {
+        this(meterRegistry, windowBytes, highWaterBytes, maxLagMillis, ackTimeoutSeconds, Clock.systemUTC());
+    }
+
+    OutboundQueues(MeterRegistry meterRegistry, long windowBytes, long highWaterBytes, long maxLagMillis,
+                   int ackTimeoutSeconds, Clock clock) {
+        this.meterRegistry = meterRegistry;
+        this.windowBytes = windowBytes;
+        this.highWaterBytes = highWaterBytes;
+        this.maxLagMillis = maxLagMillis;
+        this.ackTimeoutSeconds = ackTimeoutSeconds;
+        this.clock = clock;
+
+        this.dropped = Counter.builder("socketio.outbound.dropped")
+                .description("Droppable events discarded for slow clients")
+                .register(meterRegistry);
+        this.disconnected = Counter.builder("socketio.outbound.disconnected")
+                .description("Clients disconnected for staying behind")
+                .register(meterRegistry);
+        Gauge.builder("socketio.outbound.queued.bytes", queuedBytes, AtomicLong::get)
+                .description("Bytes waiting in all client queues")
+                .register(meterRegistry);
+    }
+
+    public void register(SocketIOClient client) {
+        if (!"1".equals(client.getHandshakeData().getSingleUrlParam(ACKS_PARAM))) {
+            return;
+        }
+        ClientQueue queue = new ClientQueue(client);
+        queue.gauge = Gauge.builder("socketio.outbound.client.queued.bytes", queue, ClientQueue::queuedBytes)
+                .tag("session", client.getSessionId().toString())
+                .register(meterRegistry);
+        queues.put(client.getSessionId(), queue);
+    }
+
+    public void unregister(SocketIOClient client) {
+        ClientQueue queue = queues.remove(client.getSessionId());
+        if (queue != null) {
+            synchronized (queue) {
+                queuedBytes.addAndGet(-queue.queuedBytes);
+                queue.pending.clear();
+                queue.queuedBytes = 0;
+            }
+            meterRegistry.remove(queue.gauge);
+        }
+    }
+
+    /**
+     * Sends the event now if the client keeps up, queues it otherwise.
+     *
+     * @param bytes Size of the event on the wire, or an estimate of it
+     */
+    public void send(SocketIOClient client, String name, Object data, int bytes) {
+        ClientQueue queue = queues.get(client.getSessionId());
+        if (queue == null) {
+            // Not registered (yet): nothing to bound
+            client.sendEvent(name, data);
+            return;
+        }
+
+        synchronized (queue) {
+            Frame frame = new Frame(name, data, bytes);
+            if (queue.pending.isEmpty() && fits(queue, bytes)) {
+                write(queue, frame);
+                return;
+            }
+            if (DROPPABLE_EVENTS.contains(name) && queue.queuedBytes + bytes > highWaterBytes) {
+                dropped.increment();
+                return;
+            }
+            queue.pending.add(frame);
+            queue.queuedBytes += bytes;
+            queuedBytes.addAndGet(bytes);
+            if (queue.queuedBytes > highWaterBytes) {
+                shed(queue);
+            }
+        }
+    }
+
+    /**
+     * Estimated size of an event payload on the wire, from its strings and structure, without
+     * serializing it: the JSON is encoded once, by the socket server. Non-ASCII text is counted
+     * one byte per character.
+     */
+    static int estimateBytes(Object data) {
+        if (data instanceof JsonNode node) {
+            return estimateBytes(node);
+        }
+        if (data instanceof CharSequence text) {
+            return text.length() + 2;
+        }
+        if (data instanceof Map<?, ?> map) {
+            int bytes = 2;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                bytes += estimateBytes(entry.getKey()) + estimateBytes(entry.getValue()) + 2;
+            }
+            return bytes;
+        }
+        if (data instanceof Collection<?> items) {
+            int bytes = 2;
+            for (Object item : items) {
+                bytes += estimateBytes(item) + 1;
+            }
+            return bytes;
+        }
+        // null, numbers, booleans
+        return data == null ? 4 : UNKNOWN_VALUE_BYTES;
+    }
+
+    private static int estimateBytes(JsonNode node) {
+        if (node.isTextual()) {
+            return node.textValue().length() + 2;
+        }
+        if (node.isObject()) {
+            int bytes = 2;
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                bytes += field.getKey().length() + estimateBytes(field.getValue()) + 4;
+            }
+            return bytes;
+        }
+        if (node.isArray()) {
+            int bytes = 2;
+            for (JsonNode element : node) {
+                bytes += estimateBytes(element) + 1;
+            }
+            return bytes;
+        }
+        return node.isNull() ? 4 : UNKNOWN_VALUE_BYTES;
+    }
+
+    /**
+     * Disconnects the clients that stayed above the high-water mark for too long.
+     */
+    @Scheduled(fixedDelayString = "${socketio.outbound.check-ms:1000}")
+    public void disconnectLaggingClients() {
+        long now = clock.millis();
+        for (ClientQueue queue : queues.values()) {
+            boolean lagging;
+            synchronized (queue) {
+                lagging = queue.laggingSince != 0 && now - queue.laggingSince >= maxLagMillis;
+            }
+            if (lagging) {
+                log.warn("Disconnecting client {}: {} bytes behind for {} ms",
+                        queue.client.getSessionId(), queue.queuedBytes, now - queue.laggingSince);
+                disconnected.increment();
+                unregister(queue.client);
+                queue.client.disconnect();
+            }
+        }
+    }
+
+    long queuedBytes(UUID sessionId) {
+        ClientQueue queue = queues.get(sessionId);
+        return queue == null ? 0 : queue.queuedBytes();
+    }
+
+    /**
+     * Drops queued droppable events until the queue is back under the mark; if it is not,
+     * the client is lagging from now on.
+     */
+    private void shed(ClientQueue queue) {
+        Iterator<Frame> frames = queue.pending.iterator();
+        while (queue.queuedBytes > highWaterBytes && frames.hasNext()) {
+            Frame frame = frames.next();
+            if (DROPPABLE_EVENTS.contains(frame.name())) {
+                frames.remove();
+                queue.queuedBytes -= frame.bytes();
+                queuedBytes.addAndGet(-frame.bytes());
+                dropped.increment();
+            }
+        }
+        if (queue.queuedBytes > highWaterBytes && queue.laggingSince == 0) {
+            queue.laggingSince = clock.millis();
+        }
+    }
+
+    private void acknowledged(ClientQueue queue, int bytes) {
+        synchronized (queue) {
+            queue.inFlightBytes -= bytes;
+            while (!queue.pending.isEmpty() && fits(queue, queue.pending.peek().bytes())) {
+                Frame frame = queue.pending.poll();
+                queue.queuedBytes -= frame.bytes();
+                queuedBytes.addAndGet(-frame.bytes());
+                write(queue, frame);
+            }
+            if (queue.queuedBytes <= highWaterBytes) {
+                queue.laggingSince = 0;
+            }
+        }
+    }
+
+    /**
+     * An event larger than the whole window still goes out once nothing else is in flight.
+     */
+    private boolean fits(ClientQueue queue, int bytes) {
+        return queue.inFlightBytes == 0 || queue.inFlightBytes + bytes <= windowBytes;
+    }
+
+    private void write(ClientQueue queue, Frame frame) {
+        queue.inFlightBytes += frame.bytes();
+        queue.client.sendEvent(frame.name(), new AckCallback<>(Object.class, ackTimeoutSeconds) {
+            @Override
+            public void onSuccess(Object result) {
+                acknowledged(queue, frame.bytes());
+            }
+
+            @Override
+            public void onTimeout() {
+                acknowledged(queue, frame.bytes());
+            }
+        }, frame.data());
+    }
+
+    private static final class ClientQueue {
+        private final SocketIOClient client;
+        private final ArrayDeque<Frame> pending = new ArrayDeque<>();
+        private long inFlightBytes;
+        private long queuedBytes;
+        private long laggingSince;
+        private Gauge gauge;
+
+        ClientQueue(SocketIOClient client) {
+            this.client = client;
+        }
+
+        synchronized long queuedBytes() {
+            return queuedBytes;
+        }
+    }
+
+    private record Frame(String name, Object data, int bytes) {
+    }
+}
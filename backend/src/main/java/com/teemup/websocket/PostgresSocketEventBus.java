@@ -0,0 +1,290 @@
+package com.teemup.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Socket event bus over Postgres LISTEN/NOTIFY, for nodes sharing the database.
+ *
+ * Events are delivered locally right away and notified on {@value #CHANNEL} with the id of this
+ * node, which ignores its own notifications. NOTIFY payloads are limited to 8000 bytes: larger
+ * events are stored in {@code socket_bus_payloads} and notified by row id.
+ *
+ * Publishers only queue the serialized event: a notifier thread sends the queue on a dedicated
+ * autocommit connection outside the pool, up to {@value #MAX_BATCH} notifications per round trip,
+ * so an emit never waits for the database nor for another publisher, and never borrows a pooled
+ * connection while its caller may hold one. Each envelope carries a sequence number, as Postgres
+ * delivers identical payloads notified in one transaction only once. When {@value #MAX_PENDING}
+ * events are waiting, the database being unreachable, further events are not sent to the other
+ * nodes. Only a payload too large to notify goes through the pool, stored by the notifier in a
+ * transaction of its own that commits before its notification.
+ *
+ * Each node listens on a dedicated connection outside the pool, reopened if it drops; events
+ * published while it is down are not delivered to that node.
+ */
+@Component
+@ConditionalOnProperty(name = "socketio.bus", havingValue = "postgres")
+@Slf4j
+public class PostgresSocketEventBus implements SocketEventBus {
+
+    static final String CHANNEL = "socket_events";
+    static final int MAX_NOTIFY_BYTES = 7900;
+    private static final String STORED_PREFIX = "@";
+    private static final int POLL_TIMEOUT_MS = 500;
+    private static final long RECONNECT_DELAY_MS = 2_000;
+    static final int MAX_BATCH = 100;
+    static final int MAX_PENDING = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate storeTransaction;
+    private final ObjectMapper objectMapper;
+    private final DataSourceProperties dataSourceProperties;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<Consumer<SocketEvent>> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final BlockingQueue<String> pending = new LinkedBlockingQueue<>(MAX_PENDING);
+
+    private volatile boolean running;
+    private Thread listener;
+    private Thread notifier;
+
+    // Used by the notifier thread only
+    private Connection notifyConnection;
+
+    public PostgresSocketEventBus(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  ObjectMapper objectMapper,
+                                  DataSourceProperties dataSourceProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.storeTransaction = new TransactionTemplate(transactionManager);
+        this.storeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.objectMapper = objectMapper;
+        this.dataSourceProperties = dataSourceProperties;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        listener = new Thread(this::listen, "socket-bus-listener");
+        listener.setDaemon(true);
+        listener.start();
+        notifier = new Thread(this::sendPending, "socket-bus-notifier");
+        notifier.setDaemon(true);
+        notifier.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+        if (notifier != null) {
+            notifier.interrupt();
+        }
+    }
+
+    @Override
+    public void publish(SocketEvent event) {
+        deliver(event);
+
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(new Envelope(nodeId, sequence.incrementAndGet(), event));
+        } catch (JsonProcessingException e) {
+            log.error("Socket event {} could not be serialized: {}", event.name(), e.getMessage());
+            return;
+        }
+        if (!pending.offer(payload)) {
+            log.warn("Socket event {} not sent to the other nodes: {} events already waiting",
+                    event.name(), MAX_PENDING);
+        }
+    }
+
+    private void sendPending() {
+        List<String> batch = new ArrayList<>(MAX_BATCH);
+        while (running) {
+            try {
+                batch.add(pending.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            pending.drainTo(batch, MAX_BATCH - 1);
+            try {
+                send(batch);
+            } catch (RuntimeException e) {
+                log.warn("{} socket events could not be sent to the other nodes: {}", batch.size(), e.getMessage());
+            }
+            batch.clear();
+        }
+        closeNotifyConnection();
+    }
+
+    private void send(List<String> batch) {
+        List<String> payloads = new ArrayList<>(batch.size());
+        for (String payload : batch) {
+            if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_NOTIFY_BYTES) {
+                Long id = storeTransaction.execute(status -> jdbcTemplate.queryForObject(
+                        "INSERT INTO socket_bus_payloads (payload) VALUES (?) RETURNING id", Long.class, payload));
+                payloads.add(STORED_PREFIX + id);
+            } else {
+                payloads.add(payload);
+            }
+        }
+
+        try {
+            sendNotifications(payloads);
+        } catch (SQLException e) {
+            // The connection dropped since the last batch: reopened once
+            closeNotifyConnection();
+            try {
+                sendNotifications(payloads);
+            } catch (SQLException retry) {
+                closeNotifyConnection();
+                log.warn("{} socket events could not be sent to the other nodes: {}",
+                        payloads.size(), retry.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Notifies every payload in one statement, in order: volatile calls are evaluated after the sort.
+     */
+    private void sendNotifications(List<String> payloads) throws SQLException {
+        if (notifyConnection == null) {
+            notifyConnection = openConnection();
+        }
+        try (PreparedStatement statement = notifyConnection.prepareStatement("""
+                SELECT pg_notify(?, payload)
+                FROM unnest(?) WITH ORDINALITY AS notification(payload, position)
+                ORDER BY position
+                """)) {
+            statement.setString(1, CHANNEL);
+            statement.setArray(2, notifyConnection.createArrayOf("text", payloads.toArray()));
+            statement.execute();
+        }
+    }
+
+    private void closeNotifyConnection() {
+        if (notifyConnection == null) {
+            return;
+        }
+        try {
+            notifyConnection.close();
+        } catch (SQLException e) {
+            log.debug("Socket bus notify connection could not be closed: {}", e.getMessage());
+        }
+        notifyConnection = null;
+    }
+
+    private Connection openConnection() throws SQLException {
+        return DriverManager.getConnection(
+                dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword());
+    }
+
+    @Override
+    public void subscribe(Consumer<SocketEvent> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * Stored payloads are read by every node within milliseconds; keep them a few minutes.
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeStoredPayloads() {
+        jdbcTemplate.update("DELETE FROM socket_bus_payloads WHERE created_at < now() - interval '5 minutes'");
+    }
+
+    /**
+     * Handles a notification payload: an envelope, or a reference to a stored one.
+     */
+    void receive(String payload) {
+        try {
+            if (payload.startsWith(STORED_PREFIX)) {
+                payload = jdbcTemplate.queryForObject("SELECT payload FROM socket_bus_payloads WHERE id = ?",
+                        String.class, Long.parseLong(payload.substring(STORED_PREFIX.length())));
+            }
+            Envelope envelope = objectMapper.readValue(payload, Envelope.class);
+            if (!nodeId.equals(envelope.origin())) {
+                deliver(envelope.event());
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Invalid socket bus notification: {}", e.getMessage());
+        }
+    }
+
+    private void deliver(SocketEvent event) {
+        for (Consumer<SocketEvent> subscriber : subscribers) {
+            try {
+                subscriber.accept(event);
+            } catch (RuntimeException e) {
+                log.warn("Socket event {} could not be delivered: {}", event.name(), e.getMessage());
+            }
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = openConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                log.info("Listening to socket events on channel {}", CHANNEL);
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Socket bus connection lost, reconnecting: {}", e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    record Envelope(String origin, long sequence, SocketEvent event) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.teemup.websocket;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Presence changes waiting to be sent, by recipient, so that a burst of friends connecting or
+ * leaving at once goes out as one frame per recipient and tick rather than one per change.
+ *
+ * Within a tick only the net change of a friend is kept: one who drops and comes back before
+ * the tick is not reported at all.
+ */
+@Component
+public class PresenceCoalescer {
+
+    private final Map<UUID, Map<UUID, Boolean>> pending = new LinkedHashMap<>();
+
+    public synchronized void changed(UUID userId, boolean online, Collection<UUID> recipients) {
+        for (UUID recipientId : recipients) {
+            Map<UUID, Boolean> changes = pending.computeIfAbsent(recipientId, id -> new LinkedHashMap<>());
+            Boolean queued = changes.get(userId);
+            if (queued != null && queued != online) {
+                // Back to the state the recipient last saw
+                changes.remove(userId);
+                if (changes.isEmpty()) {
+                    pending.remove(recipientId);
+                }
+            } else {
+                changes.put(userId, online);
+            }
+        }
+    }
+
+    /**
+     * Hands over the changes queued since the last call, by recipient.
+     */
+    public synchronized Map<UUID, List<PresenceUpdate>> drain() {
+        if (pending.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, List<PresenceUpdate>> updates = new LinkedHashMap<>();
+        pending.forEach((recipientId, changes) -> {
+            List<PresenceUpdate> list = new ArrayList<>(changes.size());
+            changes.forEach((userId, online) -> list.add(new PresenceUpdate(userId, online)));
+            updates.put(recipientId, list);
+        });
+        pending.clear();
+        return updates;
+    }
+
+    public record PresenceUpdate(UUID userId, boolean online) {
+    }
+}
@@ -0,0 +1,82 @@
+package com.teemup.websocket;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Socket sessions of each user connected to this node, one per device.
+ *
+ * The sessions of a user are an immutable array replaced on every connect or disconnect, so the
+ * send path reads them without locking and iterates them without allocating; connects and
+ * disconnects, far rarer than sends, pay for the copy.
+ *
+ * {@link #add} and {@link #remove} report the first and last session of a user, which is when
+ * the user comes online and goes offline.
+ */
+@Component
+public class SessionRegistry {
+
+    private static final SocketIOClient[] NONE = new SocketIOClient[0];
+
+    private final Map<UUID, SocketIOClient[]> sessionsByUser = new ConcurrentHashMap<>();
+
+    /**
+     * @return whether this is the first session of the user
+     */
+    public boolean add(UUID userId, SocketIOClient client) {
+        SocketIOClient[] sessions = sessionsByUser.merge(userId, new SocketIOClient[]{client}, (current, added) -> {
+            SocketIOClient[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = client;
+            return grown;
+        });
+        return sessions.length == 1;
+    }
+
+    /**
+     * @return whether this was the last session of the user
+     */
+    public boolean remove(UUID userId, SocketIOClient client) {
+        boolean[] last = new boolean[1];
+        sessionsByUser.computeIfPresent(userId, (id, current) -> {
+            int index = indexOf(current, client);
+            if (index < 0) {
+                return current;
+            }
+            if (current.length == 1) {
+                last[0] = true;
+                return null;
+            }
+            SocketIOClient[] shrunk = new SocketIOClient[current.length - 1];
+            System.arraycopy(current, 0, shrunk, 0, index);
+            System.arraycopy(current, index + 1, shrunk, index, current.length - index - 1);
+            return shrunk;
+        });
+        return last[0];
+    }
+
+    /**
+     * Sessions of the user, possibly empty. The array is shared: callers must not modify it.
+     */
+    public SocketIOClient[] sessions(UUID userId) {
+        SocketIOClient[] sessions = sessionsByUser.get(userId);
+        return sessions != null ? sessions : NONE;
+    }
+
+    public int userCount() {
+        return sessionsByUser.size();
+    }
+
+    private static int indexOf(SocketIOClient[] sessions, SocketIOClient client) {
+        for (int i = 0; i < sessions.length; i++) {
+            if (sessions[i].getSessionId().equals(client.getSessionId())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
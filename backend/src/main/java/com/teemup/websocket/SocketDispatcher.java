@@ -0,0 +1,187 @@
+package com.teemup.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs socket handlers that block (JPA, JWT checks) on a worker pool instead of the netty event
+ * loop, where one slow query would stall every socket of the loop.
+ *
+ * Handlers of one socket session run one at a time and in arrival order, so that a join sent
+ * right after connecting sees the authenticated session. Each session has a lane of pending
+ * handlers and at most one of them in flight; a lane runs one handler per executor task and
+ * reschedules itself, so a chatty session does not hold a worker while others wait. An idle
+ * lane is retired and never reused, so two lanes of a session never run side by side.
+ *
+ * At most {@code capacity} handlers wait across all sessions; beyond that {@link #submit}
+ * refuses the work and the caller tells the client.
+ */
+@Component
+@Slf4j
+public class SocketDispatcher {
+
+    private final Executor executor;
+    private final int capacity;
+    private final ConcurrentMap<UUID, Lane> lanes = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final Timer latency;
+    private final Counter completed;
+    private final Counter failed;
+    private final Counter rejected;
+
+    @Autowired
+    public SocketDispatcher(MeterRegistry meterRegistry,
+                            @Value("${socketio.dispatch.threads:16}") int threads,
+                            @Value("${socketio.dispatch.capacity:10000}") int capacity) {
+        this(meterRegistry, capacity, Executors.newFixedThreadPool(threads, workerThreads()));
+    }
+
+    SocketDispatcher(MeterRegistry meterRegistry, int capacity, Executor executor) {
+        this.executor = executor;
+        this.capacity = capacity;
+
+        this.latency = Timer.builder("socketio.dispatch.latency")
+                .description("Time from receipt to completion of a socket handler")
+                .register(meterRegistry);
+        this.completed = Counter.builder("socketio.dispatch.tasks").tag("result", "completed")
+                .register(meterRegistry);
+        this.failed = Counter.builder("socketio.dispatch.tasks").tag("result", "failed")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("socketio.dispatch.tasks").tag("result", "rejected")
+                .register(meterRegistry);
+        Gauge.builder("socketio.dispatch.pending", pending, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a handler of the session behind its previous ones.
+     *
+     * @return false if the dispatcher is saturated and the handler will not run
+     */
+    public boolean submit(UUID sessionId, Runnable handler) {
+        if (pending.incrementAndGet() > capacity) {
+            pending.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        enqueue(sessionId, handler);
+        return true;
+    }
+
+    /**
+     * Queues a handler that must run whatever the load, such as the cleanup of a closed session.
+     */
+    public void submitAlways(UUID sessionId, Runnable handler) {
+        pending.incrementAndGet();
+        enqueue(sessionId, handler);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+            try {
+                executorService.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void enqueue(UUID sessionId, Runnable handler) {
+        Task task = new Task(handler, System.nanoTime());
+        while (true) {
+            Lane lane = lanes.computeIfAbsent(sessionId, id -> new Lane());
+            boolean schedule;
+            synchronized (lane) {
+                // Retired between lookup and lock: its successor keeps the order
+                if (lane.retired) {
+                    continue;
+                }
+                lane.pending.add(task);
+                schedule = !lane.scheduled;
+                lane.scheduled = true;
+            }
+            if (schedule) {
+                executor.execute(() -> drain(sessionId, lane));
+            }
+            return;
+        }
+    }
+
+    /**
+     * Runs the next handler of the lane, then reschedules it or, if nothing is left, retires it.
+     */
+    private void drain(UUID sessionId, Lane lane) {
+        Task task;
+        synchronized (lane) {
+            task = lane.pending.poll();
+        }
+
+        if (task != null) {
+            pending.decrementAndGet();
+            run(task);
+        }
+
+        boolean more;
+        synchronized (lane) {
+            more = !lane.pending.isEmpty();
+            if (!more) {
+                lane.retired = true;
+                lanes.remove(sessionId, lane);
+            }
+        }
+        if (more) {
+            executor.execute(() -> drain(sessionId, lane));
+        }
+    }
+
+    private void run(Task task) {
+        try {
+            task.handler().run();
+            completed.increment();
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.error("Socket handler failed: {}", e.getMessage(), e);
+        } finally {
+            latency.record(System.nanoTime() - task.submittedAt(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static ThreadFactory workerThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "socket-dispatch-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Lane {
+        private final ArrayDeque<Task> pending = new ArrayDeque<>();
+        private boolean scheduled;
+        private boolean retired;
+    }
+
+    private record Task(Runnable handler, long submittedAt) {
+    }
+}
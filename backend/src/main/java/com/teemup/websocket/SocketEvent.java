@@ -0,0 +1,71 @@
+package com.teemup.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * A socket event addressed to a room, to a user, to the friends of a user or to everyone, whichever
+ * node they are connected to, or to every node itself.
+ *
+ * @param target Room name for {@link Scope#ROOM}, user id for {@link Scope#USER} and {@link Scope#PRESENCE},
+ *               null for {@link Scope#BROADCAST}, {@link Scope#NODE} and presence snapshots
+ * @param data   Event payload, already serialized to JSON so that it can cross nodes unchanged
+ */
+public record SocketEvent(Scope scope, String target, String name, JsonNode data) {
+
+    static final String PRESENCE_SNAPSHOT = "presenceSnapshot";
+
+    public enum Scope {
+        ROOM, USER, BROADCAST,
+        /**
+         * Presence on a node: its first or last session of the target user ({@code userOnline} or
+         * {@code userOffline}), or every user it holds ({@code presenceSnapshot}).
+         */
+        PRESENCE,
+        /**
+         * For the nodes themselves rather than their sockets, such as {@link EventCacheRelay#EVENT_CACHE_CHANGED}.
+         */
+        NODE
+    }
+
+    public static SocketEvent toRoom(String room, String name, JsonNode data) {
+        return new SocketEvent(Scope.ROOM, room, name, data);
+    }
+
+    public static SocketEvent toUser(UUID userId, String name, JsonNode data) {
+        return new SocketEvent(Scope.USER, userId.toString(), name, data);
+    }
+
+    /**
+     * @param seq    number of the change among the presence events and snapshots of the node
+     * @param global whether the node saw the user come online or go offline cluster-wide, and persisted it
+     */
+    public static SocketEvent presence(String node, long seq, UUID userId, boolean online, boolean global) {
+        ObjectNode data = JsonNodeFactory.instance.objectNode()
+                .put("node", node).put("seq", seq).put("global", global);
+        return new SocketEvent(Scope.PRESENCE, userId.toString(), online ? "userOnline" : "userOffline", data);
+    }
+
+    /**
+     * @param seq number of the last change of the node the snapshot includes
+     */
+    public static SocketEvent presenceSnapshot(String node, long seq, Collection<UUID> userIds) {
+        ObjectNode data = JsonNodeFactory.instance.objectNode().put("node", node).put("seq", seq);
+        ArrayNode users = data.putArray("users");
+        userIds.forEach(userId -> users.add(userId.toString()));
+        return new SocketEvent(Scope.PRESENCE, null, PRESENCE_SNAPSHOT, data);
+    }
+
+    public static SocketEvent toEveryone(String name, JsonNode data) {
+        return new SocketEvent(Scope.BROADCAST, null, name, data);
+    }
+
+    public static SocketEvent toNodes(String name, JsonNode data) {
+        return new SocketEvent(Scope.NODE, null, name, data);
+    }
+}
@@ -0,0 +1,20 @@
+package com.teemup.websocket;
+
+import java.util.function.Consumer;
+
+/**
+ * Fan-out of socket events across the backend nodes: every node delivers each published event
+ * to the sockets connected to it. Delivery is best effort, like the sockets themselves.
+ *
+ * Selected with {@code socketio.bus}: {@code in-process} (single node) or {@code postgres}
+ * (LISTEN/NOTIFY, any number of nodes sharing the database).
+ */
+public interface SocketEventBus {
+
+    /**
+     * Hands the event to the subscribers of every node, this one included (synchronously).
+     */
+    void publish(SocketEvent event);
+
+    void subscribe(Consumer<SocketEvent> subscriber);
+}
@@ -1,59 +1,116 @@
 package com.teemup.websocket;
 
+import com.corundumstudio.socketio.AckRequest;
 import com.corundumstudio.socketio.SocketIOClient;
 import com.corundumstudio.socketio.SocketIOServer;
-import com.teemup.entity.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teemup.dto.friend.FriendshipChangedEvent;
+import com.teemup.dto.notification.NotificationCreatedEvent;
 import com.teemup.security.JwtService;
+import com.teemup.security.TokenRevocationCache;
 import com.teemup.service.MessagingService;
+import com.teemup.service.PresenceService;
 import com.teemup.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class SocketIOService {
 
+    private static final String FRIENDSHIP_CHANGED = "friendshipChanged";
+    static final int PRESENCE_LOCK_STRIPES = 64;
+
     private final SocketIOServer socketIOServer;
     private final JwtService jwtService;
+    private final TokenRevocationCache tokenRevocationCache;
     private final UserService userService;
+    private final PresenceService presenceService;
     private final MessagingService messagingService;
+    private final TypingCoalescer typingCoalescer;
+    private final SessionRegistry sessionRegistry;
+    private final SocketDispatcher socketDispatcher;
+    private final OutboundQueues outboundQueues;
+    private final FriendIndex friendIndex;
+    private final PresenceCoalescer presenceCoalescer;
+    private final SocketEventBus socketEventBus;
+    private final ObjectMapper objectMapper;
 
     @Value("${socketio.enabled:true}")
     private boolean socketEnabled;
 
-    private final Map<UUID, SocketIOClient> connectedUsers = new ConcurrentHashMap<>();
     private final Map<String, UUID> sessionToUser = new ConcurrentHashMap<>();
+    private final Object[] presenceLocks = IntStream.range(0, PRESENCE_LOCK_STRIPES)
+            .mapToObj(i -> new Object())
+            .toArray();
 
     @PostConstruct
     public void init() {
+        // Events published by any node, this one included, reach the sockets connected here
+        socketEventBus.subscribe(this::deliver);
+
         if (!socketEnabled) {
             log.info("Socket.IO service disabled by configuration");
             return;
         }
 
-        socketIOServer.addConnectListener(this::onConnect);
-        socketIOServer.addDisconnectListener(this::onDisconnect);
-
-        socketIOServer.addEventListener("joinConversation", String.class, this::onJoinConversation);
-        socketIOServer.addEventListener("leaveConversation", String.class, this::onLeaveConversation);
+        // Handlers query the database: they run on the dispatcher, in order per session, never on the event loop
+        socketIOServer.addConnectListener(client -> {
+            if (!socketDispatcher.submit(client.getSessionId(), () -> onConnect(client))) {
+                log.warn("Socket dispatcher saturated, refusing connection {}", client.getSessionId());
+                client.disconnect();
+            }
+        });
+        socketIOServer.addDisconnectListener(client ->
+                socketDispatcher.submitAlways(client.getSessionId(), () -> onDisconnect(client)));
+
+        socketIOServer.addEventListener("joinConversation", String.class, (client, data, ackRequest) ->
+                dispatch(client, "joinConversation", ackRequest, () -> onJoinConversation(client, data, ackRequest)));
+        socketIOServer.addEventListener("leaveConversation", String.class, (client, data, ackRequest) ->
+                dispatch(client, "leaveConversation", ackRequest, () -> onLeaveConversation(client, data, ackRequest)));
         // sendMessage is handled via REST API (MessagingController) which broadcasts via broadcastToConversation()
         // Removing socket handler to prevent double DB insert
-        socketIOServer.addEventListener("typing", Map.class, this::onTyping);
-        socketIOServer.addEventListener("stopTyping", Map.class, this::onStopTyping);
-        socketIOServer.addEventListener("markRead", Map.class, this::onMarkRead);
+        socketIOServer.addEventListener("typing", Map.class, (client, data, ackRequest) ->
+                dispatch(client, "typing", ackRequest, () -> onTyping(client, data, ackRequest)));
+        socketIOServer.addEventListener("stopTyping", Map.class, (client, data, ackRequest) ->
+                dispatch(client, "stopTyping", ackRequest, () -> onStopTyping(client, data, ackRequest)));
+        socketIOServer.addEventListener("markRead", Map.class, (client, data, ackRequest) ->
+                dispatch(client, "markRead", ackRequest, () -> onMarkRead(client, data, ackRequest)));
 
         socketIOServer.start();
         log.info("Socket.IO server started on port {}", socketIOServer.getConfiguration().getPort());
     }
 
+    /**
+     * Hands a client event to the dispatcher, or tells the client it was dropped when saturated.
+     */
+    private void dispatch(SocketIOClient client, String event, AckRequest ackRequest, Runnable handler) {
+        if (socketDispatcher.submit(client.getSessionId(), handler)) {
+            return;
+        }
+        log.warn("Socket dispatcher saturated, dropping {} from session {}", event, client.getSessionId());
+        if (ackRequest.isAckRequested()) {
+            ackRequest.sendAckData(Map.of("error", "Serveur surchargé, réessayez plus tard"));
+        }
+    }
+
     private void onConnect(SocketIOClient client) {
         String token = client.getHandshakeData().getSingleUrlParam("token");
         if (token == null) {
@@ -70,17 +127,26 @@ public class SocketIOService {
         }
 
         try {
-            String email = jwtService.extractUsername(token);
-            User user = userService.findByEmail(email);
-            UUID userId = user.getId();
+            // As for HTTP requests: the claims identify the user, no user load
+            Claims claims = jwtService.parseAccessToken(token);
+            UUID userId = UUID.fromString(claims.get(JwtService.USER_ID_CLAIM, String.class));
+            Instant issuedAt = JwtService.issuedAt(claims);
+            if (tokenRevocationCache.isRevoked(userId, issuedAt)) {
+                log.warn("Connection attempt with a revoked token for user {}", userId);
+                client.disconnect();
+                return;
+            }
 
-            connectedUsers.put(userId, client);
             sessionToUser.put(client.getSessionId().toString(), userId);
-
-            userService.setUserOnlineStatus(userId, true);
+            boolean firstSession = sessionRegistry.add(userId, client);
+            outboundQueues.register(client);
 
             client.sendEvent("connected", Map.of("userId", userId.toString()));
-            broadcastUserStatus(userId, true);
+
+            // Other devices of the user are already online here
+            if (firstSession) {
+                syncPresence(userId);
+            }
 
             log.info("User {} connected", userId);
         } catch (RuntimeException e) {
@@ -90,16 +156,18 @@ public class SocketIOService {
     }
 
     private void onDisconnect(SocketIOClient client) {
+        outboundQueues.unregister(client);
         UUID userId = sessionToUser.remove(client.getSessionId().toString());
         if (userId != null) {
-            connectedUsers.remove(userId);
-            userService.setUserOnlineStatus(userId, false);
-            broadcastUserStatus(userId, false);
+            // Gone from this node once the last device here is gone, offline if no other node holds one
+            if (sessionRegistry.remove(userId, client)) {
+                syncPresence(userId);
+            }
             log.info("User {} disconnected", userId);
         }
     }
 
-    private void onJoinConversation(SocketIOClient client, String conversationId, com.corundumstudio.socketio.AckRequest ackRequest) {
+    private void onJoinConversation(SocketIOClient client, String conversationId, AckRequest ackRequest) {
         UUID userId = sessionToUser.get(client.getSessionId().toString());
         if (userId == null) return;
 
@@ -122,14 +190,14 @@ public class SocketIOService {
         log.debug("Client joined room: {}", room);
     }
 
-    private void onLeaveConversation(SocketIOClient client, String conversationId, com.corundumstudio.socketio.AckRequest ackRequest) {
+    private void onLeaveConversation(SocketIOClient client, String conversationId, AckRequest ackRequest) {
         String room = "conversation-" + conversationId;
         client.leaveRoom(room);
         log.debug("Client left room: {}", room);
     }
 
     @SuppressWarnings("unchecked")
-    private void onTyping(SocketIOClient client, Map<String, Object> data, com.corundumstudio.socketio.AckRequest ackRequest) {
+    private void onTyping(SocketIOClient client, Map<String, Object> data, AckRequest ackRequest) {
         UUID userId = sessionToUser.get(client.getSessionId().toString());
         if (userId == null) return;
 
@@ -149,16 +217,11 @@ public class SocketIOService {
             return;
         }
 
-        String room = "conversation-" + conversationId;
-
-        socketIOServer.getRoomOperations(room).sendEvent("userTyping", Map.of(
-                "userId", userId.toString(),
-                "conversationId", conversationId
-        ));
+        typingCoalescer.typing(parsedConversationId, userId);
     }
 
     @SuppressWarnings("unchecked")
-    private void onStopTyping(SocketIOClient client, Map<String, Object> data, com.corundumstudio.socketio.AckRequest ackRequest) {
+    private void onStopTyping(SocketIOClient client, Map<String, Object> data, AckRequest ackRequest) {
         UUID userId = sessionToUser.get(client.getSessionId().toString());
         if (userId == null) return;
 
@@ -178,16 +241,11 @@ public class SocketIOService {
             return;
         }
 
-        String room = "conversation-" + conversationId;
-
-        socketIOServer.getRoomOperations(room).sendEvent("userStoppedTyping", Map.of(
-                "userId", userId.toString(),
-                "conversationId", conversationId
-        ));
+        typingCoalescer.stopTyping(parsedConversationId, userId);
     }
 
     @SuppressWarnings("unchecked")
-    private void onMarkRead(SocketIOClient client, Map<String, Object> data, com.corundumstudio.socketio.AckRequest ackRequest) {
+    private void onMarkRead(SocketIOClient client, Map<String, Object> data, AckRequest ackRequest) {
         UUID userId = sessionToUser.get(client.getSessionId().toString());
         if (userId == null) return;
 
@@ -209,34 +267,253 @@ public class SocketIOService {
 
         messagingService.markMessagesAsRead(parsedConversationId, userId);
 
-        String room = "conversation-" + conversationId;
-        socketIOServer.getRoomOperations(room).sendEvent("messagesRead", Map.of(
+        broadcastToConversation(conversationId, "messagesRead", Map.of(
                 "userId", userId.toString(),
                 "conversationId", conversationId
         ));
     }
 
-    private void broadcastUserStatus(UUID userId, boolean isOnline) {
-        socketIOServer.getBroadcastOperations().sendEvent(
-                isOnline ? "userOnline" : "userOffline",
-                Map.of("userId", userId.toString())
-        );
+    /**
+     * Sends the typing changes of the last tick, one event per user whose state changed, so that
+     * room fan-out does not depend on how often clients send typing signals.
+     */
+    @Scheduled(fixedDelayString = "${socketio.typing.tick-ms:200}")
+    public void flushTypingUpdates() {
+        Map<UUID, List<TypingCoalescer.TypingUpdate>> updates = typingCoalescer.drain();
+        if (!socketEnabled) {
+            return;
+        }
+
+        updates.forEach((conversationId, changes) -> {
+            for (TypingCoalescer.TypingUpdate change : changes) {
+                broadcastToConversation(conversationId.toString(),
+                        change.typing() ? "userTyping" : "userStoppedTyping", Map.of(
+                                "userId", change.userId().toString(),
+                                "conversationId", conversationId.toString()
+                        ));
+            }
+        });
     }
 
-    public void sendNotificationToUser(UUID userId, Object notification) {
-        SocketIOClient client = connectedUsers.get(userId);
-        if (client != null && client.isChannelOpen()) {
-            client.sendEvent("notification", notification);
+    /**
+     * Sends the presence changes of the last tick to the friends connected here: a single change
+     * as {@code userOnline} / {@code userOffline}, several as one {@code presenceChanged} frame.
+     */
+    @Scheduled(fixedDelayString = "${socketio.presence.tick-ms:500}")
+    public void flushPresenceUpdates() {
+        Map<UUID, List<PresenceCoalescer.PresenceUpdate>> updates = presenceCoalescer.drain();
+        if (!socketEnabled) {
+            return;
+        }
+
+        updates.forEach((recipientId, changes) -> {
+            if (changes.size() == 1) {
+                PresenceCoalescer.PresenceUpdate change = changes.get(0);
+                sendToSessions(recipientId, change.online() ? "userOnline" : "userOffline",
+                        Map.of("userId", change.userId().toString()));
+                return;
+            }
+            List<String> online = new ArrayList<>();
+            List<String> offline = new ArrayList<>();
+            for (PresenceCoalescer.PresenceUpdate change : changes) {
+                (change.online() ? online : offline).add(change.userId().toString());
+            }
+            sendToSessions(recipientId, "presenceChanged", Map.of("online", online, "offline", offline));
+        });
+    }
+
+    /**
+     * Brings the friend index and the presence of the user in line with their sessions on this node,
+     * after their first session opened or their last one closed. A device connecting while another
+     * disconnects can run both edges at once: each user is settled by one thread at a time, from the
+     * sessions as they are then rather than from the edge that triggered it, so the last one to run
+     * leaves the user online with a session here and offline without.
+     *
+     * The friend ids are loaded outside the lock, which stripes the users: a slow query only holds
+     * up the user it is for. The state is checked again once they are loaded.
+     */
+    private void syncPresence(UUID userId) {
+        Object lock = presenceLocks[Math.floorMod(userId.hashCode(), PRESENCE_LOCK_STRIPES)];
+        List<UUID> friendIds = null;
+        while (true) {
+            synchronized (lock) {
+                boolean connected = sessionRegistry.sessions(userId).length > 0;
+                if (connected == presenceService.isConnectedHere(userId)) {
+                    return;
+                }
+                if (!connected) {
+                    friendIndex.untrack(userId);
+                    typingCoalescer.clear(userId);
+                    broadcastUserStatus(userId, false, presenceService.disconnected(userId));
+                    return;
+                }
+                if (friendIds != null) {
+                    friendIndex.track(userId, friendIds);
+                    broadcastUserStatus(userId, true, presenceService.connected(userId));
+                    return;
+                }
+            }
+            friendIds = userService.getFriendIds(userId);
+        }
+    }
+
+    /**
+     * Tells every node that this one gained or lost the user; each node works out whether the user
+     * came online or went offline for it and tells the friends connected to it, and no one else.
+     */
+    private void broadcastUserStatus(UUID userId, boolean isOnline, PresenceService.LocalChange change) {
+        if (change == null) {
+            return;
+        }
+        socketEventBus.publish(SocketEvent.presence(
+                presenceService.nodeId(), change.seq(), userId, isOnline, change.global()));
+    }
+
+    /**
+     * Sends every user connected here to the other nodes, which drop the nodes they stop hearing from.
+     */
+    @Scheduled(fixedDelayString = "${presence.heartbeat-ms:10000}")
+    public void publishPresenceSnapshot() {
+        presenceService.expireNodes().forEach(this::presenceChanged);
+        if (!socketEnabled) {
+            return;
         }
+        PresenceService.Snapshot snapshot = presenceService.localSnapshot();
+        socketEventBus.publish(SocketEvent.presenceSnapshot(presenceService.nodeId(), snapshot.seq(), snapshot.userIds()));
+    }
+
+    /**
+     * The sockets of this node go away with it: the other nodes drop its users right away, whatever
+     * else they hear from it late.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (socketEnabled) {
+            socketEventBus.publish(SocketEvent.presenceSnapshot(presenceService.nodeId(), Long.MAX_VALUE, List.of()));
+        }
+    }
+
+    /**
+     * Sends to the user wherever they are connected.
+     */
+    public void sendNotificationToUser(UUID userId, Object notification) {
+        socketEventBus.publish(SocketEvent.toUser(userId, "notification", objectMapper.valueToTree(notification)));
+    }
+
+    /**
+     * Pushes stored notifications to the recipient, only once the transaction that created them has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        sendNotificationToUser(event.recipientId(), event.notification());
     }
 
+    /**
+     * Tells both users, so that the nodes they are connected to update their friend index.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFriendshipChanged(FriendshipChangedEvent event) {
+        socketEventBus.publish(SocketEvent.toUser(event.userId(), FRIENDSHIP_CHANGED, objectMapper.valueToTree(
+                Map.of("friendId", event.friendId().toString(), "friends", event.friends()))));
+        socketEventBus.publish(SocketEvent.toUser(event.friendId(), FRIENDSHIP_CHANGED, objectMapper.valueToTree(
+                Map.of("friendId", event.userId().toString(), "friends", event.friends()))));
+    }
+
+    /**
+     * Sends to the room of the conversation on every node.
+     */
     public void broadcastToConversation(String conversationId, String event, Object data) {
-        String room = "conversation-" + conversationId;
-        socketIOServer.getRoomOperations(room).sendEvent(event, data);
+        socketEventBus.publish(SocketEvent.toRoom(
+                "conversation-" + conversationId, event, objectMapper.valueToTree(data)));
+    }
+
+    /**
+     * Delivers a bus event to the sockets connected to this node.
+     */
+    private void deliver(SocketEvent event) {
+        switch (event.scope()) {
+            case ROOM -> sendToClients(socketIOServer.getRoomOperations(event.target()).getClients(),
+                    event.name(), event.data());
+            case USER -> {
+                UUID userId = UUID.fromString(event.target());
+                if (FRIENDSHIP_CHANGED.equals(event.name())) {
+                    applyFriendshipChange(userId, event.data());
+                }
+                sendToSessions(userId, event.name(), event.data());
+            }
+            case PRESENCE -> deliverPresence(event);
+            case BROADCAST -> sendToClients(socketIOServer.getBroadcastOperations().getClients(),
+                    event.name(), event.data());
+            case NODE -> {
+                // Not for sockets: applied by its own subscriber (EventCacheRelay)
+            }
+        }
+    }
+
+    /**
+     * Works out from a presence event of any node the users who came online or went offline for
+     * this node. The changes of this node itself were worked out when its sessions came and went.
+     */
+    private void deliverPresence(SocketEvent event) {
+        String node = event.data().get("node").asText();
+        long seq = event.data().get("seq").asLong();
+        boolean local = presenceService.nodeId().equals(node);
+        if (SocketEvent.PRESENCE_SNAPSHOT.equals(event.name())) {
+            if (!local) {
+                List<UUID> userIds = new ArrayList<>();
+                event.data().get("users").forEach(userId -> userIds.add(UUID.fromString(userId.asText())));
+                presenceService.remoteSnapshot(node, seq, userIds).forEach(this::presenceChanged);
+            }
+            return;
+        }
+
+        UUID userId = UUID.fromString(event.target());
+        boolean online = "userOnline".equals(event.name());
+        boolean global = event.data().get("global").asBoolean();
+        if (local ? global : presenceService.remoteChanged(node, seq, userId, online, global)) {
+            presenceChanged(userId, online);
+        }
+    }
+
+    private void presenceChanged(UUID userId, boolean online) {
+        presenceCoalescer.changed(userId, online, friendIndex.connectedFriendsOf(userId));
+    }
+
+    /**
+     * Sends to every device of the user connected here, through their outbound queues. The size
+     * of the event is estimated once for all of them.
+     */
+    private void sendToSessions(UUID userId, String name, Object data) {
+        SocketIOClient[] sessions = sessionRegistry.sessions(userId);
+        if (sessions.length == 0) {
+            return;
+        }
+        int bytes = OutboundQueues.estimateBytes(data);
+        for (SocketIOClient session : sessions) {
+            if (session.isChannelOpen()) {
+                outboundQueues.send(session, name, data, bytes);
+            }
+        }
+    }
+
+    private void sendToClients(Iterable<SocketIOClient> clients, String name, Object data) {
+        int bytes = OutboundQueues.estimateBytes(data);
+        for (SocketIOClient client : clients) {
+            outboundQueues.send(client, name, data, bytes);
+        }
+    }
+
+    private void applyFriendshipChange(UUID userId, JsonNode data) {
+        UUID friendId = UUID.fromString(data.get("friendId").asText());
+        if (data.get("friends").asBoolean()) {
+            friendIndex.link(userId, friendId);
+        } else {
+            friendIndex.unlink(userId, friendId);
+        }
     }
 
     public boolean isUserOnline(UUID userId) {
-        return connectedUsers.containsKey(userId);
+        return presenceService.isOnline(userId);
     }
 
     private String conversationIdFromEvent(Map<String, Object> data) {
@@ -0,0 +1,133 @@
+package com.teemup.websocket;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Typing state of each (conversation, user), turning the stream of client typing signals into
+ * few room broadcasts.
+ *
+ * The first signal emits {@code userTyping} right away (on the next tick); further signals only
+ * refresh the state, and re-emit at most once per {@code throttleMillis} so that clients, which
+ * hide an indicator after a few seconds, keep showing it. An explicit stop, a disconnection or
+ * {@code expiryMillis} without any signal emits {@code userStoppedTyping}.
+ *
+ * Changes are queued per conversation and collected by {@link #drain()} on each tick; within a
+ * tick only the last change of a user is kept.
+ */
+@Component
+public class TypingCoalescer {
+
+    private final Clock clock;
+    private final long throttleMillis;
+    private final long expiryMillis;
+
+    private final Map<Key, State> states = new HashMap<>();
+    private final Map<UUID, Map<UUID, Boolean>> pending = new LinkedHashMap<>();
+
+    @Autowired
+    public TypingCoalescer(@Value("${socketio.typing.throttle-ms:3000}") long throttleMillis,
+                           @Value("${socketio.typing.expiry-ms:6000}") long expiryMillis) {
+        this(throttleMillis, expiryMillis, Clock.systemUTC());
+    }
+
+    TypingCoalescer(long throttleMillis, long expiryMillis, Clock clock) {
+        this.throttleMillis = throttleMillis;
+        this.expiryMillis = expiryMillis;
+        this.clock = clock;
+    }
+
+    public synchronized void typing(UUID conversationId, UUID userId) {
+        long now = clock.millis();
+        Key key = new Key(conversationId, userId);
+        State state = states.get(key);
+        if (state == null) {
+            states.put(key, new State(now));
+            queue(conversationId, userId, true);
+            return;
+        }
+
+        state.lastSignalAt = now;
+        if (now - state.lastEmittedAt >= throttleMillis) {
+            state.lastEmittedAt = now;
+            queue(conversationId, userId, true);
+        }
+    }
+
+    public synchronized void stopTyping(UUID conversationId, UUID userId) {
+        if (states.remove(new Key(conversationId, userId)) != null) {
+            queue(conversationId, userId, false);
+        }
+    }
+
+    /**
+     * The user went away: they stop typing everywhere.
+     */
+    public synchronized void clear(UUID userId) {
+        Iterator<Key> keys = states.keySet().iterator();
+        while (keys.hasNext()) {
+            Key key = keys.next();
+            if (key.userId().equals(userId)) {
+                keys.remove();
+                queue(key.conversationId(), userId, false);
+            }
+        }
+    }
+
+    /**
+     * Expires silent typists, then hands over the changes queued since the last call, by conversation.
+     */
+    public synchronized Map<UUID, List<TypingUpdate>> drain() {
+        long now = clock.millis();
+        Iterator<Map.Entry<Key, State>> entries = states.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Key, State> entry = entries.next();
+            if (now - entry.getValue().lastSignalAt >= expiryMillis) {
+                entries.remove();
+                queue(entry.getKey().conversationId(), entry.getKey().userId(), false);
+            }
+        }
+
+        if (pending.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, List<TypingUpdate>> updates = new LinkedHashMap<>();
+        pending.forEach((conversationId, changes) -> {
+            List<TypingUpdate> list = new ArrayList<>(changes.size());
+            changes.forEach((userId, typing) -> list.add(new TypingUpdate(userId, typing)));
+            updates.put(conversationId, list);
+        });
+        pending.clear();
+        return updates;
+    }
+
+    private void queue(UUID conversationId, UUID userId, boolean typing) {
+        pending.computeIfAbsent(conversationId, id -> new LinkedHashMap<>()).put(userId, typing);
+    }
+
+    public record TypingUpdate(UUID userId, boolean typing) {
+    }
+
+    private record Key(UUID conversationId, UUID userId) {
+    }
+
+    private static final class State {
+        private long lastSignalAt;
+        private long lastEmittedAt;
+
+        State(long now) {
+            this.lastSignalAt = now;
+            this.lastEmittedAt = now;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+-- Per-series occurrence index: the next occurrence of each event, rolled forward daily
+-- by the application, so date filters keep matching recurring series after their first date.
+ALTER TABLE sport_events ADD COLUMN IF NOT EXISTS next_occurrence_date DATE;
+UPDATE sport_events SET next_occurrence_date = date WHERE next_occurrence_date IS NULL;
+ALTER TABLE sport_events ALTER COLUMN next_occurrence_date SET NOT NULL;
+
+-- Keyset pagination of the public event feeds: ORDER BY next_occurrence_date, start_time, id
+CREATE INDEX IF NOT EXISTS idx_sport_events_public_feed
+    ON sport_events(next_occurrence_date, start_time, id)
+    WHERE is_public = true;
+
+CREATE INDEX IF NOT EXISTS idx_sport_events_public_sport_feed
+    ON sport_events(sport, next_occurrence_date, start_time, id)
+    WHERE is_public = true;
+
+CREATE INDEX IF NOT EXISTS idx_sport_events_user_next_occurrence
+    ON sport_events(user_id, next_occurrence_date);
+
+-- Daily roll-over only touches recurring series
+CREATE INDEX IF NOT EXISTS idx_sport_events_recurring_next_occurrence
+    ON sport_events(next_occurrence_date)
+    WHERE recurrence <> 'NONE';
@@ -0,0 +1,10 @@
+-- Denormalised confirmed-seat counter, claimed with a single conditional UPDATE on join/approve
+ALTER TABLE sport_events ADD COLUMN IF NOT EXISTS confirmed_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE sport_events e
+SET confirmed_count = (
+    SELECT COUNT(*)
+    FROM event_participants p
+    WHERE p.event_id = e.id
+      AND p.status = 'CONFIRMED'
+);
@@ -0,0 +1,4 @@
+-- FIFO waitlist per event: WAITLISTED participants are promoted in (joined_at, id) order
+CREATE INDEX IF NOT EXISTS idx_event_participants_waitlist
+    ON event_participants(event_id, joined_at, id)
+    WHERE status = 'WAITLISTED';
@@ -0,0 +1,55 @@
+-- Full-text keyword search over events: title and sport weigh more than location, then description.
+-- The vector is maintained by a trigger; the application never writes it.
+ALTER TABLE sport_events ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+CREATE OR REPLACE FUNCTION sport_events_search_vector_update() RETURNS trigger AS $$
+BEGIN
+    NEW.search_vector :=
+        setweight(to_tsvector('french', coalesce(NEW.title, '')), 'A') ||
+        setweight(to_tsvector('french', coalesce(NEW.sport, '')), 'A') ||
+        setweight(to_tsvector('french', coalesce(NEW.location, '')), 'B') ||
+        setweight(to_tsvector('french', coalesce(NEW.description, '')), 'C');
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_sport_events_search_vector ON sport_events;
+CREATE TRIGGER trg_sport_events_search_vector
+    BEFORE INSERT OR UPDATE OF title, sport, location, description ON sport_events
+    FOR EACH ROW EXECUTE FUNCTION sport_events_search_vector_update();
+
+-- Backfill existing rows through the trigger
+UPDATE sport_events SET title = title;
+
+CREATE INDEX IF NOT EXISTS idx_sport_events_search_vector
+    ON sport_events USING gin (search_vector)
+    WHERE is_public = true;
+
+-- First occurrence of a series on or after a date, counted from the series start date as
+-- RecurrenceEngine does (monthly series keep their day of month, clamped to short months).
+-- Lets date-range searches keep only the series with an occurrence inside the range.
+CREATE OR REPLACE FUNCTION sport_event_first_occurrence(start_date DATE, recurrence VARCHAR, from_date DATE)
+RETURNS DATE AS $$
+DECLARE
+    month_count INTEGER;
+BEGIN
+    IF recurrence = 'NONE' OR from_date <= start_date THEN
+        RETURN start_date;
+    END IF;
+    CASE recurrence
+        WHEN 'DAILY' THEN
+            RETURN from_date;
+        WHEN 'WEEKLY' THEN
+            RETURN start_date + 7 * ((from_date - start_date + 6) / 7);
+        WHEN 'BIWEEKLY' THEN
+            RETURN start_date + 14 * ((from_date - start_date + 13) / 14);
+        ELSE
+            month_count := (EXTRACT(YEAR FROM from_date) - EXTRACT(YEAR FROM start_date)) * 12
+                + EXTRACT(MONTH FROM from_date) - EXTRACT(MONTH FROM start_date);
+            IF CAST(start_date + make_interval(months => month_count) AS DATE) < from_date THEN
+                month_count := month_count + 1;
+            END IF;
+            RETURN CAST(start_date + make_interval(months => month_count) AS DATE);
+    END CASE;
+END
+$$ LANGUAGE plpgsql IMMUTABLE;
@@ -0,0 +1,33 @@
+-- Read watermark per (conversation, participant), replacing one message_read_by row per read message.
+-- Everything created up to last_read_at is read; unread counts become a range count on messages.
+CREATE TABLE IF NOT EXISTS conversation_read_states (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    conversation_id UUID NOT NULL REFERENCES conversations(id) ON DELETE CASCADE,
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    last_read_message_id UUID REFERENCES messages(id) ON DELETE SET NULL,
+    last_read_at TIMESTAMP NOT NULL,
+    UNIQUE(conversation_id, user_id)
+);
+
+-- Backfill: the watermark of each participant is the latest message they sent or had read,
+-- or the creation of the conversation if there is none.
+INSERT INTO conversation_read_states (conversation_id, user_id, last_read_message_id, last_read_at)
+SELECT cp.conversation_id, cp.user_id, latest.id,
+       COALESCE(latest.created_at, c.created_at, CURRENT_TIMESTAMP)
+FROM conversation_participants cp
+JOIN conversations c ON c.id = cp.conversation_id
+LEFT JOIN LATERAL (
+    SELECT m.id, m.created_at
+    FROM messages m
+    WHERE m.conversation_id = cp.conversation_id
+      AND (m.sender_id = cp.user_id
+           OR EXISTS (SELECT 1 FROM message_read_by r WHERE r.message_id = m.id AND r.user_id = cp.user_id))
+    ORDER BY m.created_at DESC, m.id DESC
+    LIMIT 1
+) latest ON true
+ON CONFLICT (conversation_id, user_id) DO NOTHING;
+
+DROP TABLE IF EXISTS message_read_by;
+
+-- Unread counts and the "latest message" lookup scan a conversation by creation time
+CREATE INDEX IF NOT EXISTS idx_messages_conversation_created_at ON messages(conversation_id, created_at);
@@ -0,0 +1,16 @@
+-- Unread counter per (conversation, participant), maintained by the application so the inbox
+-- no longer counts messages per conversation.
+ALTER TABLE conversation_read_states ADD COLUMN IF NOT EXISTS unread_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE conversation_read_states r
+SET unread_count = (
+    SELECT COUNT(*)
+    FROM messages m
+    WHERE m.conversation_id = r.conversation_id
+      AND m.created_at > r.last_read_at
+      AND m.sender_id <> r.user_id
+      AND m.is_deleted = false
+);
+
+-- Inbox lookup: every read state of a user
+CREATE INDEX IF NOT EXISTS idx_conversation_read_states_user_id ON conversation_read_states(user_id);
@@ -0,0 +1,21 @@
+-- Pointer to the latest non-deleted message of each conversation, with a cached preview and sender,
+-- replacing the correlated MAX(created_at) lookup when rendering the inbox.
+-- A batch of messages reserves its sequence numbers and points the conversation at its last
+-- message in one UPDATE, before inserting the messages: the reference is checked at commit.
+ALTER TABLE conversations ADD COLUMN IF NOT EXISTS last_message_id UUID
+    REFERENCES messages(id) ON DELETE SET NULL DEFERRABLE INITIALLY DEFERRED;
+ALTER TABLE conversations ADD COLUMN IF NOT EXISTS last_message_preview VARCHAR(255);
+ALTER TABLE conversations ADD COLUMN IF NOT EXISTS last_message_sender_id UUID REFERENCES users(id) ON DELETE SET NULL;
+
+UPDATE conversations c
+SET last_message_id = latest.id,
+    last_message_preview = LEFT(latest.content, 255),
+    last_message_sender_id = latest.sender_id,
+    last_message_at = latest.created_at
+FROM (
+    SELECT DISTINCT ON (m.conversation_id) m.conversation_id, m.id, m.content, m.sender_id, m.created_at
+    FROM messages m
+    WHERE m.is_deleted = false
+    ORDER BY m.conversation_id, m.created_at DESC, m.id DESC
+) latest
+WHERE latest.conversation_id = c.id;
@@ -0,0 +1,37 @@
+-- Per-conversation message sequence numbers, allocated from a counter on the conversation row
+-- at insert. History is paged by (conversation_id, seq) and read watermarks move to seq.
+ALTER TABLE conversations ADD COLUMN IF NOT EXISTS message_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE conversations ADD COLUMN IF NOT EXISTS last_message_seq BIGINT;
+ALTER TABLE messages ADD COLUMN IF NOT EXISTS seq BIGINT;
+
+UPDATE messages m
+SET seq = numbered.seq
+FROM (
+    SELECT id, ROW_NUMBER() OVER (PARTITION BY conversation_id ORDER BY created_at, id) AS seq
+    FROM messages
+) numbered
+WHERE numbered.id = m.id;
+
+ALTER TABLE messages ALTER COLUMN seq SET NOT NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_messages_conversation_seq ON messages(conversation_id, seq);
+
+UPDATE conversations c
+SET message_seq = COALESCE((SELECT MAX(m.seq) FROM messages m WHERE m.conversation_id = c.id), 0);
+
+UPDATE conversations c
+SET last_message_seq = m.seq
+FROM messages m
+WHERE m.id = c.last_message_id;
+
+ALTER TABLE conversation_read_states ADD COLUMN IF NOT EXISTS last_read_seq BIGINT NOT NULL DEFAULT 0;
+
+UPDATE conversation_read_states r
+SET last_read_seq = COALESCE((
+    SELECT MAX(m.seq)
+    FROM messages m
+    WHERE m.conversation_id = r.conversation_id
+      AND m.created_at <= r.last_read_at
+), 0);
+
+-- Superseded by the (conversation_id, seq) index
+DROP INDEX IF EXISTS idx_messages_conversation_created_at;
@@ -0,0 +1,36 @@
+-- Change tracking for delta sync: every insert or update of a conversation, message or read state
+-- stamps the row with the id of the writing transaction. A sync token is the oldest transaction
+-- still running when the sync read (snapshot xmin): anything not visible to that sync was written
+-- by a transaction at or after it, so "change_txid >= token" never misses a late commit.
+-- The application never writes change_txid.
+CREATE OR REPLACE FUNCTION stamp_change_txid() RETURNS trigger AS $$
+BEGIN
+    NEW.change_txid := CAST(CAST(pg_current_xact_id() AS text) AS bigint);
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+-- Existing rows predate every token
+ALTER TABLE conversations ADD COLUMN IF NOT EXISTS change_txid BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE messages ADD COLUMN IF NOT EXISTS change_txid BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE conversation_read_states ADD COLUMN IF NOT EXISTS change_txid BIGINT NOT NULL DEFAULT 0;
+
+DROP TRIGGER IF EXISTS trg_conversations_change_txid ON conversations;
+CREATE TRIGGER trg_conversations_change_txid
+    BEFORE INSERT OR UPDATE ON conversations
+    FOR EACH ROW EXECUTE FUNCTION stamp_change_txid();
+
+DROP TRIGGER IF EXISTS trg_messages_change_txid ON messages;
+CREATE TRIGGER trg_messages_change_txid
+    BEFORE INSERT OR UPDATE ON messages
+    FOR EACH ROW EXECUTE FUNCTION stamp_change_txid();
+
+DROP TRIGGER IF EXISTS trg_conversation_read_states_change_txid ON conversation_read_states;
+CREATE TRIGGER trg_conversation_read_states_change_txid
+    BEFORE INSERT OR UPDATE ON conversation_read_states
+    FOR EACH ROW EXECUTE FUNCTION stamp_change_txid();
+
+-- A sync scans recent changes only
+CREATE INDEX IF NOT EXISTS idx_conversations_change_txid ON conversations(change_txid);
+CREATE INDEX IF NOT EXISTS idx_messages_change_txid ON messages(change_txid);
+CREATE INDEX IF NOT EXISTS idx_conversation_read_states_change_txid ON conversation_read_states(change_txid);
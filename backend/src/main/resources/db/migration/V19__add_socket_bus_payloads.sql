@@ -0,0 +1,9 @@
+-- Socket events too large for a NOTIFY payload (8000 bytes), read back by every node by id.
+-- Short-lived and safe to lose on a crash, hence unlogged.
+CREATE UNLOGGED TABLE IF NOT EXISTS socket_bus_payloads (
+    id BIGSERIAL PRIMARY KEY,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_socket_bus_payloads_created_at ON socket_bus_payloads(created_at);
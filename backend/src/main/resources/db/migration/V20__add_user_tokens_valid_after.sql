@@ -0,0 +1,4 @@
+-- Access tokens issued before this instant are rejected: set on logout, read by the
+-- authentication filter through a short-lived cache instead of loading the user per request.
+-- Compared with the UTC issue time of the tokens, so stored with its time zone.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS tokens_valid_after TIMESTAMPTZ;
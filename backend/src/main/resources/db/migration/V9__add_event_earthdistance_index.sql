@@ -0,0 +1,8 @@
+-- Great-circle distance in SQL for nearby event search
+CREATE EXTENSION IF NOT EXISTS cube;
+CREATE EXTENSION IF NOT EXISTS earthdistance;
+
+-- Only public events with coordinates are ever searched by distance
+CREATE INDEX IF NOT EXISTS idx_sport_events_earth_location ON sport_events
+    USING gist (ll_to_earth(latitude, longitude))
+    WHERE is_public = true AND latitude IS NOT NULL AND longitude IS NOT NULL;
@@ -431,6 +431,34 @@ class ApiIntegrationTest {
                     .andExpect(jsonPath("$.content[0].isPublic").value(true));
         }
 
+        @Test
+        @DisplayName("GET /api/events/public/feed - pages public events with a cursor")
+        void getPublicEventsFeed() throws Exception {
+            JsonNode authResponse = registerUser("public-feed@test.com", VALID_PASSWORD, "Hugo", "Keller");
+            String accessToken = extractAccessToken(authResponse);
+
+            createEvent(accessToken, buildDefaultEventRequest());
+            createEvent(accessToken, buildDefaultEventRequest());
+
+            MvcResult firstPage = mockMvc.perform(get("/api/events/public/feed")
+                            .param("limit", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(1)))
+                    .andExpect(jsonPath("$.hasNext").value(true))
+                    .andReturn();
+
+            JsonNode firstPageBody = objectMapper.readTree(firstPage.getResponse().getContentAsString());
+            String cursor = firstPageBody.get("nextCursor").asText();
+            String firstId = firstPageBody.get("content").get(0).get("id").asText();
+
+            mockMvc.perform(get("/api/events/public/feed")
+                            .param("limit", "1")
+                            .param("cursor", cursor))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(1)))
+                    .andExpect(jsonPath("$.content[0].id").value(not(firstId)));
+        }
+
         @Test
         @DisplayName("GET /api/events/{id} - retrieves event by ID with details")
         void getEventById() throws Exception {
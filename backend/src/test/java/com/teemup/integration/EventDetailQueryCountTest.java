@@ -0,0 +1,159 @@
+package com.teemup.integration;
+
+import com.corundumstudio.socketio.SocketIOServer;
+import com.teemup.config.RateLimitFilter;
+import com.teemup.dto.event.SportEventResponse;
+import com.teemup.entity.EventParticipant;
+import com.teemup.entity.SportEvent;
+import com.teemup.entity.User;
+import com.teemup.repository.EventParticipantRepository;
+import com.teemup.repository.NotificationRepository;
+import com.teemup.repository.SportEventRepository;
+import com.teemup.repository.UserRepository;
+import com.teemup.service.FaceVerificationService;
+import com.teemup.service.SportEventService;
+import com.teemup.websocket.SocketIOService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pins the number of SQL statements behind the event detail view: it must not grow
+ * with the number of participants (no lazy load per participant, no "refresh" reload).
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class EventDetailQueryCountTest {
+
+    @Autowired
+    private SportEventService sportEventService;
+
+    @Autowired
+    private SportEventRepository sportEventRepository;
+
+    @Autowired
+    private EventParticipantRepository eventParticipantRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private FaceVerificationService faceVerificationService;
+
+    @MockBean
+    private SocketIOServer socketIOServer;
+
+    @MockBean
+    private SocketIOService socketIOService;
+
+    @MockBean
+    private RateLimitFilter rateLimitFilter;
+
+    private Statistics statistics;
+    private User organizer;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        organizer = userRepository.save(user("organizer"));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        notificationRepository.deleteAll();
+        eventParticipantRepository.deleteAll();
+        sportEventRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Event detail is read in a single statement whatever the number of participants")
+    void eventDetailUsesConstantStatements() {
+        SeededEvent small = seedEvent("small", 2);
+        SeededEvent large = seedEvent("large", 40);
+
+        long smallStatements = countStatements(() -> sportEventService.getEventById(small.eventId(), organizer.getId()));
+        statistics.clear();
+        SportEventResponse response = sportEventService.getEventById(large.eventId(), organizer.getId());
+        long largeStatements = statistics.getPrepareStatementCount();
+
+        assertThat(response.getParticipantCount()).isEqualTo(40);
+        assertThat(largeStatements).isEqualTo(smallStatements).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Leaving an event does not reload participants one by one")
+    void leaveUsesConstantStatements() {
+        SeededEvent small = seedEvent("small", 2);
+        SeededEvent large = seedEvent("large", 40);
+
+        long smallStatements = countStatements(() -> sportEventService.leaveEvent(small.eventId(), small.firstParticipantId()));
+        long largeStatements = countStatements(() -> sportEventService.leaveEvent(large.eventId(), large.firstParticipantId()));
+
+        assertThat(largeStatements).isEqualTo(smallStatements);
+        assertThat(eventParticipantRepository.countConfirmedByEventId(large.eventId())).isEqualTo(39);
+    }
+
+    private long countStatements(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private SeededEvent seedEvent(String name, int participants) {
+        SportEvent event = sportEventRepository.save(SportEvent.builder()
+                .user(organizer)
+                .sport("Football")
+                .title("Event " + name)
+                .date(LocalDate.now().plusDays(7))
+                .startTime(LocalTime.of(18, 0))
+                .endTime(LocalTime.of(20, 0))
+                .isPublic(true)
+                .build());
+
+        UUID firstParticipantId = null;
+        for (int i = 0; i < participants; i++) {
+            User participant = userRepository.save(user(name + "-" + i));
+            eventParticipantRepository.save(EventParticipant.builder()
+                    .event(event)
+                    .user(participant)
+                    .status(EventParticipant.ParticipantStatus.CONFIRMED)
+                    .build());
+            if (firstParticipantId == null) {
+                firstParticipantId = participant.getId();
+            }
+        }
+        return new SeededEvent(event.getId(), firstParticipantId);
+    }
+
+    private static User user(String name) {
+        return User.builder()
+                .email(name + "@query-count.test")
+                .password("password")
+                .firstName(name)
+                .lastName("QueryCount")
+                .build();
+    }
+
+    private record SeededEvent(UUID eventId, UUID firstParticipantId) {}
+}
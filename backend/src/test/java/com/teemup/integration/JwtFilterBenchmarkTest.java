@@ -0,0 +1,152 @@
+package com.teemup.integration;
+
+import com.corundumstudio.socketio.SocketIOServer;
+import com.teemup.config.RateLimitFilter;
+import com.teemup.entity.User;
+import com.teemup.repository.UserRepository;
+import com.teemup.security.JwtAuthenticationFilter;
+import com.teemup.security.JwtService;
+import com.teemup.security.UserDetailsImpl;
+import com.teemup.service.FaceVerificationService;
+import com.teemup.websocket.SocketIOService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cost of authenticating one request: the former filter (three parses of the token, each
+ * decoding the key, then the user loaded from the database) against the current one (one
+ * parse with the prebuilt parser, principal from the claims, cached revocation check).
+ *
+ * Disabled by default, run with {@code -Dbenchmark=true}. Figures measured on H2 are only
+ * indicative; point the datasource at Postgres for numbers worth comparing.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class JwtFilterBenchmarkTest {
+
+    private static final int WARMUP = 2_000;
+    private static final int REQUESTS = 20_000;
+
+    @Autowired
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${jwt.secret}")
+    private String secretKey;
+
+    @MockBean
+    private FaceVerificationService faceVerificationService;
+
+    @MockBean
+    private SocketIOServer socketIOServer;
+
+    @MockBean
+    private SocketIOService socketIOService;
+
+    @MockBean
+    private RateLimitFilter rateLimitFilter;
+
+    @AfterEach
+    void cleanUp() {
+        SecurityContextHolder.clearContext();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Filter overhead per request: user load + three parses vs claims + cached revocation check")
+    void compareFilterOverhead() {
+        User user = userRepository.save(User.builder()
+                .email("filter@benchmark.test")
+                .password("password")
+                .firstName("Filter")
+                .lastName("Benchmark")
+                .build());
+        String token = jwtService.generateToken(UserDetailsImpl.build(user), user.getId());
+
+        BooleanSupplier former = () -> formerAuthentication(token);
+        BooleanSupplier current = () -> currentAuthentication(token);
+        measure(former, WARMUP);
+        measure(current, WARMUP);
+        double formerMicros = measure(former, REQUESTS);
+        double currentMicros = measure(current, REQUESTS);
+
+        System.out.printf("[jwt-filter-benchmark] user load + 3 parses : %8.2f us/request%n", formerMicros);
+        System.out.printf("[jwt-filter-benchmark] claims + cache check : %8.2f us/request%n", currentMicros);
+
+        assertThat(formerAuthentication(token)).isTrue();
+        assertThat(currentAuthentication(token)).isTrue();
+    }
+
+    /**
+     * The authentication as the filter did it before, key decoding included.
+     */
+    private boolean formerAuthentication(String token) {
+        String email = parse(token).getSubject();
+        UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+        return parse(token).getSubject().equals(userDetails.getUsername())
+                && !parse(token).getExpiration().before(new Date());
+    }
+
+    private Claims parse(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+
+    private boolean currentAuthentication(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            jwtAuthenticationFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication() != null;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /**
+     * @return mean time per request, in microseconds
+     */
+    private static double measure(BooleanSupplier authentication, int requests) {
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            if (!authentication.getAsBoolean()) {
+                throw new IllegalStateException("Request not authenticated");
+            }
+        }
+        return (System.nanoTime() - start) / 1_000.0 / requests;
+    }
+}
@@ -0,0 +1,173 @@
+package com.teemup.integration;
+
+import com.corundumstudio.socketio.SocketIOServer;
+import com.teemup.config.RateLimitFilter;
+import com.teemup.dto.event.SportEventSummary;
+import com.teemup.entity.SportEvent;
+import com.teemup.entity.User;
+import com.teemup.repository.SportEventRepository;
+import com.teemup.repository.UserRepository;
+import com.teemup.service.FaceVerificationService;
+import com.teemup.websocket.SocketIOService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keyset feed pages against the real planner: a page deep in the feed reads about as many event
+ * rows as the first one.
+ *
+ * Disabled by default, run against a disposable database with
+ * {@code -Dpostgres.url=jdbc:postgresql://localhost:5432/teemup_test -Dpostgres.username=... -Dpostgres.password=...}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=${postgres.url}",
+        "spring.datasource.username=${postgres.username}",
+        "spring.datasource.password=${postgres.password}",
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.flyway.enabled=true"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "postgres.url", matches = ".+")
+class PostgresEventFeedTest {
+
+    private static final int DAYS = 300;
+    private static final int EVENTS_PER_DAY = 10;
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private SportEventRepository sportEventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private FaceVerificationService faceVerificationService;
+
+    @MockBean
+    private SocketIOServer socketIOServer;
+
+    @MockBean
+    private SocketIOService socketIOService;
+
+    @MockBean
+    private RateLimitFilter rateLimitFilter;
+
+    private final LocalDate today = LocalDate.now();
+    private List<SportEvent> feed;
+
+    @BeforeEach
+    void setUp() {
+        User organizer = userRepository.save(User.builder()
+                .email("organizer@event-feed.test")
+                .password("password")
+                .firstName("Feed")
+                .lastName("Organizer")
+                .build());
+        List<SportEvent> events = new ArrayList<>();
+        for (int day = 0; day < DAYS; day++) {
+            for (int slot = 0; slot < EVENTS_PER_DAY; slot++) {
+                events.add(SportEvent.builder()
+                        .user(organizer)
+                        .sport("Running")
+                        .title("Footing " + day + "-" + slot)
+                        .date(today.plusDays(day))
+                        .startTime(LocalTime.of(8 + slot, 0))
+                        .endTime(LocalTime.of(9 + slot, 0))
+                        .isPublic(true)
+                        .build());
+            }
+        }
+        feed = sportEventRepository.saveAll(events);
+        jdbcTemplate.execute("ANALYZE sport_events");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        sportEventRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Reads no more event rows for a page deep in the feed than for the first page")
+    void shouldReadAsManyRowsForDeepPageAsForFirstPage() {
+        // Given - A cursor on the last event of day 250
+        SportEvent after = feed.get(250 * EVENTS_PER_DAY + EVENTS_PER_DAY - 1);
+
+        // When
+        long firstPageRows = eventRowsRead(() -> sportEventRepository.findPublicEventsFeed(
+                today, PageRequest.of(0, PAGE_SIZE + 1)));
+        List<SportEventSummary> deepPage = new ArrayList<>();
+        long deepPageRows = eventRowsRead(() -> deepPage.addAll(sportEventRepository.findPublicEventsFeedAfter(
+                today, after.getNextOccurrenceDate(), after.getStartTime(), after.getId(),
+                PageRequest.of(0, PAGE_SIZE + 1))));
+
+        // Then
+        assertThat(deepPage.get(0).id()).isEqualTo(feed.get(251 * EVENTS_PER_DAY).getId());
+        assertThat(deepPageRows).isLessThanOrEqualTo(firstPageRows + EVENTS_PER_DAY);
+    }
+
+    @Test
+    @DisplayName("Reads no more event rows for a page deep in a sport feed than for its first page")
+    void shouldReadAsManyRowsForDeepSportPageAsForFirstPage() {
+        // Given
+        SportEvent after = feed.get(250 * EVENTS_PER_DAY + EVENTS_PER_DAY - 1);
+
+        // When
+        long firstPageRows = eventRowsRead(() -> sportEventRepository.findPublicEventsBySportFeed(
+                "Running", today, PageRequest.of(0, PAGE_SIZE + 1)));
+        long deepPageRows = eventRowsRead(() -> sportEventRepository.findPublicEventsBySportFeedAfter(
+                "Running", today, after.getNextOccurrenceDate(), after.getStartTime(), after.getId(),
+                PageRequest.of(0, PAGE_SIZE + 1)));
+
+        // Then
+        assertThat(deepPageRows).isLessThanOrEqualTo(firstPageRows + EVENTS_PER_DAY);
+    }
+
+    /**
+     * Rows of {@code sport_events} read by sequential and index scans while running {@code query}.
+     * The statistics still pending in the session may hold earlier transactions: only the difference counts.
+     */
+    private long eventRowsRead(Supplier<?> query) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            long before = pendingEventRowsRead();
+            query.get();
+            return pendingEventRowsRead() - before;
+        });
+    }
+
+    private long pendingEventRowsRead() {
+        return jdbcTemplate.queryForObject("""
+                SELECT COALESCE(seq_tup_read, 0) + COALESCE(idx_tup_fetch, 0)
+                FROM pg_stat_xact_user_tables
+                WHERE relname = 'sport_events'
+                """, Long.class);
+    }
+}
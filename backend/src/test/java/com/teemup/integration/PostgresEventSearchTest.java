@@ -0,0 +1,155 @@
+package com.teemup.integration;
+
+import com.corundumstudio.socketio.SocketIOServer;
+import com.teemup.config.RateLimitFilter;
+import com.teemup.dto.event.SportEventResponse;
+import com.teemup.entity.SportEvent;
+import com.teemup.entity.User;
+import com.teemup.repository.SportEventRepository;
+import com.teemup.repository.UserRepository;
+import com.teemup.service.FaceVerificationService;
+import com.teemup.service.SportEventService;
+import com.teemup.websocket.SocketIOService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keyword search date ranges against the real full-text query, which only runs on Postgres.
+ *
+ * Disabled by default, run against a disposable database with
+ * {@code -Dpostgres.url=jdbc:postgresql://localhost:5432/teemup_test -Dpostgres.username=... -Dpostgres.password=...}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=${postgres.url}",
+        "spring.datasource.username=${postgres.username}",
+        "spring.datasource.password=${postgres.password}",
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.flyway.enabled=true"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "postgres.url", matches = ".+")
+class PostgresEventSearchTest {
+
+    @Autowired
+    private SportEventService sportEventService;
+
+    @Autowired
+    private SportEventRepository sportEventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private FaceVerificationService faceVerificationService;
+
+    @MockBean
+    private SocketIOServer socketIOServer;
+
+    @MockBean
+    private SocketIOService socketIOService;
+
+    @MockBean
+    private RateLimitFilter rateLimitFilter;
+
+    private User organizer;
+
+    @BeforeEach
+    void setUp() {
+        organizer = userRepository.save(User.builder()
+                .email("organizer@event-search.test")
+                .password("password")
+                .firstName("Search")
+                .lastName("Organizer")
+                .build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        sportEventRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Finds a weekly event in a future week although its next occurrence is this week")
+    void shouldFindRecurringEventInFutureRange() {
+        // Given
+        LocalDate today = LocalDate.now();
+        SportEvent weekly = sportEventRepository.save(event("Footing hebdomadaire", today, SportEvent.RecurrenceType.WEEKLY));
+        sportEventRepository.save(event("Footing ponctuel", today, SportEvent.RecurrenceType.NONE));
+
+        // When - Next week only
+        List<SportEventResponse> found = sportEventService.searchEvents(
+                "footing", null, today.plusDays(7), today.plusDays(13), null, null, null, null, null, 10
+        ).getContent();
+
+        // Then - The one-off event is over by then
+        assertThat(found).extracting(SportEventResponse::getId).containsExactly(weekly.getId());
+    }
+
+    @Test
+    @DisplayName("Leaves out a series whose next occurrence is after the range")
+    void shouldSkipRecurringEventStartingAfterRange() {
+        // Given
+        LocalDate today = LocalDate.now();
+        sportEventRepository.save(event("Footing hebdomadaire", today.plusDays(20), SportEvent.RecurrenceType.WEEKLY));
+
+        // When
+        List<SportEventResponse> found = sportEventService.searchEvents(
+                "footing", null, today.plusDays(7), today.plusDays(13), null, null, null, null, null, 10
+        ).getContent();
+
+        // Then
+        assertThat(found).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Leaves out a series with no occurrence in the range although its next one is before it")
+    void shouldSkipRecurringEventWithNoOccurrenceInRange() {
+        // Given - Monthly from today: next occurrence today, the one after in 28 to 31 days
+        LocalDate today = LocalDate.now();
+        SportEvent monthly = sportEventRepository.save(event("Footing mensuel", today, SportEvent.RecurrenceType.MONTHLY));
+
+        // When - A range between two occurrences
+        List<SportEventResponse> between = sportEventService.searchEvents(
+                "footing", null, today.plusDays(5), today.plusDays(7), null, null, null, null, null, 10
+        ).getContent();
+
+        // When - A range holding the next month's occurrence
+        List<SportEventResponse> nextMonth = sportEventService.searchEvents(
+                "footing", null, today.plusDays(28), today.plusDays(31), null, null, null, null, null, 10
+        ).getContent();
+
+        // Then
+        assertThat(between).isEmpty();
+        assertThat(nextMonth).extracting(SportEventResponse::getId).containsExactly(monthly.getId());
+    }
+
+    private SportEvent event(String title, LocalDate date, SportEvent.RecurrenceType recurrence) {
+        return SportEvent.builder()
+                .user(organizer)
+                .sport("Running")
+                .title(title)
+                .date(date)
+                .startTime(LocalTime.of(18, 0))
+                .endTime(LocalTime.of(19, 0))
+                .recurrence(recurrence)
+                .isPublic(true)
+                .build();
+    }
+}
@@ -0,0 +1,137 @@
+package com.teemup.integration;
+
+import com.corundumstudio.socketio.SocketIOServer;
+import com.teemup.config.RateLimitFilter;
+import com.teemup.entity.SportEvent;
+import com.teemup.entity.User;
+import com.teemup.repository.SportEventRepository;
+import com.teemup.repository.UserRepository;
+import com.teemup.service.FaceVerificationService;
+import com.teemup.service.SportEventService;
+import com.teemup.websocket.SocketIOService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The nightly roll-forward of recurring series run by two nodes at once, against real row locks:
+ * neither deadlocks and every series ends on its next occurrence.
+ *
+ * Disabled by default, run against a disposable database with
+ * {@code -Dpostgres.url=jdbc:postgresql://localhost:5432/teemup_test -Dpostgres.username=... -Dpostgres.password=...}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=${postgres.url}",
+        "spring.datasource.username=${postgres.username}",
+        "spring.datasource.password=${postgres.password}",
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.flyway.enabled=true"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "postgres.url", matches = ".+")
+class PostgresOccurrenceRollTest {
+
+    private static final int SERIES = 200;
+    private static final int NODES = 2;
+
+    @Autowired
+    private SportEventService sportEventService;
+
+    @Autowired
+    private SportEventRepository sportEventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private FaceVerificationService faceVerificationService;
+
+    @MockBean
+    private SocketIOServer socketIOServer;
+
+    @MockBean
+    private SocketIOService socketIOService;
+
+    @MockBean
+    private RateLimitFilter rateLimitFilter;
+
+    @AfterEach
+    void cleanUp() {
+        sportEventRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Rolls every series forward once when two nodes refresh at the same time")
+    void shouldRollSeriesWhenNodesRefreshConcurrently() throws Exception {
+        // Given - Weekly series started three weeks ago, last rolled a week ago
+        LocalDate today = LocalDate.now();
+        User organizer = userRepository.save(User.builder()
+                .email("organizer@occurrence-roll.test")
+                .password("password")
+                .firstName("Roll")
+                .lastName("Organizer")
+                .build());
+        List<SportEvent> series = new ArrayList<>();
+        for (int i = 0; i < SERIES; i++) {
+            series.add(SportEvent.builder()
+                    .user(organizer)
+                    .sport("Running")
+                    .title("Footing " + i)
+                    .date(today.minusWeeks(3))
+                    .nextOccurrenceDate(today.minusWeeks(1))
+                    .startTime(LocalTime.of(18, 0))
+                    .endTime(LocalTime.of(19, 0))
+                    .recurrence(SportEvent.RecurrenceType.WEEKLY)
+                    .isPublic(true)
+                    .build());
+        }
+        sportEventRepository.saveAll(series);
+
+        // When - Both nodes' midnight jobs start together
+        ExecutorService executor = Executors.newFixedThreadPool(NODES);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> nodes = new ArrayList<>();
+            for (int i = 0; i < NODES; i++) {
+                nodes.add(executor.submit(() -> {
+                    start.await();
+                    sportEventService.refreshOccurrencesAndSpatialIndex();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> node : nodes) {
+                node.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Then
+        assertThat(sportEventRepository.findAll())
+                .extracting(SportEvent::getNextOccurrenceDate)
+                .hasSize(SERIES)
+                .containsOnly(today);
+    }
+}
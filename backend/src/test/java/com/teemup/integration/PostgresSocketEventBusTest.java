@@ -0,0 +1,180 @@
+package com.teemup.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.teemup.websocket.PostgresSocketEventBus;
+import com.teemup.websocket.SocketEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Round trip of socket events between two bus nodes through a real Postgres LISTEN/NOTIFY.
+ *
+ * Disabled by default, run against a disposable database with
+ * {@code -Dpostgres.url=jdbc:postgresql://localhost:5432/teemup_test -Dpostgres.username=... -Dpostgres.password=...}.
+ */
+@EnabledIfSystemProperty(named = "postgres.url", matches = ".+")
+class PostgresSocketEventBusTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+    private PostgresSocketEventBus sender;
+    private PostgresSocketEventBus receiver;
+    private final BlockingQueue<SocketEvent> received = new LinkedBlockingQueue<>();
+    private final AtomicInteger pooledConnections = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUrl(System.getProperty("postgres.url"));
+        properties.setUsername(System.getProperty("postgres.username"));
+        properties.setPassword(System.getProperty("postgres.password"));
+
+        // Counts the connections taken from the application's data source, as from its pool
+        DelegatingDataSource dataSource = new DelegatingDataSource(new DriverManagerDataSource(
+                properties.getUrl(), properties.getUsername(), properties.getPassword())) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                pooledConnections.incrementAndGet();
+                return super.getConnection();
+            }
+        };
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate.execute("""
+                CREATE UNLOGGED TABLE IF NOT EXISTS socket_bus_payloads (
+                    id BIGSERIAL PRIMARY KEY,
+                    payload TEXT NOT NULL,
+                    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+                )
+                """);
+
+        sender = new PostgresSocketEventBus(jdbcTemplate, transactionManager, objectMapper, properties);
+        receiver = new PostgresSocketEventBus(jdbcTemplate, transactionManager, objectMapper, properties);
+        receiver.subscribe(received::add);
+        sender.start();
+        receiver.start();
+        awaitListening();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sender.stop();
+        receiver.stop();
+    }
+
+    @Test
+    @DisplayName("Delivers to the other node an event published after the caller's transaction committed")
+    void shouldDeliverEventPublishedAfterCommit() throws InterruptedException {
+        // Given
+        SocketEvent event = SocketEvent.toRoom("conversation-1", "newMessage", data("Salut"));
+
+        // When - Published from an after-commit callback, as the transactional event listeners do
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sender.publish(event);
+                }
+            });
+        });
+
+        // Then
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo(event);
+    }
+
+    @Test
+    @DisplayName("Notifies a small event without taking a connection from the pool")
+    void shouldNotifyWithoutPooledConnection() throws InterruptedException {
+        // Given
+        SocketEvent event = SocketEvent.toUser(UUID.randomUUID(), "userTyping", data("..."));
+        pooledConnections.set(0);
+
+        // When
+        sender.publish(event);
+
+        // Then
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo(event);
+        assertThat(pooledConnections.get()).isZero();
+    }
+
+    @Test
+    @DisplayName("Delivers an event too large for a notification through the payload table")
+    void shouldDeliverLargeEvent() throws InterruptedException {
+        // Given
+        SocketEvent event = SocketEvent.toRoom("conversation-1", "newMessage", data("x".repeat(20_000)));
+
+        // When
+        sender.publish(event);
+
+        // Then
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo(event);
+    }
+
+    @Test
+    @DisplayName("Delivers every event of a burst in publishing order, identical events included")
+    void shouldDeliverBurstInOrder() throws InterruptedException {
+        // Given - More events than one batch, the same typing frame repeated
+        SocketEvent typing = SocketEvent.toUser(UUID.randomUUID(), "userTyping", data("..."));
+        List<SocketEvent> burst = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            burst.add(i % 2 == 0 ? typing : SocketEvent.toRoom("conversation-1", "newMessage", data("message " + i)));
+        }
+
+        // When
+        burst.forEach(sender::publish);
+
+        // Then
+        List<SocketEvent> delivered = new ArrayList<>();
+        while (delivered.size() < burst.size()) {
+            SocketEvent event = received.poll(5, TimeUnit.SECONDS);
+            assertThat(event).as("event %d", delivered.size()).isNotNull();
+            delivered.add(event);
+        }
+        assertThat(delivered).containsExactlyElementsOf(burst);
+    }
+
+    /**
+     * Listeners connect in the background: publish until the receiving node hears one, then start clean.
+     */
+    private void awaitListening() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        SocketEvent ping = SocketEvent.toEveryone("ping", null);
+        while (received.poll(200, TimeUnit.MILLISECONDS) == null) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            sender.publish(ping);
+        }
+        Thread.sleep(200);
+        received.clear();
+    }
+
+    private ObjectNode data(String content) {
+        return objectMapper.createObjectNode().put("content", content);
+    }
+}
@@ -0,0 +1,172 @@
+package com.teemup.integration;
+
+import com.corundumstudio.socketio.SocketIOServer;
+import com.teemup.config.RateLimitFilter;
+import com.teemup.entity.SportEvent;
+import com.teemup.entity.User;
+import com.teemup.repository.EventParticipantRepository;
+import com.teemup.repository.NotificationRepository;
+import com.teemup.repository.SportEventRepository;
+import com.teemup.repository.UserRepository;
+import com.teemup.service.FaceVerificationService;
+import com.teemup.service.SportEventService;
+import com.teemup.websocket.SocketIOService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Joins racing with a leave on a full event, against real row locks: a seat is never left free
+ * while someone is on the waitlist.
+ *
+ * Disabled by default, run against a disposable database with
+ * {@code -Dpostgres.url=jdbc:postgresql://localhost:5432/teemup_test -Dpostgres.username=... -Dpostgres.password=...}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=${postgres.url}",
+        "spring.datasource.username=${postgres.username}",
+        "spring.datasource.password=${postgres.password}",
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.flyway.enabled=true"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "postgres.url", matches = ".+")
+class PostgresWaitlistConcurrencyTest {
+
+    private static final int ROUNDS = 50;
+    private static final int JOINERS = 3;
+
+    @Autowired
+    private SportEventService sportEventService;
+
+    @Autowired
+    private SportEventRepository sportEventRepository;
+
+    @Autowired
+    private EventParticipantRepository eventParticipantRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private FaceVerificationService faceVerificationService;
+
+    @MockBean
+    private SocketIOServer socketIOServer;
+
+    @MockBean
+    private SocketIOService socketIOService;
+
+    @MockBean
+    private RateLimitFilter rateLimitFilter;
+
+    @AfterEach
+    void cleanUp() {
+        notificationRepository.deleteAll();
+        eventParticipantRepository.deleteAll();
+        sportEventRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should never leave a seat free with a waitlisted user when a leave races with joins")
+    void shouldPromoteJoinerWaitlistedDuringLeave() throws Exception {
+        // Given
+        User organizer = userRepository.save(user("organizer"));
+        User holder = userRepository.save(user("holder"));
+        List<User> joiners = new ArrayList<>();
+        for (int i = 0; i < JOINERS; i++) {
+            joiners.add(userRepository.save(user("joiner-" + i)));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(JOINERS + 1);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                // Given - A one-seat event, taken
+                UUID eventId = sportEventRepository.save(oneSeatEvent(organizer)).getId();
+                sportEventService.joinEvent(eventId, holder.getId());
+
+                // When - The holder leaves while the others join
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> futures = new ArrayList<>();
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return sportEventService.leaveEvent(eventId, holder.getId());
+                }));
+                for (User joiner : joiners) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        return sportEventService.joinEvent(eventId, joiner.getId());
+                    }));
+                }
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+
+                // Then
+                int seatsTaken = sportEventRepository.findById(eventId).orElseThrow().getConfirmedCount();
+                assertThat(eventParticipantRepository.countConfirmedByEventId(eventId)).isEqualTo(seatsTaken);
+                assertThat(seatsTaken).as("seats taken in round %d", round).isEqualTo(1);
+                assertThat(count(eventId, "WAITLISTED")).isEqualTo(JOINERS - 1);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private long count(UUID eventId, String status) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM event_participants WHERE event_id = ? AND status = ?",
+                Long.class, eventId, status);
+    }
+
+    private static User user(String name) {
+        return User.builder()
+                .email(name + "@waitlist-race.test")
+                .password("password")
+                .firstName(name)
+                .lastName("Waitlist")
+                .build();
+    }
+
+    private static SportEvent oneSeatEvent(User organizer) {
+        return SportEvent.builder()
+                .user(organizer)
+                .sport("Tennis")
+                .title("Simple")
+                .date(LocalDate.now().plusDays(7))
+                .startTime(LocalTime.of(18, 0))
+                .endTime(LocalTime.of(19, 0))
+                .isPublic(true)
+                .maxParticipants(1)
+                .build();
+    }
+}
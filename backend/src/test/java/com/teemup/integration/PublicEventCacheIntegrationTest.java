@@ -0,0 +1,108 @@
+package com.teemup.integration;
+
+import com.corundumstudio.socketio.SocketIOServer;
+import com.teemup.config.RateLimitFilter;
+import com.teemup.dto.event.SportEventResponse;
+import com.teemup.dto.user.UpdateUserRequest;
+import com.teemup.entity.SportEvent;
+import com.teemup.entity.User;
+import com.teemup.repository.SportEventRepository;
+import com.teemup.repository.UserRepository;
+import com.teemup.service.FaceVerificationService;
+import com.teemup.service.SportEventService;
+import com.teemup.service.UserService;
+import com.teemup.websocket.SocketIOService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The public event cache enabled, against transactions that really commit (the test is not
+ * transactional), so that the after-commit invalidations run as they do in production.
+ */
+@SpringBootTest(properties = "cache.public-events.max-entries=64")
+@ActiveProfiles("test")
+class PublicEventCacheIntegrationTest {
+
+    @Autowired
+    private SportEventService sportEventService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SportEventRepository sportEventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private FaceVerificationService faceVerificationService;
+
+    @MockBean
+    private SocketIOServer socketIOServer;
+
+    @MockBean
+    private SocketIOService socketIOService;
+
+    @MockBean
+    private RateLimitFilter rateLimitFilter;
+
+    private User organizer;
+    private SportEvent event;
+
+    @BeforeEach
+    void setUp() {
+        organizer = userRepository.save(User.builder()
+                .email("organizer@public-cache.test")
+                .password("password")
+                .firstName("Before")
+                .lastName("Cache")
+                .build());
+        event = sportEventRepository.save(SportEvent.builder()
+                .user(organizer)
+                .sport("Football")
+                .title("Cached event")
+                .date(LocalDate.now().plusDays(7))
+                .startTime(LocalTime.of(18, 0))
+                .endTime(LocalTime.of(20, 0))
+                .isPublic(true)
+                .build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        sportEventRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Cached public events show the organizer's new name once their profile is updated")
+    void shouldServeRenamedOrganizer() {
+        // Given - Cached
+        assertThat(sportEventService.getPublicEventById(event.getId()).getOrganizer().getFirstName())
+                .isEqualTo("Before");
+        assertThat(sportEventService.getPublicEvents()).extracting(e -> e.getOrganizer().getFirstName())
+                .containsExactly("Before");
+
+        // When
+        userService.updateUser(organizer.getId(), UpdateUserRequest.builder().firstName("After").build());
+
+        // Then
+        assertThat(sportEventService.getPublicEventById(event.getId()).getOrganizer().getFirstName())
+                .isEqualTo("After");
+        List<SportEventResponse> events = sportEventService.getPublicEvents();
+        assertThat(events).extracting(e -> e.getOrganizer().getFirstName()).containsExactly("After");
+    }
+}
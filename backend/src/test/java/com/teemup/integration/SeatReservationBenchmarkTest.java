@@ -0,0 +1,199 @@
+package com.teemup.integration;
+
+import com.corundumstudio.socketio.SocketIOServer;
+import com.teemup.config.RateLimitFilter;
+import com.teemup.entity.SportEvent;
+import com.teemup.entity.User;
+import com.teemup.exception.EventFullException;
+import com.teemup.repository.EventParticipantRepository;
+import com.teemup.repository.NotificationRepository;
+import com.teemup.repository.SportEventRepository;
+import com.teemup.repository.UserRepository;
+import com.teemup.service.FaceVerificationService;
+import com.teemup.service.SportEventService;
+import com.teemup.websocket.SocketIOService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Joins per second on a single hot event: the former strategy (row lock on the event, then
+ * COUNT over event_participants under the lock) against the conditional seat UPDATE now used
+ * by {@link SportEventService#joinEvent}.
+ *
+ * Disabled by default, run with {@code -Dbenchmark=true}. Figures measured on H2 are only
+ * indicative; point the datasource at Postgres for numbers worth comparing.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SeatReservationBenchmarkTest {
+
+    private static final int JOINERS = 400;
+    private static final int SEATS = 300;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private SportEventService sportEventService;
+
+    @Autowired
+    private SportEventRepository sportEventRepository;
+
+    @Autowired
+    private EventParticipantRepository eventParticipantRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private FaceVerificationService faceVerificationService;
+
+    @MockBean
+    private SocketIOServer socketIOServer;
+
+    @MockBean
+    private SocketIOService socketIOService;
+
+    @MockBean
+    private RateLimitFilter rateLimitFilter;
+
+    @AfterEach
+    void cleanUp() {
+        notificationRepository.deleteAll();
+        eventParticipantRepository.deleteAll();
+        sportEventRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Joins/sec on one hot event: row lock + COUNT vs conditional seat UPDATE")
+    void compareJoinThroughput() throws Exception {
+        User organizer = userRepository.save(user("organizer"));
+        List<User> joiners = new ArrayList<>();
+        for (int i = 0; i < JOINERS; i++) {
+            joiners.add(userRepository.save(user("joiner-" + i)));
+        }
+        UUID lockedEventId = sportEventRepository.save(hotEvent(organizer)).getId();
+        UUID counterEventId = sportEventRepository.save(hotEvent(organizer)).getId();
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Result before = measure(joiners, joiner ->
+                transaction.executeWithoutResult(status -> lockAndCountJoin(lockedEventId, joiner.getId())));
+        Result after = measure(joiners, joiner ->
+                sportEventService.joinEvent(counterEventId, joiner.getId()));
+
+        System.out.printf("[seat-benchmark] row lock + COUNT : %8.1f joins/s (%d joined, %d rejected)%n",
+                before.joinsPerSecond(), before.joined(), before.rejected());
+        System.out.printf("[seat-benchmark] seat counter     : %8.1f joins/s (%d joined, %d rejected)%n",
+                after.joinsPerSecond(), after.joined(), after.rejected());
+
+        // Joiners beyond the last seat are waitlisted rather than rejected
+        long confirmed = eventParticipantRepository.countConfirmedByEventId(counterEventId);
+        Long waitlisted = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM event_participants WHERE event_id = ? AND status = 'WAITLISTED'",
+                Long.class, counterEventId);
+        assertThat(confirmed).isLessThanOrEqualTo(SEATS);
+        assertThat(confirmed + waitlisted).isEqualTo(after.joined());
+        assertThat(sportEventRepository.findById(counterEventId).orElseThrow().getConfirmedCount())
+                .isEqualTo((int) confirmed);
+        assertThat(eventParticipantRepository.countConfirmedByEventId(lockedEventId)).isLessThanOrEqualTo(SEATS);
+    }
+
+    /**
+     * The join as it was implemented before the seat counter.
+     */
+    private void lockAndCountJoin(UUID eventId, UUID userId) {
+        jdbcTemplate.queryForObject("SELECT id FROM sport_events WHERE id = ? FOR UPDATE", UUID.class, eventId);
+        Long confirmed = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM event_participants WHERE event_id = ? AND status = 'CONFIRMED'",
+                Long.class, eventId);
+        if (confirmed != null && confirmed >= SEATS) {
+            throw new EventFullException();
+        }
+        jdbcTemplate.update(
+                "INSERT INTO event_participants (id, event_id, user_id, status, joined_at) "
+                        + "VALUES (?, ?, ?, 'CONFIRMED', CURRENT_TIMESTAMP)",
+                UUID.randomUUID(), eventId, userId);
+    }
+
+    private Result measure(List<User> joiners, Consumer<User> join) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        AtomicInteger joined = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (User joiner : joiners) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        join.accept(joiner);
+                        joined.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        rejected.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            return new Result(joiners.size() / seconds, joined.get(), rejected.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static User user(String name) {
+        return User.builder()
+                .email(name + "@benchmark.test")
+                .password("password")
+                .firstName(name)
+                .lastName("Benchmark")
+                .build();
+    }
+
+    private static SportEvent hotEvent(User organizer) {
+        return SportEvent.builder()
+                .user(organizer)
+                .sport("Football")
+                .title("Hot event")
+                .date(LocalDate.now().plusDays(7))
+                .startTime(LocalTime.of(18, 0))
+                .endTime(LocalTime.of(20, 0))
+                .isPublic(true)
+                .maxParticipants(SEATS)
+                .build();
+    }
+
+    private record Result(double joinsPerSecond, int joined, int rejected) {}
+}
@@ -0,0 +1,110 @@
+package com.teemup.security;
+
+import com.teemup.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("JwtAuthenticationFilter Tests")
+class JwtAuthenticationFilterTest {
+
+    private JwtService jwtService;
+    private TokenRevocationCache tokenRevocationCache;
+    private JwtAuthenticationFilter filter;
+
+    private UUID userId;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey",
+                "dGVzdC1zZWNyZXQta2V5LWZvci11bml0LXRlc3RzLW11c3QtYmUtYXQtbGVhc3QtMzItY2hhcmFjdGVycw==");
+        ReflectionTestUtils.setField(jwtService, "refreshSecretKey",
+                "dGVzdC1yZWZyZXNoLXNlY3JldC1rZXktZm9yLXVuaXQtdGVzdHMtbXVzdC1iZS1hdC1sZWFzdC0zMi1jaGFycw==");
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 86400000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", 604800000L);
+        jwtService.init();
+
+        tokenRevocationCache = mock(TokenRevocationCache.class);
+        filter = new JwtAuthenticationFilter(jwtService, tokenRevocationCache);
+
+        userId = UUID.randomUUID();
+        User user = User.builder().id(userId).email("test@example.com").password("encoded").isActive(true).build();
+        token = jwtService.generateToken(UserDetailsImpl.build(user), userId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should authenticate from the token claims alone")
+    void shouldAuthenticateFromClaims() throws Exception {
+        // Given
+        when(tokenRevocationCache.isRevoked(eq(userId), any(Instant.class))).thenReturn(false);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication).isNotNull();
+        UserDetailsImpl principal = (UserDetailsImpl) authentication.getPrincipal();
+        assertThat(principal.getId()).isEqualTo(userId);
+        assertThat(principal.getEmail()).isEqualTo("test@example.com");
+        assertThat(principal.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+
+    @Test
+    @DisplayName("Should not authenticate a revoked token")
+    void shouldRejectRevokedToken() throws Exception {
+        // Given - The user logged out after the token was issued
+        when(tokenRevocationCache.isRevoked(eq(userId), any(Instant.class))).thenReturn(true);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then - The request goes on, unauthenticated
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+
+    @Test
+    @DisplayName("Should not authenticate a token with a bad signature")
+    void shouldRejectForgedToken() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token.substring(0, token.length() - 2) + "xx");
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verifyNoInteractions(tokenRevocationCache);
+    }
+}
@@ -1,5 +1,8 @@
 package com.teemup.security;
 
+import com.teemup.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -7,9 +10,13 @@ import org.junit.jupiter.api.Test;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -30,6 +37,7 @@ class JwtServiceTest {
                 "dGVzdC1yZWZyZXNoLXNlY3JldC1rZXktZm9yLXVuaXQtdGVzdHMtbXVzdC1iZS1hdC1sZWFzdC0zMi1jaGFycw==");
         ReflectionTestUtils.setField(jwtService, "jwtExpiration", 86400000L);
         ReflectionTestUtils.setField(jwtService, "refreshExpiration", 604800000L);
+        jwtService.init();
 
         userId = UUID.randomUUID();
         userDetails = mock(UserDetails.class);
@@ -142,6 +150,62 @@ class JwtServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Access token claims")
+    class AccessTokenClaims {
+
+        @Test
+        @DisplayName("Should carry user id, email and roles for the principal")
+        void shouldCarryPrincipalClaims() {
+            User user = User.builder().id(userId).email("test@example.com").password("encoded").isActive(true).build();
+            String token = jwtService.generateToken(UserDetailsImpl.build(user), userId);
+
+            Claims claims = jwtService.parseAccessToken(token);
+
+            assertThat(claims.getSubject()).isEqualTo("test@example.com");
+            assertThat(claims.get(JwtService.USER_ID_CLAIM, String.class)).isEqualTo(userId.toString());
+            assertThat(jwtService.extractRoles(claims)).containsExactly("ROLE_USER");
+            assertThat(claims.getIssuedAt()).isNotNull();
+        }
+
+        @Test
+        @DisplayName("Should carry the issue time to the millisecond")
+        void shouldCarryIssueTimeInMillis() {
+            long before = System.currentTimeMillis();
+            String token = jwtService.generateToken(userDetails, userId);
+            long after = System.currentTimeMillis();
+
+            Instant issuedAt = JwtService.issuedAt(jwtService.parseAccessToken(token));
+
+            assertThat(issuedAt.toEpochMilli()).isBetween(before, after);
+        }
+
+        @Test
+        @DisplayName("Should count tokens issued without the millisecond claim from the start of their second")
+        void shouldFallBackToIssuedAtSeconds() {
+            Claims claims = mock(Claims.class);
+            when(claims.getIssuedAt()).thenReturn(Date.from(Instant.ofEpochSecond(1_700_000_000L)));
+
+            assertThat(JwtService.issuedAt(claims)).isEqualTo(Instant.ofEpochSecond(1_700_000_000L));
+        }
+
+        @Test
+        @DisplayName("Should give the default role to tokens issued without roles")
+        void shouldDefaultRoles() {
+            String token = jwtService.generateToken(Map.of(JwtService.USER_ID_CLAIM, userId.toString()), userDetails);
+
+            assertThat(jwtService.extractRoles(jwtService.parseAccessToken(token))).containsExactly("ROLE_USER");
+        }
+
+        @Test
+        @DisplayName("Should reject a refresh token as access token")
+        void shouldRejectRefreshTokenAsAccess() {
+            String refreshToken = jwtService.generateRefreshToken(userDetails, userId);
+
+            assertThatThrownBy(() -> jwtService.parseAccessToken(refreshToken)).isInstanceOf(JwtException.class);
+        }
+    }
+
     @Nested
     @DisplayName("Configuration")
     class Configuration {
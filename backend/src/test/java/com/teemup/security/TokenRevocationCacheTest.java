@@ -0,0 +1,156 @@
+package com.teemup.security;
+
+import com.teemup.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TokenRevocationCache Tests")
+class TokenRevocationCacheTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-10T10:00:00Z");
+
+    @Mock
+    private UserRepository userRepository;
+
+    private MutableClock clock;
+    private TokenRevocationCache cache;
+
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(NOW);
+        cache = new TokenRevocationCache(userRepository, new SimpleMeterRegistry(), 30000, 100, clock);
+    }
+
+    @Test
+    @DisplayName("Should revoke tokens issued before the user logged out")
+    void shouldRevokeTokensIssuedBeforeLogout() {
+        // Given
+        stubStatus(true, NOW.minusSeconds(60));
+
+        // Then
+        assertThat(cache.isRevoked(userId, NOW.minusSeconds(120))).isTrue();
+        assertThat(cache.isRevoked(userId, NOW.minusSeconds(60))).isFalse();
+        assertThat(cache.isRevoked(userId, NOW)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should revoke the tokens of an inactive or deleted user")
+    void shouldRevokeInactiveOrDeletedUser() {
+        // Given - Inactive
+        stubStatus(false, null);
+
+        // Then
+        assertThat(cache.isRevoked(userId, NOW)).isTrue();
+
+        // Given - Deleted
+        UUID deletedId = UUID.randomUUID();
+        when(userRepository.findTokenStatusById(deletedId)).thenReturn(Optional.empty());
+
+        // Then
+        assertThat(cache.isRevoked(deletedId, NOW)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should not cache a user that was not found")
+    void shouldNotCacheMissingUser() {
+        // Given - Not found at first, as when registered in a transaction not yet flushed
+        UUID newId = UUID.randomUUID();
+        when(userRepository.findTokenStatusById(newId))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(status(true, null)));
+
+        // Then
+        assertThat(cache.isRevoked(newId, NOW)).isTrue();
+        assertThat(cache.isRevoked(newId, NOW)).isFalse();
+        verify(userRepository, times(2)).findTokenStatusById(newId);
+    }
+
+    @Test
+    @DisplayName("Should query once per time-to-live, or again once evicted")
+    void shouldCacheForTtl() {
+        // Given
+        stubStatus(true, null);
+
+        // When
+        cache.isRevoked(userId, NOW);
+        clock.advance(29, ChronoUnit.SECONDS);
+        cache.isRevoked(userId, NOW);
+
+        // Then
+        verify(userRepository, times(1)).findTokenStatusById(userId);
+
+        // When - Expired, then evicted by a logout
+        clock.advance(1, ChronoUnit.SECONDS);
+        cache.isRevoked(userId, NOW);
+        cache.evict(userId);
+        cache.isRevoked(userId, NOW);
+
+        // Then
+        verify(userRepository, times(3)).findTokenStatusById(userId);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    private void stubStatus(boolean active, Instant validAfter) {
+        when(userRepository.findTokenStatusById(userId)).thenReturn(Optional.of(status(active, validAfter)));
+    }
+
+    private static UserRepository.TokenStatus status(boolean active, Instant validAfter) {
+        return new UserRepository.TokenStatus() {
+            @Override
+            public Boolean getActive() {
+                return active;
+            }
+
+            @Override
+            public Instant getValidAfter() {
+                return validAfter;
+            }
+        };
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(long amount, ChronoUnit unit) {
+            instant = instant.plus(amount, unit);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
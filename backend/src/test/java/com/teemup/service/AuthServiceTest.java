@@ -11,6 +11,7 @@ import com.teemup.exception.FaceVerificationException;
 import com.teemup.exception.InvalidTokenException;
 import com.teemup.repository.UserRepository;
 import com.teemup.security.JwtService;
+import com.teemup.security.TokenRevocationCache;
 import com.teemup.security.UserDetailsImpl;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -27,6 +28,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -55,6 +57,12 @@ class AuthServiceTest {
     @Mock
     private FaceVerificationService faceVerificationService;
 
+    @Mock
+    private TokenRevocationCache tokenRevocationCache;
+
+    @Mock
+    private PresenceService presenceService;
+
     @InjectMocks
     private AuthService authService;
 
@@ -218,6 +226,7 @@ class AuthServiceTest {
             when(jwtService.generateRefreshToken(any(UserDetailsImpl.class), any(UUID.class))).thenReturn("refreshToken");
             when(jwtService.getJwtExpiration()).thenReturn(3600000L);
             when(userRepository.save(any(User.class))).thenReturn(testUser);
+            when(presenceService.isOnline(testUserId, true)).thenReturn(true);
 
             // When
             AuthResponse response = authService.login(request);
@@ -227,6 +236,7 @@ class AuthServiceTest {
             assertThat(response.getAccessToken()).isEqualTo("accessToken");
             assertThat(response.getRefreshToken()).isEqualTo("refreshToken");
             assertThat(response.getUser().getEmail()).isEqualTo("test@example.com");
+            assertThat(response.getUser().getIsOnline()).isTrue();
 
             verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
             verify(userRepository).findByEmail("test@example.com");
@@ -323,9 +333,24 @@ class AuthServiceTest {
 
             // Then
             verify(userRepository).findByEmail("test@example.com");
-            verify(userRepository).save(argThat(user ->
-                    user.getRefreshToken() == null && !user.getIsOnline()
-            ));
+            verify(userRepository).save(argThat(user -> user.getRefreshToken() == null
+                    && user.getTokensValidAfter() != null));
+            verify(tokenRevocationCache).evict(testUserId);
+        }
+
+        @Test
+        @DisplayName("Should revoke a token issued in the same millisecond as the logout")
+        void shouldRevokeTokenIssuedJustBeforeLogout() {
+            // Given - A token issued right before logging out
+            when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+            when(userRepository.save(any(User.class))).thenReturn(testUser);
+            Instant tokenIssuedAt = Instant.ofEpochMilli(System.currentTimeMillis());
+
+            // When
+            authService.logout("test@example.com");
+
+            // Then
+            assertThat(testUser.getTokensValidAfter()).isAfter(tokenIssuedAt);
         }
 
         @Test
@@ -0,0 +1,139 @@
+package com.teemup.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("BoundedCache Tests")
+class BoundedCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BoundedCache<String, String> cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new BoundedCache<>("test", 2, meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Devrait recharger une valeur qui n'est plus fraîche")
+    void shouldReloadStaleValue() {
+        // Given
+        cache.get("key", value -> true, this::load);
+
+        // When
+        String reloaded = cache.get("key", value -> false, this::load);
+        String cached = cache.get("key", value -> true, this::load);
+
+        // Then
+        assertThat(reloaded).isEqualTo("value-2");
+        assertThat(cached).isEqualTo("value-2");
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "test").tag("result", "miss")
+                .counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas mémoriser une valeur nulle")
+    void shouldNotStoreNull() {
+        // When
+        cache.get("key", () -> null);
+
+        // Then
+        assertThat(cache.size()).isZero();
+        assertThat(meterRegistry.get("cache.size").tag("cache", "test").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Devrait n'évincer que les valeurs qui remplissent la condition")
+    void shouldInvalidateMatchingValues() {
+        // Given
+        cache.put("a", "keep");
+        cache.put("b", "drop");
+
+        // When
+        cache.invalidateIf("drop"::equals);
+
+        // Then
+        assertThat(cache.get("a", this::load)).isEqualTo("keep");
+        assertThat(cache.get("b", this::load)).isEqualTo("value-1");
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas mettre en cache une valeur chargée pendant son invalidation")
+    void shouldNotStoreValueLoadedDuringInvalidation() {
+        // Given - The key is invalidated while its value is being loaded
+        cache.get("key", () -> {
+            cache.invalidate("key");
+            return load();
+        });
+
+        // When
+        cache.get("key", this::load);
+
+        // Then
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas mettre en cache une valeur chargée pendant l'invalidation des valeurs semblables")
+    void shouldNotStoreValueMatchingInvalidationDuringLoad() {
+        // Given - Values like the one being loaded are invalidated meanwhile
+        cache.get("key", () -> {
+            cache.invalidateIf(value -> value.startsWith("value-"));
+            return load();
+        });
+
+        // When
+        cache.get("key", this::load);
+
+        // Then
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Devrait mettre en cache une valeur chargée pendant une invalidation qui ne la concerne pas")
+    void shouldStoreValueLoadedDuringUnrelatedInvalidation() {
+        // Given - Another key and other values are invalidated while the value is being loaded
+        cache.get("key", () -> {
+            cache.invalidate("other");
+            cache.invalidateIf("other"::equals);
+            return load();
+        });
+
+        // When
+        cache.get("key", this::load);
+
+        // Then
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas mettre en cache une valeur chargée pendant plus d'invalidations que mémorisé")
+    void shouldNotStoreValueOutlivingInvalidationHistory() {
+        // Given - Too many unrelated invalidations to tell whether one concerned the value
+        cache.get("key", () -> {
+            for (int i = 0; i < 1000; i++) {
+                cache.invalidate("other-" + i);
+            }
+            return load();
+        });
+
+        // When
+        cache.get("key", this::load);
+
+        // Then
+        assertThat(loads).hasValue(2);
+    }
+
+    private String load() {
+        return "value-" + loads.incrementAndGet();
+    }
+}
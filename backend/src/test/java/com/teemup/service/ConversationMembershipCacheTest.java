@@ -0,0 +1,100 @@
+package com.teemup.service;
+
+import com.teemup.repository.ConversationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ConversationMembershipCache Tests")
+class ConversationMembershipCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConversationRepository conversationRepository;
+    private ConversationMembershipCache cache;
+
+    private final UUID conversationId = UUID.randomUUID();
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        conversationRepository = mock(ConversationRepository.class);
+        cache = new ConversationMembershipCache(conversationRepository, meterRegistry, 2);
+    }
+
+    @Test
+    @DisplayName("Devrait charger les membres une seule fois")
+    void shouldLoadMembersOnce() {
+        // Given
+        when(conversationRepository.findParticipantIds(conversationId)).thenReturn(List.of(bob, alice));
+
+        // When
+        boolean aliceIsMember = cache.isMember(conversationId, alice);
+        boolean bobIsMember = cache.isMember(conversationId, bob);
+        boolean strangerIsMember = cache.isMember(conversationId, UUID.randomUUID());
+
+        // Then
+        assertThat(aliceIsMember).isTrue();
+        assertThat(bobIsMember).isTrue();
+        assertThat(strangerIsMember).isFalse();
+        verify(conversationRepository, times(1)).findParticipantIds(conversationId);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "conversationMembers").tag("result", "hit")
+                .counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Devrait connaître les membres d'une conversation créée sans requête")
+    void shouldAnswerFromPutWithoutQuery() {
+        // When
+        cache.put(conversationId, List.of(alice, bob));
+
+        // Then
+        assertThat(cache.isMember(conversationId, bob)).isTrue();
+        verifyNoInteractions(conversationRepository);
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas mémoriser une conversation inconnue")
+    void shouldNotCacheUnknownConversation() {
+        // Given
+        when(conversationRepository.findParticipantIds(conversationId)).thenReturn(List.of());
+
+        // When
+        cache.isMember(conversationId, alice);
+        cache.isMember(conversationId, alice);
+
+        // Then
+        verify(conversationRepository, times(2)).findParticipantIds(conversationId);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Devrait évincer la conversation la moins récemment utilisée")
+    void shouldEvictLeastRecentlyUsedConversation() {
+        // Given - Capacity of 2
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        cache.put(conversationId, List.of(alice));
+        cache.put(second, List.of(alice));
+        cache.isMember(conversationId, alice);
+
+        // When
+        cache.put(third, List.of(alice));
+
+        // Then - The second conversation was the least recently used
+        when(conversationRepository.findParticipantIds(second)).thenReturn(List.of(alice));
+        assertThat(cache.isMember(second, alice)).isTrue();
+        verify(conversationRepository).findParticipantIds(second);
+        verify(conversationRepository, never()).findParticipantIds(conversationId);
+        assertThat(meterRegistry.get("cache.evictions").tag("cache", "conversationMembers").counter().count())
+                .isGreaterThanOrEqualTo(1.0);
+    }
+}
@@ -0,0 +1,98 @@
+package com.teemup.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("EventSpatialIndex Tests")
+class EventSpatialIndexTest {
+
+    private static final double PARIS_LAT = 48.8566;
+    private static final double PARIS_LON = 2.3522;
+
+    private EventSpatialIndex index;
+    private LocalDate today;
+    private UUID louvreId;
+    private UUID versaillesId;
+    private UUID lyonId;
+
+    @BeforeEach
+    void setUp() {
+        index = new EventSpatialIndex();
+        today = LocalDate.now();
+        louvreId = UUID.randomUUID();
+        versaillesId = UUID.randomUUID();
+        lyonId = UUID.randomUUID();
+
+        index.load(List.of(
+                new EventSpatialIndex.Entry(louvreId, "Football", 48.8606, 2.3376, today.plusDays(1)),
+                new EventSpatialIndex.Entry(versaillesId, "Tennis", 48.8049, 2.1204, today.plusDays(2)),
+                new EventSpatialIndex.Entry(lyonId, "Football", 45.7640, 4.8357, today.plusDays(3))
+        ));
+    }
+
+    @Test
+    @DisplayName("Devrait être prêt après le chargement")
+    void shouldBeReadyAfterLoad() {
+        assertThat(new EventSpatialIndex().isReady()).isFalse();
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Devrait retourner les événements dans le rayon, triés par distance")
+    void shouldReturnEventsWithinRadiusSortedByDistance() {
+        // When
+        List<EventSpatialIndex.Hit> hits = index.withinRadius(PARIS_LAT, PARIS_LON, 30.0, null, today);
+
+        // Then
+        assertThat(hits).extracting(EventSpatialIndex.Hit::eventId).containsExactly(louvreId, versaillesId);
+        assertThat(hits.get(0).distanceKm()).isLessThan(2.0);
+    }
+
+    @Test
+    @DisplayName("Devrait filtrer par sport et par date")
+    void shouldFilterBySportAndDate() {
+        assertThat(index.withinRadius(PARIS_LAT, PARIS_LON, 30.0, "Tennis", today))
+                .extracting(EventSpatialIndex.Hit::eventId)
+                .containsExactly(versaillesId);
+        assertThat(index.withinRadius(PARIS_LAT, PARIS_LON, 30.0, null, today.plusDays(2)))
+                .extracting(EventSpatialIndex.Hit::eventId)
+                .containsExactly(versaillesId);
+    }
+
+    @Test
+    @DisplayName("Devrait retourner les k plus proches voisins")
+    void shouldReturnNearestNeighbours() {
+        // When
+        List<EventSpatialIndex.Hit> hits = index.nearest(PARIS_LAT, PARIS_LON, 500.0, "Football", today, 2);
+
+        // Then
+        assertThat(hits).extracting(EventSpatialIndex.Hit::eventId).containsExactly(louvreId, lyonId);
+    }
+
+    @Test
+    @DisplayName("Devrait déplacer puis retirer un événement")
+    void shouldMoveAndRemoveEvent() {
+        // When - Move the Louvre event to Lyon
+        index.upsert(new EventSpatialIndex.Entry(louvreId, "Football", 45.7600, 4.8300, today.plusDays(1)));
+
+        // Then
+        assertThat(index.withinRadius(PARIS_LAT, PARIS_LON, 30.0, null, today))
+                .extracting(EventSpatialIndex.Hit::eventId)
+                .containsExactly(versaillesId);
+
+        // When
+        index.remove(versaillesId);
+
+        // Then
+        assertThat(index.withinRadius(PARIS_LAT, PARIS_LON, 30.0, null, today)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+}
@@ -1,6 +1,7 @@
 package com.teemup.service;
 
 import com.teemup.dto.friend.FriendRequestResponse;
+import com.teemup.dto.friend.FriendshipChangedEvent;
 import com.teemup.entity.FriendRequest;
 import com.teemup.entity.Notification;
 import com.teemup.entity.User;
@@ -16,6 +17,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Collections;
 import java.util.HashSet;
@@ -41,6 +43,12 @@ class FriendServiceTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PresenceService presenceService;
+
     @InjectMocks
     private FriendService friendService;
 
@@ -237,6 +245,7 @@ class FriendServiceTest {
                     anyString(),
                     anyString()
             );
+            verify(eventPublisher).publishEvent(new FriendshipChangedEvent(senderId, receiverId, true));
         }
 
         @Test
@@ -432,6 +441,7 @@ class FriendServiceTest {
             assertThat(receiver.getFriends()).doesNotContain(sender);
 
             verify(userRepository, times(2)).save(any(User.class));
+            verify(eventPublisher).publishEvent(new FriendshipChangedEvent(senderId, receiverId, false));
         }
 
         @Test
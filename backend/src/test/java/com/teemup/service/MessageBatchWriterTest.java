@@ -0,0 +1,173 @@
+package com.teemup.service;
+
+import com.teemup.entity.Conversation;
+import com.teemup.entity.Message;
+import com.teemup.entity.User;
+import com.teemup.exception.ConversationException;
+import com.teemup.exception.UserNotFoundException;
+import com.teemup.repository.ConversationReadStateRepository;
+import com.teemup.repository.ConversationRepository;
+import com.teemup.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MessageBatchWriter Tests")
+class MessageBatchWriterTest {
+
+    @Mock
+    private ConversationRepository conversationRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ConversationReadStateRepository conversationReadStateRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private MessageBatchWriter writer;
+
+    private User user1;
+    private User user2;
+    private Conversation conversation;
+
+    @BeforeEach
+    void setUp() {
+        user1 = User.builder()
+                .id(UUID.randomUUID())
+                .email("user1@example.com")
+                .password("password")
+                .firstName("User")
+                .lastName("One")
+                .build();
+
+        user2 = User.builder()
+                .id(UUID.randomUUID())
+                .email("user2@example.com")
+                .password("password")
+                .firstName("User")
+                .lastName("Two")
+                .build();
+
+        conversation = Conversation.builder()
+                .id(UUID.randomUUID())
+                .type(Conversation.ConversationType.PRIVATE)
+                .participants(new HashSet<>(Set.of(user1, user2)))
+                .createdBy(user1)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should write a batch with one conversation update and one insert")
+    void shouldWriteBatchInOneRoundOfUpdates() {
+        // Given - Messages 1 to 4 already exist
+        when(conversationRepository.findByIdWithParticipants(conversation.getId()))
+                .thenReturn(Optional.of(conversation));
+        stubReservedSeq(7L);
+
+        List<MessageBatchWriter.NewMessage> messages = List.of(
+                new MessageBatchWriter.NewMessage(user1.getId(), "Salut", Message.MessageType.TEXT),
+                new MessageBatchWriter.NewMessage(user2.getId(), "Coucou", Message.MessageType.TEXT),
+                new MessageBatchWriter.NewMessage(user1.getId(), "On joue demain ?", Message.MessageType.TEXT));
+
+        // When
+        List<MessageBatchWriter.Outcome> outcomes = writer.write(conversation.getId(), messages);
+
+        // Then
+        assertThat(outcomes).extracting(outcome -> outcome.message().getSeq()).containsExactly(5L, 6L, 7L);
+        assertThat(outcomes).extracting(outcome -> outcome.message().getContent())
+                .containsExactly("Salut", "Coucou", "On joue demain ?");
+        assertThat(outcomes).allMatch(outcome -> outcome.error() == null);
+
+        // Sequence numbers reserved and last message pointed at in the same update
+        MessageBatchWriter.Outcome last = outcomes.get(2);
+        verify(jdbcTemplate).queryForObject(anyString(), eq(Long.class), eq(3), eq(last.message().getId()), eq(3),
+                eq("On joue demain ?"), eq(user1.getId()), eq(Timestamp.valueOf(last.message().getCreatedAt())),
+                eq(conversation.getId()));
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((List<Object[]> rows) -> rows.size() == 3));
+        verify(conversationReadStateRepository).incrementUnreadCounts(conversation.getId(), user1.getId(), 2);
+        verify(conversationReadStateRepository).incrementUnreadCounts(conversation.getId(), user2.getId(), 1);
+    }
+
+    @Test
+    @DisplayName("Should reject only the messages of non participants")
+    void shouldRejectNonParticipantsOnly() {
+        // Given
+        UUID outsiderId = UUID.randomUUID();
+        UUID unknownId = UUID.randomUUID();
+        when(conversationRepository.findByIdWithParticipants(conversation.getId()))
+                .thenReturn(Optional.of(conversation));
+        stubReservedSeq(1L);
+        when(userRepository.existsById(outsiderId)).thenReturn(true);
+        when(userRepository.existsById(unknownId)).thenReturn(false);
+
+        List<MessageBatchWriter.NewMessage> messages = List.of(
+                new MessageBatchWriter.NewMessage(outsiderId, "Intrus", Message.MessageType.TEXT),
+                new MessageBatchWriter.NewMessage(user1.getId(), "Hello", Message.MessageType.TEXT),
+                new MessageBatchWriter.NewMessage(unknownId, "Fantôme", Message.MessageType.TEXT));
+
+        // When
+        List<MessageBatchWriter.Outcome> outcomes = writer.write(conversation.getId(), messages);
+
+        // Then
+        assertThat(outcomes.get(0).error())
+                .isInstanceOf(ConversationException.class)
+                .hasMessage("Vous n'êtes pas participant de cette conversation");
+        assertThat(outcomes.get(1).message().getSeq()).isEqualTo(1L);
+        assertThat(outcomes.get(2).error()).isInstanceOf(UserNotFoundException.class);
+
+        verify(jdbcTemplate).queryForObject(anyString(), eq(Long.class), eq(1), eq(outcomes.get(1).message().getId()),
+                eq(1), eq("Hello"), eq(user1.getId()), any(Timestamp.class), eq(conversation.getId()));
+        verify(conversationReadStateRepository).incrementUnreadCounts(conversation.getId(), user1.getId(), 1);
+    }
+
+    @Test
+    @DisplayName("Should reject the whole batch when the conversation is not found")
+    void shouldWriteNothingWhenConversationNotFound() {
+        // Given
+        when(conversationRepository.findByIdWithParticipants(conversation.getId())).thenReturn(Optional.empty());
+
+        List<MessageBatchWriter.NewMessage> messages = List.of(
+                new MessageBatchWriter.NewMessage(user1.getId(), "Hello", Message.MessageType.TEXT),
+                new MessageBatchWriter.NewMessage(user2.getId(), "Hi", Message.MessageType.TEXT));
+
+        // When
+        List<MessageBatchWriter.Outcome> outcomes = writer.write(conversation.getId(), messages);
+
+        // Then
+        assertThat(outcomes).allSatisfy(outcome -> assertThat(outcome.error())
+                .isInstanceOf(ConversationException.class)
+                .hasMessage("Conversation non trouvée"));
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class), any(Object[].class));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    /**
+     * The conversation update returns {@code seq}, the last of the reserved sequence numbers.
+     */
+    private void stubReservedSeq(long seq) {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), any(Object[].class))).thenReturn(seq);
+    }
+}
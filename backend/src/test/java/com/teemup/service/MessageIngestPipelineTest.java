@@ -0,0 +1,189 @@
+package com.teemup.service;
+
+import com.teemup.dto.messaging.MessageResponse;
+import com.teemup.entity.Message;
+import com.teemup.exception.ConversationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@DisplayName("MessageIngestPipeline Tests")
+class MessageIngestPipelineTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MessageBatchWriter writer;
+    private BlockingQueue<Runnable> tasks;
+    private MessageIngestPipeline pipeline;
+    private ExecutorService senders;
+    private UUID conversationId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        writer = mock(MessageBatchWriter.class);
+        tasks = new LinkedBlockingQueue<>();
+        // Batches run only when the test says so
+        pipeline = new MessageIngestPipeline(writer, meterRegistry, 2, 10_000, tasks::add);
+        senders = Executors.newFixedThreadPool(4);
+        conversationId = UUID.randomUUID();
+
+        when(writer.write(any(), anyList())).thenAnswer(invocation -> {
+            List<MessageBatchWriter.NewMessage> messages = invocation.getArgument(1);
+            List<MessageBatchWriter.Outcome> outcomes = new ArrayList<>();
+            for (MessageBatchWriter.NewMessage message : messages) {
+                outcomes.add(message.content().equals("rejected")
+                        ? MessageBatchWriter.Outcome.rejected(ConversationException.notParticipant())
+                        : MessageBatchWriter.Outcome.sent(MessageResponse.builder().content(message.content()).build()));
+            }
+            return outcomes;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        senders.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should write messages sent meanwhile in batches and answer each caller")
+    void shouldBatchConcurrentSends() throws Exception {
+        // Given - Three senders queue up before the first batch runs
+        List<CompletableFuture<MessageResponse>> responses = new ArrayList<>();
+        for (String content : List.of("un", "deux", "trois")) {
+            responses.add(CompletableFuture.supplyAsync(() -> pipeline.send(conversationId, message(content)), senders));
+            awaitPending(responses.size());
+        }
+
+        // When
+        runNextTask();
+        runNextTask();
+
+        // Then - Batches of at most two, in send order
+        assertThat(responses.get(0).get(5, TimeUnit.SECONDS).getContent()).isEqualTo("un");
+        assertThat(responses.get(1).get(5, TimeUnit.SECONDS).getContent()).isEqualTo("deux");
+        assertThat(responses.get(2).get(5, TimeUnit.SECONDS).getContent()).isEqualTo("trois");
+        verify(writer, times(2)).write(eq(conversationId), anyList());
+        assertThat(tasks).isEmpty();
+
+        assertThat(meterRegistry.get("messaging.ingest.batch.size").summary().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("messaging.ingest.batch.size").summary().max()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("messaging.ingest.messages").tag("result", "sent").counter().count())
+                .isEqualTo(3.0);
+        assertThat(meterRegistry.get("messaging.ingest.latency").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should fail only the caller whose message was rejected")
+    void shouldFailOnlyRejectedCaller() throws Exception {
+        // Given
+        CompletableFuture<MessageResponse> accepted =
+                CompletableFuture.supplyAsync(() -> pipeline.send(conversationId, message("ok")), senders);
+        awaitPending(1);
+        CompletableFuture<MessageResponse> rejected =
+                CompletableFuture.supplyAsync(() -> pipeline.send(conversationId, message("rejected")), senders);
+        awaitPending(2);
+
+        // When
+        runNextTask();
+
+        // Then
+        assertThat(accepted.get(5, TimeUnit.SECONDS).getContent()).isEqualTo("ok");
+        assertThatThrownBy(() -> rejected.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(ConversationException.class);
+        assertThat(meterRegistry.get("messaging.ingest.messages").tag("result", "rejected").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should fail the whole batch when its transaction fails")
+    void shouldFailWholeBatchOnWriteFailure() throws Exception {
+        // Given
+        doThrow(new IllegalStateException("connection lost")).when(writer).write(any(), anyList());
+        CompletableFuture<MessageResponse> first =
+                CompletableFuture.supplyAsync(() -> pipeline.send(conversationId, message("un")), senders);
+        awaitPending(1);
+        CompletableFuture<MessageResponse> second =
+                CompletableFuture.supplyAsync(() -> pipeline.send(conversationId, message("deux")), senders);
+        awaitPending(2);
+
+        // When
+        runNextTask();
+
+        // Then
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Should withdraw a message whose caller stopped waiting before its batch ran")
+    void shouldWithdrawTimedOutMessage() throws Exception {
+        // Given - Callers wait 50ms at most
+        meterRegistry = new SimpleMeterRegistry();
+        pipeline = new MessageIngestPipeline(writer, meterRegistry, 2, 50, tasks::add);
+
+        // When
+        assertThatThrownBy(() -> pipeline.send(conversationId, message("trop tard")))
+                .isInstanceOf(ConversationException.class)
+                .extracting("code").isEqualTo("SEND_TIMEOUT");
+        runNextTask();
+
+        // Then - Never written
+        verify(writer, never()).write(any(), anyList());
+        assertThat(meterRegistry.get("messaging.ingest.pending").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should fail pending messages at once and retire the lane when the executor refuses it")
+    void shouldFailWhenExecutorRejects() {
+        // Given
+        meterRegistry = new SimpleMeterRegistry();
+        pipeline = new MessageIngestPipeline(writer, meterRegistry, 2, 10_000, task -> {
+            throw new RejectedExecutionException("shut down");
+        });
+
+        // When / Then - The lane is not left scheduled: the next send is refused too instead of waiting
+        assertThatThrownBy(() -> pipeline.send(conversationId, message("un")))
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThatThrownBy(() -> pipeline.send(conversationId, message("deux")))
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThat(meterRegistry.get("messaging.ingest.pending").gauge().value()).isZero();
+        verify(writer, never()).write(any(), anyList());
+    }
+
+    private MessageBatchWriter.NewMessage message(String content) {
+        return new MessageBatchWriter.NewMessage(UUID.randomUUID(), content, Message.MessageType.TEXT);
+    }
+
+    private void runNextTask() throws InterruptedException {
+        Runnable task = tasks.poll(5, TimeUnit.SECONDS);
+        assertThat(task).isNotNull();
+        task.run();
+    }
+
+    private void awaitPending(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("messaging.ingest.pending").gauge().value() < count) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}
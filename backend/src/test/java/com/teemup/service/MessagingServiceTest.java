@@ -1,14 +1,19 @@
 package com.teemup.service;
 
+import com.teemup.dto.common.CursorPageResponse;
 import com.teemup.dto.messaging.ConversationRequest;
 import com.teemup.dto.messaging.ConversationResponse;
 import com.teemup.dto.messaging.MessageRequest;
 import com.teemup.dto.messaging.MessageResponse;
+import com.teemup.dto.messaging.SyncResponse;
+import com.teemup.dto.user.UserSummaryResponse;
 import com.teemup.entity.Conversation;
+import com.teemup.entity.ConversationReadState;
 import com.teemup.entity.Message;
 import com.teemup.entity.User;
 import com.teemup.exception.ConversationException;
 import com.teemup.exception.UserNotFoundException;
+import com.teemup.repository.ConversationReadStateRepository;
 import com.teemup.repository.ConversationRepository;
 import com.teemup.repository.MessageRepository;
 import com.teemup.repository.UserRepository;
@@ -17,6 +22,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -34,7 +40,9 @@ import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -50,6 +58,18 @@ class MessagingServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ConversationReadStateRepository conversationReadStateRepository;
+
+    @Mock
+    private MessageIngestPipeline messageIngestPipeline;
+
+    @Mock
+    private ConversationMembershipCache conversationMembershipCache;
+
+    @Mock
+    private PresenceService presenceService;
+
     @InjectMocks
     private MessagingService messagingService;
 
@@ -113,11 +133,18 @@ class MessagingServiceTest {
                 .sender(user1)
                 .conversation(privateConversation)
                 .type(Message.MessageType.TEXT)
-                .readBy(new HashSet<>(Set.of(user1Id)))
+                .seq(2L)
                 .isEdited(false)
                 .isDeleted(false)
                 .createdAt(LocalDateTime.now())
                 .build();
+
+        privateConversation.setMessageSeq(2L);
+        privateConversation.setLastMessageId(testMessage.getId());
+        privateConversation.setLastMessageSeq(2L);
+        privateConversation.setLastMessagePreview(testMessage.getContent());
+        privateConversation.setLastMessageSender(user1);
+        privateConversation.setLastMessageAt(testMessage.getCreatedAt());
     }
 
     @Nested
@@ -148,6 +175,9 @@ class MessagingServiceTest {
             assertThat(response.getType()).isEqualTo("PRIVATE");
 
             verify(conversationRepository).save(any(Conversation.class));
+            verify(conversationReadStateRepository).saveAll(
+                    argThat((List<ConversationReadState> states) -> states.size() == 2));
+            verify(conversationMembershipCache).put(response.getId(), Set.of(user1Id, user2Id));
         }
 
         @Test
@@ -213,26 +243,26 @@ class MessagingServiceTest {
         @DisplayName("Should get user conversations")
         void shouldGetUserConversations() {
             // Given
-            when(conversationRepository.findByParticipantId(user1Id))
-                    .thenReturn(List.of(privateConversation));
-            when(messageRepository.findLastMessagesByConversationIds(any()))
-                    .thenReturn(List.of(testMessage));
-            when(messageRepository.countUnreadMessages(any(UUID.class), eq(user1Id)))
-                    .thenReturn(0L);
+            when(conversationReadStateRepository.findInboxByUserId(user1Id))
+                    .thenReturn(List.of(readState(user1, 3)));
 
             // When
             List<ConversationResponse> results = messagingService.getUserConversations(user1Id);
 
-            // Then
+            // Then - the unread count comes with the inbox row, no count per conversation
             assertThat(results).hasSize(1);
-            verify(conversationRepository).findByParticipantId(user1Id);
+            assertThat(results.get(0).getUnreadCount()).isEqualTo(3L);
+            assertThat(results.get(0).getLastMessage().getId()).isEqualTo(testMessage.getId());
+            assertThat(results.get(0).getLastMessage().getContent()).isEqualTo("Test message");
+            verify(conversationReadStateRepository).findInboxByUserId(user1Id);
+            verifyNoInteractions(messageRepository);
         }
 
         @Test
         @DisplayName("Should return empty list when no conversations")
         void shouldReturnEmptyListWhenNoConversations() {
             // Given
-            when(conversationRepository.findByParticipantId(user1Id))
+            when(conversationReadStateRepository.findInboxByUserId(user1Id))
                     .thenReturn(Collections.emptyList());
 
             // When
@@ -254,9 +284,8 @@ class MessagingServiceTest {
             UUID conversationId = privateConversation.getId();
             when(conversationRepository.findByIdWithParticipants(conversationId))
                     .thenReturn(Optional.of(privateConversation));
-            when(messageRepository.findByConversationId(any(UUID.class), any(PageRequest.class)))
-                    .thenReturn(new PageImpl<>(Collections.emptyList()));
-            when(messageRepository.countUnreadMessages(conversationId, user1Id)).thenReturn(0L);
+            when(conversationReadStateRepository.findByConversationIdAndUserId(conversationId, user1Id))
+                    .thenReturn(Optional.of(readState(user1, 2)));
 
             // When
             ConversationResponse response = messagingService.getConversation(conversationId, user1Id);
@@ -264,6 +293,31 @@ class MessagingServiceTest {
             // Then
             assertThat(response).isNotNull();
             assertThat(response.getId()).isEqualTo(conversationId);
+            assertThat(response.getUnreadCount()).isEqualTo(2L);
+            assertThat(response.getLastMessage().getSender().getId()).isEqualTo(user1Id);
+            verifyNoInteractions(messageRepository);
+        }
+
+        @Test
+        @DisplayName("Should show participants online or offline right now rather than as persisted")
+        void shouldShowLivePresence() {
+            // Given - Both persisted offline, user1 connected since
+            UUID conversationId = privateConversation.getId();
+            when(conversationRepository.findByIdWithParticipants(conversationId))
+                    .thenReturn(Optional.of(privateConversation));
+            when(conversationReadStateRepository.findByConversationIdAndUserId(conversationId, user1Id))
+                    .thenReturn(Optional.of(readState(user1, 0)));
+            when(presenceService.isOnline(user1Id, false)).thenReturn(true);
+            when(presenceService.isOnline(user2Id, false)).thenReturn(false);
+
+            // When
+            ConversationResponse response = messagingService.getConversation(conversationId, user1Id);
+
+            // Then
+            assertThat(response.getParticipants())
+                    .extracting(UserSummaryResponse::getId, UserSummaryResponse::getIsOnline)
+                    .containsExactlyInAnyOrder(tuple(user1Id, true), tuple(user2Id, false));
+            assertThat(response.getLastMessage().getSender().getIsOnline()).isTrue();
         }
 
         @Test
@@ -300,62 +354,54 @@ class MessagingServiceTest {
     class SendMessageTests {
 
         @Test
-        @DisplayName("Should send message successfully")
-        void shouldSendMessageSuccessfully() {
+        @DisplayName("Should hand the message to the ingest pipeline")
+        void shouldSendMessageThroughPipeline() {
             // Given
             MessageRequest request = new MessageRequest();
             request.setConversationId(privateConversation.getId());
             request.setContent("Hello, World!");
 
-            when(userRepository.findById(user1Id)).thenReturn(Optional.of(user1));
-            when(conversationRepository.findByIdWithParticipants(privateConversation.getId()))
-                    .thenReturn(Optional.of(privateConversation));
-            when(messageRepository.save(any(Message.class))).thenAnswer(invocation -> {
-                Message msg = invocation.getArgument(0);
-                msg.setId(UUID.randomUUID());
-                msg.setCreatedAt(LocalDateTime.now());
-                return msg;
-            });
-            when(conversationRepository.save(any(Conversation.class)))
-                    .thenReturn(privateConversation);
+            MessageResponse sent = MessageResponse.fromEntity(testMessage);
+            when(messageIngestPipeline.send(privateConversation.getId(),
+                    new MessageBatchWriter.NewMessage(user1Id, "Hello, World!", Message.MessageType.TEXT)))
+                    .thenReturn(sent);
 
             // When
             MessageResponse response = messagingService.sendMessage(user1Id, request);
 
             // Then
-            assertThat(response).isNotNull();
-            assertThat(response.getContent()).isEqualTo("Hello, World!");
-
-            verify(messageRepository).save(any(Message.class));
-            verify(conversationRepository).save(any(Conversation.class));
+            assertThat(response).isSameAs(sent);
         }
 
         @Test
-        @DisplayName("Should throw exception when sender not found")
-        void shouldThrowExceptionWhenSenderNotFound() {
+        @DisplayName("Should pass the requested message type")
+        void shouldPassRequestedType() {
             // Given
             MessageRequest request = new MessageRequest();
             request.setConversationId(privateConversation.getId());
-            request.setContent("Hello");
+            request.setContent("https://example.com/photo.jpg");
+            request.setType("IMAGE");
+            when(messageIngestPipeline.send(eq(privateConversation.getId()), any(MessageBatchWriter.NewMessage.class)))
+                    .thenReturn(MessageResponse.fromEntity(testMessage));
 
-            when(userRepository.findById(user1Id)).thenReturn(Optional.empty());
+            // When
+            messagingService.sendMessage(user1Id, request);
 
-            // When/Then
-            assertThatThrownBy(() -> messagingService.sendMessage(user1Id, request))
-                    .isInstanceOf(UserNotFoundException.class);
+            // Then
+            verify(messageIngestPipeline).send(privateConversation.getId(), new MessageBatchWriter.NewMessage(
+                    user1Id, "https://example.com/photo.jpg", Message.MessageType.IMAGE));
         }
 
         @Test
-        @DisplayName("Should throw exception when sender not participant")
-        void shouldThrowExceptionWhenSenderNotParticipant() {
+        @DisplayName("Should propagate rejections from the pipeline")
+        void shouldPropagateRejection() {
             // Given
             MessageRequest request = new MessageRequest();
             request.setConversationId(privateConversation.getId());
             request.setContent("Hello");
 
-            when(userRepository.findById(user3Id)).thenReturn(Optional.of(user3));
-            when(conversationRepository.findByIdWithParticipants(privateConversation.getId()))
-                    .thenReturn(Optional.of(privateConversation));
+            when(messageIngestPipeline.send(eq(privateConversation.getId()), any(MessageBatchWriter.NewMessage.class)))
+                    .thenThrow(ConversationException.notParticipant());
 
             // When/Then
             assertThatThrownBy(() -> messagingService.sendMessage(user3Id, request))
@@ -375,8 +421,7 @@ class MessagingServiceTest {
             UUID conversationId = privateConversation.getId();
             Page<Message> messagePage = new PageImpl<>(List.of(testMessage));
 
-            when(conversationRepository.findById(conversationId))
-                    .thenReturn(Optional.of(privateConversation));
+            when(conversationMembershipCache.isMember(conversationId, user1Id)).thenReturn(true);
             when(messageRepository.findByConversationId(eq(conversationId), any(PageRequest.class)))
                     .thenReturn(messagePage);
 
@@ -388,13 +433,32 @@ class MessagingServiceTest {
             assertThat(results.getContent().get(0).getContent()).isEqualTo("Test message");
         }
 
+        @Test
+        @DisplayName("Should derive readers from read watermarks")
+        void shouldDeriveReadersFromWatermarks() {
+            // Given - user2 read up to the message, a third participant stopped before it
+            UUID conversationId = privateConversation.getId();
+            when(conversationMembershipCache.isMember(conversationId, user1Id)).thenReturn(true);
+            when(conversationReadStateRepository.findWatermarks(List.of(conversationId)))
+                    .thenReturn(List.of(
+                            watermark(conversationId, user2Id, 2L),
+                            watermark(conversationId, user3Id, 1L)));
+            when(messageRepository.findByConversationId(eq(conversationId), any(PageRequest.class)))
+                    .thenReturn(new PageImpl<>(List.of(testMessage)));
+
+            // When
+            Page<MessageResponse> results = messagingService.getMessages(conversationId, user1Id, 0, 20);
+
+            // Then - the sender always counts as a reader
+            assertThat(results.getContent().get(0).getReadBy()).containsExactlyInAnyOrder(user1Id, user2Id);
+        }
+
         @Test
         @DisplayName("Should throw exception when user not participant for get messages")
         void shouldThrowExceptionWhenNotParticipantForGetMessages() {
             // Given
             UUID conversationId = privateConversation.getId();
-            when(conversationRepository.findById(conversationId))
-                    .thenReturn(Optional.of(privateConversation));
+            when(conversationRepository.existsById(conversationId)).thenReturn(true);
 
             // When/Then
             assertThatThrownBy(() -> messagingService.getMessages(conversationId, user3Id, 0, 20))
@@ -403,6 +467,69 @@ class MessagingServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Get Message History Tests")
+    class GetMessageHistoryTests {
+
+        @Test
+        @DisplayName("Should return the latest messages with the cursor of the next page")
+        void shouldReturnLatestMessagesWithCursor() {
+            // Given - limit + 1 rows means there is an older page
+            UUID conversationId = privateConversation.getId();
+            Message older = Message.builder()
+                    .id(UUID.randomUUID())
+                    .content("Older message")
+                    .sender(user2)
+                    .conversation(privateConversation)
+                    .seq(1L)
+                    .build();
+            when(conversationMembershipCache.isMember(conversationId, user1Id)).thenReturn(true);
+            when(messageRepository.findHistoryBefore(conversationId, Long.MAX_VALUE, PageRequest.of(0, 2)))
+                    .thenReturn(List.of(testMessage, older));
+
+            // When
+            CursorPageResponse<MessageResponse> page = messagingService.getMessageHistory(conversationId, user1Id, null, 1);
+
+            // Then
+            assertThat(page.getContent()).extracting(MessageResponse::getSeq).containsExactly(2L);
+            assertThat(page.isHasNext()).isTrue();
+            assertThat(page.getNextCursor()).isEqualTo("2");
+        }
+
+        @Test
+        @DisplayName("Should page before the given sequence number")
+        void shouldPageBeforeSequenceNumber() {
+            // Given
+            UUID conversationId = privateConversation.getId();
+            when(conversationMembershipCache.isMember(conversationId, user1Id)).thenReturn(true);
+            when(messageRepository.findHistoryBefore(conversationId, 3L, PageRequest.of(0, 21)))
+                    .thenReturn(List.of(testMessage));
+
+            // When
+            CursorPageResponse<MessageResponse> page = messagingService.getMessageHistory(conversationId, user1Id, 3L, 20);
+
+            // Then
+            assertThat(page.getContent()).hasSize(1);
+            assertThat(page.isHasNext()).isFalse();
+            assertThat(page.getNextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should throw exception when user not participant for history")
+        void shouldThrowExceptionWhenNotParticipantForHistory() {
+            // Given
+            UUID conversationId = privateConversation.getId();
+            when(conversationRepository.existsById(conversationId)).thenReturn(true);
+
+            // When/Then
+            assertThatThrownBy(() -> messagingService.getMessageHistory(conversationId, user3Id, null, 20))
+                    .isInstanceOf(ConversationException.class)
+                    .hasMessage("Vous n'êtes pas participant de cette conversation");
+
+            verify(messageRepository, never()).findHistoryBefore(any(), anyLong(), any());
+        }
+    }
+
     @Nested
     @DisplayName("Edit Message Tests")
     class EditMessageTests {
@@ -421,6 +548,8 @@ class MessagingServiceTest {
             // Then
             assertThat(response.getContent()).isEqualTo("Updated content");
             assertThat(response.getIsEdited()).isTrue();
+            verify(conversationRepository).updateLastMessagePreview(
+                    privateConversation.getId(), messageId, "Updated content");
         }
 
         @Test
@@ -469,6 +598,104 @@ class MessagingServiceTest {
             verify(messageRepository).save(argThat(msg ->
                     msg.getIsDeleted() && msg.getContent().equals("[Message deleted]")
             ));
+            verify(conversationReadStateRepository).decrementUnreadCounts(
+                    privateConversation.getId(), user1Id, 2L);
+        }
+
+        @Test
+        @DisplayName("Should move the last message pointer back when deleting the last message")
+        void shouldMoveLastMessagePointerBackOnDelete() {
+            // Given
+            UUID messageId = testMessage.getId();
+            Message previous = Message.builder()
+                    .id(UUID.randomUUID())
+                    .content("Previous message")
+                    .sender(user2)
+                    .conversation(privateConversation)
+                    .seq(1L)
+                    .createdAt(testMessage.getCreatedAt().minusMinutes(5))
+                    .build();
+            when(messageRepository.findById(messageId)).thenReturn(Optional.of(testMessage));
+            when(messageRepository.save(any(Message.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(messageRepository.findFirstByConversationIdAndIsDeletedFalseOrderBySeqDesc(privateConversation.getId()))
+                    .thenReturn(Optional.of(previous));
+
+            // When
+            messagingService.deleteMessage(messageId, user1Id);
+
+            // Then
+            verify(conversationRepository).replaceLastMessage(privateConversation.getId(), messageId,
+                    previous.getId(), 1L, "Previous message", user2, previous.getCreatedAt());
+        }
+
+        @Test
+        @DisplayName("Should update the conversation before the read states, in the order a send locks them")
+        void shouldLockConversationBeforeReadStatesOnDelete() {
+            // Given
+            UUID messageId = testMessage.getId();
+            when(messageRepository.findById(messageId)).thenReturn(Optional.of(testMessage));
+            when(messageRepository.save(any(Message.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(messageRepository.findFirstByConversationIdAndIsDeletedFalseOrderBySeqDesc(privateConversation.getId()))
+                    .thenReturn(Optional.empty());
+
+            // When
+            messagingService.deleteMessage(messageId, user1Id);
+
+            // Then
+            InOrder inOrder = inOrder(messageRepository, conversationRepository, conversationReadStateRepository);
+            inOrder.verify(messageRepository).save(testMessage);
+            inOrder.verify(conversationRepository).clearLastMessage(privateConversation.getId(), messageId);
+            inOrder.verify(conversationReadStateRepository).decrementUnreadCounts(
+                    privateConversation.getId(), user1Id, 2L);
+        }
+
+        @Test
+        @DisplayName("Should clear the last message pointer when deleting the only message")
+        void shouldClearLastMessagePointerWhenNothingLeft() {
+            // Given
+            UUID messageId = testMessage.getId();
+            when(messageRepository.findById(messageId)).thenReturn(Optional.of(testMessage));
+            when(messageRepository.save(any(Message.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(messageRepository.findFirstByConversationIdAndIsDeletedFalseOrderBySeqDesc(privateConversation.getId()))
+                    .thenReturn(Optional.empty());
+
+            // When
+            messagingService.deleteMessage(messageId, user1Id);
+
+            // Then
+            verify(conversationRepository).clearLastMessage(privateConversation.getId(), messageId);
+        }
+
+        @Test
+        @DisplayName("Should keep the last message pointer when deleting an older message")
+        void shouldKeepLastMessagePointerWhenDeletingOlderMessage() {
+            // Given
+            UUID messageId = testMessage.getId();
+            privateConversation.setLastMessageId(UUID.randomUUID());
+            when(messageRepository.findById(messageId)).thenReturn(Optional.of(testMessage));
+            when(messageRepository.save(any(Message.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            // When
+            messagingService.deleteMessage(messageId, user1Id);
+
+            // Then
+            verifyNoInteractions(conversationRepository);
+        }
+
+        @Test
+        @DisplayName("Should not decrement unread counters twice for an already deleted message")
+        void shouldNotDecrementCountersForAlreadyDeletedMessage() {
+            // Given
+            UUID messageId = testMessage.getId();
+            testMessage.setIsDeleted(true);
+            when(messageRepository.findById(messageId)).thenReturn(Optional.of(testMessage));
+            when(messageRepository.save(any(Message.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            // When
+            messagingService.deleteMessage(messageId, user1Id);
+
+            // Then
+            verify(conversationReadStateRepository, never()).decrementUnreadCounts(any(), any(), anyLong());
         }
 
         @Test
@@ -495,14 +722,13 @@ class MessagingServiceTest {
             // Given
             UUID conversationId = privateConversation.getId();
 
-            when(conversationRepository.findByIdWithParticipants(conversationId))
-                    .thenReturn(Optional.of(privateConversation));
+            when(conversationMembershipCache.isMember(conversationId, user1Id)).thenReturn(true);
 
             // When
             messagingService.markMessagesAsRead(conversationId, user1Id);
 
-            // Then - verify batch update was called
-            verify(messageRepository).markAllAsReadBatch(conversationId, user1Id);
+            // Then - a single watermark upsert, no per-message write
+            verify(conversationReadStateRepository).markConversationAsRead(conversationId, user1Id);
         }
 
         @Test
@@ -510,13 +736,126 @@ class MessagingServiceTest {
         void shouldThrowExceptionWhenNonParticipantTriesToMarkAsRead() {
             // Given
             UUID conversationId = privateConversation.getId();
-            when(conversationRepository.findByIdWithParticipants(conversationId))
-                    .thenReturn(Optional.of(privateConversation));
+            when(conversationRepository.existsById(conversationId)).thenReturn(true);
 
             // When/Then
             assertThatThrownBy(() -> messagingService.markMessagesAsRead(conversationId, user3Id))
                     .isInstanceOf(ConversationException.class)
                     .hasMessage("Vous n'êtes pas participant de cette conversation");
+
+            verify(conversationReadStateRepository, never()).markConversationAsRead(any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Sync Tests")
+    class SyncTests {
+
+        @Test
+        @DisplayName("Should return only a starting token on first sync")
+        void shouldReturnStartingToken() {
+            // Given
+            when(messageRepository.currentChangeVersion()).thenReturn(1200L);
+
+            // When
+            SyncResponse response = messagingService.sync(user1Id, null);
+
+            // Then
+            assertThat(response.isFullResync()).isTrue();
+            assertThat(response.getToken()).isEqualTo(CursorCodec.encode(1200L));
+            assertThat(response.getMessages()).isEmpty();
+            verify(messageRepository, never()).findChangedForParticipant(any(), anyLong(), any());
+        }
+
+        @Test
+        @DisplayName("Should return the changes since the token")
+        void shouldReturnChangesSinceToken() {
+            // Given - user2 read the new message and the conversation moved on
+            UUID conversationId = privateConversation.getId();
+            when(messageRepository.currentChangeVersion()).thenReturn(1300L);
+            when(messageRepository.findChangedForParticipant(user1Id, 1200L, PageRequest.of(0, 501)))
+                    .thenReturn(List.of(testMessage));
+            when(conversationReadStateRepository.findChangedInboxByUserId(user1Id, 1200L))
+                    .thenReturn(List.of(readState(user1, 0)));
+            when(conversationReadStateRepository.findChangedWatermarks(user1Id, 1200L))
+                    .thenReturn(List.of(watermark(conversationId, user2Id, 2L)));
+            when(conversationReadStateRepository.findWatermarks(Set.of(conversationId)))
+                    .thenReturn(List.of(watermark(conversationId, user2Id, 2L)));
+
+            // When
+            SyncResponse response = messagingService.sync(user1Id, CursorCodec.encode(1200L));
+
+            // Then
+            assertThat(response.isFullResync()).isFalse();
+            assertThat(response.getToken()).isEqualTo(CursorCodec.encode(1300L));
+            assertThat(response.getConversations()).extracting(ConversationResponse::getId)
+                    .containsExactly(conversationId);
+            assertThat(response.getMessages()).hasSize(1);
+            assertThat(response.getMessages().get(0).getReadBy()).containsExactlyInAnyOrder(user1Id, user2Id);
+            assertThat(response.getReadStates()).singleElement()
+                    .satisfies(state -> {
+                        assertThat(state.getUserId()).isEqualTo(user2Id);
+                        assertThat(state.getLastReadSeq()).isEqualTo(2L);
+                    });
+        }
+
+        @Test
+        @DisplayName("Should ask for a full resync when too many messages changed")
+        void shouldAskForFullResyncWhenTooManyChanges() {
+            // Given
+            when(messageRepository.currentChangeVersion()).thenReturn(1300L);
+            when(messageRepository.findChangedForParticipant(user1Id, 1200L, PageRequest.of(0, 501)))
+                    .thenReturn(Collections.nCopies(501, testMessage));
+
+            // When
+            SyncResponse response = messagingService.sync(user1Id, CursorCodec.encode(1200L));
+
+            // Then
+            assertThat(response.isFullResync()).isTrue();
+            assertThat(response.getMessages()).isEmpty();
+            verify(conversationReadStateRepository, never()).findChangedInboxByUserId(any(), anyLong());
         }
+
+        @Test
+        @DisplayName("Should reject a malformed token")
+        void shouldRejectMalformedToken() {
+            // Given
+            when(messageRepository.currentChangeVersion()).thenReturn(1300L);
+
+            // When/Then
+            assertThatThrownBy(() -> messagingService.sync(user1Id, "not-a-token"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Jeton de synchronisation invalide");
+        }
+    }
+
+    private ConversationReadState readState(User user, int unreadCount) {
+        return ConversationReadState.builder()
+                .id(UUID.randomUUID())
+                .conversation(privateConversation)
+                .user(user)
+                .lastReadAt(LocalDateTime.now().minusHours(1))
+                .unreadCount(unreadCount)
+                .build();
+    }
+
+    private static ConversationReadStateRepository.ReadWatermark watermark(
+            UUID conversationId, UUID userId, Long lastReadSeq) {
+        return new ConversationReadStateRepository.ReadWatermark() {
+            @Override
+            public UUID getConversationId() {
+                return conversationId;
+            }
+
+            @Override
+            public UUID getUserId() {
+                return userId;
+            }
+
+            @Override
+            public Long getLastReadSeq() {
+                return lastReadSeq;
+            }
+        };
     }
 }
@@ -37,6 +37,9 @@ class ModerationServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private PresenceService presenceService;
+
     @InjectMocks
     private ModerationService moderationService;
 
@@ -1,5 +1,6 @@
 package com.teemup.service;
 
+import com.teemup.dto.notification.NotificationCreatedEvent;
 import com.teemup.dto.notification.NotificationResponse;
 import com.teemup.entity.Notification;
 import com.teemup.entity.User;
@@ -14,6 +15,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -38,6 +40,12 @@ class NotificationServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PresenceService presenceService;
+
     @InjectMocks
     private NotificationService notificationService;
 
@@ -108,6 +116,40 @@ class NotificationServiceTest {
             assertThat(result.getType()).isEqualTo("FRIEND_REQUEST");
             verify(notificationRepository).save(any(Notification.class));
         }
+
+        @Test
+        @DisplayName("Should publish the created notification for real-time delivery")
+        void shouldPublishCreatedNotification() {
+            when(notificationRepository.save(any(Notification.class))).thenReturn(notification);
+
+            notificationService.createNotification(
+                    recipient, fromUser, Notification.NotificationType.FRIEND_REQUEST,
+                    "Demande d'ami", "Jane veut etre votre ami", "ref-123"
+            );
+
+            verify(eventPublisher).publishEvent(argThat((Object event) ->
+                    event instanceof NotificationCreatedEvent created
+                            && created.recipientId().equals(recipientId)
+                            && created.notification().getTitle().equals("Demande d'ami")));
+        }
+
+        @Test
+        @DisplayName("Should push a prepared notification only once announced")
+        void shouldPublishPreparedNotificationOnAnnounce() {
+            when(notificationRepository.save(any(Notification.class))).thenReturn(notification);
+
+            Notification prepared = notificationService.prepareNotification(
+                    recipient, fromUser, Notification.NotificationType.FRIEND_REQUEST,
+                    "Demande d'ami", "Jane veut etre votre ami", "ref-123"
+            );
+            verifyNoInteractions(eventPublisher);
+
+            notificationService.announce(prepared);
+
+            verify(eventPublisher).publishEvent(argThat((Object event) ->
+                    event instanceof NotificationCreatedEvent created
+                            && created.recipientId().equals(recipientId)));
+        }
     }
 
     @Nested
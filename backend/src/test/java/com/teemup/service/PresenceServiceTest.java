@@ -0,0 +1,287 @@
+package com.teemup.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@DisplayName("PresenceService Tests")
+class PresenceServiceTest {
+
+    private MutableClock clock;
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private PresenceService presenceService;
+
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-03-10T10:00:00Z"));
+        jdbcTemplate = mock(JdbcTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        presenceService = new PresenceService(jdbcTemplate, meterRegistry, 10_000, 30_000, clock);
+    }
+
+    @Test
+    @DisplayName("Devrait connaître la présence sans écrire en base")
+    void shouldAnswerFromMemory() {
+        // When
+        presenceService.connected(alice);
+
+        // Then
+        assertThat(presenceService.isOnline(alice)).isTrue();
+        assertThat(presenceService.isOnline(bob)).isFalse();
+        assertThat(presenceService.isOnline(alice, false)).isTrue();
+        assertThat(presenceService.isOnline(bob, true)).isTrue();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Devrait écrire les changements stables en un seul lot")
+    void shouldWriteStableChangesInOneBatch() {
+        // Given - Bob online and persisted
+        presenceService.connected(bob);
+        clock.advance(10, ChronoUnit.SECONDS);
+        presenceService.flush();
+        clearInvocations(jdbcTemplate);
+
+        presenceService.connected(alice);
+        clock.advance(5, ChronoUnit.SECONDS);
+        presenceService.disconnected(bob);
+
+        // When
+        clock.advance(5, ChronoUnit.SECONDS);
+        presenceService.flush();
+
+        // Then - Alice has been online for 10 s, Bob offline for 5 s only
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((List<Object[]> rows) -> rows.size() == 1
+                && rows.get(0)[0].equals(true) && rows.get(0)[1] == null && rows.get(0)[2].equals(alice)));
+        assertThat(presenceService.pendingCount()).isEqualTo(1);
+        assertThat(presenceService.isOnline(bob, true)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Devrait enregistrer la dernière connexion à la déconnexion")
+    void shouldWriteLastSeenOnDisconnect() {
+        // Given
+        presenceService.connected(alice);
+        clock.advance(10, ChronoUnit.SECONDS);
+        presenceService.flush();
+        presenceService.disconnected(alice);
+
+        // When
+        clock.advance(10, ChronoUnit.SECONDS);
+        presenceService.flush();
+
+        // Then
+        Timestamp lastSeen = Timestamp.valueOf("2026-03-10 10:00:10");
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((List<Object[]> rows) -> rows.size() == 1
+                && rows.get(0)[0].equals(false) && lastSeen.equals(rows.get(0)[1])));
+        assertThat(meterRegistry.get("presence.writes").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Ne devrait rien écrire pour une connexion instable")
+    void shouldNotWriteFlappingConnection() {
+        // Given - Online and persisted
+        presenceService.connected(alice);
+        clock.advance(10, ChronoUnit.SECONDS);
+        presenceService.flush();
+        clearInvocations(jdbcTemplate);
+
+        // When - The client drops and reconnects several times
+        for (int i = 0; i < 5; i++) {
+            presenceService.disconnected(alice);
+            clock.advance(1, ChronoUnit.SECONDS);
+            presenceService.connected(alice);
+        }
+        clock.advance(30, ChronoUnit.SECONDS);
+        presenceService.flush();
+
+        // Then
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        assertThat(presenceService.pendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Devrait conserver les changements dont l'écriture a échoué")
+    void shouldRetryFailedWrite() {
+        // Given
+        presenceService.connected(alice);
+        clock.advance(10, ChronoUnit.SECONDS);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new IllegalStateException("down"));
+
+        // When
+        presenceService.flush();
+
+        // Then
+        assertThat(presenceService.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Devrait mettre hors ligne les utilisateurs du nœud à l'arrêt")
+    void shouldPersistOfflineOnShutdown() {
+        // Given
+        presenceService.connected(alice);
+        clock.advance(10, ChronoUnit.SECONDS);
+        presenceService.flush();
+        clearInvocations(jdbcTemplate);
+
+        // When
+        presenceService.shutdown();
+
+        // Then
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((List<Object[]> rows) -> rows.size() == 1
+                && rows.get(0)[0].equals(false) && rows.get(0)[2].equals(alice)));
+        assertThat(presenceService.isOnline(alice)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Devrait garder en ligne un utilisateur encore connecté à un autre nœud")
+    void shouldStayOnlineWhileAnotherNodeHoldsUser() {
+        // Given - Alice on this node and on node B
+        presenceService.connected(alice);
+        assertThat(presenceService.remoteChanged("node-b", 1, alice, true, false)).isFalse();
+
+        // When - Her device here leaves
+        PresenceService.LocalChange change = presenceService.disconnected(alice);
+
+        // Then - Still online, for the whole cluster
+        assertThat(change.global()).isFalse();
+        assertThat(presenceService.isOnline(alice)).isTrue();
+        assertThat(presenceService.isOnline(alice, false)).isTrue();
+
+        // When - Then her device on node B leaves
+        boolean offline = presenceService.remoteChanged("node-b", 2, alice, false, true);
+
+        // Then - Offline, persisted by node B only
+        assertThat(offline).isTrue();
+        assertThat(presenceService.isOnline(alice)).isFalse();
+        clock.advance(10, ChronoUnit.SECONDS);
+        presenceService.flush();
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    @DisplayName("Devrait ignorer un instantané plus ancien qu'un changement déjà appliqué")
+    void shouldIgnoreSnapshotOlderThanChange() {
+        // Given - Node B gained Alice after taking a snapshot without her
+        assertThat(presenceService.remoteChanged("node-b", 5, alice, true, true)).isTrue();
+
+        // When - The snapshot arrives late, with Bob
+        Map<UUID, Boolean> transitions = presenceService.remoteSnapshot("node-b", 4, List.of(bob));
+
+        // Then - Alice stays online, Bob comes online
+        assertThat(transitions).containsExactly(Map.entry(bob, true));
+        assertThat(presenceService.isOnline(alice)).isTrue();
+
+        // When - A change older than a newer snapshot
+        presenceService.remoteSnapshot("node-b", 7, List.of());
+        boolean changed = presenceService.remoteChanged("node-b", 6, alice, true, true);
+
+        // Then
+        assertThat(changed).isFalse();
+        assertThat(presenceService.isOnline(alice)).isFalse();
+        assertThat(presenceService.isOnline(bob)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Devrait mettre hors ligne les utilisateurs d'un nœud qui ne répond plus")
+    void shouldExpireSilentNode() {
+        // Given - Alice on node B, Bob on node C heard from later
+        presenceService.remoteSnapshot("node-b", 1, List.of(alice));
+        clock.advance(20, ChronoUnit.SECONDS);
+        presenceService.remoteSnapshot("node-c", 1, List.of(bob));
+        clock.advance(11, ChronoUnit.SECONDS);
+
+        // When
+        Map<UUID, Boolean> transitions = presenceService.expireNodes();
+
+        // Then
+        assertThat(transitions).containsExactly(Map.entry(alice, false));
+        assertThat(presenceService.isOnline(alice)).isFalse();
+        assertThat(presenceService.isOnline(bob)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Ne devrait plus croire le drapeau en base une fois tous les nœuds entendus")
+    void shouldIgnoreStalePersistedFlag() {
+        // Given - Alice held by node B; Bob left online in base by a node that died
+        presenceService.remoteSnapshot("node-b", 1, List.of(alice));
+
+        // Then - Node C may not have sent its users yet
+        assertThat(presenceService.isOnline(bob, true)).isTrue();
+
+        // When - Every live node has sent its users by now
+        clock.advance(30, ChronoUnit.SECONDS);
+        presenceService.remoteSnapshot("node-b", 2, List.of(alice));
+
+        // Then
+        assertThat(presenceService.isOnline(alice, false)).isTrue();
+        assertThat(presenceService.isOnline(bob, true)).isFalse();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Devrait numéroter les changements locaux et les inclure dans l'instantané")
+    void shouldNumberLocalChanges() {
+        // When
+        PresenceService.LocalChange aliceOnline = presenceService.connected(alice);
+        PresenceService.LocalChange bobOnline = presenceService.connected(bob);
+        PresenceService.LocalChange again = presenceService.connected(alice);
+        PresenceService.LocalChange bobOffline = presenceService.disconnected(bob);
+
+        // Then
+        assertThat(aliceOnline).isEqualTo(new PresenceService.LocalChange(true, 1));
+        assertThat(bobOnline.seq()).isEqualTo(2);
+        assertThat(again).isNull();
+        assertThat(bobOffline).isEqualTo(new PresenceService.LocalChange(true, 3));
+        assertThat(presenceService.localSnapshot()).isEqualTo(new PresenceService.Snapshot(3, List.of(alice)));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(long amount, ChronoUnit unit) {
+            instant = instant.plus(amount, unit);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
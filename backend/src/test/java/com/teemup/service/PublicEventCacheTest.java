@@ -0,0 +1,270 @@
+package com.teemup.service;
+
+import com.teemup.dto.event.SportEventResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("PublicEventCache Tests")
+class PublicEventCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private PublicEventCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock(Instant.parse("2026-03-10T10:00:00Z"));
+        cache = new PublicEventCache(meterRegistry, 2, clock);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Devrait servir le second appel depuis le cache et compter hits et misses")
+    void shouldCountHitsAndMisses() {
+        // When
+        List<SportEventResponse> first = list("public", List.of());
+        List<SportEventResponse> second = list("public", List.of());
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "publicEventLists").tag("result", "hit")
+                .counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "publicEventLists").tag("result", "miss")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Devrait évincer l'entrée la moins récemment utilisée")
+    void shouldEvictLeastRecentlyUsedEntry() {
+        // Given - Capacity of 2 per region
+        list("public-page", List.of(0, 20));
+        list("public-page", List.of(1, 20));
+        list("public-page", List.of(0, 20));
+
+        // When
+        list("public-page", List.of(2, 20));
+
+        // Then - Page 1 was the least recently used
+        list("public-page", List.of(0, 20));
+        assertThat(loads).hasValue(3);
+        list("public-page", List.of(1, 20));
+        assertThat(loads).hasValue(4);
+        assertThat(meterRegistry.get("cache.evictions").tag("cache", "publicEventLists").counter().count())
+                .isGreaterThanOrEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Devrait n'évincer que l'événement rejoint et les listes qui le montrent")
+    void shouldInvalidateOnlyTheChangedEventAndListsShowingIt() {
+        // Given
+        UUID changedId = UUID.randomUUID();
+        UUID otherId = UUID.randomUUID();
+        list("public", List.of(), event(changedId), event(otherId));
+        list("public-sport", List.of("Tennis"), event(otherId));
+        cache.event(changedId, () -> event(changedId));
+        cache.event(otherId, () -> event(otherId));
+
+        // When
+        cache.invalidate(changedId);
+
+        // Then
+        list("public-sport", List.of("Tennis"), event(otherId));
+        assertThat(loads).hasValue(2);
+        list("public", List.of(), event(changedId), event(otherId));
+        assertThat(loads).hasValue(3);
+        AtomicInteger eventLoads = new AtomicInteger();
+        cache.event(otherId, () -> countedEvent(otherId, eventLoads));
+        assertThat(eventLoads).hasValue(0);
+        cache.event(changedId, () -> countedEvent(changedId, eventLoads));
+        assertThat(eventLoads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Devrait vider toutes les listes quand un événement est créé, modifié ou supprimé")
+    void shouldInvalidateAllListsOnListingChange() {
+        // Given - The new event is in no cached list yet
+        UUID changedId = UUID.randomUUID();
+        list("public", List.of(), event(UUID.randomUUID()));
+        list("public-sport", List.of("Tennis"));
+
+        // When
+        cache.invalidateListings(changedId);
+
+        // Then
+        list("public", List.of(), event(UUID.randomUUID()));
+        list("public-sport", List.of("Tennis"));
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("Devrait évincer les événements d'un organisateur dont le profil change et les listes qui les montrent")
+    void shouldInvalidateEventsOfOrganizer() {
+        // Given
+        UUID organizerId = UUID.randomUUID();
+        UUID organizedId = UUID.randomUUID();
+        UUID otherId = UUID.randomUUID();
+        SportEventResponse organized = SportEventResponse.builder().id(organizedId).userId(organizerId).build();
+        SportEventResponse other = SportEventResponse.builder().id(otherId).userId(UUID.randomUUID()).build();
+        list("public", List.of(), organized, other);
+        list("public-sport", List.of("Tennis"), other);
+        cache.event(organizedId, () -> organized);
+        cache.event(otherId, () -> other);
+
+        // When
+        cache.invalidateOrganizer(organizerId);
+
+        // Then
+        list("public-sport", List.of("Tennis"), other);
+        assertThat(loads).hasValue(2);
+        list("public", List.of(), organized, other);
+        assertThat(loads).hasValue(3);
+        AtomicInteger eventLoads = new AtomicInteger();
+        cache.event(otherId, () -> countedEvent(otherId, eventLoads));
+        assertThat(eventLoads).hasValue(0);
+        cache.event(organizedId, () -> countedEvent(organizedId, eventLoads));
+        assertThat(eventLoads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Devrait recharger les listes au changement de jour")
+    void shouldReloadListsOnDayRollover() {
+        // Given
+        list("public", List.of());
+
+        // When
+        clock.advance(1, ChronoUnit.DAYS);
+        list("public", List.of());
+
+        // Then
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas mettre en cache un résultat chargé pendant l'invalidation d'un de ses événements")
+    void shouldNotStoreResultLoadedDuringInvalidation() {
+        // Given - A join on a listed event commits while the result is being loaded
+        UUID eventId = UUID.randomUUID();
+        cache.list("public", List.of(), Function.identity(), () -> {
+            cache.invalidate(eventId);
+            return load(event(eventId));
+        });
+
+        // When
+        list("public", List.of(), event(eventId));
+
+        // Then
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Devrait mettre en cache un résultat chargé pendant l'invalidation d'un autre événement")
+    void shouldStoreResultLoadedDuringUnrelatedInvalidation() {
+        // Given - A join on an event the result does not show commits meanwhile
+        UUID eventId = UUID.randomUUID();
+        cache.list("public", List.of(), Function.identity(), () -> {
+            cache.invalidate(UUID.randomUUID());
+            return load(event(eventId));
+        });
+
+        // When
+        list("public", List.of(), event(eventId));
+
+        // Then
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas mettre en cache les erreurs du chargement")
+    void shouldNotCacheLoaderFailures() {
+        // Given
+        UUID eventId = UUID.randomUUID();
+        assertThatThrownBy(() -> cache.event(eventId, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // When
+        AtomicInteger eventLoads = new AtomicInteger();
+        cache.event(eventId, () -> countedEvent(eventId, eventLoads));
+
+        // Then
+        assertThat(eventLoads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Devrait toujours charger quand le cache est désactivé")
+    void shouldAlwaysLoadWhenDisabled() {
+        // Given
+        PublicEventCache disabled = new PublicEventCache(meterRegistry, 0, clock);
+
+        // When
+        disabled.list("public", List.of(), Function.identity(), () -> load());
+        disabled.list("public", List.of(), Function.identity(), () -> load());
+
+        // Then
+        assertThat(loads).hasValue(2);
+        assertThat(disabled.size()).isZero();
+    }
+
+    private List<SportEventResponse> list(String query, List<?> arguments, SportEventResponse... shown) {
+        return cache.list(query, arguments, Function.identity(), () -> load(shown));
+    }
+
+    private List<SportEventResponse> load(SportEventResponse... shown) {
+        loads.incrementAndGet();
+        return List.of(shown);
+    }
+
+    private static SportEventResponse event(UUID eventId) {
+        return SportEventResponse.builder().id(eventId).build();
+    }
+
+    private static SportEventResponse countedEvent(UUID eventId, AtomicInteger counter) {
+        counter.incrementAndGet();
+        return event(eventId);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(long amount, ChronoUnit unit) {
+            instant = instant.plus(amount, unit);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
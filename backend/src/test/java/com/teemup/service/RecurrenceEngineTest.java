@@ -0,0 +1,59 @@
+package com.teemup.service;
+
+import com.teemup.entity.SportEvent.RecurrenceType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RecurrenceEngine Tests")
+class RecurrenceEngineTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 1, 5);
+
+    @Test
+    @DisplayName("Devrait retourner la date de début tant qu'elle n'est pas passée")
+    void shouldReturnStartWhenNotPassed() {
+        assertThat(RecurrenceEngine.nextOccurrence(MONDAY, RecurrenceType.WEEKLY, MONDAY.minusDays(3)))
+                .isEqualTo(MONDAY);
+        assertThat(RecurrenceEngine.nextOccurrence(MONDAY, RecurrenceType.NONE, MONDAY.plusDays(3)))
+                .isEqualTo(MONDAY);
+    }
+
+    @Test
+    @DisplayName("Devrait calculer la prochaine occurrence sans itérer")
+    void shouldComputeNextOccurrence() {
+        LocalDate from = MONDAY.plusDays(100);
+
+        assertThat(RecurrenceEngine.nextOccurrence(MONDAY, RecurrenceType.DAILY, from)).isEqualTo(from);
+        assertThat(RecurrenceEngine.nextOccurrence(MONDAY, RecurrenceType.WEEKLY, from)).isEqualTo(MONDAY.plusWeeks(15));
+        assertThat(RecurrenceEngine.nextOccurrence(MONDAY, RecurrenceType.BIWEEKLY, from)).isEqualTo(MONDAY.plusWeeks(16));
+        assertThat(RecurrenceEngine.nextOccurrence(MONDAY, RecurrenceType.MONTHLY, from)).isEqualTo(MONDAY.plusMonths(4));
+    }
+
+    @Test
+    @DisplayName("Devrait garder le jour du mois pour une série mensuelle")
+    void shouldKeepDayOfMonthForMonthlySeries() {
+        LocalDate endOfJanuary = LocalDate.of(2026, 1, 31);
+
+        assertThat(RecurrenceEngine.occurrencesBetween(endOfJanuary, RecurrenceType.MONTHLY,
+                LocalDate.of(2026, 2, 1), LocalDate.of(2026, 4, 30), 10))
+                .containsExactly(LocalDate.of(2026, 2, 28), LocalDate.of(2026, 3, 31), LocalDate.of(2026, 4, 30));
+    }
+
+    @Test
+    @DisplayName("Devrait générer les occurrences d'une fenêtre, bornées en nombre")
+    void shouldExpandOccurrencesInWindow() {
+        assertThat(RecurrenceEngine.occurrencesBetween(MONDAY, RecurrenceType.WEEKLY,
+                MONDAY.plusDays(1), MONDAY.plusDays(21), 10))
+                .containsExactly(MONDAY.plusWeeks(1), MONDAY.plusWeeks(2), MONDAY.plusWeeks(3));
+        assertThat(RecurrenceEngine.occurrencesBetween(MONDAY, RecurrenceType.DAILY,
+                MONDAY, MONDAY.plusDays(30), 5))
+                .hasSize(5);
+        assertThat(RecurrenceEngine.occurrencesBetween(MONDAY, RecurrenceType.NONE,
+                MONDAY.plusDays(1), MONDAY.plusDays(30), 5))
+                .isEmpty();
+    }
+}
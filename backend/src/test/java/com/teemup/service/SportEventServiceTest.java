@@ -1,7 +1,9 @@
 package com.teemup.service;
 
+import com.teemup.dto.common.CursorPageResponse;
 import com.teemup.dto.event.CreateSportEventRequest;
 import com.teemup.dto.event.SportEventResponse;
+import com.teemup.dto.event.SportEventSummary;
 import com.teemup.entity.EventParticipant;
 import com.teemup.entity.Notification;
 import com.teemup.entity.SportEvent;
@@ -20,15 +22,25 @@ import com.teemup.exception.UserNotFoundException;
 import com.teemup.repository.EventParticipantRepository;
 import com.teemup.repository.SportEventRepository;
 import com.teemup.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Clock;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.HashSet;
@@ -42,8 +54,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -62,6 +76,21 @@ class SportEventServiceTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private PresenceService presenceService;
+
+    @Spy
+    private EventSpatialIndex eventSpatialIndex = new EventSpatialIndex();
+
+    @Spy
+    private PublicEventCache publicEventCache = new PublicEventCache(new SimpleMeterRegistry(), 64, Clock.systemDefaultZone());
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionOperations transactionOperations;
+
     @InjectMocks
     private SportEventService sportEventService;
 
@@ -76,6 +105,14 @@ class SportEventServiceTest {
 
     @BeforeEach
     void setUp() {
+        // A single node: the cache changes are applied right away, as the relay of the node would
+        lenient().doAnswer(invocation -> {
+            invocation.<EventCacheChange>getArgument(0).applyTo(publicEventCache, eventSpatialIndex);
+            return null;
+        }).when(eventPublisher).publishEvent(any(EventCacheChange.class));
+        lenient().when(transactionOperations.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
         organizerId = UUID.randomUUID();
         participantId = UUID.randomUUID();
         eventId = UUID.randomUUID();
@@ -345,10 +382,20 @@ class SportEventServiceTest {
         @DisplayName("Devrait rejoindre un événement public avec succès")
         void shouldJoinPublicEventSuccessfully() {
             // Given
-            when(sportEventRepository.findByIdForUpdate(eventId)).thenReturn(Optional.of(publicEvent));
+            Notification joined = Notification.builder().id(UUID.randomUUID()).build();
+            when(notificationService.prepareNotification(
+                    eq(organizer),
+                    eq(participant),
+                    eq(Notification.NotificationType.EVENT_PARTICIPANT_JOINED),
+                    anyString(),
+                    anyString(),
+                    eq(eventId.toString())
+            )).thenReturn(joined);
+            when(sportEventRepository.findWithOrganizerById(eventId)).thenReturn(Optional.of(publicEvent));
+            when(sportEventRepository.findByIdWithParticipants(eventId)).thenReturn(Optional.of(publicEvent));
             when(userRepository.findById(participantId)).thenReturn(Optional.of(participant));
             when(eventParticipantRepository.existsByEventIdAndUserId(eventId, participantId)).thenReturn(false);
-            when(eventParticipantRepository.countConfirmedByEventId(eventId)).thenReturn(3L);
+            when(sportEventRepository.claimSeat(eventId)).thenReturn(1);
             when(eventParticipantRepository.save(any(EventParticipant.class))).thenAnswer(invocation -> {
                 EventParticipant saved = invocation.getArgument(0);
                 saved.setId(UUID.randomUUID());
@@ -367,14 +414,51 @@ class SportEventServiceTest {
                             && ep.getEvent().getId().equals(eventId)
             ));
 
-            verify(notificationService).createNotification(
-                    eq(organizer),
-                    eq(participant),
-                    eq(Notification.NotificationType.EVENT_PARTICIPANT_JOINED),
-                    anyString(),
-                    anyString(),
-                    eq(eventId.toString())
-            );
+            verify(notificationService).announce(joined);
+        }
+
+        @Test
+        @DisplayName("Devrait prendre la place en dernier, après l'inscription et la notification")
+        void shouldClaimSeatLast() {
+            // Given
+            when(sportEventRepository.findWithOrganizerById(eventId)).thenReturn(Optional.of(publicEvent));
+            when(sportEventRepository.findByIdWithParticipants(eventId)).thenReturn(Optional.of(publicEvent));
+            when(userRepository.findById(participantId)).thenReturn(Optional.of(participant));
+            when(eventParticipantRepository.existsByEventIdAndUserId(eventId, participantId)).thenReturn(false);
+            when(sportEventRepository.claimSeat(eventId)).thenReturn(1);
+
+            // When
+            sportEventService.joinEvent(eventId, participantId);
+
+            // Then - The event row is only locked once everything else has been written
+            InOrder inOrder = inOrder(eventParticipantRepository, notificationService, sportEventRepository);
+            inOrder.verify(eventParticipantRepository).save(any(EventParticipant.class));
+            inOrder.verify(notificationService).prepareNotification(
+                    any(), any(), any(), anyString(), anyString(), anyString());
+            inOrder.verify(eventParticipantRepository).flush();
+            inOrder.verify(sportEventRepository).claimSeat(eventId);
+            inOrder.verify(notificationService).announce(any());
+        }
+
+        @Test
+        @DisplayName("Devrait inscrire sans charger les participants, puis lire le détail")
+        void shouldReadDetailOnceJoined() {
+            // Given
+            when(sportEventRepository.findWithOrganizerById(eventId)).thenReturn(Optional.of(publicEvent));
+            when(sportEventRepository.findByIdWithParticipants(eventId)).thenReturn(Optional.of(publicEvent));
+            when(userRepository.findById(participantId)).thenReturn(Optional.of(participant));
+            when(eventParticipantRepository.existsByEventIdAndUserId(eventId, participantId)).thenReturn(false);
+            when(sportEventRepository.claimSeat(eventId)).thenReturn(1);
+
+            // When
+            sportEventService.joinEvent(eventId, participantId);
+
+            // Then - Two transactions: the join, then the detail with every participant
+            InOrder inOrder = inOrder(sportEventRepository);
+            inOrder.verify(sportEventRepository).findWithOrganizerById(eventId);
+            inOrder.verify(sportEventRepository).claimSeat(eventId);
+            inOrder.verify(sportEventRepository).findByIdWithParticipants(eventId);
+            verify(transactionOperations, times(2)).execute(any());
         }
 
         @Test
@@ -382,10 +466,10 @@ class SportEventServiceTest {
         void shouldJoinPrivateEventWithPendingStatus() {
             // Given
             UUID privateEventId = privateEvent.getId();
-            when(sportEventRepository.findByIdForUpdate(privateEventId)).thenReturn(Optional.of(privateEvent));
+            when(sportEventRepository.findWithOrganizerById(privateEventId)).thenReturn(Optional.of(privateEvent));
+            when(sportEventRepository.findByIdWithParticipants(privateEventId)).thenReturn(Optional.of(privateEvent));
             when(userRepository.findById(participantId)).thenReturn(Optional.of(participant));
             when(eventParticipantRepository.existsByEventIdAndUserId(privateEventId, participantId)).thenReturn(false);
-            when(eventParticipantRepository.countConfirmedByEventId(privateEventId)).thenReturn(1L);
             when(eventParticipantRepository.save(any(EventParticipant.class))).thenAnswer(invocation -> {
                 EventParticipant saved = invocation.getArgument(0);
                 saved.setId(UUID.randomUUID());
@@ -400,23 +484,92 @@ class SportEventServiceTest {
             verify(eventParticipantRepository).save(argThat(ep ->
                     ep.getStatus() == EventParticipant.ParticipantStatus.PENDING
             ));
+            // Pending requests do not take a seat
+            verify(sportEventRepository, never()).claimSeat(any());
         }
 
         @Test
-        @DisplayName("Devrait échouer si l'événement est complet")
-        void shouldFailWhenEventIsFull() {
+        @DisplayName("Devrait placer l'utilisateur en liste d'attente si l'événement est complet")
+        void shouldWaitlistWhenEventIsFull() {
             // Given
             publicEvent.setMaxParticipants(5);
-            when(sportEventRepository.findByIdForUpdate(eventId)).thenReturn(Optional.of(publicEvent));
+            when(sportEventRepository.findWithOrganizerById(eventId)).thenReturn(Optional.of(publicEvent));
+            when(sportEventRepository.findByIdWithParticipants(eventId)).thenReturn(Optional.of(publicEvent));
+            when(userRepository.findById(participantId)).thenReturn(Optional.of(participant));
+            when(eventParticipantRepository.existsByEventIdAndUserId(eventId, participantId)).thenReturn(false);
+            when(sportEventRepository.claimSeat(eventId)).thenReturn(0);
+            when(eventParticipantRepository.save(any(EventParticipant.class))).thenAnswer(invocation -> {
+                EventParticipant saved = invocation.getArgument(0);
+                publicEvent.getParticipants().add(saved);
+                return saved;
+            });
+            Notification joined = Notification.builder().id(UUID.randomUUID()).build();
+            when(notificationService.prepareNotification(
+                    any(), any(), eq(Notification.NotificationType.EVENT_PARTICIPANT_JOINED), anyString(), anyString(), anyString()
+            )).thenReturn(joined);
+
+            // When
+            SportEventResponse response = sportEventService.joinEvent(eventId, participantId);
+
+            // Then
+            assertThat(response.getParticipationStatus()).isEqualTo("WAITLISTED");
+            assertThat(response.getIsParticipating()).isFalse();
+
+            verify(eventParticipantRepository).save(argThat(ep ->
+                    ep.getStatus() == EventParticipant.ParticipantStatus.WAITLISTED
+            ));
+            verify(notificationService).discard(joined);
+            verify(notificationService, never()).announce(any());
+
+            // The event stays locked until the waitlist row commits, so a leave then promotes it
+            InOrder inOrder = inOrder(sportEventRepository);
+            inOrder.verify(sportEventRepository).claimSeat(eventId);
+            inOrder.verify(sportEventRepository).lockById(eventId);
+            inOrder.verify(sportEventRepository).claimSeat(eventId);
+        }
+
+        @Test
+        @DisplayName("Devrait prendre la place libérée pendant le verrouillage de l'événement")
+        void shouldClaimSeatFreedBeforeLock() {
+            // Given - Full at the first claim, a leave commits before the lock is granted
+            publicEvent.setMaxParticipants(5);
+            when(sportEventRepository.findWithOrganizerById(eventId)).thenReturn(Optional.of(publicEvent));
+            when(sportEventRepository.findByIdWithParticipants(eventId)).thenReturn(Optional.of(publicEvent));
             when(userRepository.findById(participantId)).thenReturn(Optional.of(participant));
             when(eventParticipantRepository.existsByEventIdAndUserId(eventId, participantId)).thenReturn(false);
-            when(eventParticipantRepository.countConfirmedByEventId(eventId)).thenReturn(5L);
+            when(sportEventRepository.claimSeat(eventId)).thenReturn(0, 1);
+            when(eventParticipantRepository.save(any(EventParticipant.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            Notification joined = Notification.builder().id(UUID.randomUUID()).build();
+            when(notificationService.prepareNotification(
+                    any(), any(), eq(Notification.NotificationType.EVENT_PARTICIPANT_JOINED), anyString(), anyString(), anyString()
+            )).thenReturn(joined);
+
+            // When
+            SportEventResponse response = sportEventService.joinEvent(eventId, participantId);
+
+            // Then
+            assertThat(response.getParticipationStatus()).isEqualTo("CONFIRMED");
+            verify(sportEventRepository).lockById(eventId);
+            verify(notificationService).announce(joined);
+            verify(notificationService, never()).discard(any());
+        }
+
+        @Test
+        @DisplayName("Devrait refuser une demande sur un événement privé complet sans prendre de place")
+        void shouldFailWhenPrivateEventIsFull() {
+            // Given
+            UUID privateEventId = privateEvent.getId();
+            privateEvent.setMaxParticipants(2);
+            privateEvent.setConfirmedCount(2);
+            when(sportEventRepository.findWithOrganizerById(privateEventId)).thenReturn(Optional.of(privateEvent));
+            when(userRepository.findById(participantId)).thenReturn(Optional.of(participant));
+            when(eventParticipantRepository.existsByEventIdAndUserId(privateEventId, participantId)).thenReturn(false);
 
             // When/Then
-            assertThatThrownBy(() -> sportEventService.joinEvent(eventId, participantId))
-                    .isInstanceOf(EventFullException.class)
-                    .hasMessage("Cet événement est complet");
+            assertThatThrownBy(() -> sportEventService.joinEvent(privateEventId, participantId))
+                    .isInstanceOf(EventFullException.class);
 
+            verify(sportEventRepository, never()).claimSeat(any());
             verify(eventParticipantRepository, never()).save(any());
         }
 
@@ -424,7 +577,7 @@ class SportEventServiceTest {
         @DisplayName("Devrait échouer si l'utilisateur participe déjà")
         void shouldFailWhenUserAlreadyParticipating() {
             // Given
-            when(sportEventRepository.findByIdForUpdate(eventId)).thenReturn(Optional.of(publicEvent));
+            when(sportEventRepository.findWithOrganizerById(eventId)).thenReturn(Optional.of(publicEvent));
             when(userRepository.findById(participantId)).thenReturn(Optional.of(participant));
             when(eventParticipantRepository.existsByEventIdAndUserId(eventId, participantId)).thenReturn(true);
 
@@ -440,7 +593,7 @@ class SportEventServiceTest {
         @DisplayName("Devrait échouer si l'organisateur essaie de rejoindre son propre événement")
         void shouldFailWhenOrganizerJoinsOwnEvent() {
             // Given
-            when(sportEventRepository.findByIdForUpdate(eventId)).thenReturn(Optional.of(publicEvent));
+            when(sportEventRepository.findWithOrganizerById(eventId)).thenReturn(Optional.of(publicEvent));
             when(userRepository.findById(organizerId)).thenReturn(Optional.of(organizer));
             when(eventParticipantRepository.existsByEventIdAndUserId(eventId, organizerId)).thenReturn(false);
 
@@ -457,7 +610,7 @@ class SportEventServiceTest {
         void shouldFailWhenEventNotFound() {
             // Given
             UUID unknownId = UUID.randomUUID();
-            when(sportEventRepository.findByIdForUpdate(unknownId)).thenReturn(Optional.empty());
+            when(sportEventRepository.findWithOrganizerById(unknownId)).thenReturn(Optional.empty());
 
             // When/Then
             assertThatThrownBy(() -> sportEventService.joinEvent(unknownId, participantId))
@@ -471,7 +624,7 @@ class SportEventServiceTest {
         void shouldFailWhenUserNotFound() {
             // Given
             UUID unknownUserId = UUID.randomUUID();
-            when(sportEventRepository.findByIdForUpdate(eventId)).thenReturn(Optional.of(publicEvent));
+            when(sportEventRepository.findWithOrganizerById(eventId)).thenReturn(Optional.of(publicEvent));
             when(userRepository.findById(unknownUserId)).thenReturn(Optional.empty());
 
             // When/Then
@@ -486,9 +639,11 @@ class SportEventServiceTest {
         void shouldAllowJoinWhenNoMaxParticipants() {
             // Given
             publicEvent.setMaxParticipants(null);
-            when(sportEventRepository.findByIdForUpdate(eventId)).thenReturn(Optional.of(publicEvent));
+            when(sportEventRepository.findWithOrganizerById(eventId)).thenReturn(Optional.of(publicEvent));
+            when(sportEventRepository.findByIdWithParticipants(eventId)).thenReturn(Optional.of(publicEvent));
             when(userRepository.findById(participantId)).thenReturn(Optional.of(participant));
             when(eventParticipantRepository.existsByEventIdAndUserId(eventId, participantId)).thenReturn(false);
+            when(sportEventRepository.claimSeat(eventId)).thenReturn(1);
             when(eventParticipantRepository.save(any(EventParticipant.class))).thenAnswer(invocation -> {
                 EventParticipant saved = invocation.getArgument(0);
                 saved.setId(UUID.randomUUID());
@@ -500,7 +655,7 @@ class SportEventServiceTest {
             // Then
             assertThat(response).isNotNull();
 
-            // Should not check count when maxParticipants is null
+            // Seats are never counted, only claimed
             verify(eventParticipantRepository, never()).countConfirmedByEventId(any());
             verify(eventParticipantRepository).save(any(EventParticipant.class));
         }
@@ -525,7 +680,8 @@ class SportEventServiceTest {
                     .status(EventParticipant.ParticipantStatus.CONFIRMED)
                     .build();
 
-            when(sportEventRepository.findById(eventId)).thenReturn(Optional.of(publicEvent));
+            when(sportEventRepository.findWithOrganizerById(eventId)).thenReturn(Optional.of(publicEvent));
+            when(sportEventRepository.findByIdWithParticipants(eventId)).thenReturn(Optional.of(publicEvent));
             when(eventParticipantRepository.findByEventIdAndUserId(eventId, participantId))
                     .thenReturn(Optional.of(existingParticipant));
 
@@ -536,14 +692,91 @@ class SportEventServiceTest {
             assertThat(response).isNotNull();
 
             verify(eventParticipantRepository).delete(existingParticipant);
-            verify(sportEventRepository, times(2)).findById(eventId);
+            verify(sportEventRepository).releaseSeat(eventId);
+            verify(sportEventRepository).findByIdWithParticipants(eventId);
+            verify(sportEventRepository, never()).findById(any());
+        }
+
+        @Test
+        @DisplayName("Devrait promouvoir le premier de la liste d'attente quand une place se libère")
+        void shouldPromoteWaitlistHeadOnLeave() {
+            // Given
+            EventParticipant existingParticipant = EventParticipant.builder()
+                    .id(UUID.randomUUID())
+                    .event(publicEvent)
+                    .user(participant)
+                    .status(EventParticipant.ParticipantStatus.CONFIRMED)
+                    .build();
+            User waitingUser = User.builder()
+                    .id(UUID.randomUUID())
+                    .email("waiting@example.com")
+                    .firstName("Wait")
+                    .lastName("Ing")
+                    .build();
+            EventParticipant waitlisted = EventParticipant.builder()
+                    .id(UUID.randomUUID())
+                    .event(publicEvent)
+                    .user(waitingUser)
+                    .status(EventParticipant.ParticipantStatus.WAITLISTED)
+                    .build();
+
+            when(sportEventRepository.findWithOrganizerById(eventId)).thenReturn(Optional.of(publicEvent));
+            when(sportEventRepository.findByIdWithParticipants(eventId)).thenReturn(Optional.of(publicEvent));
+            when(eventParticipantRepository.findByEventIdAndUserId(eventId, participantId))
+                    .thenReturn(Optional.of(existingParticipant));
+            when(eventParticipantRepository.findWaitlistHead(eq(eventId), any(Pageable.class)))
+                    .thenReturn(List.of(waitlisted))
+                    .thenReturn(List.of());
+            when(sportEventRepository.claimSeat(eventId)).thenReturn(1);
+
+            // When
+            sportEventService.leaveEvent(eventId, participantId);
+
+            // Then
+            assertThat(waitlisted.getStatus()).isEqualTo(EventParticipant.ParticipantStatus.CONFIRMED);
+            verify(sportEventRepository).releaseSeat(eventId);
+            verify(sportEventRepository).claimSeat(eventId);
+            verify(eventParticipantRepository).save(waitlisted);
+            verify(notificationService).createNotification(
+                    eq(waitingUser),
+                    eq(organizer),
+                    eq(Notification.NotificationType.EVENT_WAITLIST_PROMOTED),
+                    anyString(),
+                    anyString(),
+                    eq(eventId.toString())
+            );
+        }
+
+        @Test
+        @DisplayName("Ne devrait pas libérer de place quand un utilisateur en liste d'attente se retire")
+        void shouldNotPromoteWhenWaitlistedUserLeaves() {
+            // Given
+            EventParticipant waitlisted = EventParticipant.builder()
+                    .id(UUID.randomUUID())
+                    .event(publicEvent)
+                    .user(participant)
+                    .status(EventParticipant.ParticipantStatus.WAITLISTED)
+                    .build();
+
+            when(sportEventRepository.findWithOrganizerById(eventId)).thenReturn(Optional.of(publicEvent));
+            when(sportEventRepository.findByIdWithParticipants(eventId)).thenReturn(Optional.of(publicEvent));
+            when(eventParticipantRepository.findByEventIdAndUserId(eventId, participantId))
+                    .thenReturn(Optional.of(waitlisted));
+
+            // When
+            sportEventService.leaveEvent(eventId, participantId);
+
+            // Then
+            verify(eventParticipantRepository).delete(waitlisted);
+            verify(sportEventRepository, never()).releaseSeat(any());
+            verify(eventParticipantRepository, never()).findWaitlistHead(any(), any());
         }
 
         @Test
         @DisplayName("Devrait échouer si l'utilisateur ne participe pas à l'événement")
         void shouldFailWhenNotParticipating() {
             // Given
-            when(sportEventRepository.findById(eventId)).thenReturn(Optional.of(publicEvent));
+            when(sportEventRepository.findWithOrganizerById(eventId)).thenReturn(Optional.of(publicEvent));
             when(eventParticipantRepository.findByEventIdAndUserId(eventId, participantId))
                     .thenReturn(Optional.empty());
 
@@ -560,7 +793,7 @@ class SportEventServiceTest {
         void shouldFailWhenEventNotFound() {
             // Given
             UUID unknownId = UUID.randomUUID();
-            when(sportEventRepository.findById(unknownId)).thenReturn(Optional.empty());
+            when(sportEventRepository.findWithOrganizerById(unknownId)).thenReturn(Optional.empty());
 
             // When/Then
             assertThatThrownBy(() -> sportEventService.leaveEvent(unknownId, participantId))
@@ -582,7 +815,7 @@ class SportEventServiceTest {
         @DisplayName("Devrait récupérer un événement public avec succès")
         void shouldGetPublicEventSuccessfully() {
             // Given
-            when(sportEventRepository.findById(eventId)).thenReturn(Optional.of(publicEvent));
+            when(sportEventRepository.findByIdWithParticipants(eventId)).thenReturn(Optional.of(publicEvent));
 
             // When
             SportEventResponse response = sportEventService.getEventById(eventId, participantId);
@@ -593,7 +826,7 @@ class SportEventServiceTest {
             assertThat(response.getSport()).isEqualTo("Football");
             assertThat(response.getTitle()).isEqualTo("Match amical");
 
-            verify(sportEventRepository).findById(eventId);
+            verify(sportEventRepository).findByIdWithParticipants(eventId);
         }
 
         @Test
@@ -601,7 +834,7 @@ class SportEventServiceTest {
         void shouldGetPrivateEventByOwner() {
             // Given
             UUID privateEventId = privateEvent.getId();
-            when(sportEventRepository.findById(privateEventId)).thenReturn(Optional.of(privateEvent));
+            when(sportEventRepository.findByIdWithParticipants(privateEventId)).thenReturn(Optional.of(privateEvent));
 
             // When
             SportEventResponse response = sportEventService.getEventById(privateEventId, organizerId);
@@ -610,7 +843,7 @@ class SportEventServiceTest {
             assertThat(response).isNotNull();
             assertThat(response.getId()).isEqualTo(privateEventId);
 
-            verify(sportEventRepository).findById(privateEventId);
+            verify(sportEventRepository).findByIdWithParticipants(privateEventId);
         }
 
         @Test
@@ -618,7 +851,7 @@ class SportEventServiceTest {
         void shouldFailWhenNonOwnerAccessesPrivateEvent() {
             // Given
             UUID privateEventId = privateEvent.getId();
-            when(sportEventRepository.findById(privateEventId)).thenReturn(Optional.of(privateEvent));
+            when(sportEventRepository.findByIdWithParticipants(privateEventId)).thenReturn(Optional.of(privateEvent));
 
             // When/Then
             assertThatThrownBy(() -> sportEventService.getEventById(privateEventId, participantId))
@@ -631,7 +864,7 @@ class SportEventServiceTest {
         void shouldFailWhenEventNotFound() {
             // Given
             UUID unknownId = UUID.randomUUID();
-            when(sportEventRepository.findById(unknownId)).thenReturn(Optional.empty());
+            when(sportEventRepository.findByIdWithParticipants(unknownId)).thenReturn(Optional.empty());
 
             // When/Then
             assertThatThrownBy(() -> sportEventService.getEventById(unknownId, participantId))
@@ -651,7 +884,7 @@ class SportEventServiceTest {
         @DisplayName("Devrait récupérer un événement public avec succès")
         void shouldGetPublicEventSuccessfully() {
             // Given
-            when(sportEventRepository.findById(eventId)).thenReturn(Optional.of(publicEvent));
+            when(sportEventRepository.findWithOrganizerById(eventId)).thenReturn(Optional.of(publicEvent));
 
             // When
             SportEventResponse response = sportEventService.getPublicEventById(eventId);
@@ -662,12 +895,29 @@ class SportEventServiceTest {
             assertThat(response.getSport()).isEqualTo("Football");
         }
 
+        @Test
+        @DisplayName("Devrait montrer la présence actuelle de l'organisateur d'un événement en cache")
+        void shouldShowLiveOrganizerPresenceOnCachedEvent() {
+            // Given - Cached while the organizer was online
+            when(sportEventRepository.findWithOrganizerById(eventId)).thenReturn(Optional.of(publicEvent));
+            when(presenceService.isOnline(organizerId, true)).thenReturn(true, false);
+            assertThat(sportEventService.getPublicEventById(eventId).getOrganizer().getIsOnline()).isTrue();
+
+            // When - The organizer has gone offline since
+            SportEventResponse response = sportEventService.getPublicEventById(eventId);
+
+            // Then - The cached entry still holds the flag it was read with
+            assertThat(response.getOrganizer().getIsOnline()).isFalse();
+            verify(sportEventRepository, times(1)).findWithOrganizerById(eventId);
+            verify(presenceService, times(2)).isOnline(organizerId, true);
+        }
+
         @Test
         @DisplayName("Devrait échouer si l'événement est privé")
         void shouldFailWhenEventIsPrivate() {
             // Given
             UUID privateEventId = privateEvent.getId();
-            when(sportEventRepository.findById(privateEventId)).thenReturn(Optional.of(privateEvent));
+            when(sportEventRepository.findWithOrganizerById(privateEventId)).thenReturn(Optional.of(privateEvent));
 
             // When/Then
             assertThatThrownBy(() -> sportEventService.getPublicEventById(privateEventId))
@@ -680,12 +930,34 @@ class SportEventServiceTest {
         void shouldFailWhenEventNotFound() {
             // Given
             UUID unknownId = UUID.randomUUID();
-            when(sportEventRepository.findById(unknownId)).thenReturn(Optional.empty());
+            when(sportEventRepository.findWithOrganizerById(unknownId)).thenReturn(Optional.empty());
 
             // When/Then
             assertThatThrownBy(() -> sportEventService.getPublicEventById(unknownId))
                     .isInstanceOf(EventNotFoundException.class);
         }
+
+        @Test
+        @DisplayName("Devrait servir les appels suivants depuis le cache jusqu'à la suppression")
+        void shouldServeFromCacheUntilDeleted() {
+            // Given
+            when(sportEventRepository.findWithOrganizerById(eventId)).thenReturn(Optional.of(publicEvent));
+            when(sportEventRepository.findById(eventId)).thenReturn(Optional.of(publicEvent));
+
+            // When
+            sportEventService.getPublicEventById(eventId);
+            sportEventService.getPublicEventById(eventId);
+
+            // Then
+            verify(sportEventRepository, times(1)).findWithOrganizerById(eventId);
+
+            // When - Deleting the event invalidates its cached entry
+            sportEventService.deleteEvent(eventId, organizerId);
+            sportEventService.getPublicEventById(eventId);
+
+            // Then
+            verify(sportEventRepository, times(2)).findWithOrganizerById(eventId);
+        }
     }
 
     // =====================================================================
@@ -877,8 +1149,8 @@ class SportEventServiceTest {
         @DisplayName("Devrait récupérer les événements d'un utilisateur")
         void shouldGetUserEvents() {
             // Given
-            when(sportEventRepository.findByUserIdOrderByDateAscStartTimeAsc(organizerId))
-                    .thenReturn(List.of(publicEvent, privateEvent));
+            when(sportEventRepository.findSummariesByUserId(organizerId))
+                    .thenReturn(List.of(summaryOf(publicEvent), summaryOf(privateEvent)));
 
             // When
             List<SportEventResponse> results = sportEventService.getUserEvents(organizerId);
@@ -888,14 +1160,14 @@ class SportEventServiceTest {
             assertThat(results.get(0).getSport()).isEqualTo("Football");
             assertThat(results.get(1).getSport()).isEqualTo("Tennis");
 
-            verify(sportEventRepository).findByUserIdOrderByDateAscStartTimeAsc(organizerId);
+            verify(sportEventRepository).findSummariesByUserId(organizerId);
         }
 
         @Test
         @DisplayName("Devrait retourner une liste vide si aucun événement")
         void shouldReturnEmptyListWhenNoEvents() {
             // Given
-            when(sportEventRepository.findByUserIdOrderByDateAscStartTimeAsc(organizerId))
+            when(sportEventRepository.findSummariesByUserId(organizerId))
                     .thenReturn(Collections.emptyList());
 
             // When
@@ -918,9 +1190,9 @@ class SportEventServiceTest {
         @DisplayName("Devrait retourner tous les événements pour le propriétaire")
         void shouldReturnAllEventsForOwner() {
             // Given
-            when(sportEventRepository.findByUserIdAndDateGreaterThanEqualOrderByDateAscStartTimeAsc(
+            when(sportEventRepository.findUpcomingSummariesByUserId(
                     eq(organizerId), any(LocalDate.class)))
-                    .thenReturn(List.of(publicEvent, privateEvent));
+                    .thenReturn(List.of(summaryOf(publicEvent), summaryOf(privateEvent)));
 
             // When
             List<SportEventResponse> results = sportEventService.getUserUpcomingEvents(organizerId, organizerId);
@@ -933,9 +1205,9 @@ class SportEventServiceTest {
         @DisplayName("Devrait retourner seulement les événements publics pour un autre utilisateur")
         void shouldReturnOnlyPublicEventsForOtherUser() {
             // Given
-            when(sportEventRepository.findByUserIdAndDateGreaterThanEqualOrderByDateAscStartTimeAsc(
+            when(sportEventRepository.findUpcomingSummariesByUserId(
                     eq(organizerId), any(LocalDate.class)))
-                    .thenReturn(List.of(publicEvent, privateEvent));
+                    .thenReturn(List.of(summaryOf(publicEvent), summaryOf(privateEvent)));
 
             // When
             List<SportEventResponse> results = sportEventService.getUserUpcomingEvents(organizerId, participantId);
@@ -958,8 +1230,8 @@ class SportEventServiceTest {
         @DisplayName("Devrait récupérer tous les événements publics")
         void shouldGetAllPublicEvents() {
             // Given
-            when(sportEventRepository.findPublicEventsFromDate(any(LocalDate.class)))
-                    .thenReturn(List.of(publicEvent));
+            when(sportEventRepository.findPublicSummariesFromDate(any(LocalDate.class)))
+                    .thenReturn(List.of(summaryOf(publicEvent)));
 
             // When
             List<SportEventResponse> results = sportEventService.getPublicEvents();
@@ -968,15 +1240,15 @@ class SportEventServiceTest {
             assertThat(results).hasSize(1);
             assertThat(results.get(0).getSport()).isEqualTo("Football");
 
-            verify(sportEventRepository).findPublicEventsFromDate(any(LocalDate.class));
+            verify(sportEventRepository).findPublicSummariesFromDate(any(LocalDate.class));
         }
 
         @Test
         @DisplayName("Devrait récupérer les événements publics par sport")
         void shouldGetPublicEventsBySport() {
             // Given
-            when(sportEventRepository.findPublicEventsBySportFromDate(eq("Football"), any(LocalDate.class)))
-                    .thenReturn(List.of(publicEvent));
+            when(sportEventRepository.findPublicSummariesBySportFromDate(eq("Football"), any(LocalDate.class)))
+                    .thenReturn(List.of(summaryOf(publicEvent)));
 
             // When
             List<SportEventResponse> results = sportEventService.getPublicEventsBySport("Football");
@@ -985,14 +1257,42 @@ class SportEventServiceTest {
             assertThat(results).hasSize(1);
             assertThat(results.get(0).getSport()).isEqualTo("Football");
 
-            verify(sportEventRepository).findPublicEventsBySportFromDate(eq("Football"), any(LocalDate.class));
+            verify(sportEventRepository).findPublicSummariesBySportFromDate(eq("Football"), any(LocalDate.class));
+        }
+
+        @Test
+        @DisplayName("Devrait servir la liste publique depuis le cache jusqu'à la création d'un événement public")
+        void shouldCachePublicEventsUntilPublicEventCreated() {
+            // Given
+            when(sportEventRepository.findPublicSummariesFromDate(any(LocalDate.class)))
+                    .thenReturn(List.of(summaryOf(publicEvent)));
+            when(userRepository.findById(organizerId)).thenReturn(Optional.of(organizer));
+            when(sportEventRepository.save(any(SportEvent.class))).thenAnswer(invocation -> {
+                SportEvent saved = invocation.getArgument(0);
+                saved.setId(UUID.randomUUID());
+                return saved;
+            });
+
+            // When
+            sportEventService.getPublicEvents();
+            sportEventService.getPublicEvents();
+
+            // Then
+            verify(sportEventRepository, times(1)).findPublicSummariesFromDate(any(LocalDate.class));
+
+            // When
+            sportEventService.createEvent(organizerId, createRequest);
+            sportEventService.getPublicEvents();
+
+            // Then
+            verify(sportEventRepository, times(2)).findPublicSummariesFromDate(any(LocalDate.class));
         }
 
         @Test
         @DisplayName("Devrait retourner une liste vide si aucun événement public par sport")
         void shouldReturnEmptyListWhenNoPublicEventsForSport() {
             // Given
-            when(sportEventRepository.findPublicEventsBySportFromDate(eq("Rugby"), any(LocalDate.class)))
+            when(sportEventRepository.findPublicSummariesBySportFromDate(eq("Rugby"), any(LocalDate.class)))
                     .thenReturn(Collections.emptyList());
 
             // When
@@ -1003,6 +1303,132 @@ class SportEventServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Fil public paginé par curseur")
+    class PublicEventsFeedTests {
+
+        @Test
+        @DisplayName("Devrait retourner la première page sans requête de comptage")
+        void shouldReturnFirstPageWithoutCount() {
+            // Given - limit + 1 rows means there is a next page
+            SportEvent laterEvent = SportEvent.builder()
+                    .id(UUID.randomUUID())
+                    .user(organizer)
+                    .sport("Football")
+                    .title("Match du soir")
+                    .date(publicEvent.getDate())
+                    .startTime(LocalTime.of(18, 0))
+                    .endTime(LocalTime.of(20, 0))
+                    .recurrence(SportEvent.RecurrenceType.NONE)
+                    .isPublic(true)
+                    .isPaid(false)
+                    .participants(new HashSet<>())
+                    .build();
+            when(sportEventRepository.findPublicEventsFeed(any(LocalDate.class), eq(PageRequest.of(0, 2))))
+                    .thenReturn(List.of(summaryOf(publicEvent), summaryOf(laterEvent)));
+
+            // When
+            CursorPageResponse<SportEventResponse> page = sportEventService.getPublicEventsFeed(null, 1);
+
+            // Then
+            assertThat(page.getContent()).extracting(SportEventResponse::getId).containsExactly(eventId);
+            assertThat(page.isHasNext()).isTrue();
+            assertThat(page.getNextCursor()).isNotBlank();
+            verify(sportEventRepository, never()).findPublicSummariesFromDate(any(LocalDate.class), any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("Devrait reprendre après (date, heure, id) du curseur")
+        void shouldResumeAfterCursor() {
+            // Given
+            when(sportEventRepository.findPublicEventsBySportFeed(eq("Football"), any(LocalDate.class), any(Pageable.class)))
+                    .thenReturn(List.of(summaryOf(publicEvent), summaryOf(publicEvent)));
+            String cursor = sportEventService.getPublicEventsBySportFeed("Football", null, 1).getNextCursor();
+
+            when(sportEventRepository.findPublicEventsBySportFeedAfter(
+                    eq("Football"), any(LocalDate.class), eq(publicEvent.getDate()), eq(LocalTime.of(14, 0)),
+                    eq(eventId), any(Pageable.class)))
+                    .thenReturn(Collections.emptyList());
+
+            // When
+            CursorPageResponse<SportEventResponse> page = sportEventService.getPublicEventsBySportFeed("Football", cursor, 1);
+
+            // Then
+            assertThat(page.getContent()).isEmpty();
+            assertThat(page.isHasNext()).isFalse();
+            assertThat(page.getNextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("Devrait rejeter un curseur invalide")
+        void shouldRejectInvalidCursor() {
+            // When/Then
+            assertThatThrownBy(() -> sportEventService.getPublicEventsFeed("invalide", 20))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Curseur de pagination invalide");
+        }
+    }
+
+    @Nested
+    @DisplayName("Agenda et séries récurrentes")
+    class RecurrenceTests {
+
+        @Test
+        @DisplayName("Devrait développer une série hebdomadaire dans la fenêtre demandée")
+        void shouldExpandWeeklySeriesInAgenda() {
+            // Given - Weekly series that started two weeks ago
+            LocalDate today = LocalDate.now();
+            publicEvent.setDate(today.minusWeeks(2));
+            publicEvent.setRecurrence(SportEvent.RecurrenceType.WEEKLY);
+            when(sportEventRepository.findUserSeriesInWindow(organizerId, today, today.plusDays(20), SportEvent.RecurrenceType.NONE))
+                    .thenReturn(List.of(summaryOf(publicEvent)));
+            when(sportEventRepository.findParticipatingSeriesInWindow(organizerId, today, today.plusDays(20), SportEvent.RecurrenceType.NONE))
+                    .thenReturn(List.of(summaryOf(publicEvent)));
+
+            // When
+            List<SportEventResponse> agenda = sportEventService.getUserAgenda(organizerId, today, today.plusDays(20));
+
+            // Then - Same series returned by both queries is only expanded once
+            assertThat(agenda).extracting(SportEventResponse::getOccurrenceDate)
+                    .containsExactly(today, today.plusWeeks(1), today.plusWeeks(2));
+            assertThat(agenda).extracting(SportEventResponse::getDate).containsOnly(today.minusWeeks(2));
+        }
+
+        @Test
+        @DisplayName("Devrait refuser une fenêtre d'agenda trop large")
+        void shouldRejectTooWideAgendaWindow() {
+            // When/Then
+            assertThatThrownBy(() -> sportEventService.getUserAgenda(organizerId, LocalDate.now(), LocalDate.now().plusYears(1)))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("La période demandée ne peut pas dépasser 92 jours");
+        }
+
+        @Test
+        @DisplayName("Devrait avancer les séries passées à leur prochaine occurrence et charger l'index")
+        void shouldRollRecurringEventsAndLoadIndex() {
+            // Given - Weekly series whose stored next occurrence is last week
+            LocalDate today = LocalDate.now();
+            publicEvent.setDate(today.minusWeeks(3));
+            publicEvent.setNextOccurrenceDate(today.minusWeeks(1));
+            publicEvent.setRecurrence(SportEvent.RecurrenceType.WEEKLY);
+            when(sportEventRepository.findRecurringEventsToRoll(SportEvent.RecurrenceType.NONE, today))
+                    .thenReturn(List.of(publicEvent));
+            when(sportEventRepository.rollNextOccurrence(eventId, today, today)).thenReturn(1);
+            when(sportEventRepository.findPublicEventLocationsFromDate(today)).thenReturn(Collections.emptyList());
+
+            // When
+            sportEventService.refreshOccurrencesAndSpatialIndex();
+
+            // Then - Written only if still behind, after which the index is loaded
+            InOrder inOrder = inOrder(transactionOperations, sportEventRepository);
+            inOrder.verify(transactionOperations).execute(any());
+            inOrder.verify(sportEventRepository).rollNextOccurrence(eventId, today, today);
+            inOrder.verify(sportEventRepository).findPublicEventLocationsFromDate(today);
+            verify(sportEventRepository, never()).saveAll(any());
+            assertThat(eventSpatialIndex.isReady()).isTrue();
+        }
+    }
+
     // =====================================================================
     // NEARBY EVENTS SEARCH TESTS
     // =====================================================================
@@ -1015,9 +1441,10 @@ class SportEventServiceTest {
         @DisplayName("Devrait trouver les événements proches de la position de l'utilisateur")
         void shouldFindEventsNearUserLocation() {
             // Given - Event at Stade de France (48.9244, 2.3601), search from nearby (48.92, 2.36)
-            when(sportEventRepository.findPublicEventsInBoundingBoxFromDate(
-                    any(LocalDate.class), anyDouble(), anyDouble(), anyDouble(), anyDouble()))
-                    .thenReturn(List.of(publicEvent));
+            when(sportEventRepository.findNearbyPublicEvents(
+                    anyDouble(), anyDouble(), anyDouble(), isNull(), any(LocalDate.class), anyInt()))
+                    .thenReturn(List.of(nearbyRow(eventId, 490.0)));
+            when(sportEventRepository.findSummariesByIds(List.of(eventId))).thenReturn(List.of(summaryOf(publicEvent)));
 
             // When - Search within 5km
             List<SportEventResponse> results = sportEventService.searchEventsNearby(
@@ -1026,47 +1453,45 @@ class SportEventServiceTest {
 
             // Then
             assertThat(results).hasSize(1);
-            assertThat(results.get(0).getDistanceKm()).isNotNull();
-            assertThat(results.get(0).getDistanceKm()).isLessThan(5.0);
+            assertThat(results.get(0).getDistanceKm()).isEqualTo(0.5);
         }
 
         @Test
-        @DisplayName("Devrait filtrer les événements trop éloignés")
-        void shouldFilterOutDistantEvents() {
-            // Given - Event in Paris, search from Marseille (43.2965, 5.3698)
-            when(sportEventRepository.findPublicEventsInBoundingBoxFromDate(
-                    any(LocalDate.class), anyDouble(), anyDouble(), anyDouble(), anyDouble()))
-                    .thenReturn(List.of(publicEvent));
+        @DisplayName("Devrait déléguer le filtre de distance à la base, en mètres")
+        void shouldDelegateDistanceFilterToDatabase() {
+            // Given
+            when(sportEventRepository.findNearbyPublicEvents(
+                    anyDouble(), anyDouble(), anyDouble(), isNull(), any(LocalDate.class), anyInt()))
+                    .thenReturn(Collections.emptyList());
 
-            // When - Search within 10km (Paris is ~660km from Marseille)
+            // When - Search within 10km
             List<SportEventResponse> results = sportEventService.searchEventsNearby(
                     43.2965, 5.3698, 10.0, null
             );
 
             // Then
             assertThat(results).isEmpty();
+            verify(sportEventRepository).findNearbyPublicEvents(
+                    eq(43.2965), eq(5.3698), eq(10_000.0), isNull(), any(LocalDate.class), eq(500));
+            verify(sportEventRepository, never()).findSummariesByIds(any());
         }
 
         @Test
-        @DisplayName("Devrait filtrer par sport et distance")
-        void shouldFilterBySportAndDistance() {
+        @DisplayName("Devrait filtrer par sport et limiter le nombre de résultats")
+        void shouldFilterBySportAndLimit() {
             // Given
-            when(sportEventRepository.findPublicEventsBySportInBoundingBoxFromDate(
-                    eq("Football"), any(LocalDate.class), anyDouble(), anyDouble(), anyDouble(), anyDouble()))
-                    .thenReturn(List.of(publicEvent));
+            when(sportEventRepository.findNearbyPublicEvents(
+                    anyDouble(), anyDouble(), anyDouble(), eq("Football"), any(LocalDate.class), eq(10)))
+                    .thenReturn(List.of(nearbyRow(eventId, 490.0)));
+            when(sportEventRepository.findSummariesByIds(any())).thenReturn(List.of(summaryOf(publicEvent)));
 
             // When
             List<SportEventResponse> results = sportEventService.searchEventsNearby(
-                    48.92, 2.36, 5.0, "Football"
+                    48.92, 2.36, 5.0, "Football", 10
             );
 
             // Then
             assertThat(results).hasSize(1);
-
-            verify(sportEventRepository).findPublicEventsBySportInBoundingBoxFromDate(
-                    eq("Football"), any(LocalDate.class), anyDouble(), anyDouble(), anyDouble(), anyDouble());
-            verify(sportEventRepository, never()).findPublicEventsInBoundingBoxFromDate(
-                    any(LocalDate.class), anyDouble(), anyDouble(), anyDouble(), anyDouble());
         }
 
         @Test
@@ -1092,42 +1517,28 @@ class SportEventServiceTest {
         }
 
         @Test
-        @DisplayName("Devrait ignorer les événements sans coordonnées GPS")
-        void shouldIgnoreEventsWithoutCoordinates() {
-            // Given - Event with no GPS coordinates
-            SportEvent eventNoCoords = SportEvent.builder()
-                    .id(UUID.randomUUID())
-                    .user(organizer)
-                    .sport("Football")
-                    .title("Match sans GPS")
-                    .date(LocalDate.now().plusDays(5))
-                    .startTime(LocalTime.of(14, 0))
-                    .endTime(LocalTime.of(16, 0))
-                    .recurrence(SportEvent.RecurrenceType.NONE)
-                    .isPublic(true)
-                    .isPaid(false)
-                    .latitude(null)
-                    .longitude(null)
-                    .participants(new HashSet<>())
-                    .build();
-
-            when(sportEventRepository.findPublicEventsInBoundingBoxFromDate(
-                    any(LocalDate.class), anyDouble(), anyDouble(), anyDouble(), anyDouble()))
-                    .thenReturn(List.of(publicEvent, eventNoCoords));
+        @DisplayName("Devrait ignorer un événement supprimé entre la recherche et le chargement")
+        void shouldIgnoreEventDeletedBeforeHydration() {
+            // Given
+            UUID deletedEventId = UUID.randomUUID();
+            when(sportEventRepository.findNearbyPublicEvents(
+                    anyDouble(), anyDouble(), anyDouble(), isNull(), any(LocalDate.class), anyInt()))
+                    .thenReturn(List.of(nearbyRow(eventId, 490.0), nearbyRow(deletedEventId, 800.0)));
+            when(sportEventRepository.findSummariesByIds(any())).thenReturn(List.of(summaryOf(publicEvent)));
 
             // When
             List<SportEventResponse> results = sportEventService.searchEventsNearby(
                     48.92, 2.36, 5.0, null
             );
 
-            // Then - Only the event with coordinates should be returned
+            // Then
             assertThat(results).hasSize(1);
             assertThat(results.get(0).getTitle()).isEqualTo("Match amical");
         }
 
         @Test
-        @DisplayName("Devrait trier les résultats par distance croissante")
-        void shouldSortResultsByDistanceAscending() {
+        @DisplayName("Devrait conserver l'ordre par distance renvoyé par la base")
+        void shouldKeepDatabaseDistanceOrdering() {
             // Given - Two events at different distances
             SportEvent nearEvent = SportEvent.builder()
                     .id(UUID.randomUUID())
@@ -1145,34 +1556,333 @@ class SportEventServiceTest {
                     .participants(new HashSet<>())
                     .build();
 
-            SportEvent farEvent = SportEvent.builder()
+            when(sportEventRepository.findNearbyPublicEvents(
+                    anyDouble(), anyDouble(), anyDouble(), isNull(), any(LocalDate.class), anyInt()))
+                    .thenReturn(List.of(nearbyRow(nearEvent.getId(), 130.0), nearbyRow(eventId, 490.0)));
+            when(sportEventRepository.findSummariesByIds(any())).thenReturn(List.of(summaryOf(publicEvent), summaryOf(nearEvent)));
+
+            // When - Search within 10km from 48.92, 2.36
+            List<SportEventResponse> results = sportEventService.searchEventsNearby(
+                    48.92, 2.36, 10.0, null
+            );
+
+            // Then - Near event should come first
+            assertThat(results).hasSize(2);
+            assertThat(results.get(0).getTitle()).isEqualTo("Match proche");
+            assertThat(results.get(0).getDistanceKm()).isLessThan(results.get(1).getDistanceKm());
+        }
+    }
+
+    @Nested
+    @DisplayName("Recherche à proximité paginée par curseur")
+    class SearchEventsNearbyPageTests {
+
+        @Test
+        @DisplayName("Devrait retourner la première page et un curseur")
+        void shouldReturnFirstPageWithCursor() {
+            // Given - limit + 1 rows means there is a next page
+            UUID secondId = UUID.randomUUID();
+            when(sportEventRepository.findNearbyPublicEvents(
+                    anyDouble(), anyDouble(), anyDouble(), isNull(), any(LocalDate.class), eq(2)))
+                    .thenReturn(List.of(nearbyRow(eventId, 490.0), nearbyRow(secondId, 900.0)));
+            when(sportEventRepository.findSummariesByIds(List.of(eventId))).thenReturn(List.of(summaryOf(publicEvent)));
+
+            // When
+            CursorPageResponse<SportEventResponse> page = sportEventService.searchEventsNearbyPage(
+                    48.92, 2.36, 5.0, null, null, 1
+            );
+
+            // Then
+            assertThat(page.getContent()).hasSize(1);
+            assertThat(page.isHasNext()).isTrue();
+            assertThat(page.getNextCursor()).isNotBlank();
+        }
+
+        @Test
+        @DisplayName("Devrait reprendre après la position du curseur")
+        void shouldResumeAfterCursor() {
+            // Given
+            UUID secondId = UUID.randomUUID();
+            when(sportEventRepository.findNearbyPublicEvents(
+                    anyDouble(), anyDouble(), anyDouble(), isNull(), any(LocalDate.class), eq(2)))
+                    .thenReturn(List.of(nearbyRow(eventId, 490.0), nearbyRow(secondId, 900.0)));
+            when(sportEventRepository.findSummariesByIds(any())).thenReturn(List.of(summaryOf(publicEvent)));
+            String cursor = sportEventService.searchEventsNearbyPage(48.92, 2.36, 5.0, null, null, 1).getNextCursor();
+
+            when(sportEventRepository.findNearbyPublicEventsAfter(
+                    anyDouble(), anyDouble(), anyDouble(), isNull(), any(LocalDate.class), eq(490.0), eq(eventId), eq(2)))
+                    .thenReturn(Collections.emptyList());
+
+            // When
+            CursorPageResponse<SportEventResponse> page = sportEventService.searchEventsNearbyPage(
+                    48.92, 2.36, 5.0, null, cursor, 1
+            );
+
+            // Then
+            assertThat(page.getContent()).isEmpty();
+            assertThat(page.isHasNext()).isFalse();
+            assertThat(page.getNextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("Devrait rejeter un curseur invalide")
+        void shouldRejectInvalidCursor() {
+            // When/Then
+            assertThatThrownBy(() -> sportEventService.searchEventsNearbyPage(
+                    48.92, 2.36, 5.0, null, "pas-un-curseur", 20
+            ))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Curseur de pagination invalide");
+        }
+    }
+
+    @Nested
+    @DisplayName("Recherche par mots-clés")
+    class SearchEventsTests {
+
+        @Test
+        @DisplayName("Devrait retourner les résultats dans l'ordre de pertinence avec un curseur")
+        void shouldReturnRankedPageWithCursor() {
+            // Given - limit + 1 rows means there is a next page
+            SportEvent otherEvent = SportEvent.builder()
                     .id(UUID.randomUUID())
                     .user(organizer)
                     .sport("Football")
-                    .title("Match éloigné")
+                    .title("Tournoi de foot")
+                    .date(LocalDate.now().plusDays(3))
+                    .startTime(LocalTime.of(10, 0))
+                    .endTime(LocalTime.of(12, 0))
+                    .recurrence(SportEvent.RecurrenceType.NONE)
+                    .isPublic(true)
+                    .build();
+            when(sportEventRepository.searchPublicEvents(
+                    eq("foot"), isNull(), any(LocalDate.class), isNull(), isNull(), isNull(), isNull(), isNull(), eq(3)))
+                    .thenReturn(List.of(searchRow(otherEvent.getId(), 0.6), searchRow(eventId, 0.3),
+                            searchRow(UUID.randomUUID(), 0.1)));
+            when(sportEventRepository.findSummariesByIds(List.of(otherEvent.getId(), eventId)))
+                    .thenReturn(List.of(summaryOf(publicEvent), summaryOf(otherEvent)));
+
+            // When
+            CursorPageResponse<SportEventResponse> page = sportEventService.searchEvents(
+                    " foot ", null, null, null, null, null, null, null, null, 2
+            );
+
+            // Then
+            assertThat(page.getContent()).extracting(SportEventResponse::getId)
+                    .containsExactly(otherEvent.getId(), eventId);
+            assertThat(page.isHasNext()).isTrue();
+            assertThat(page.getNextCursor()).isNotBlank();
+        }
+
+        @Test
+        @DisplayName("Devrait reprendre après le rang et l'identifiant du curseur")
+        void shouldResumeAfterCursor() {
+            // Given
+            when(sportEventRepository.searchPublicEvents(
+                    anyString(), eq("Football"), any(LocalDate.class), isNull(), isNull(), isNull(), isNull(), isNull(), eq(2)))
+                    .thenReturn(List.of(searchRow(eventId, 0.3), searchRow(UUID.randomUUID(), 0.1)));
+            when(sportEventRepository.findSummariesByIds(any())).thenReturn(List.of(summaryOf(publicEvent)));
+            String cursor = sportEventService.searchEvents(
+                    "match", "Football", null, null, null, null, null, null, null, 1).getNextCursor();
+
+            when(sportEventRepository.searchPublicEventsAfter(
+                    anyString(), eq("Football"), any(LocalDate.class), isNull(), isNull(), isNull(), isNull(), isNull(),
+                    eq(0.3), eq(eventId), eq(2)))
+                    .thenReturn(Collections.emptyList());
+
+            // When
+            CursorPageResponse<SportEventResponse> page = sportEventService.searchEvents(
+                    "match", "Football", null, null, null, null, null, null, cursor, 1
+            );
+
+            // Then
+            assertThat(page.getContent()).isEmpty();
+            assertThat(page.isHasNext()).isFalse();
+            assertThat(page.getNextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("Devrait transmettre la période et la zone de recherche")
+        void shouldPassDateRangeAndBoundingBox() {
+            // Given
+            LocalDate from = LocalDate.now().plusDays(1);
+            LocalDate to = LocalDate.now().plusDays(10);
+            when(sportEventRepository.searchPublicEvents(
+                    "match", null, from, to, 48.8, 49.0, 2.2, 2.5, 21))
+                    .thenReturn(Collections.emptyList());
+
+            // When
+            CursorPageResponse<SportEventResponse> page = sportEventService.searchEvents(
+                    "match", "", from, to, 48.8, 49.0, 2.2, 2.5, null, 20
+            );
+
+            // Then
+            assertThat(page.getContent()).isEmpty();
+            verify(sportEventRepository, never()).findSummariesByIds(any());
+        }
+
+        @Test
+        @DisplayName("Devrait rejeter une zone de recherche incomplète")
+        void shouldRejectPartialBoundingBox() {
+            // When/Then
+            assertThatThrownBy(() -> sportEventService.searchEvents(
+                    "match", null, null, null, 48.8, 49.0, null, null, null, 20
+            ))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("La zone de recherche requiert les quatre bornes");
+        }
+
+        @Test
+        @DisplayName("Devrait rejeter une date de fin antérieure à la date de début")
+        void shouldRejectInvertedDateRange() {
+            // When/Then
+            assertThatThrownBy(() -> sportEventService.searchEvents(
+                    "match", null, LocalDate.now().plusDays(5), LocalDate.now().plusDays(1),
+                    null, null, null, null, null, 20
+            ))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("La date de fin doit être postérieure à la date de début");
+        }
+    }
+
+    private static SportEventRepository.SearchEventRow searchRow(UUID id, double rank) {
+        return new SportEventRepository.SearchEventRow() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public Double getRank() {
+                return rank;
+            }
+        };
+    }
+
+    private static SportEventRepository.NearbyEventRow nearbyRow(UUID id, double distanceMeters) {
+        return new SportEventRepository.NearbyEventRow() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public Double getDistanceMeters() {
+                return distanceMeters;
+            }
+        };
+    }
+
+    /**
+     * Row the list-view queries would project for {@code event}.
+     */
+    private static SportEventSummary summaryOf(SportEvent event) {
+        User user = event.getUser();
+        return new SportEventSummary(
+                event.getId(), event.getSport(), event.getTitle(), event.getDescription(), event.getLocation(),
+                event.getLatitude(), event.getLongitude(), event.getDate(),
+                event.getNextOccurrenceDate() != null ? event.getNextOccurrenceDate() : event.getDate(),
+                event.getStartTime(), event.getEndTime(), event.getRecurrence(),
+                event.getIsPublic(), event.getMaxParticipants(), event.getIsPaid(), event.getPrice(), event.getConfirmedCount(),
+                user.getId(), user.getFirstName(), user.getLastName(), user.getProfilePicture(), user.getCoverImage(),
+                user.getBio(), user.getIsOnline(), user.getIsVerified(), user.getVerifiedAge());
+    }
+
+    @Nested
+    @DisplayName("Recherche à proximité via l'index spatial")
+    class SearchEventsNearbyIndexedTests {
+
+        private SportEvent nearEvent;
+
+        @BeforeEach
+        void setUpIndex() {
+            nearEvent = SportEvent.builder()
+                    .id(UUID.randomUUID())
+                    .user(organizer)
+                    .sport("Tennis")
+                    .title("Match proche")
                     .date(LocalDate.now().plusDays(5))
                     .startTime(LocalTime.of(14, 0))
                     .endTime(LocalTime.of(16, 0))
                     .recurrence(SportEvent.RecurrenceType.NONE)
                     .isPublic(true)
                     .isPaid(false)
-                    .latitude(48.95)  // Further away
-                    .longitude(2.40)
+                    .latitude(48.921)
+                    .longitude(2.361)
                     .participants(new HashSet<>())
                     .build();
 
-            when(sportEventRepository.findPublicEventsInBoundingBoxFromDate(
-                    any(LocalDate.class), anyDouble(), anyDouble(), anyDouble(), anyDouble()))
-                    .thenReturn(List.of(farEvent, nearEvent));
+            eventSpatialIndex.load(List.of(
+                    new EventSpatialIndex.Entry(eventId, "Football", 48.9244, 2.3601, publicEvent.getDate()),
+                    new EventSpatialIndex.Entry(nearEvent.getId(), "Tennis", 48.921, 2.361, nearEvent.getDate())
+            ));
+        }
 
-            // When - Search within 10km from 48.92, 2.36
+        @Test
+        @DisplayName("Devrait répondre depuis l'index sans requête géographique")
+        void shouldAnswerFromIndexWithoutGeoQuery() {
+            // Given
+            when(sportEventRepository.findSummariesByIds(any())).thenReturn(List.of(summaryOf(publicEvent), summaryOf(nearEvent)));
+
+            // When
             List<SportEventResponse> results = sportEventService.searchEventsNearby(
-                    48.92, 2.36, 10.0, null
+                    48.92, 2.36, 5.0, null
             );
 
-            // Then - Near event should come first
+            // Then
             assertThat(results).hasSize(2);
+            assertThat(results.get(0).getTitle()).isEqualTo("Match proche");
             assertThat(results.get(0).getDistanceKm()).isLessThan(results.get(1).getDistanceKm());
+            verify(sportEventRepository, never()).findNearbyPublicEvents(
+                    anyDouble(), anyDouble(), anyDouble(), any(), any(LocalDate.class), anyInt());
+        }
+
+        @Test
+        @DisplayName("Devrait limiter aux k événements les plus proches")
+        void shouldLimitToNearestEvents() {
+            // Given
+            when(sportEventRepository.findSummariesByIds(List.of(nearEvent.getId()))).thenReturn(List.of(summaryOf(nearEvent)));
+
+            // When
+            List<SportEventResponse> results = sportEventService.searchEventsNearby(
+                    48.92, 2.36, 50.0, null, 1
+            );
+
+            // Then
+            assertThat(results).hasSize(1);
+            assertThat(results.get(0).getId()).isEqualTo(nearEvent.getId());
+        }
+
+        @Test
+        @DisplayName("Devrait ignorer un événement devenu privé depuis l'indexation")
+        void shouldSkipEventThatBecamePrivate() {
+            // Given
+            nearEvent.setIsPublic(false);
+            when(sportEventRepository.findSummariesByIds(any())).thenReturn(List.of(summaryOf(publicEvent), summaryOf(nearEvent)));
+
+            // When
+            List<SportEventResponse> results = sportEventService.searchEventsNearby(
+                    48.92, 2.36, 5.0, null
+            );
+
+            // Then
+            assertThat(results).extracting(SportEventResponse::getId).containsExactly(eventId);
+        }
+
+        @Test
+        @DisplayName("Devrait retirer l'événement supprimé de l'index")
+        void shouldRemoveDeletedEventFromIndex() {
+            // Given
+            when(sportEventRepository.findById(eventId)).thenReturn(Optional.of(publicEvent));
+
+            // When
+            sportEventService.deleteEvent(eventId, organizerId);
+
+            // Then
+            verify(eventPublisher).publishEvent(EventCacheChange.unindexed(eventId));
+            assertThat(eventSpatialIndex.withinRadius(48.92, 2.36, 5.0, null, LocalDate.now()))
+                    .extracting(EventSpatialIndex.Hit::eventId)
+                    .containsExactly(nearEvent.getId());
         }
     }
 
@@ -1188,15 +1898,8 @@ class SportEventServiceTest {
         @DisplayName("Devrait récupérer les événements de participation")
         void shouldGetParticipatingEvents() {
             // Given
-            EventParticipant ep = EventParticipant.builder()
-                    .id(UUID.randomUUID())
-                    .event(publicEvent)
-                    .user(participant)
-                    .status(EventParticipant.ParticipantStatus.CONFIRMED)
-                    .build();
-
-            when(eventParticipantRepository.findByUserId(participantId))
-                    .thenReturn(List.of(ep));
+            when(sportEventRepository.findParticipatingSummaries(participantId))
+                    .thenReturn(List.of(summaryOf(publicEvent)));
 
             // When
             List<SportEventResponse> results = sportEventService.getParticipatingEvents(participantId);
@@ -1205,14 +1908,14 @@ class SportEventServiceTest {
             assertThat(results).hasSize(1);
             assertThat(results.get(0).getSport()).isEqualTo("Football");
 
-            verify(eventParticipantRepository).findByUserId(participantId);
+            verify(sportEventRepository).findParticipatingSummaries(participantId);
         }
 
         @Test
         @DisplayName("Devrait retourner une liste vide si aucune participation")
         void shouldReturnEmptyListWhenNoParticipation() {
             // Given
-            when(eventParticipantRepository.findByUserId(participantId))
+            when(sportEventRepository.findParticipatingSummaries(participantId))
                     .thenReturn(Collections.emptyList());
 
             // When
@@ -1250,9 +1953,9 @@ class SportEventServiceTest {
         void shouldApproveParticipantSuccessfully() {
             // Given
             UUID privateEventId = privateEvent.getId();
-            when(sportEventRepository.findById(privateEventId)).thenReturn(Optional.of(privateEvent));
+            when(sportEventRepository.findByIdWithParticipants(privateEventId)).thenReturn(Optional.of(privateEvent));
             when(eventParticipantRepository.findById(pendingParticipantId)).thenReturn(Optional.of(pendingParticipant));
-            when(eventParticipantRepository.countConfirmedByEventId(privateEventId)).thenReturn(1L);
+            when(sportEventRepository.claimSeat(privateEventId)).thenReturn(1);
             when(eventParticipantRepository.save(any(EventParticipant.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
             // When
@@ -1271,7 +1974,7 @@ class SportEventServiceTest {
         void shouldFailWhenNonOrganizerApproves() {
             // Given
             UUID privateEventId = privateEvent.getId();
-            when(sportEventRepository.findById(privateEventId)).thenReturn(Optional.of(privateEvent));
+            when(sportEventRepository.findByIdWithParticipants(privateEventId)).thenReturn(Optional.of(privateEvent));
 
             // When/Then
             assertThatThrownBy(() -> sportEventService.approveParticipant(privateEventId, pendingParticipantId, participantId))
@@ -1288,9 +1991,9 @@ class SportEventServiceTest {
             UUID privateEventId = privateEvent.getId();
             privateEvent.setMaxParticipants(2);
 
-            when(sportEventRepository.findById(privateEventId)).thenReturn(Optional.of(privateEvent));
+            when(sportEventRepository.findByIdWithParticipants(privateEventId)).thenReturn(Optional.of(privateEvent));
             when(eventParticipantRepository.findById(pendingParticipantId)).thenReturn(Optional.of(pendingParticipant));
-            when(eventParticipantRepository.countConfirmedByEventId(privateEventId)).thenReturn(2L);
+            when(sportEventRepository.claimSeat(privateEventId)).thenReturn(0);
 
             // When/Then
             assertThatThrownBy(() -> sportEventService.approveParticipant(privateEventId, pendingParticipantId, organizerId))
@@ -1305,7 +2008,7 @@ class SportEventServiceTest {
             // Given
             UUID privateEventId = privateEvent.getId();
             UUID unknownParticipantId = UUID.randomUUID();
-            when(sportEventRepository.findById(privateEventId)).thenReturn(Optional.of(privateEvent));
+            when(sportEventRepository.findByIdWithParticipants(privateEventId)).thenReturn(Optional.of(privateEvent));
             when(eventParticipantRepository.findById(unknownParticipantId)).thenReturn(Optional.empty());
 
             // When/Then
@@ -1330,7 +2033,7 @@ class SportEventServiceTest {
                     .status(EventParticipant.ParticipantStatus.PENDING)
                     .build();
 
-            when(sportEventRepository.findById(privateEventId)).thenReturn(Optional.of(privateEvent));
+            when(sportEventRepository.findByIdWithParticipants(privateEventId)).thenReturn(Optional.of(privateEvent));
             when(eventParticipantRepository.findById(pendingParticipantId)).thenReturn(Optional.of(wrongEventParticipant));
 
             // When/Then
@@ -1366,7 +2069,7 @@ class SportEventServiceTest {
         void shouldRejectParticipantSuccessfully() {
             // Given
             UUID privateEventId = privateEvent.getId();
-            when(sportEventRepository.findById(privateEventId)).thenReturn(Optional.of(privateEvent));
+            when(sportEventRepository.findByIdWithParticipants(privateEventId)).thenReturn(Optional.of(privateEvent));
             when(eventParticipantRepository.findById(pendingParticipantId)).thenReturn(Optional.of(pendingParticipant));
             when(eventParticipantRepository.save(any(EventParticipant.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -1381,12 +2084,34 @@ class SportEventServiceTest {
             ));
         }
 
+        @Test
+        @DisplayName("Devrait libérer la place d'un participant confirmé et s'arrêter si la liste d'attente est vide")
+        void shouldReleaseSeatWhenRejectingConfirmedParticipant() {
+            // Given
+            UUID privateEventId = privateEvent.getId();
+            pendingParticipant.setStatus(EventParticipant.ParticipantStatus.CONFIRMED);
+            when(sportEventRepository.findByIdWithParticipants(privateEventId)).thenReturn(Optional.of(privateEvent));
+            when(eventParticipantRepository.findById(pendingParticipantId)).thenReturn(Optional.of(pendingParticipant));
+            when(eventParticipantRepository.save(any(EventParticipant.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(eventParticipantRepository.findWaitlistHead(eq(privateEventId), any(Pageable.class))).thenReturn(List.of());
+
+            // When
+            sportEventService.rejectParticipant(privateEventId, pendingParticipantId, organizerId);
+
+            // Then
+            verify(sportEventRepository).releaseSeat(privateEventId);
+            verify(sportEventRepository, never()).claimSeat(any());
+            verify(notificationService, never()).createNotification(
+                    any(), any(), eq(Notification.NotificationType.EVENT_WAITLIST_PROMOTED), anyString(), anyString(), anyString()
+            );
+        }
+
         @Test
         @DisplayName("Devrait échouer si un non-organisateur essaie de rejeter")
         void shouldFailWhenNonOrganizerRejects() {
             // Given
             UUID privateEventId = privateEvent.getId();
-            when(sportEventRepository.findById(privateEventId)).thenReturn(Optional.of(privateEvent));
+            when(sportEventRepository.findByIdWithParticipants(privateEventId)).thenReturn(Optional.of(privateEvent));
 
             // When/Then
             assertThatThrownBy(() -> sportEventService.rejectParticipant(privateEventId, pendingParticipantId, participantId))
@@ -1402,7 +2127,7 @@ class SportEventServiceTest {
             // Given
             UUID privateEventId = privateEvent.getId();
             UUID unknownId = UUID.randomUUID();
-            when(sportEventRepository.findById(privateEventId)).thenReturn(Optional.of(privateEvent));
+            when(sportEventRepository.findByIdWithParticipants(privateEventId)).thenReturn(Optional.of(privateEvent));
             when(eventParticipantRepository.findById(unknownId)).thenReturn(Optional.empty());
 
             // When/Then
@@ -1427,7 +2152,7 @@ class SportEventServiceTest {
                     .status(EventParticipant.ParticipantStatus.PENDING)
                     .build();
 
-            when(sportEventRepository.findById(privateEventId)).thenReturn(Optional.of(privateEvent));
+            when(sportEventRepository.findByIdWithParticipants(privateEventId)).thenReturn(Optional.of(privateEvent));
             when(eventParticipantRepository.findById(pendingParticipantId)).thenReturn(Optional.of(wrongEventParticipant));
 
             // When/Then
@@ -14,6 +14,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -35,6 +36,12 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private PresenceService presenceService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserService userService;
 
@@ -118,6 +125,20 @@ class UserServiceTest {
 
             verify(userRepository).findById(testUserId);
         }
+
+        @Test
+        @DisplayName("Should report the live presence rather than the persisted flag")
+        void shouldReportLivePresence() {
+            // Given - Persisted online, but the user has just disconnected
+            when(userRepository.findById(testUserId)).thenReturn(Optional.of(testUser));
+            when(presenceService.isOnline(testUserId, true)).thenReturn(false);
+
+            // When
+            PublicUserResponse response = userService.getPublicUserById(testUserId);
+
+            // Then
+            assertThat(response.getIsOnline()).isFalse();
+        }
     }
 
     @Nested
@@ -173,6 +194,7 @@ class UserServiceTest {
             // Then
             assertThat(response.getFirstName()).isEqualTo("Jane");
             verify(userRepository).save(argThat(user -> user.getFirstName().equals("Jane")));
+            verify(eventPublisher).publishEvent(EventCacheChange.organizer(testUserId));
         }
 
         @Test
@@ -266,6 +288,7 @@ class UserServiceTest {
             assertThat(response.getFirstName()).isEqualTo("John");
             assertThat(response.getLastName()).isEqualTo("Doe");
             assertThat(response.getBio()).isEqualTo("Test bio");
+            verifyNoInteractions(eventPublisher);
         }
 
         @Test
@@ -344,56 +367,6 @@ class UserServiceTest {
         }
     }
 
-    @Nested
-    @DisplayName("Set User Online Status Tests")
-    class SetUserOnlineStatusTests {
-
-        @Test
-        @DisplayName("Should set user online")
-        void shouldSetUserOnline() {
-            // Given
-            testUser.setIsOnline(false);
-            when(userRepository.findById(testUserId)).thenReturn(Optional.of(testUser));
-            when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
-
-            // When
-            userService.setUserOnlineStatus(testUserId, true);
-
-            // Then
-            verify(userRepository).save(argThat(user -> user.getIsOnline()));
-        }
-
-        @Test
-        @DisplayName("Should set user offline and update lastSeen")
-        void shouldSetUserOfflineAndUpdateLastSeen() {
-            // Given
-            testUser.setIsOnline(true);
-            when(userRepository.findById(testUserId)).thenReturn(Optional.of(testUser));
-            when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
-
-            // When
-            userService.setUserOnlineStatus(testUserId, false);
-
-            // Then
-            verify(userRepository).save(argThat(user ->
-                    !user.getIsOnline() && user.getLastSeen() != null
-            ));
-        }
-
-        @Test
-        @DisplayName("Should throw exception when user not found")
-        void shouldThrowExceptionWhenUserNotFoundForStatusUpdate() {
-            // Given
-            UUID unknownId = UUID.randomUUID();
-            when(userRepository.findById(unknownId)).thenReturn(Optional.empty());
-
-            // When/Then
-            assertThatThrownBy(() -> userService.setUserOnlineStatus(unknownId, true))
-                    .isInstanceOf(UserNotFoundException.class)
-                    .hasMessage("Utilisateur non trouvé");
-        }
-    }
-
     @Nested
     @DisplayName("Find User Methods Tests")
     class FindUserMethodsTests {
@@ -0,0 +1,125 @@
+package com.teemup.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.teemup.dto.event.SportEventResponse;
+import com.teemup.service.EventCacheChange;
+import com.teemup.service.EventSpatialIndex;
+import com.teemup.service.PublicEventCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two nodes side by side, each with its own event caches, on one in-process bus hub.
+ */
+@DisplayName("EventCacheRelay Tests")
+class EventCacheRelayTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private Node nodeA;
+    private Node nodeB;
+
+    private final UUID eventId = UUID.randomUUID();
+    private final UUID organizerId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        nodeA = new Node(new InProcessSocketEventBus());
+        nodeB = new Node(nodeA.bus.join());
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.bus.close();
+        nodeB.bus.close();
+    }
+
+    @Test
+    @DisplayName("Should evict an event changed on one node from the cache of every node")
+    void shouldEvictChangedEventOnEveryNode() {
+        // Given - Cached on both nodes
+        nodeA.cacheEvent();
+        nodeB.cacheEvent();
+
+        // When
+        nodeA.relay.onEventCacheChange(new EventCacheChange(eventId, null, null, false));
+
+        // Then
+        nodeA.cacheEvent();
+        nodeB.cacheEvent();
+        assertThat(nodeA.loads).hasValue(2);
+        assertThat(nodeB.loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should evict the events of an organizer who changed their profile on every node")
+    void shouldEvictOrganizerEventsOnEveryNode() {
+        // Given
+        nodeB.cacheEvent();
+
+        // When
+        nodeA.relay.onEventCacheChange(new EventCacheChange(null, organizerId, null, false));
+
+        // Then
+        nodeB.cacheEvent();
+        assertThat(nodeB.loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should index and unindex an event on every node")
+    void shouldUpdateSpatialIndexOnEveryNode() {
+        // Given
+        EventSpatialIndex.Entry entry = new EventSpatialIndex.Entry(
+                eventId, "Football", 48.9244, 2.3601, LocalDate.now().plusDays(3));
+
+        // When
+        nodeA.relay.onEventCacheChange(new EventCacheChange(eventId, null, entry, false));
+
+        // Then
+        assertThat(nodeB.eventSpatialIndex.withinRadius(48.92, 2.36, 5.0, null, LocalDate.now()))
+                .extracting(EventSpatialIndex.Hit::eventId)
+                .containsExactly(eventId);
+
+        // When - Deleted
+        nodeA.relay.onEventCacheChange(new EventCacheChange(eventId, null, null, true));
+
+        // Then
+        assertThat(nodeA.eventSpatialIndex.withinRadius(48.92, 2.36, 5.0, null, LocalDate.now())).isEmpty();
+        assertThat(nodeB.eventSpatialIndex.withinRadius(48.92, 2.36, 5.0, null, LocalDate.now())).isEmpty();
+    }
+
+    private final class Node {
+        final InProcessSocketEventBus bus;
+        final PublicEventCache publicEventCache = new PublicEventCache(new SimpleMeterRegistry(), 16);
+        final EventSpatialIndex eventSpatialIndex = new EventSpatialIndex();
+        final EventCacheRelay relay;
+        final AtomicInteger loads = new AtomicInteger();
+
+        Node(InProcessSocketEventBus bus) {
+            this.bus = bus;
+            this.eventSpatialIndex.load(List.of());
+            this.relay = new EventCacheRelay(bus, objectMapper, publicEventCache, eventSpatialIndex);
+            this.relay.init();
+        }
+
+        void cacheEvent() {
+            publicEventCache.event(eventId, () -> {
+                loads.incrementAndGet();
+                return SportEventResponse.builder().id(eventId).userId(organizerId).build();
+            });
+        }
+    }
+}
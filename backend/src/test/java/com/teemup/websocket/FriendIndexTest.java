@@ -0,0 +1,71 @@
+package com.teemup.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("FriendIndex Tests")
+class FriendIndexTest {
+
+    private FriendIndex index;
+
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+    private final UUID carol = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        index = new FriendIndex(new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should list the friends of a user who are connected")
+    void shouldListConnectedFriends() {
+        // When - Alice and Carol connected, both friends with Bob who is not
+        index.track(alice, List.of(bob, carol));
+        index.track(carol, List.of(bob, alice));
+
+        // Then
+        assertThat(index.connectedFriendsOf(bob)).containsExactlyInAnyOrder(alice, carol);
+        assertThat(index.connectedFriendsOf(alice)).containsExactly(carol);
+        assertThat(index.connectedFriendsOf(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should forget a user who leaves")
+    void shouldForgetUntrackedUser() {
+        // Given
+        index.track(alice, List.of(bob));
+
+        // When
+        index.untrack(alice);
+
+        // Then
+        assertThat(index.connectedFriendsOf(bob)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should follow friendships made and broken while connected")
+    void shouldFollowLinkAndUnlink() {
+        // Given
+        index.track(alice, List.of());
+
+        // When
+        index.link(alice, bob);
+        List<UUID> afterLink = index.connectedFriendsOf(bob);
+        index.unlink(bob, alice);
+        List<UUID> afterUnlink = index.connectedFriendsOf(bob);
+
+        // Then - Bob is not connected, so only Alice's side is indexed
+        assertThat(afterLink).containsExactly(alice);
+        assertThat(afterUnlink).isEmpty();
+        assertThat(index.connectedFriendsOf(alice)).isEmpty();
+    }
+}
@@ -0,0 +1,259 @@
+package com.teemup.websocket;
+
+import com.corundumstudio.socketio.AckCallback;
+import com.corundumstudio.socketio.HandshakeData;
+import com.corundumstudio.socketio.SocketIOClient;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.withinPercentage;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("OutboundQueues Tests")
+class OutboundQueuesTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private OutboundQueues outboundQueues;
+
+    private SocketIOClient client;
+    private final UUID sessionId = UUID.randomUUID();
+    private final List<String> sent = new ArrayList<>();
+    private final List<AckCallback<?>> acks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock(Instant.parse("2026-03-10T10:00:00Z"));
+        // Window of 100 bytes, high-water mark at 200, disconnected after 1s behind
+        outboundQueues = new OutboundQueues(meterRegistry, 100, 200, 1000, 15, clock);
+
+        client = mock(SocketIOClient.class);
+        when(client.getSessionId()).thenReturn(sessionId);
+        HandshakeData handshake = mock(HandshakeData.class);
+        when(handshake.getSingleUrlParam(OutboundQueues.ACKS_PARAM)).thenReturn("1");
+        when(client.getHandshakeData()).thenReturn(handshake);
+        doAnswer(invocation -> {
+            sent.add(invocation.getArgument(0));
+            acks.add(invocation.getArgument(1));
+            return null;
+        }).when(client).sendEvent(anyString(), any(AckCallback.class), any());
+        outboundQueues.register(client);
+    }
+
+    @Test
+    @DisplayName("Should hold events beyond the window until earlier ones are acknowledged")
+    void shouldPaceByAcknowledgements() {
+        // When
+        outboundQueues.send(client, "newMessage", "m1", 60);
+        outboundQueues.send(client, "newMessage", "m2", 60);
+
+        // Then - The second one would exceed the window
+        assertThat(sent).hasSize(1);
+        assertThat(outboundQueues.queuedBytes(sessionId)).isEqualTo(60);
+        assertThat(clientGauge()).isEqualTo(60.0);
+
+        // When
+        ack(0);
+
+        // Then
+        assertThat(sent).hasSize(2);
+        assertThat(outboundQueues.queuedBytes(sessionId)).isZero();
+        assertThat(meterRegistry.get("socketio.outbound.queued.bytes").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should release the bytes of an event whose acknowledgement never comes")
+    void shouldReleaseOnAckTimeout() {
+        // Given
+        outboundQueues.send(client, "newMessage", "m1", 100);
+        outboundQueues.send(client, "newMessage", "m2", 100);
+
+        // When
+        acks.get(0).onTimeout();
+
+        // Then
+        assertThat(sent).hasSize(2);
+        assertThat(outboundQueues.queuedBytes(sessionId)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should drop typing and presence events, not messages, above the high-water mark")
+    void shouldDropDroppableEvents() {
+        // Given - The window is full and typing is queued
+        outboundQueues.send(client, "newMessage", "m1", 100);
+        outboundQueues.send(client, "userTyping", "t1", 60);
+
+        // When - A message pushes the queue above the mark, then more typing comes
+        outboundQueues.send(client, "newMessage", "m2", 180);
+        outboundQueues.send(client, "userOnline", "u1", 30);
+
+        // Then - Typing went first, then the presence change, the message is kept
+        assertThat(outboundQueues.queuedBytes(sessionId)).isEqualTo(180);
+        assertThat(meterRegistry.get("socketio.outbound.dropped").counter().count()).isEqualTo(2.0);
+
+        // When
+        ack(0);
+        ack(1);
+
+        // Then
+        assertThat(sent).containsExactly("newMessage", "newMessage");
+    }
+
+    @Test
+    @DisplayName("Should disconnect a client that stays above the high-water mark")
+    void shouldDisconnectLaggingClient() {
+        // Given - Messages only, nothing to drop
+        outboundQueues.send(client, "newMessage", "m1", 100);
+        outboundQueues.send(client, "newMessage", "m2", 250);
+
+        // When
+        clock.advance(500, ChronoUnit.MILLIS);
+        outboundQueues.disconnectLaggingClients();
+
+        // Then - Not for long enough yet
+        verify(client, never()).disconnect();
+
+        // When
+        clock.advance(500, ChronoUnit.MILLIS);
+        outboundQueues.disconnectLaggingClients();
+
+        // Then
+        verify(client).disconnect();
+        assertThat(outboundQueues.queuedBytes(sessionId)).isZero();
+        assertThat(meterRegistry.get("socketio.outbound.disconnected").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.find("socketio.outbound.client.queued.bytes").gauge()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should forgive a client that catches up in time")
+    void shouldKeepClientThatCatchesUp() {
+        // Given
+        outboundQueues.send(client, "newMessage", "m1", 100);
+        outboundQueues.send(client, "newMessage", "m2", 90);
+        outboundQueues.send(client, "newMessage", "m3", 150);
+
+        // When - Caught up below the mark before the deadline
+        clock.advance(500, ChronoUnit.MILLIS);
+        ack(0);
+        clock.advance(1000, ChronoUnit.MILLIS);
+        outboundQueues.disconnectLaggingClients();
+
+        // Then
+        verify(client, never()).disconnect();
+        assertThat(outboundQueues.queuedBytes(sessionId)).isEqualTo(150);
+    }
+
+    @Test
+    @DisplayName("Should send directly to a client that is not registered")
+    void shouldSendDirectlyWhenUnregistered() {
+        // Given
+        outboundQueues.unregister(client);
+
+        // When
+        outboundQueues.send(client, "connected", "data", 10);
+
+        // Then
+        verify(client).sendEvent("connected", "data");
+        assertThat(sent).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should send directly to a client that does not ack its events")
+    void shouldSendDirectlyWhenClientDoesNotAck() {
+        // Given - An older build, which does not announce acks
+        outboundQueues.unregister(client);
+        when(client.getHandshakeData().getSingleUrlParam(OutboundQueues.ACKS_PARAM)).thenReturn(null);
+        outboundQueues.register(client);
+
+        // When - Well beyond the window and the high-water mark
+        for (int i = 0; i < 5; i++) {
+            outboundQueues.send(client, "newMessage", "m" + i, 100);
+        }
+        clock.advance(2, ChronoUnit.SECONDS);
+        outboundQueues.disconnectLaggingClients();
+
+        // Then
+        verify(client, times(5)).sendEvent(eq("newMessage"), anyString());
+        verify(client, never()).disconnect();
+        assertThat(sent).isEmpty();
+        assertThat(outboundQueues.queuedBytes(sessionId)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should estimate the size of a payload close to its JSON encoding")
+    void shouldEstimatePayloadSize() throws Exception {
+        // Given - A message event as it crosses the bus, and a presence frame
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode message = objectMapper.valueToTree(Map.of(
+                "conversationId", UUID.randomUUID().toString(),
+                "content", "Rendez-vous au stade a 18h, on joue sur le terrain du fond",
+                "sequence", 42,
+                "read", false,
+                "attachments", List.of("photo.jpg", "plan.png")));
+        Map<String, Object> presence = Map.of(
+                "online", List.of(UUID.randomUUID().toString(), UUID.randomUUID().toString()),
+                "offline", List.of(UUID.randomUUID().toString()));
+
+        // Then
+        assertThat(OutboundQueues.estimateBytes(message))
+                .isCloseTo(objectMapper.writeValueAsBytes(message).length, withinPercentage(15));
+        assertThat(OutboundQueues.estimateBytes(presence))
+                .isCloseTo(objectMapper.writeValueAsBytes(presence).length, withinPercentage(15));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void ack(int index) {
+        ((AckCallback<Object>) acks.get(index)).onSuccess(null);
+    }
+
+    private double clientGauge() {
+        return meterRegistry.get("socketio.outbound.client.queued.bytes")
+                .tag("session", sessionId.toString()).gauge().value();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(long amount, ChronoUnit unit) {
+            instant = instant.plus(amount, unit);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
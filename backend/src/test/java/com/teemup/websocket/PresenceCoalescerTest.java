@@ -0,0 +1,66 @@
+package com.teemup.websocket;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("PresenceCoalescer Tests")
+class PresenceCoalescerTest {
+
+    private PresenceCoalescer coalescer;
+
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+    private final UUID carol = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new PresenceCoalescer();
+    }
+
+    @Test
+    @DisplayName("Should group the changes of a tick by recipient")
+    void shouldGroupChangesByRecipient() {
+        // When - Bob and Carol come online, both friends with Alice
+        coalescer.changed(bob, true, List.of(alice));
+        coalescer.changed(carol, true, List.of(alice, bob));
+        Map<UUID, List<PresenceCoalescer.PresenceUpdate>> updates = coalescer.drain();
+
+        // Then
+        assertThat(updates).containsOnlyKeys(alice, bob);
+        assertThat(updates.get(alice)).containsExactly(
+                new PresenceCoalescer.PresenceUpdate(bob, true),
+                new PresenceCoalescer.PresenceUpdate(carol, true));
+        assertThat(updates.get(bob)).containsExactly(new PresenceCoalescer.PresenceUpdate(carol, true));
+        assertThat(coalescer.drain()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should drop a friend who drops and comes back within the tick")
+    void shouldDropFlapWithinTick() {
+        // When
+        coalescer.changed(bob, false, List.of(alice));
+        coalescer.changed(bob, true, List.of(alice));
+        coalescer.changed(carol, false, List.of(alice));
+        Map<UUID, List<PresenceCoalescer.PresenceUpdate>> updates = coalescer.drain();
+
+        // Then
+        assertThat(updates.get(alice)).containsExactly(new PresenceCoalescer.PresenceUpdate(carol, false));
+    }
+
+    @Test
+    @DisplayName("Should queue nothing for a user without online friends")
+    void shouldIgnoreChangeWithoutRecipients() {
+        // When
+        coalescer.changed(bob, true, List.of());
+
+        // Then
+        assertThat(coalescer.drain()).isEmpty();
+    }
+}
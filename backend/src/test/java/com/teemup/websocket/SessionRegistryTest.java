@@ -0,0 +1,88 @@
+package com.teemup.websocket;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("SessionRegistry Tests")
+class SessionRegistryTest {
+
+    private SessionRegistry registry;
+
+    private final UUID alice = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        registry = new SessionRegistry();
+    }
+
+    @Test
+    @DisplayName("Should keep every device of a user")
+    void shouldKeepEveryDevice() {
+        // Given
+        SocketIOClient phone = client();
+        SocketIOClient tablet = client();
+
+        // When
+        boolean phoneFirst = registry.add(alice, phone);
+        boolean tabletFirst = registry.add(alice, tablet);
+
+        // Then
+        assertThat(phoneFirst).isTrue();
+        assertThat(tabletFirst).isFalse();
+        assertThat(registry.sessions(alice)).containsExactly(phone, tablet);
+        assertThat(registry.userCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should report the last device leaving only")
+    void shouldReportLastDeviceLeaving() {
+        // Given
+        SocketIOClient phone = client();
+        SocketIOClient tablet = client();
+        registry.add(alice, phone);
+        registry.add(alice, tablet);
+
+        // When
+        boolean phoneLast = registry.remove(alice, phone);
+        SocketIOClient[] remaining = registry.sessions(alice);
+        boolean tabletLast = registry.remove(alice, tablet);
+
+        // Then
+        assertThat(phoneLast).isFalse();
+        assertThat(remaining).containsExactly(tablet);
+        assertThat(tabletLast).isTrue();
+        assertThat(registry.sessions(alice)).isEmpty();
+        assertThat(registry.userCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should ignore a session it does not know")
+    void shouldIgnoreUnknownSession() {
+        // Given
+        SocketIOClient phone = client();
+        registry.add(alice, phone);
+
+        // When
+        boolean last = registry.remove(alice, client());
+        boolean unknownUserLast = registry.remove(UUID.randomUUID(), phone);
+
+        // Then
+        assertThat(last).isFalse();
+        assertThat(unknownUserLast).isFalse();
+        assertThat(registry.sessions(alice)).containsExactly(phone);
+    }
+
+    private static SocketIOClient client() {
+        SocketIOClient client = mock(SocketIOClient.class);
+        when(client.getSessionId()).thenReturn(UUID.randomUUID());
+        return client;
+    }
+}
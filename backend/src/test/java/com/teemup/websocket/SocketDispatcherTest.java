@@ -0,0 +1,125 @@
+package com.teemup.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SocketDispatcher Tests")
+class SocketDispatcherTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private Queue<Runnable> tasks;
+    private SocketDispatcher dispatcher;
+
+    private final UUID session = UUID.randomUUID();
+    private final UUID otherSession = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tasks = new ArrayDeque<>();
+        // Handlers run only when the test says so
+        dispatcher = new SocketDispatcher(meterRegistry, 3, tasks::add);
+    }
+
+    @Test
+    @DisplayName("Should run the handlers of a session one at a time and in order")
+    void shouldKeepOrderPerSession() {
+        // Given
+        List<String> log = new ArrayList<>();
+        dispatcher.submit(session, () -> log.add("connect"));
+        dispatcher.submit(session, () -> log.add("join"));
+        dispatcher.submit(otherSession, () -> log.add("other"));
+
+        // Then - One task in flight per session
+        assertThat(tasks).hasSize(2);
+
+        // When
+        runAll();
+
+        // Then
+        assertThat(log).containsSubsequence("connect", "join");
+        assertThat(log).contains("other");
+        assertThat(pending()).isZero();
+        assertThat(meterRegistry.get("socketio.dispatch.tasks").tag("result", "completed").counter().count())
+                .isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("Should refuse work beyond capacity but always accept cleanups")
+    void shouldRejectWhenSaturated() {
+        // Given - Capacity of 3
+        for (int i = 0; i < 3; i++) {
+            assertThat(dispatcher.submit(session, () -> { })).isTrue();
+        }
+
+        // When
+        boolean accepted = dispatcher.submit(otherSession, () -> { });
+        List<String> log = new ArrayList<>();
+        dispatcher.submitAlways(session, () -> log.add("disconnect"));
+        runAll();
+
+        // Then
+        assertThat(accepted).isFalse();
+        assertThat(log).containsExactly("disconnect");
+        assertThat(meterRegistry.get("socketio.dispatch.tasks").tag("result", "rejected").counter().count())
+                .isEqualTo(1.0);
+        assertThat(dispatcher.submit(otherSession, () -> { })).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should keep running the session after a failing handler")
+    void shouldSurviveFailingHandler() {
+        // Given
+        List<String> log = new ArrayList<>();
+        dispatcher.submit(session, () -> {
+            throw new IllegalStateException("boom");
+        });
+        dispatcher.submit(session, () -> log.add("next"));
+
+        // When
+        runAll();
+
+        // Then
+        assertThat(log).containsExactly("next");
+        assertThat(meterRegistry.get("socketio.dispatch.tasks").tag("result", "failed").counter().count())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("socketio.dispatch.latency").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should start a fresh lane once a session went idle")
+    void shouldReopenIdleSession() {
+        // Given
+        List<String> log = new ArrayList<>();
+        dispatcher.submit(session, () -> log.add("first"));
+        runAll();
+
+        // When
+        dispatcher.submit(session, () -> log.add("second"));
+        runAll();
+
+        // Then
+        assertThat(log).containsExactly("first", "second");
+    }
+
+    private void runAll() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private double pending() {
+        return meterRegistry.get("socketio.dispatch.pending").gauge().value();
+    }
+}
@@ -0,0 +1,389 @@
+package com.teemup.websocket;
+
+import com.corundumstudio.socketio.AckCallback;
+import com.corundumstudio.socketio.BroadcastOperations;
+import com.corundumstudio.socketio.Configuration;
+import com.corundumstudio.socketio.HandshakeData;
+import com.corundumstudio.socketio.SocketIOClient;
+import com.corundumstudio.socketio.SocketIOServer;
+import com.corundumstudio.socketio.listener.ConnectListener;
+import com.corundumstudio.socketio.listener.DisconnectListener;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teemup.dto.friend.FriendshipChangedEvent;
+import com.teemup.security.JwtService;
+import com.teemup.security.TokenRevocationCache;
+import com.teemup.service.MessagingService;
+import com.teemup.service.PresenceService;
+import com.teemup.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Two nodes side by side, each with its own Socket.IO server, on one in-process bus hub.
+ */
+@DisplayName("Socket event fan-out Tests")
+class SocketEventFanOutTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Node nodeA;
+    private Node nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = new Node(new InProcessSocketEventBus());
+        nodeB = new Node(nodeA.bus.join());
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.bus.close();
+        nodeB.bus.close();
+    }
+
+    @Test
+    @DisplayName("Should broadcast a conversation event to the room on every node")
+    void shouldBroadcastToRoomOnEveryNode() {
+        // Given - A member of the room on each node
+        String conversationId = UUID.randomUUID().toString();
+        SocketIOClient memberA = nodeA.joinRoom(nodeA.connect(UUID.randomUUID()));
+        SocketIOClient memberB = nodeB.joinRoom(nodeB.connect(UUID.randomUUID()));
+        Map<String, String> payload = Map.of("id", "m1", "content", "Salut");
+        JsonNode expected = objectMapper.valueToTree(payload);
+
+        // When
+        nodeA.service.broadcastToConversation(conversationId, "newMessage", payload);
+
+        // Then
+        verifySent(memberA, "newMessage", expected);
+        verifySent(memberB, "newMessage", expected);
+        verify(nodeB.server).getRoomOperations("conversation-" + conversationId);
+    }
+
+    @Test
+    @DisplayName("Should deliver a notification to the node the user is connected to")
+    void shouldDeliverNotificationToRemoteClient() {
+        // Given - The user is connected to node B
+        UUID userId = UUID.randomUUID();
+        SocketIOClient client = nodeB.connect(userId);
+        Map<String, String> notification = Map.of("title", "Nouvel événement");
+
+        // When - A notification is raised on node A
+        nodeA.service.sendNotificationToUser(userId, notification);
+
+        // Then
+        verifySent(client, "notification", objectMapper.valueToTree(notification));
+    }
+
+    @Test
+    @DisplayName("Should deliver to every device of the user and stay online until the last one leaves")
+    void shouldHandleSeveralDevices() {
+        // Given - A friend on node A, the user on a phone and a tablet on node B
+        UUID userId = UUID.randomUUID();
+        UUID friendId = UUID.randomUUID();
+        SocketIOClient friend = nodeA.connect(friendId, userId);
+        SocketIOClient phone = nodeB.connect(userId, friendId);
+        SocketIOClient tablet = nodeB.connect(userId, friendId);
+        Map<String, String> notification = Map.of("title", "Nouvel événement");
+
+        // When
+        nodeA.service.sendNotificationToUser(userId, notification);
+        nodeB.disconnect(phone);
+        nodeA.service.flushPresenceUpdates();
+
+        // Then
+        JsonNode expected = objectMapper.valueToTree(notification);
+        verifySent(phone, "notification", expected);
+        verifySent(tablet, "notification", expected);
+        verifySent(friend, "userOnline", Map.of("userId", userId.toString()));
+        verify(friend, never()).sendEvent(eq("userOffline"), any(AckCallback.class),
+                eq(Map.of("userId", userId.toString())));
+        assertThat(nodeA.presenceService.isOnline(userId)).isTrue();
+        assertThat(nodeB.presenceService.isOnline(userId)).isTrue();
+
+        // When - The last device leaves
+        nodeB.disconnect(tablet);
+        nodeA.service.flushPresenceUpdates();
+
+        // Then
+        verifySent(friend, "userOffline", Map.of("userId", userId.toString()));
+        assertThat(nodeA.presenceService.isOnline(userId)).isFalse();
+        assertThat(nodeB.presenceService.isOnline(userId)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep a user with devices on two nodes online until both are gone")
+    void shouldCountDevicesAcrossNodes() {
+        // Given - A friend on node A, the user on a phone on node A and a laptop on node B
+        UUID userId = UUID.randomUUID();
+        UUID friendId = UUID.randomUUID();
+        SocketIOClient friend = nodeA.connect(friendId, userId);
+        SocketIOClient phone = nodeA.connect(userId, friendId);
+        SocketIOClient laptop = nodeB.connect(userId, friendId);
+        nodeA.service.flushPresenceUpdates();
+        verifySent(friend, "userOnline", Map.of("userId", userId.toString()));
+
+        // When - The laptop leaves
+        nodeB.disconnect(laptop);
+        nodeA.service.flushPresenceUpdates();
+
+        // Then - Still online on both nodes, nothing sent
+        verify(friend, never()).sendEvent(eq("userOffline"), any(AckCallback.class), any());
+        assertThat(nodeA.presenceService.isOnline(userId)).isTrue();
+        assertThat(nodeB.presenceService.isOnline(userId)).isTrue();
+
+        // When - Then the phone
+        nodeA.disconnect(phone);
+        nodeA.service.flushPresenceUpdates();
+
+        // Then
+        verifySent(friend, "userOffline", Map.of("userId", userId.toString()));
+        assertThat(nodeB.presenceService.isOnline(userId)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep a user online when a device connects while their last one disconnects")
+    void shouldSettleRacingConnectAndDisconnect() {
+        // Given - A friend on node A, the user on a phone on node B
+        UUID userId = UUID.randomUUID();
+        UUID friendId = UUID.randomUUID();
+        SocketIOClient friend = nodeA.connect(friendId, userId);
+        SocketIOClient phone = nodeB.connect(userId, friendId);
+        nodeA.service.flushPresenceUpdates();
+
+        // When - A tablet connects between the removal of the phone's session and its presence update
+        doAnswer(invocation -> {
+            Object last = invocation.callRealMethod();
+            nodeB.connect(userId, friendId);
+            return last;
+        }).when(nodeB.sessionRegistry).remove(userId, phone);
+        nodeB.disconnect(phone);
+        nodeA.service.flushPresenceUpdates();
+
+        // Then
+        verify(friend, never()).sendEvent(eq("userOffline"), any(AckCallback.class), any());
+        assertThat(nodeA.presenceService.isOnline(userId)).isTrue();
+        assertThat(nodeB.presenceService.isConnectedHere(userId)).isTrue();
+        assertThat(nodeB.friendIndex.connectedFriendsOf(friendId)).containsExactly(userId);
+    }
+
+    @Test
+    @DisplayName("Should refuse a socket whose token was revoked")
+    void shouldRefuseRevokedToken() {
+        // Given - The user logged out after the token was issued
+        UUID userId = UUID.randomUUID();
+        when(nodeA.tokenRevocationCache.isRevoked(eq(userId), any(Instant.class))).thenReturn(true);
+
+        // When
+        SocketIOClient client = nodeA.handshake(userId);
+
+        // Then
+        verify(client).disconnect();
+        verify(client, never()).sendEvent(eq("connected"), any());
+        assertThat(nodeA.presenceService.isConnectedHere(userId)).isFalse();
+        assertThat(nodeA.sessionRegistry.sessions(userId)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should drop the users of a node as soon as it shuts down")
+    void shouldDropUsersOfStoppedNode() {
+        // Given - A friend on node A, the user on node B
+        UUID userId = UUID.randomUUID();
+        UUID friendId = UUID.randomUUID();
+        SocketIOClient friend = nodeA.connect(friendId, userId);
+        nodeB.connect(userId, friendId);
+        nodeB.service.publishPresenceSnapshot();
+        nodeA.service.flushPresenceUpdates();
+        verifySent(friend, "userOnline", Map.of("userId", userId.toString()));
+
+        // When
+        nodeB.service.shutdown();
+        nodeA.service.flushPresenceUpdates();
+
+        // Then
+        verifySent(friend, "userOffline", Map.of("userId", userId.toString()));
+        assertThat(nodeA.presenceService.isOnline(userId)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should send presence changes to online friends only, on every node")
+    void shouldSendPresenceToOnlineFriendsOnly() {
+        // Given - A friend connected to node A, a stranger to node B
+        UUID userId = UUID.randomUUID();
+        UUID friendId = UUID.randomUUID();
+        SocketIOClient friend = nodeA.connect(friendId, userId);
+        SocketIOClient stranger = nodeB.connect(UUID.randomUUID());
+
+        // When
+        nodeB.connect(userId, friendId);
+        nodeA.service.flushPresenceUpdates();
+        nodeB.service.flushPresenceUpdates();
+
+        // Then
+        verifySent(friend, "userOnline", Map.of("userId", userId.toString()));
+        verify(stranger, never()).sendEvent(eq("userOnline"), any(AckCallback.class), any());
+        verify(nodeA.server, never()).getBroadcastOperations();
+    }
+
+    @Test
+    @DisplayName("Should start sending presence once a friendship is accepted")
+    void shouldFollowNewFriendships() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        UUID otherId = UUID.randomUUID();
+        SocketIOClient other = nodeA.connect(otherId);
+
+        // When - Accepted on node B, then the user connects
+        nodeB.service.onFriendshipChanged(new FriendshipChangedEvent(userId, otherId, true));
+        nodeB.connect(userId, otherId);
+        nodeA.service.flushPresenceUpdates();
+
+        // Then
+        verifySent(other, "userOnline", Map.of("userId", userId.toString()));
+    }
+
+    @Test
+    @DisplayName("Should settle a user while the friends of another user sharing their presence lock load")
+    void shouldNotHoldPresenceLockWhileLoadingFriends() throws Exception {
+        // Given - Two users on the same lock stripe, the friends of the first one slow to load
+        UUID slowId = UUID.randomUUID();
+        UUID otherId = UUID.randomUUID();
+        while (Math.floorMod(otherId.hashCode(), SocketIOService.PRESENCE_LOCK_STRIPES)
+                != Math.floorMod(slowId.hashCode(), SocketIOService.PRESENCE_LOCK_STRIPES)) {
+            otherId = UUID.randomUUID();
+        }
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch loaded = new CountDownLatch(1);
+        when(nodeA.userService.getFriendIds(slowId)).thenAnswer(invocation -> {
+            loading.countDown();
+            loaded.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        when(nodeA.userService.getFriendIds(otherId)).thenReturn(List.of());
+        CompletableFuture<SocketIOClient> slow = CompletableFuture.supplyAsync(() -> nodeA.open(slowId));
+
+        try {
+            // When
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            UUID fastId = otherId;
+            CompletableFuture.runAsync(() -> nodeA.open(fastId)).get(5, TimeUnit.SECONDS);
+
+            // Then
+            assertThat(nodeA.presenceService.isConnectedHere(otherId)).isTrue();
+            assertThat(nodeA.presenceService.isConnectedHere(slowId)).isFalse();
+        } finally {
+            loaded.countDown();
+        }
+        slow.get(5, TimeUnit.SECONDS);
+        assertThat(nodeA.presenceService.isConnectedHere(slowId)).isTrue();
+    }
+
+    private static void verifySent(SocketIOClient client, String name, Object data) {
+        verify(client).sendEvent(eq(name), any(AckCallback.class), eq(data));
+    }
+
+    private final class Node {
+        final SocketIOServer server = mock(SocketIOServer.class);
+        final BroadcastOperations room = mock(BroadcastOperations.class);
+        final List<SocketIOClient> roomMembers = new ArrayList<>();
+        final JwtService jwtService = mock(JwtService.class);
+        final TokenRevocationCache tokenRevocationCache = mock(TokenRevocationCache.class);
+        final UserService userService = mock(UserService.class);
+        final PresenceService presenceService = new PresenceService(
+                mock(JdbcTemplate.class), new SimpleMeterRegistry(), 10_000, 30_000);
+        final FriendIndex friendIndex = new FriendIndex(new SimpleMeterRegistry());
+        final SessionRegistry sessionRegistry = spy(new SessionRegistry());
+        final InProcessSocketEventBus bus;
+        final SocketIOService service;
+        final ConnectListener connectListener;
+        final DisconnectListener disconnectListener;
+
+        Node(InProcessSocketEventBus bus) {
+            this.bus = bus;
+            when(server.getRoomOperations(anyString())).thenReturn(room);
+            when(room.getClients()).thenReturn(roomMembers);
+            when(server.getConfiguration()).thenReturn(new Configuration());
+
+            // Handlers run inline on the calling thread
+            SocketDispatcher dispatcher = new SocketDispatcher(new SimpleMeterRegistry(), 100, Runnable::run);
+            service = new SocketIOService(server, jwtService, tokenRevocationCache, userService, presenceService,
+                    mock(MessagingService.class), new TypingCoalescer(3000, 6000), sessionRegistry,
+                    dispatcher, new OutboundQueues(new SimpleMeterRegistry(), 65536, 262144, 30000, 15,
+                    Clock.systemUTC()), friendIndex, new PresenceCoalescer(), bus, objectMapper);
+            ReflectionTestUtils.setField(service, "socketEnabled", true);
+            service.init();
+
+            ArgumentCaptor<ConnectListener> captor = ArgumentCaptor.forClass(ConnectListener.class);
+            verify(server).addConnectListener(captor.capture());
+            connectListener = captor.getValue();
+            ArgumentCaptor<DisconnectListener> disconnectCaptor = ArgumentCaptor.forClass(DisconnectListener.class);
+            verify(server).addDisconnectListener(disconnectCaptor.capture());
+            disconnectListener = disconnectCaptor.getValue();
+        }
+
+        SocketIOClient connect(UUID userId, UUID... friendIds) {
+            SocketIOClient client = handshake(userId, friendIds);
+            verify(client, never()).disconnect();
+            return client;
+        }
+
+        SocketIOClient handshake(UUID userId, UUID... friendIds) {
+            when(userService.getFriendIds(userId)).thenReturn(List.of(friendIds));
+            return open(userId);
+        }
+
+        /**
+         * Handshake of a user whose friends are already stubbed.
+         */
+        SocketIOClient open(UUID userId) {
+            String token = "token-" + userId;
+            Claims claims = mock(Claims.class);
+            when(claims.get(JwtService.USER_ID_CLAIM, String.class)).thenReturn(userId.toString());
+            when(jwtService.parseAccessToken(token)).thenReturn(claims);
+
+            HandshakeData handshake = mock(HandshakeData.class);
+            when(handshake.getSingleUrlParam("token")).thenReturn(token);
+            when(handshake.getSingleUrlParam(OutboundQueues.ACKS_PARAM)).thenReturn("1");
+            SocketIOClient client = mock(SocketIOClient.class);
+            when(client.getHandshakeData()).thenReturn(handshake);
+            when(client.getSessionId()).thenReturn(UUID.randomUUID());
+            when(client.isChannelOpen()).thenReturn(true);
+
+            connectListener.onConnect(client);
+            return client;
+        }
+
+        SocketIOClient joinRoom(SocketIOClient client) {
+            roomMembers.add(client);
+            return client;
+        }
+
+        void disconnect(SocketIOClient client) {
+            disconnectListener.onDisconnect(client);
+        }
+    }
+}
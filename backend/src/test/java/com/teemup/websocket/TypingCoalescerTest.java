@@ -0,0 +1,157 @@
+package com.teemup.websocket;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TypingCoalescer Tests")
+class TypingCoalescerTest {
+
+    private MutableClock clock;
+    private TypingCoalescer coalescer;
+
+    private final UUID conversationId = UUID.randomUUID();
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-03-10T10:00:00Z"));
+        coalescer = new TypingCoalescer(3000, 6000, clock);
+    }
+
+    @Test
+    @DisplayName("Should emit the first signal and swallow the following ones")
+    void shouldEmitLeadingEdgeOnly() {
+        // When - A keystroke every 100 ms for one second
+        for (int i = 0; i < 10; i++) {
+            coalescer.typing(conversationId, alice);
+            clock.advance(100, ChronoUnit.MILLIS);
+        }
+
+        // Then
+        assertThat(coalescer.drain()).isEqualTo(Map.of(conversationId,
+                List.of(new TypingCoalescer.TypingUpdate(alice, true))));
+        assertThat(coalescer.drain()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should re-emit at most once per throttle interval while typing goes on")
+    void shouldThrottleRefreshes() {
+        // Given
+        coalescer.typing(conversationId, alice);
+        coalescer.drain();
+
+        // When
+        clock.advance(2000, ChronoUnit.MILLIS);
+        coalescer.typing(conversationId, alice);
+        Map<UUID, List<TypingCoalescer.TypingUpdate>> beforeInterval = coalescer.drain();
+        clock.advance(1000, ChronoUnit.MILLIS);
+        coalescer.typing(conversationId, alice);
+        Map<UUID, List<TypingCoalescer.TypingUpdate>> afterInterval = coalescer.drain();
+
+        // Then
+        assertThat(beforeInterval).isEmpty();
+        assertThat(afterInterval.get(conversationId))
+                .containsExactly(new TypingCoalescer.TypingUpdate(alice, true));
+    }
+
+    @Test
+    @DisplayName("Should emit a stop when the client goes silent")
+    void shouldExpireSilentTypist() {
+        // Given
+        coalescer.typing(conversationId, alice);
+        coalescer.drain();
+
+        // When
+        clock.advance(5999, ChronoUnit.MILLIS);
+        Map<UUID, List<TypingCoalescer.TypingUpdate>> stillTyping = coalescer.drain();
+        clock.advance(1, ChronoUnit.MILLIS);
+        Map<UUID, List<TypingCoalescer.TypingUpdate>> expired = coalescer.drain();
+
+        // Then
+        assertThat(stillTyping).isEmpty();
+        assertThat(expired.get(conversationId))
+                .containsExactly(new TypingCoalescer.TypingUpdate(alice, false));
+    }
+
+    @Test
+    @DisplayName("Should batch the changes of a room and keep only the last one per user")
+    void shouldBatchChangesPerRoom() {
+        // Given
+        UUID otherConversationId = UUID.randomUUID();
+
+        // When
+        coalescer.typing(conversationId, alice);
+        coalescer.typing(conversationId, bob);
+        coalescer.stopTyping(conversationId, alice);
+        coalescer.typing(otherConversationId, alice);
+        Map<UUID, List<TypingCoalescer.TypingUpdate>> updates = coalescer.drain();
+
+        // Then
+        assertThat(updates).containsOnlyKeys(conversationId, otherConversationId);
+        assertThat(updates.get(conversationId)).containsExactly(
+                new TypingCoalescer.TypingUpdate(alice, false),
+                new TypingCoalescer.TypingUpdate(bob, true));
+        assertThat(updates.get(otherConversationId))
+                .containsExactly(new TypingCoalescer.TypingUpdate(alice, true));
+    }
+
+    @Test
+    @DisplayName("Should stop a disconnected user everywhere and ignore stops without typing")
+    void shouldStopOnClearOnly() {
+        // Given
+        UUID otherConversationId = UUID.randomUUID();
+        coalescer.typing(conversationId, alice);
+        coalescer.typing(otherConversationId, alice);
+        coalescer.drain();
+
+        // When
+        coalescer.clear(alice);
+        coalescer.stopTyping(conversationId, bob);
+        Map<UUID, List<TypingCoalescer.TypingUpdate>> updates = coalescer.drain();
+
+        // Then
+        assertThat(updates).containsOnlyKeys(conversationId, otherConversationId);
+        assertThat(updates.get(conversationId))
+                .containsExactly(new TypingCoalescer.TypingUpdate(alice, false));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(long amount, ChronoUnit unit) {
+            instant = instant.plus(amount, unit);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -50,6 +50,19 @@ describe('SocketService', () => {
 
       expect(socketService.getConnectionStatus()).toBe('connecting');
     });
+
+    it('should announce in the handshake that it acks every event', async () => {
+      (getAccessToken as jest.Mock).mockResolvedValue('test-jwt-token');
+      const { io } = require('socket.io-client');
+
+      socketService.connect();
+      await new Promise(resolve => setTimeout(resolve, 0));
+
+      expect(io).toHaveBeenCalledWith(
+        expect.any(String),
+        expect.objectContaining({ query: { token: 'test-jwt-token', acks: '1' } })
+      );
+    });
   });
 
   describe('disconnect', () => {
@@ -138,6 +151,80 @@ describe('SocketService', () => {
     });
   });
 
+  describe('incoming events', () => {
+    // A fresh service per test: the shared one may still be connecting from the tests above
+    let service: typeof socketService;
+    let receive: (event: string, ...args: unknown[]) => void;
+
+    beforeEach(async () => {
+      let io: jest.Mock = jest.fn();
+      jest.isolateModules(() => {
+        service = require('../socket').socketService;
+        (require('../api').getAccessToken as jest.Mock).mockResolvedValue('test-jwt-token');
+        io = require('socket.io-client').io;
+      });
+
+      service.connect();
+      await new Promise(resolve => setTimeout(resolve, 0));
+
+      receive = io.mock.results[0].value.onAny.mock.calls[0][0];
+    });
+
+    it('should ack an event once its listeners have run', () => {
+      const callback = jest.fn();
+      const ack = jest.fn();
+      service.on('newMessage', callback);
+
+      receive('newMessage', { id: 'msg-1' }, ack);
+
+      // The ack is not passed on to the listeners
+      expect(callback).toHaveBeenCalledWith({ id: 'msg-1' });
+      expect(ack).toHaveBeenCalledTimes(1);
+      expect(callback.mock.invocationCallOrder[0]).toBeLessThan(ack.mock.invocationCallOrder[0]);
+    });
+
+    it('should dispatch an event sent without ack', () => {
+      const callback = jest.fn();
+      service.on('newMessage', callback);
+
+      receive('newMessage', { id: 'msg-1' });
+
+      expect(callback).toHaveBeenCalledWith({ id: 'msg-1' });
+    });
+
+    it('should split presenceChanged into userOnline and userOffline', () => {
+      const onOnline = jest.fn();
+      const onOffline = jest.fn();
+      const onPresenceChanged = jest.fn();
+      const ack = jest.fn();
+      service.on('userOnline', onOnline);
+      service.on('userOffline', onOffline);
+      service.on('presenceChanged', onPresenceChanged);
+
+      receive('presenceChanged', { online: ['user-1', 'user-2'], offline: ['user-3'] }, ack);
+
+      expect(onOnline).toHaveBeenCalledTimes(2);
+      expect(onOnline).toHaveBeenNthCalledWith(1, { userId: 'user-1' });
+      expect(onOnline).toHaveBeenNthCalledWith(2, { userId: 'user-2' });
+      expect(onOffline).toHaveBeenCalledTimes(1);
+      expect(onOffline).toHaveBeenCalledWith({ userId: 'user-3' });
+      expect(onPresenceChanged).not.toHaveBeenCalled();
+      expect(ack).toHaveBeenCalledTimes(1);
+    });
+
+    it('should accept a presenceChanged frame with a single list', () => {
+      const onOnline = jest.fn();
+      const onOffline = jest.fn();
+      service.on('userOnline', onOnline);
+      service.on('userOffline', onOffline);
+
+      receive('presenceChanged', { offline: ['user-3'] });
+
+      expect(onOnline).not.toHaveBeenCalled();
+      expect(onOffline).toHaveBeenCalledWith({ userId: 'user-3' });
+    });
+  });
+
   describe('messaging methods', () => {
     it('should have joinConversation method', () => {
       expect(typeof socketService.joinConversation).toBe('function');
@@ -51,7 +51,9 @@ class SocketService {
 
     return new Promise<void>((resolve) => {
       this.socket = io(SOCKET_URL, {
-        query: { token }, // netty-socketio reads token via getSingleUrlParam("token")
+        // netty-socketio reads token via getSingleUrlParam("token");
+        // acks=1 tells the server this client acks every event, so it may pace on them
+        query: { token, acks: '1' },
         transports: ['websocket'],
         reconnection: true,
         reconnectionAttempts: 5,
@@ -95,14 +97,29 @@ class SocketService {
 
       // Re-emit events to registered listeners
       this.socket.onAny((event, ...args) => {
-        const eventListeners = this.listeners.get(event);
-        if (eventListeners) {
-          eventListeners.forEach((listener) => listener(...args));
+        // The server asks for an ack of every event to pace what it sends
+        const ack = typeof args[args.length - 1] === 'function' ? args.pop() : undefined;
+        // Several friends changed at once: the server coalesces them into one frame
+        if (event === 'presenceChanged') {
+          const { online = [], offline = [] } = args[0] ?? {};
+          online.forEach((userId: string) => this.dispatch('userOnline', { userId }));
+          offline.forEach((userId: string) => this.dispatch('userOffline', { userId }));
+        } else {
+          this.dispatch(event, ...args);
         }
+        ack?.();
       });
     });
   }
 
+  // eslint-disable-next-line @typescript-eslint/no-explicit-any
+  private dispatch(event: string, ...args: any[]): void {
+    const eventListeners = this.listeners.get(event);
+    if (eventListeners) {
+      eventListeners.forEach((listener) => listener(...args));
+    }
+  }
+
   disconnect(): void {
     if (this.socket) {
       this.socket.disconnect();